@@ -641,7 +641,7 @@ suite = {
 
     "JS_INTEROP_MICRO_BENCHMARKS" : {
       "subDir" : "src",
-      "description" : "Graal.js JMH Interop Suite",
+      "description" : "Graal.js JMH Micro Benchmark Suite",
       "dependencies" : ["com.oracle.truffle.js.jmh"],
       "exclude" : [
         "mx:JUNIT"
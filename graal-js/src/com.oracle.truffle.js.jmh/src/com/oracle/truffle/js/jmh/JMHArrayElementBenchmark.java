@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Indexed element reads and writes from JavaScript code, for each of the main array storage
+ * strategies ({@code ScriptArray} kinds): contiguous int, double and object arrays, arrays with
+ * holes, sparse arrays, and typed arrays.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHArrayElementBenchmark {
+    @State(Scope.Thread)
+    public static class MyState {
+        protected static final int ELEMENT_COUNT = 10000;
+        protected static final int SPARSE_STRIDE = 1000;
+
+        @Param({"int", "double", "object", "holes", "sparse", "Int32Array", "Float64Array"}) String kind;
+
+        Context context;
+        Value array;
+        Value readElements;
+        Value writeElements;
+        int stride;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            context = Context.create("js");
+            stride = kind.equals("sparse") ? SPARSE_STRIDE : 1;
+            array = context.eval("js", "(function(kind, count, stride) {\n" +
+                            "  var a;\n" +
+                            "  switch (kind) {\n" +
+                            "    case 'Int32Array': a = new Int32Array(count); break;\n" +
+                            "    case 'Float64Array': a = new Float64Array(count); break;\n" +
+                            "    default: a = [];\n" +
+                            "  }\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    switch (kind) {\n" +
+                            "      case 'double': case 'Float64Array': a[i] = i + 0.5; break;\n" +
+                            "      case 'object': a[i] = {value: i}; break;\n" +
+                            "      case 'holes': if (i % 2 === 0) { a[i] = i; } break;\n" +
+                            "      default: a[i * stride] = i;\n" +
+                            "    }\n" +
+                            "  }\n" +
+                            "  if (kind === 'holes') {\n" +
+                            "    a.length = count;\n" +
+                            "  }\n" +
+                            "  return a;\n" +
+                            "})").execute(kind, ELEMENT_COUNT, stride);
+            readElements = context.eval("js", "(function(a, count, stride) {\n" +
+                            "  var result = 0;\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    if (a[i * stride] !== undefined) {\n" +
+                            "      result++;\n" +
+                            "    }\n" +
+                            "  }\n" +
+                            "  return result;\n" +
+                            "})");
+            writeElements = context.eval("js", "(function(a, count, stride) {\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    var index = i * stride;\n" +
+                            "    var value = a[index];\n" +
+                            "    if (value !== undefined) {\n" +
+                            "      a[index] = value;\n" +
+                            "    }\n" +
+                            "  }\n" +
+                            "  return count;\n" +
+                            "})");
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int testReadElements(MyState state) {
+        return state.readElements.execute(state.array, MyState.ELEMENT_COUNT, state.stride).asInt();
+    }
+
+    @Benchmark
+    public int testWriteElements(MyState state) {
+        return state.writeElements.execute(state.array, MyState.ELEMENT_COUNT, state.stride).asInt();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Atomics.wait/notify ping-pong between the main agent and {@link MyState#AGENT_COUNT} agents,
+ * each waiting on its own location of a shared buffer. In every round, the main agent bumps and
+ * notifies the location of each agent and spins until all agents have acknowledged the round in a
+ * second location, so the score depends on how well waiter lists of different locations scale.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHAtomicsBenchmark {
+    @State(Scope.Thread)
+    public static class MyState {
+        protected static final int AGENT_COUNT = 8;
+
+        Context context;
+        Value round;
+        Value stop;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            context = Context.newBuilder("js").allowExperimentalOptions(true).option("js.test262-mode", "true").build();
+            Value pingPong = context.eval("js", "(function(agentCount) {\n" +
+                            "  for (let k = 0; k < agentCount; k++) {\n" +
+                            "    $262.agent.start(`\n" +
+                            "      $262.agent.receiveBroadcast(function(sab) {\n" +
+                            "        const ia = new Int32Array(sab);\n" +
+                            "        for (let r = 1; ; r++) {\n" +
+                            "          let value;\n" +
+                            "          while ((value = Atomics.load(ia, ${k})) !== r) {\n" +
+                            "            if (value < 0) {\n" +
+                            "              $262.agent.report(r - 1);\n" +
+                            "              $262.agent.leaving();\n" +
+                            "              return;\n" +
+                            "            }\n" +
+                            "            Atomics.wait(ia, ${k}, r - 1);\n" +
+                            "          }\n" +
+                            "          Atomics.store(ia, ${agentCount + k}, r);\n" +
+                            "        }\n" +
+                            "      });\n" +
+                            "    `);\n" +
+                            "  }\n" +
+                            "  const ia = new Int32Array(new SharedArrayBuffer(Int32Array.BYTES_PER_ELEMENT * agentCount * 2));\n" +
+                            "  $262.agent.broadcast(ia.buffer);\n" +
+                            "  let r = 0;\n" +
+                            "  return {\n" +
+                            "    round() {\n" +
+                            "      r++;\n" +
+                            "      for (let k = 0; k < agentCount; k++) {\n" +
+                            "        Atomics.store(ia, k, r);\n" +
+                            "        Atomics.notify(ia, k);\n" +
+                            "      }\n" +
+                            "      for (let k = 0; k < agentCount; k++) {\n" +
+                            "        while (Atomics.load(ia, agentCount + k) !== r) {}\n" +
+                            "      }\n" +
+                            "      return r;\n" +
+                            "    },\n" +
+                            "    stop() {\n" +
+                            "      for (let k = 0; k < agentCount; k++) {\n" +
+                            "        Atomics.store(ia, k, -1);\n" +
+                            "        Atomics.notify(ia, k);\n" +
+                            "      }\n" +
+                            "      let reports = 0;\n" +
+                            "      while (reports < agentCount) {\n" +
+                            "        if ($262.agent.getReport() !== null) {\n" +
+                            "          reports++;\n" +
+                            "        } else {\n" +
+                            "          $262.agent.sleep(1);\n" +
+                            "        }\n" +
+                            "      }\n" +
+                            "    }\n" +
+                            "  };\n" +
+                            "})").execute(AGENT_COUNT);
+            round = pingPong.getMember("round");
+            stop = pingPong.getMember("stop");
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            stop.execute();
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int testPingPong(MyState state) {
+        return state.round.execute().asInt();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Startup costs: creating and initializing a context, with a new or a shared engine, and parsing
+ * a script that is not found in the source cache.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHContextBenchmark {
+    @State(Scope.Thread)
+    public static class MyState {
+        protected static final int FUNCTION_COUNT = 200;
+
+        Engine engine;
+        Context context;
+        String code;
+        int sourceCount;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            engine = Engine.create();
+            context = Context.create("js");
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < FUNCTION_COUNT; i++) {
+                sb.append("function f").append(i).append("(a, b) {\n");
+                sb.append("  var o = {x: a, y: b, name: 'f").append(i).append("'};\n");
+                sb.append("  for (var i = 0; i < a; i++) { o.x += i * b; }\n");
+                sb.append("  return o.x > 100 ? [o.name, o.x].join(':') : o.y;\n");
+                sb.append("}\n");
+            }
+            code = sb.toString();
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            context.close();
+            engine.close();
+        }
+    }
+
+    @Benchmark
+    public int testCreateContext(MyState state) {
+        try (Context context = Context.create("js")) {
+            return context.eval("js", "1").asInt();
+        }
+    }
+
+    @Benchmark
+    public int testCreateContextSharedEngine(MyState state) {
+        try (Context context = Context.newBuilder("js").engine(state.engine).build()) {
+            return context.eval("js", "1").asInt();
+        }
+    }
+
+    @Benchmark
+    public Value testParse(MyState state) {
+        Source source = Source.newBuilder("js", state.code, "parse" + (state.sourceCount++) + ".js").cached(false).buildLiteral();
+        return state.context.parse(source);
+    }
+}
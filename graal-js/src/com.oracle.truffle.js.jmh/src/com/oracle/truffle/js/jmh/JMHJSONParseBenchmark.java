@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JSON.parse of record arrays. In {@code testParseRecords}, all records share the same key
+ * sequence, so objects after the first one are built from cached shape transitions. In
+ * {@code testParseShuffledRecords}, every record uses a different key order, which defeats the
+ * cache and shows the cost of the generic property definition path. {@code testParseNumbers} parses
+ * an array of coordinates, i.e. mostly non-integral numbers.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHJSONParseBenchmark {
+    @State(Scope.Thread)
+    public static class MyState {
+        protected static final int RECORD_COUNT = 10000;
+        private static final String[] KEYS = {"id", "name", "active", "score", "tags", "owner"};
+
+        Context context;
+        Value parse;
+        String records;
+        String shuffledRecords;
+        String numbers;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            context = Context.create("js");
+            parse = context.eval("js", "(function(text) { return JSON.parse(text).length; })");
+            records = createRecords(false);
+            shuffledRecords = createRecords(true);
+            numbers = createNumbers();
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            context.close();
+        }
+
+        private static String createRecords(boolean shuffled) {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < RECORD_COUNT; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append('{');
+                for (int k = 0; k < KEYS.length; k++) {
+                    int key = shuffled ? (k + i) % KEYS.length : k;
+                    if (k > 0) {
+                        sb.append(',');
+                    }
+                    sb.append('"').append(KEYS[key]).append("\":").append(createValue(key, i));
+                }
+                sb.append('}');
+            }
+            return sb.append(']').toString();
+        }
+
+        private static String createNumbers() {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < RECORD_COUNT; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                double angle = i * 0.001;
+                sb.append('[').append(Math.sin(angle) * 180).append(',').append(Math.cos(angle) * 90).append(',').append(i * 1.5e-7).append(']');
+            }
+            return sb.append(']').toString();
+        }
+
+        private static String createValue(int key, int i) {
+            switch (key) {
+                case 0:
+                    return String.valueOf(i);
+                case 1:
+                    return "\"record " + i + "\"";
+                case 2:
+                    return String.valueOf(i % 2 == 0);
+                case 3:
+                    return String.valueOf(i * 0.25);
+                case 4:
+                    return "[\"a\",\"b\"]";
+                default:
+                    return "{\"id\":" + (i % 100) + ",\"name\":\"owner\"}";
+            }
+        }
+    }
+
+    @Benchmark
+    public int testParseRecords(MyState state) {
+        return state.parse.execute(state.records).asInt();
+    }
+
+    @Benchmark
+    public int testParseShuffledRecords(MyState state) {
+        return state.parse.execute(state.shuffledRecords).asInt();
+    }
+
+    @Benchmark
+    public int testParseNumbers(MyState state) {
+        return state.parse.execute(state.numbers).asInt();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JSON.stringify of an array of records, with and without indentation, and a parse/stringify round
+ * trip. {@code testStringifyNumbers} serializes an array of coordinates, i.e. mostly non-integral
+ * numbers. See {@link JMHJSONParseBenchmark} for parsing alone.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHJSONStringifyBenchmark {
+    @State(Scope.Thread)
+    public static class MyState {
+        protected static final int RECORD_COUNT = 10000;
+
+        Context context;
+        Value records;
+        Value numbers;
+        Value stringify;
+        Value stringifyIndented;
+        Value roundTrip;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            context = Context.create("js");
+            records = context.eval("js", "(function(count) {\n" +
+                            "  var records = [];\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    records.push({id: i, name: 'record ' + i, active: i % 2 === 0, score: i * 0.25, tags: ['a', 'b'], owner: {id: i % 100, name: 'owner'}});\n" +
+                            "  }\n" +
+                            "  return records;\n" +
+                            "})").execute(RECORD_COUNT);
+            numbers = context.eval("js", "(function(count) {\n" +
+                            "  var numbers = [];\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    numbers.push([Math.sin(i * 0.001) * 180, Math.cos(i * 0.001) * 90, i * 1.5e-7]);\n" +
+                            "  }\n" +
+                            "  return numbers;\n" +
+                            "})").execute(RECORD_COUNT);
+            stringify = context.eval("js", "(function(value) { return JSON.stringify(value).length; })");
+            stringifyIndented = context.eval("js", "(function(value) { return JSON.stringify(value, null, 2).length; })");
+            roundTrip = context.eval("js", "(function(value) { return JSON.parse(JSON.stringify(value)).length; })");
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int testStringify(MyState state) {
+        return state.stringify.execute(state.records).asInt();
+    }
+
+    @Benchmark
+    public int testStringifyIndented(MyState state) {
+        return state.stringifyIndented.execute(state.records).asInt();
+    }
+
+    @Benchmark
+    public int testStringifyNumbers(MyState state) {
+        return state.stringify.execute(state.numbers).asInt();
+    }
+
+    @Benchmark
+    public int testRoundTrip(MyState state) {
+        return state.roundTrip.execute(state.records).asInt();
+    }
+}
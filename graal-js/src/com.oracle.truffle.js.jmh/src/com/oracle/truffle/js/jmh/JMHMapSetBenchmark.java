@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Insertion and lookup in Map and Set, with integer and string keys.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHMapSetBenchmark {
+    @State(Scope.Thread)
+    public static class MyState {
+        protected static final int ENTRY_COUNT = 10000;
+
+        Context context;
+        Value mapIntKeys;
+        Value mapStringKeys;
+        Value setIntKeys;
+        Value iterateMap;
+        Value map;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            context = Context.create("js");
+            mapIntKeys = context.eval("js", "(function(count) {\n" +
+                            "  var map = new Map();\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    map.set(i, i);\n" +
+                            "  }\n" +
+                            "  var sum = 0;\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    sum += map.get(i);\n" +
+                            "  }\n" +
+                            "  return sum;\n" +
+                            "})");
+            mapStringKeys = context.eval("js", "(function(count) {\n" +
+                            "  var map = new Map();\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    map.set('key' + i, i);\n" +
+                            "  }\n" +
+                            "  var sum = 0;\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    sum += map.get('key' + i);\n" +
+                            "  }\n" +
+                            "  return sum;\n" +
+                            "})");
+            setIntKeys = context.eval("js", "(function(count) {\n" +
+                            "  var set = new Set();\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    set.add(i * 3);\n" +
+                            "  }\n" +
+                            "  var found = 0;\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    if (set.has(i)) {\n" +
+                            "      found++;\n" +
+                            "    }\n" +
+                            "  }\n" +
+                            "  return found;\n" +
+                            "})");
+            map = context.eval("js", "(function(count) {\n" +
+                            "  var map = new Map();\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    map.set('key' + i, i);\n" +
+                            "  }\n" +
+                            "  return map;\n" +
+                            "})").execute(ENTRY_COUNT);
+            iterateMap = context.eval("js", "(function(map) {\n" +
+                            "  var sum = 0;\n" +
+                            "  for (var [key, value] of map) {\n" +
+                            "    sum += value;\n" +
+                            "  }\n" +
+                            "  return sum;\n" +
+                            "})");
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int testMapIntKeys(MyState state) {
+        return state.mapIntKeys.execute(MyState.ENTRY_COUNT).asInt();
+    }
+
+    @Benchmark
+    public int testMapStringKeys(MyState state) {
+        return state.mapStringKeys.execute(MyState.ENTRY_COUNT).asInt();
+    }
+
+    @Benchmark
+    public int testSetIntKeys(MyState state) {
+        return state.setIntKeys.execute(MyState.ENTRY_COUNT).asInt();
+    }
+
+    @Benchmark
+    public int testIterateMap(MyState state) {
+        return state.iterateMap.execute(state.map).asInt();
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * RegExp matching on a log-like text: iterating over all matches of a global regular expression
+ * with {@code exec}, testing every line, and a global {@code replace} with a replacement function.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHRegExpBenchmark {
+    @State(Scope.Thread)
+    public static class MyState {
+        protected static final int LINE_COUNT = 1000;
+
+        Context context;
+        Value text;
+        Value execAll;
+        Value testLines;
+        Value replace;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            context = Context.create("js");
+            text = context.eval("js", "(function(count) {\n" +
+                            "  var lines = [];\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    lines.push('2020-06-' + (10 + i % 20) + ' host' + (i % 7) + ' user' + i + '@example.com GET /path/' + i + ' ' + (i % 5 === 0 ? 404 : 200));\n" +
+                            "  }\n" +
+                            "  return lines.join('\\n');\n" +
+                            "})").execute(LINE_COUNT);
+            execAll = context.eval("js", "(function(text) {\n" +
+                            "  var re = /(\\w+)@(\\w+)\\.com/g;\n" +
+                            "  var count = 0;\n" +
+                            "  var match;\n" +
+                            "  while ((match = re.exec(text)) !== null) {\n" +
+                            "    count += match[1].length;\n" +
+                            "  }\n" +
+                            "  return count;\n" +
+                            "})");
+            testLines = context.eval("js", "(function(text) {\n" +
+                            "  var lines = text.split('\\n');\n" +
+                            "  var count = 0;\n" +
+                            "  for (var i = 0; i < lines.length; i++) {\n" +
+                            "    if (/ 404$/.test(lines[i])) {\n" +
+                            "      count++;\n" +
+                            "    }\n" +
+                            "  }\n" +
+                            "  return count;\n" +
+                            "})");
+            replace = context.eval("js", "(function(text) {\n" +
+                            "  return text.replace(/\\d{4}-(\\d{2})-(\\d{2})/g, function(m, month, day) { return day + '.' + month + '.'; }).length;\n" +
+                            "})");
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int testExec(MyState state) {
+        return state.execAll.execute(state.text).asInt();
+    }
+
+    @Benchmark
+    public int testTest(MyState state) {
+        return state.testLines.execute(state.text).asInt();
+    }
+
+    @Benchmark
+    public int testReplace(MyState state) {
+        return state.replace.execute(state.text).asInt();
+    }
+}
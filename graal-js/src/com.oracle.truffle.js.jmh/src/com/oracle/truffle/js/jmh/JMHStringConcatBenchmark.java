@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * String building by repeated concatenation, followed by a character access that flattens the
+ * resulting lazy string. The short variants use {@code +=} with a two-character string, for which
+ * the cost of every single concatenation dominates.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHStringConcatBenchmark {
+    @State(Scope.Thread)
+    public static class MyState {
+        protected static final int PART_COUNT = 10000;
+        protected static final int SHORT_PART_COUNT = 200000;
+
+        Context context;
+        Value append;
+        Value prepend;
+        Value join;
+        Value appendShort;
+        Value prependShort;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            context = Context.create("js");
+            append = context.eval("js", "(function(count) {\n" +
+                            "  var s = '';\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    s += 'item ' + i + ', ';\n" +
+                            "  }\n" +
+                            "  return s.charCodeAt(s.length >> 1) + s.length;\n" +
+                            "})");
+            prepend = context.eval("js", "(function(count) {\n" +
+                            "  var s = '';\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    s = 'item ' + i + ', ' + s;\n" +
+                            "  }\n" +
+                            "  return s.charCodeAt(s.length >> 1) + s.length;\n" +
+                            "})");
+            join = context.eval("js", "(function(count) {\n" +
+                            "  var parts = [];\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    parts.push('item ' + i);\n" +
+                            "  }\n" +
+                            "  var s = parts.join(', ');\n" +
+                            "  return s.charCodeAt(s.length >> 1) + s.length;\n" +
+                            "})");
+            appendShort = context.eval("js", "(function(count) {\n" +
+                            "  var s = '';\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    s += 'ab';\n" +
+                            "  }\n" +
+                            "  return s.charCodeAt(s.length >> 1) + s.length;\n" +
+                            "})");
+            prependShort = context.eval("js", "(function(count) {\n" +
+                            "  var s = '';\n" +
+                            "  for (var i = 0; i < count; i++) {\n" +
+                            "    s = 'ab' + s;\n" +
+                            "  }\n" +
+                            "  return s.charCodeAt(s.length >> 1) + s.length;\n" +
+                            "})");
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int testAppend(MyState state) {
+        return state.append.execute(MyState.PART_COUNT).asInt();
+    }
+
+    @Benchmark
+    public int testPrepend(MyState state) {
+        return state.prepend.execute(MyState.PART_COUNT).asInt();
+    }
+
+    @Benchmark
+    public int testJoin(MyState state) {
+        return state.join.execute(MyState.PART_COUNT).asInt();
+    }
+
+    @Benchmark
+    public int testAppendShort(MyState state) {
+        return state.appendShort.execute(MyState.SHORT_PART_COUNT).asInt();
+    }
+
+    @Benchmark
+    public int testPrependShort(MyState state) {
+        return state.prependShort.execute(MyState.SHORT_PART_COUNT).asInt();
+    }
+}
@@ -114,6 +114,7 @@ import com.oracle.truffle.js.runtime.objects.PromiseCapabilityRecord;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.Pair;
+import com.oracle.truffle.js.runtime.util.ParseCache;
 
 import static com.oracle.truffle.js.lang.JavaScriptLanguage.MODULE_MIME_TYPE;
 import static com.oracle.truffle.js.lang.JavaScriptLanguage.MODULE_SOURCE_NAME_SUFFIX;
@@ -206,10 +207,29 @@ public final class GraalJSEvaluator implements JSParser {
     @TruffleBoundary
     private static Object doEvaluate(JSRealm realm, Node lastNode, Object thisObj, MaterializedFrame materializedFrame, Source source, boolean isStrict, DirectEvalContext directEval) {
         JSContext context = realm.getContext();
-        ScriptNode scriptNode = parseEval(context, lastNode, source, isStrict, directEval);
+        ScriptNode scriptNode = parseEvalCached(context, lastNode, source, isStrict, directEval);
         return runParsed(scriptNode, realm, thisObj, materializedFrame);
     }
 
+    /**
+     * Looks up the parsed eval code in the context's parse cache. Direct eval code is only reused by
+     * the same call site, since its translation depends on the scope of the caller.
+     */
+    private static ScriptNode parseEvalCached(JSContext context, Node lastNode, Source source, boolean isStrict, DirectEvalContext directEval) {
+        ParseCache cache = context.getParseCache();
+        if (!cache.isEnabled()) {
+            return parseEval(context, lastNode, source, isStrict, directEval);
+        }
+        context.checkEvalAllowed();
+        ParseCache.Key key = ParseCache.evalKey(source.getCharacters().toString(), source.getName(), isStrict, source.isInternal(), directEval);
+        ScriptNode scriptNode = cache.get(key);
+        if (scriptNode == null) {
+            scriptNode = parseEval(context, lastNode, source, isStrict, directEval);
+            cache.put(key, scriptNode);
+        }
+        return scriptNode;
+    }
+
     private static Object runParsed(ScriptNode scriptNode, JSRealm realm, Object thisObj, MaterializedFrame materializedFrame) {
         DynamicObject functionObj = JSFunction.create(realm, scriptNode.getFunctionData(), materializedFrame);
         return scriptNode.run(JSArguments.createZeroArg(thisObj, functionObj));
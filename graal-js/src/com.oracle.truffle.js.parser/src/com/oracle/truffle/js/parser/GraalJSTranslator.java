@@ -313,6 +313,7 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
         assert !isDerivedConstructor || isConstructor;
         boolean strictFunctionProperties = isStrict || isArrowFunction || isMethod || isGeneratorFunction;
         boolean isBuiltin = false;
+        boolean isNumericCompare = !isClassConstructor && isNumericCompareFunction(functionNode);
 
         boolean isGlobal;
         boolean isEval = false;
@@ -347,7 +348,7 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
             boolean needsParentFrame = functionNode.usesAncestorScope();
 
             functionData = factory.createFunctionData(context, functionNode.getLength(), functionName, isConstructor, isDerivedConstructor, isStrict, isBuiltin,
-                            needsParentFrame, isGeneratorFunction, isAsyncFunction, isClassConstructor, strictFunctionProperties, needsNewTarget);
+                            needsParentFrame, isGeneratorFunction, isAsyncFunction, isClassConstructor, strictFunctionProperties, needsNewTarget, isNumericCompare);
 
             LexicalContext savedLC = lc.copy();
             Environment parentEnv = environment;
@@ -393,7 +394,7 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
                 currentFunction.freeze();
 
                 functionData = factory.createFunctionData(context, functionNode.getLength(), functionName, isConstructor, isDerivedConstructor, isStrict, isBuiltin,
-                                needsParentFrame, isGeneratorFunction, isAsyncFunction, isClassConstructor, strictFunctionProperties, needsNewTarget);
+                                needsParentFrame, isGeneratorFunction, isAsyncFunction, isClassConstructor, strictFunctionProperties, needsNewTarget, isNumericCompare);
 
                 functionRoot = createFunctionRoot(functionNode, functionData, currentFunction, body);
 
@@ -420,6 +421,34 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
         return functionExpression;
     }
 
+    /**
+     * Checks if the function has the form of {@code (a, b) => a - b}, i.e., it has two distinct
+     * simple parameters and its body is a single return of their difference. Such a function is
+     * free of side effects when called with numbers.
+     */
+    private static boolean isNumericCompareFunction(FunctionNode functionNode) {
+        if (functionNode.getNumOfParams() != 2 || !functionNode.hasSimpleParameterList() || functionNode.isGenerator() || functionNode.isAsync()) {
+            return false;
+        }
+        List<Statement> statements = functionNode.getBody().getStatements();
+        if (statements.size() != 1 || !(statements.get(0) instanceof com.oracle.js.parser.ir.ReturnNode)) {
+            return false;
+        }
+        Expression expression = ((com.oracle.js.parser.ir.ReturnNode) statements.get(0)).getExpression();
+        if (!(expression instanceof BinaryNode) || !expression.isTokenType(TokenType.SUB)) {
+            return false;
+        }
+        Expression lhs = ((BinaryNode) expression).getLhs();
+        Expression rhs = ((BinaryNode) expression).getRhs();
+        if (!(lhs instanceof IdentNode) || !(rhs instanceof IdentNode)) {
+            return false;
+        }
+        String first = functionNode.getParameters().get(0).getName();
+        String second = functionNode.getParameters().get(1).getName();
+        // (a, a) => a - a is not a numeric comparison
+        return !first.equals(second) && ((IdentNode) lhs).getName().equals(first) && ((IdentNode) rhs).getName().equals(second);
+    }
+
     JavaScriptNode translateFunctionBody(FunctionNode functionNode, boolean isGeneratorFunction, boolean isAsyncFunction, boolean isDerivedConstructor, boolean needsNewTarget,
                     FunctionEnvironment currentFunction, List<JavaScriptNode> declarations) {
         JavaScriptNode body = transform(functionNode.getBody());
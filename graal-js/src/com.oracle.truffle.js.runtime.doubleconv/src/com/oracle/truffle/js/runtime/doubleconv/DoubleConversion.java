@@ -88,6 +88,11 @@ public final class DoubleConversion {
     private static final int kMaxExponentialDigits = 120;
     private static final int kBase10MaximalLength = 17;
 
+    /**
+     * Maximal length of the shortest string representation of a double number.
+     */
+    public static final int kShortestMaximalLength = SchubfachDtoa.kMaximalLength;
+
     /**
      * Converts a double number to its shortest string representation.
      *
@@ -95,12 +100,21 @@ public final class DoubleConversion {
      * @return formatted number
      */
     public static String toShortest(final double value) {
-        assert Double.isFinite(value) : value;
+        final StringBuilder builder = new StringBuilder(kShortestMaximalLength);
+        toShortest(value, builder);
+        return builder.toString();
+    }
 
-        final DtoaBuffer buffer = new DtoaBuffer(FastDtoa.kFastDtoaMaximalLength);
-        dtoaShortest(value, buffer);
+    /**
+     * Appends the shortest string representation of a double number to a string builder.
+     *
+     * @param value number to convert
+     * @param builder builder to append to
+     */
+    public static void toShortest(final double value, final StringBuilder builder) {
+        assert Double.isFinite(value) : value;
 
-        return buffer.format(DtoaMode.SHORTEST, 0);
+        SchubfachDtoa.shortest(value, builder);
     }
 
     private static void dtoaShortest(final double value, final DtoaBuffer buffer) {
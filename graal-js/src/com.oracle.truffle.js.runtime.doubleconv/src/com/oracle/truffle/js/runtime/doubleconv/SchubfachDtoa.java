@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.doubleconv;
+
+import java.math.BigInteger;
+
+/**
+ * Shortest decimal representation of a double value using the Schubfach algorithm, see Raffaello
+ * Giulietti, "The Schubfach way to render doubles" (2020).
+ *
+ * Among the decimals of minimal length that round to the value, the one closest to the value is
+ * chosen, with ties broken towards an even last digit, as required by ECMAScript Number::toString.
+ * Unlike {@link FastDtoa}, the algorithm is exact for all inputs and needs no {@link BignumDtoa}
+ * fallback. The digits are computed in a {@code long} and appended directly to a
+ * {@link StringBuilder} without an intermediate {@link DtoaBuffer}.
+ */
+final class SchubfachDtoa {
+
+    /** Maximum length of the result, e.g. {@code -0.0000012345678901234567}. */
+    static final int kMaximalLength = 25;
+
+    private static final int kPrecision = 53;
+    private static final int kMinExponent = -1074;
+    private static final long kMinSignificand = 1L << (kPrecision - 1);
+    /**
+     * Subnormal significands below this value are scaled by 10 so that the rounding interval is
+     * computed precisely enough.
+     */
+    private static final long kTinySignificand = 3;
+    private static final int kMinDecimalExponent = -324;
+    private static final int kMaxDecimalExponent = 292;
+    private static final long kMask63 = (1L << 63) - 1;
+
+    private static final long[] kPowersOfTen = {
+                    1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L, 10000000000L, 100000000000L,
+                    1000000000000L, 10000000000000L, 100000000000000L, 1000000000000000L, 10000000000000000L, 100000000000000000L,
+                    1000000000000000000L};
+
+    private SchubfachDtoa() {
+    }
+
+    static void shortest(final double value, final StringBuilder builder) {
+        assert Double.isFinite(value) : value;
+        final long bits = Double.doubleToRawLongBits(value);
+        if (value < 0) {
+            builder.append('-');
+        }
+        final long fraction = bits & (kMinSignificand - 1);
+        final int biasedExponent = (int) (bits >>> (kPrecision - 1)) & 0x7FF;
+        if (biasedExponent != 0) {
+            final int exponent = kMinExponent - 1 + biasedExponent;
+            final long c = kMinSignificand | fraction;
+            if (-kPrecision < exponent && exponent < 0) {
+                // integers below 2^53 are printed exactly
+                final long integer = c >> -exponent;
+                if (integer << -exponent == c) {
+                    appendDecimal(builder, integer, 0);
+                    return;
+                }
+            }
+            toDecimal(builder, exponent, c, 0);
+        } else if (fraction != 0) {
+            if (fraction < kTinySignificand) {
+                toDecimal(builder, kMinExponent, 10 * fraction, -1);
+            } else {
+                toDecimal(builder, kMinExponent, fraction, 0);
+            }
+        } else {
+            builder.append('0');
+        }
+    }
+
+    /**
+     * Appends the shortest decimal of {@code c * 2^q * 10^dk}.
+     */
+    private static void toDecimal(final StringBuilder builder, final int q, final long c, final int dk) {
+        // the rounding interval is [vbl, vbr] / 4 (scaled by 10^-k), open unless c is even
+        final int out = (int) c & 1;
+        final long cb = c << 2;
+        final long cbr = cb + 2;
+        final long cbl;
+        final int k;
+        if (c != kMinSignificand || q == kMinExponent) {
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            // the next smaller double is closer than the next larger one
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        final int h = q + floorLog2Pow10(-k) + 2;
+        final int index = (k - kMinDecimalExponent) * 2;
+        final long g1 = Powers.kTable[index];
+        final long g0 = Powers.kTable[index + 1];
+
+        final long vb = roundToOdd(g1, g0, cb << h);
+        final long vbl = roundToOdd(g1, g0, cbl << h);
+        final long vbr = roundToOdd(g1, g0, cbr << h);
+
+        final long s = vb >> 2;
+        if (s >= 10) {
+            // try one digit less: sp10 = 10 * floor(s / 10)
+            final long sp10 = 10 * multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            final long tp10 = sp10 + 10;
+            final boolean upin = vbl + out <= sp10 << 2;
+            final boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                appendDecimal(builder, upin ? sp10 : tp10, k + dk);
+                return;
+            } else if (upin) {
+                // only possible for the smallest subnormals, which have a wide rounding interval
+                final long cmp = vb - ((sp10 + tp10) << 1);
+                appendDecimal(builder, cmp < 0 || (cmp == 0 && ((sp10 / 10) & 1) == 0) ? sp10 : tp10, k + dk);
+                return;
+            }
+        }
+        final long t = s + 1;
+        final boolean uin = vbl + out <= s << 2;
+        final boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            appendDecimal(builder, uin ? s : t, k + dk);
+            return;
+        }
+        // both s and t are in the rounding interval, choose the closer one
+        final long cmp = vb - ((s + t) << 1);
+        appendDecimal(builder, cmp < 0 || (cmp == 0 && (s & 1) == 0) ? s : t, k + dk);
+    }
+
+    /**
+     * Computes {@code cp * g * 2^-127} rounded to odd, where {@code g = g1 * 2^63 + g0}.
+     */
+    private static long roundToOdd(final long g1, final long g0, final long cp) {
+        final long x1 = multiplyHigh(g0, cp);
+        final long y0 = g1 * cp;
+        final long y1 = multiplyHigh(g1, cp);
+        final long z = (y0 >>> 1) + x1;
+        final long vbp = y1 + (z >>> 63);
+        return vbp | (((z & kMask63) + kMask63) >>> 63);
+    }
+
+    /**
+     * Appends {@code f * 10^e} in the format of ECMAScript Number::toString.
+     */
+    private static void appendDecimal(final StringBuilder builder, final long decimal, final int exponent) {
+        assert decimal > 0;
+        long f = decimal;
+        int e = exponent;
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        final int length = digitCount(f);
+        final int decimalPoint = length + e;
+        if (0 < decimalPoint && decimalPoint <= 21) {
+            if (e >= 0) {
+                builder.append(f);
+                appendZeros(builder, e);
+            } else {
+                final long divisor = kPowersOfTen[-e];
+                builder.append(f / divisor).append('.');
+                appendPadded(builder, f % divisor, -e);
+            }
+        } else if (-6 < decimalPoint && decimalPoint <= 0) {
+            builder.append('0').append('.');
+            appendZeros(builder, -decimalPoint);
+            builder.append(f);
+        } else {
+            if (length == 1) {
+                builder.append(f);
+            } else {
+                final long divisor = kPowersOfTen[length - 1];
+                builder.append(f / divisor).append('.');
+                appendPadded(builder, f % divisor, length - 1);
+            }
+            builder.append('e').append(decimalPoint > 0 ? '+' : '-').append(Math.abs(decimalPoint - 1));
+        }
+    }
+
+    private static void appendPadded(final StringBuilder builder, final long value, final int width) {
+        appendZeros(builder, width - digitCount(value));
+        builder.append(value);
+    }
+
+    private static void appendZeros(final StringBuilder builder, final int count) {
+        for (int i = 0; i < count; i++) {
+            builder.append('0');
+        }
+    }
+
+    private static int digitCount(final long value) {
+        int count = 1;
+        while (count < kPowersOfTen.length && value >= kPowersOfTen[count]) {
+            count++;
+        }
+        return count;
+    }
+
+    private static int floorLog10Pow2(final int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    private static int floorLog10ThreeQuartersPow2(final int e) {
+        return (int) ((e * 661_971_961_083L - 274_743_187_321L) >> 41);
+    }
+
+    private static int floorLog2Pow10(final int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    /**
+     * Same as {@code Math.multiplyHigh}, which is not available on JDK 8.
+     */
+    private static long multiplyHigh(final long x, final long y) {
+        final long x1 = x >> 32;
+        final long x2 = x & 0xFFFF_FFFFL;
+        final long y1 = y >> 32;
+        final long y2 = y & 0xFFFF_FFFFL;
+        final long z2 = x2 * y2;
+        final long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xFFFF_FFFFL;
+        final long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    /**
+     * The values {@code g = floor(10^-k * 2^-r) + 1} for {@code k} in
+     * [{@link #kMinDecimalExponent}, {@link #kMaxDecimalExponent}], where {@code r} is chosen so
+     * that {@code 2^125 <= g < 2^126}, split into {@code g1 = floor(g / 2^63)} and
+     * {@code g0 = g mod 2^63}.
+     */
+    private static final class Powers {
+        static final long[] kTable = createTable();
+
+        private static long[] createTable() {
+            final long[] table = new long[(kMaxDecimalExponent - kMinDecimalExponent + 1) * 2];
+            final BigInteger mask63 = BigInteger.valueOf(kMask63);
+            for (int k = kMinDecimalExponent; k <= kMaxDecimalExponent; k++) {
+                final int r = floorLog2Pow10(-k) - 125;
+                BigInteger numerator = k <= 0 ? BigInteger.TEN.pow(-k) : BigInteger.ONE;
+                BigInteger denominator = k > 0 ? BigInteger.TEN.pow(k) : BigInteger.ONE;
+                if (r < 0) {
+                    numerator = numerator.shiftLeft(-r);
+                } else {
+                    denominator = denominator.shiftLeft(r);
+                }
+                final BigInteger g = numerator.divide(denominator).add(BigInteger.ONE);
+                assert g.bitLength() == 126 : k;
+                final int index = (k - kMinDecimalExponent) * 2;
+                table[index] = g.shiftRight(63).longValue();
+                table[index + 1] = g.and(mask63).longValue();
+            }
+            return table;
+        }
+    }
+}
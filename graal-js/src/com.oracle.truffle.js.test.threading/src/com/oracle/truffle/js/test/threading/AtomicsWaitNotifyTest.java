@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.threading;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+/**
+ * Multi-agent Atomics.wait/notify tests. Every agent waits on its own location of a shared buffer.
+ */
+public class AtomicsWaitNotifyTest {
+
+    private static Context newAgentContext() {
+        return Context.newBuilder("js").allowExperimentalOptions(true).option("js.test262-mode", "true").build();
+    }
+
+    /**
+     * Ping-pong between the main agent and {@code agentCount} agents: in every round, the main
+     * agent bumps and notifies the location of each agent, and each agent acknowledges the round
+     * in a second location once it has been woken up.
+     */
+    @Test
+    public void testPingPong() {
+        final int agentCount = 8;
+        final int rounds = 500;
+        try (Context context = newAgentContext()) {
+            String code = "const agentCount = " + agentCount + ", rounds = " + rounds + ";\n" +
+                            "for (let k = 0; k < agentCount; k++) {\n" +
+                            "  $262.agent.start(`\n" +
+                            "    $262.agent.receiveBroadcast(function(sab) {\n" +
+                            "      const ia = new Int32Array(sab);\n" +
+                            "      let completed = 0;\n" +
+                            "      for (let r = 1; r <= ${rounds}; r++) {\n" +
+                            "        while (Atomics.load(ia, ${k}) !== r) {\n" +
+                            "          Atomics.wait(ia, ${k}, r - 1);\n" +
+                            "        }\n" +
+                            "        Atomics.store(ia, ${agentCount + k}, r);\n" +
+                            "        completed++;\n" +
+                            "      }\n" +
+                            "      $262.agent.report(completed);\n" +
+                            "      $262.agent.leaving();\n" +
+                            "    });\n" +
+                            "  `);\n" +
+                            "}\n" +
+                            "const sab = new SharedArrayBuffer(Int32Array.BYTES_PER_ELEMENT * agentCount * 2);\n" +
+                            "const ia = new Int32Array(sab);\n" +
+                            "$262.agent.broadcast(sab);\n" +
+                            "for (let r = 1; r <= rounds; r++) {\n" +
+                            "  for (let k = 0; k < agentCount; k++) {\n" +
+                            "    Atomics.store(ia, k, r);\n" +
+                            "    Atomics.notify(ia, k);\n" +
+                            "  }\n" +
+                            "  for (let k = 0; k < agentCount; k++) {\n" +
+                            "    while (Atomics.load(ia, agentCount + k) !== r) {}\n" +
+                            "  }\n" +
+                            "}\n" +
+                            "const reports = [];\n" +
+                            "while (reports.length < agentCount) {\n" +
+                            "  const report = $262.agent.getReport();\n" +
+                            "  if (report !== null) {\n" +
+                            "    reports.push(report);\n" +
+                            "  } else {\n" +
+                            "    $262.agent.sleep(1);\n" +
+                            "  }\n" +
+                            "}\n" +
+                            "[reports.join(), Array.prototype.join.call(ia)];";
+            Value result = context.eval("js", code);
+            String[] expectedReports = new String[agentCount];
+            String[] expectedCounters = new String[agentCount * 2];
+            Arrays.fill(expectedReports, String.valueOf(rounds));
+            Arrays.fill(expectedCounters, String.valueOf(rounds));
+            assertEquals(String.join(",", expectedReports), result.getArrayElement(0).asString());
+            assertEquals(String.join(",", expectedCounters), result.getArrayElement(1).asString());
+        }
+    }
+
+    /**
+     * Waiter lists are keyed by the byte index in the buffer, so a notification through a different
+     * view of the same location wakes the waiter.
+     */
+    @Test
+    public void testNotifyThroughDifferentView() {
+        try (Context context = newAgentContext()) {
+            String code = "$262.agent.start(`\n" +
+                            "  $262.agent.receiveBroadcast(function(sab) {\n" +
+                            "    const ia = new Int32Array(sab);\n" +
+                            "    Atomics.store(ia, 0, 1);\n" +
+                            "    $262.agent.report(Atomics.wait(ia, 1, 0));\n" +
+                            "    $262.agent.leaving();\n" +
+                            "  });\n" +
+                            "`);\n" +
+                            "const sab = new SharedArrayBuffer(Int32Array.BYTES_PER_ELEMENT * 4);\n" +
+                            "const ia = new Int32Array(sab);\n" +
+                            "const shifted = new Int32Array(sab, Int32Array.BYTES_PER_ELEMENT);\n" +
+                            "$262.agent.broadcast(sab);\n" +
+                            "while (Atomics.load(ia, 0) === 0) {}\n" +
+                            "let count = 0;\n" +
+                            "while (count === 0) {\n" +
+                            "  count = Atomics.notify(shifted, 0);\n" +
+                            "  $262.agent.sleep(1);\n" +
+                            "}\n" +
+                            "let report;\n" +
+                            "while ((report = $262.agent.getReport()) === null) {\n" +
+                            "  $262.agent.sleep(1);\n" +
+                            "}\n" +
+                            "count + ':' + report + ':' + Atomics.notify(ia, 2);";
+            assertEquals("1:ok:0", context.eval("js", code).asString());
+        }
+    }
+}
@@ -81,4 +81,69 @@ public class ArrayPrototypeBuiltins {
         }
     }
 
+    private static void assertSortResult(Context context, String expected, String code) {
+        Value value = context.eval(JavaScriptLanguage.ID, code);
+        assertTrue(value.isString());
+        assertEquals(expected, value.asString());
+    }
+
+    @Test
+    public void testSortIntArray() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            assertSortResult(context, "-10,-2,-2147483648,0,1,10,100,2,2147483647,9", "[10, 2, -2, 100, 0, 9, 1, -10, 2147483647, -2147483648].sort().join()");
+            assertSortResult(context, "-2147483648,-10,-2,0,1,2,9,10,100,2147483647", "[10, 2, -2, 100, 0, 9, 1, -10, 2147483647, -2147483648].sort((a, b) => a - b).join()");
+            assertSortResult(context, "-2147483648,-10,-2,0,1,2,9,10,100,2147483647",
+                            "[10, 2, -2, 100, 0, 9, 1, -10, 2147483647, -2147483648].sort(function(x, y) { return x - y; }).join()");
+            assertSortResult(context, "100,10,9,2,1,0,-2,-10", "[10, 2, -2, 100, 0, 9, 1, -10].sort((a, b) => b - a).join()");
+            // contiguous (non-zero-based) backing store
+            assertSortResult(context, "1,12,3", "var a = [5, 12, 1, 3]; a.shift(); a.sort().join()");
+        }
+    }
+
+    @Test
+    public void testSortNumericCompareFunctions() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            assertSortResult(context, "-2,1,3,10", "[10, 3, -2, 1].sort((a, b) => /* ascending */ a - b).join()");
+            assertSortResult(context, "-2,1,3,10", "[10, 3, -2, 1].sort(new Function('a', 'b', 'return a - b')).join()");
+            assertSortResult(context, "-2,1,3,10", "[10, 3, -2, 1].sort({compare(a, b) { return a - b; }}.compare).join()");
+            assertSortResult(context, "10,3,-2,1", "[10, 3, -2, 1].sort(function(a, a) { return a - a; }).join()");
+            assertSortResult(context, "TypeError", "class C { constructor(a, b) { return a - b; } }; try { [2, 1].sort(C); 'no error'; } catch (e) { e.constructor.name; }");
+        }
+    }
+
+    @Test
+    public void testSortDoubleArray() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            assertSortResult(context, "-1.5,0.5,10.25,1e+21,2.5,NaN", "[2.5, NaN, 0.5, 1e21, -1.5, 10.25].sort().join()");
+            assertSortResult(context, "-1.5,0.5,2.5,10.25,1e+21", "[2.5, 0.5, 1e21, -1.5, 10.25].sort((a, b) => a - b).join()");
+            // stable: -0 and +0 compare equal
+            assertSortResult(context, "-2,-Infinity,Infinity,2", "[0.5, -0, 0, -0.5].sort((a, b) => a - b).map(x => 1 / x).join()");
+        }
+    }
+
+    @Test
+    public void testSortWithNaN() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            // SortCompare maps NaN to +0, so the result must match the generic sort of an array-like
+            String generic = "Array.from(Array.prototype.sort.call({0: 3, 1: NaN, 2: 1, 3: 2, 4: 0.5, length: 5}, (a, b) => a - b)).join()";
+            String expected = context.eval(JavaScriptLanguage.ID, generic).asString();
+            assertSortResult(context, expected, "[3, NaN, 1, 2, 0.5].sort((a, b) => a - b).join()");
+            assertSortResult(context, expected, "var a = [3, 0, 1, 2, 0.5]; a[1] = NaN; a.sort((a, b) => a - b).join()");
+            assertSortResult(context, expected, "new Float64Array([3, NaN, 1, 2, 0.5]).sort((a, b) => a - b).join()");
+            assertSortResult(context, "0.5,1,2,3,NaN", "new Float64Array([3, NaN, 1, 2, 0.5]).sort().join()");
+        }
+    }
+
+    @Test
+    public void testSortTypedArray() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            assertSortResult(context, "-128,-1,0,5,127", "new Int8Array([5, -1, 127, 0, -128]).sort().join()");
+            assertSortResult(context, "0,1,2147483648,4294967295", "new Uint32Array([4294967295, 1, 2147483648, 0]).sort().join()");
+            assertSortResult(context, "0,1,2147483648,4294967295", "new Uint32Array([4294967295, 1, 2147483648, 0]).sort((a, b) => a - b).join()");
+            assertSortResult(context, "-Infinity,-1.5,0,0,2.5,Infinity,NaN", "new Float64Array([NaN, 0, 2.5, -0, Infinity, -1.5, -Infinity]).sort().join()");
+            assertSortResult(context, "-Infinity,Infinity", "Array.from(new Float64Array([0, -0]).sort()).map(x => 1 / x).join()");
+            assertSortResult(context, "-2.5,0.5,1.5", "new Float32Array([1.5, -2.5, 0.5]).sort((a, b) => a - b).join()");
+            assertSortResult(context, "3,2,1", "new Int16Array([1, 3, 2]).sort((a, b) => b - a).join()");
+        }
+    }
 }
@@ -80,4 +80,71 @@ public class AtomicsBuiltinsTest {
         }
     }
 
+    @Test
+    public void testElementTypes() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            String code = "const sab = new SharedArrayBuffer(16);\n" //
+                            + "const u8 = new Uint8Array(sab), i8 = new Int8Array(sab), i16 = new Int16Array(sab), u16 = new Uint16Array(sab);\n" //
+                            + "const i32 = new Int32Array(sab), u32 = new Uint32Array(sab), i64 = new BigInt64Array(sab), u64 = new BigUint64Array(sab);\n" //
+                            + "const r = [];\n" //
+                            + "r.push(Atomics.store(i8, 1, -2), Atomics.add(i8, 1, 1), Atomics.load(i8, 1), Atomics.load(u8, 1), u8[0], u8[2]);\n" //
+                            + "r.push(Atomics.compareExchange(u8, 1, 255, 7), Atomics.compareExchange(u8, 1, 8, 9), Atomics.exchange(i8, 1, 300), i8[1]);\n" //
+                            + "r.push(Atomics.store(u16, 3, 0xFFFF), Atomics.sub(i16, 3, 1), Atomics.load(u16, 3), Atomics.xor(u16, 3, 0xFF), i16[3], u8[5]);\n" //
+                            + "r.push(Atomics.store(u32, 2, 0xFFFFFFFF), Atomics.or(i32, 2, 0), Atomics.and(u32, 2, 0xF0F0), Atomics.compareExchange(u32, 2, 0xF0F0, 0x80000000), u32[2]);\n" //
+                            + "r.push(String(Atomics.store(i64, 1, -5n)), String(Atomics.add(u64, 1, 6n)), String(Atomics.load(i64, 1)));\n" //
+                            + "r.push(String(Atomics.compareExchange(u64, 1, 1n, 2n ** 64n - 1n)), String(Atomics.load(i64, 1)), String(Atomics.compareExchange(i64, 1, 0n, 3n)));\n" //
+                            + "r.join();"; //
+            Assert.assertEquals("-2,-2,-1,255,0,0," + //
+                            "255,7,7,44," + //
+                            "65535,-1,65534,65534,-255,0," + //
+                            "4294967295,-1,4294967295,61680,2147483648," + //
+                            "-5,18446744073709551611,1," + //
+                            "1,-1,-1", context.eval(JavaScriptLanguage.ID, code).asString());
+        }
+    }
+
+    /**
+     * Agents concurrently update adjacent elements of different sizes that share the same words, so
+     * lost updates of an element or of its neighbors would show up in the final values.
+     */
+    @Test
+    public void testConcurrentUpdates() {
+        int agentCount = 4;
+        int iterations = 10000;
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.TEST262_MODE_NAME, "true").build()) {
+            String code = "const agentCount = " + agentCount + ", iterations = " + iterations + ";\n" //
+                            + "for (let k = 0; k < agentCount; k++) {\n" //
+                            + "  $262.agent.start(`\n" //
+                            + "    $262.agent.receiveBroadcast(function(sab) {\n" //
+                            + "      const u8 = new Uint8Array(sab), u16 = new Uint16Array(sab), i32 = new Int32Array(sab), i64 = new BigInt64Array(sab);\n" //
+                            + "      for (let i = 0; i < ${iterations}; i++) {\n" //
+                            + "        Atomics.add(u8, ${k}, 1);\n" //
+                            + "        Atomics.add(u16, 2 + (${k} & 1), 1);\n" //
+                            + "        Atomics.sub(i32, 2, 1);\n" //
+                            + "        Atomics.add(i64, 2, 1n);\n" //
+                            + "        let v;\n" //
+                            + "        do {\n" //
+                            + "          v = Atomics.load(i32, 3);\n" //
+                            + "        } while (Atomics.compareExchange(i32, 3, v, v + 2) !== v);\n" //
+                            + "      }\n" //
+                            + "      Atomics.add(i32, 6, 1);\n" //
+                            + "      $262.agent.leaving();\n" //
+                            + "    });\n" //
+                            + "  `);\n" //
+                            + "}\n" //
+                            + "const sab = new SharedArrayBuffer(32);\n" //
+                            + "const i32 = new Int32Array(sab);\n" //
+                            + "$262.agent.broadcast(sab);\n" //
+                            + "while (Atomics.load(i32, 6) !== agentCount) {\n" //
+                            + "  $262.agent.sleep(1);\n" //
+                            + "}\n" //
+                            + "const u8 = new Uint8Array(sab), u16 = new Uint16Array(sab), i64 = new BigInt64Array(sab);\n" //
+                            + "[u8[0], u8[1], u8[2], u8[3], u16[2], u16[3], i32[2], i32[3], String(i64[2])].join();"; //
+            int perAgent = iterations & 0xFF;
+            int perAgentPair = (iterations * 2) & 0xFFFF;
+            Assert.assertEquals(perAgent + "," + perAgent + "," + perAgent + "," + perAgent + "," + perAgentPair + "," + perAgentPair + "," + //
+                            (-agentCount * iterations) + "," + (2 * agentCount * iterations) + "," + (agentCount * iterations),
+                            context.eval(JavaScriptLanguage.ID, code).asString());
+        }
+    }
 }
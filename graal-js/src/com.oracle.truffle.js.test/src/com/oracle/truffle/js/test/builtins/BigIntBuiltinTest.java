@@ -86,4 +86,16 @@ public class BigIntBuiltinTest {
     public void testLiteral() {
         testIntl("42n", "Missing space after");
     }
+
+    @Test
+    public void testLongOverflow() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            String source = "var max = 2n ** 63n - 1n, min = -(2n ** 63n); var a = new BigInt64Array(2); a[0] = max + 1n; a[1] = min;" +
+                            "[max + 1n, min - 1n, max * 2n, min * -1n, min / -1n, -min, max + 1n - 1n === max, max < max + 1n, min - 1n < min," +
+                            "max + 1n > 1e19, 10n ** 18n * 10n, a[0], a[1] * a[1], 3n * 4n + 1n, 7n < 7.5, 7n == 7, 7n > 6.5].join()";
+            Assert.assertEquals("9223372036854775808,-9223372036854775809,18446744073709551614,9223372036854775808,9223372036854775808,9223372036854775808," +
+                            "true,true,true,false,10000000000000000000,-9223372036854775808,85070591730234615865843651857942052864,13,true,true,true",
+                            context.eval(JavaScriptLanguage.ID, source).asString());
+        }
+    }
 }
@@ -46,6 +46,7 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.PolyglotException;
 import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
@@ -116,4 +117,66 @@ public class EvalTest {
         assertTrueResult("var a = function() { return a.caller; }; var b = function() { return (0, eval)('a()'); }; b() == b;");
     }
 
+    private static Value parseCacheStatistics(Context context) {
+        return context.eval(JavaScriptLanguage.ID, "Debug.parseCacheStatistics()");
+    }
+
+    @Test
+    public void testParseCacheSharedAcrossContexts() {
+        try (Engine engine = JSTest.newEngineBuilder().build()) {
+            Context[] contexts = new Context[3];
+            try {
+                for (int i = 0; i < contexts.length; i++) {
+                    Context context = JSTest.newContextBuilder().engine(engine).option(JSContextOptions.DEBUG_BUILTIN_NAME, "true").build();
+                    contexts[i] = context;
+                    Value before = parseCacheStatistics(context);
+                    // unique script per context, so that the parsed AST is not shared
+                    Value result = context.eval(JavaScriptLanguage.ID, "var f = new Function('a', 'return a + 1;'); [(0, eval)('6 * 7'), f(41)] // " + i);
+                    assertEquals(42, result.getArrayElement(0).asInt());
+                    assertEquals(42, result.getArrayElement(1).asInt());
+                    Value after = parseCacheStatistics(context);
+                    long hits = after.getMember("hits").asLong() - before.getMember("hits").asLong();
+                    long misses = after.getMember("misses").asLong() - before.getMember("misses").asLong();
+                    if (i == 0) {
+                        assertEquals(2, misses);
+                    } else {
+                        // the Function constructor may also be served by its own inline cache
+                        assertTrue(hits >= 1);
+                        assertEquals(0, misses);
+                    }
+                }
+            } finally {
+                for (Context context : contexts) {
+                    if (context != null) {
+                        context.close();
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParseCacheKeys() {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.DEBUG_BUILTIN_NAME, "true").build()) {
+            // same code in different scopes, and in strict and sloppy mode
+            Value result = context.eval(JavaScriptLanguage.ID, "" +
+                            "var code = 'var v = typeof x; v';\n" +
+                            "function f1(x) { return eval(code); }\n" +
+                            "function f2() { return eval(code); }\n" +
+                            "function f3() { 'use strict'; eval(code); return typeof v; }\n" +
+                            "function f4() { eval(code); return typeof v; }\n" +
+                            "[f1(1), f2(), f1('s'), f2(), f3(), f4()].join();");
+            assertEquals("number,undefined,string,undefined,undefined,string", result.asString());
+        }
+    }
+
+    @Test
+    public void testParseCacheSize() {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.DEBUG_BUILTIN_NAME, "true").option(JSContextOptions.PARSE_CACHE_SIZE_NAME, "2").build()) {
+            context.eval(JavaScriptLanguage.ID, "for (var i = 0; i < 10; i++) { (0, eval)('' + i); }");
+            Value statistics = parseCacheStatistics(context);
+            assertEquals(2, statistics.getMember("size").asInt());
+            assertEquals(8, statistics.getMember("evictions").asInt());
+        }
+    }
 }
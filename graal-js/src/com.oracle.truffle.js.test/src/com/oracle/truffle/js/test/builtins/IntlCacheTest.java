@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.builtins;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Tests for the cache of Intl formatters and collators used by toLocaleString and localeCompare.
+ */
+public class IntlCacheTest {
+
+    private static Context.Builder newContextBuilder() {
+        return JSTest.newContextBuilder().option(JSContextOptions.INTL_402_NAME, "true").option(JSContextOptions.DEBUG_BUILTIN_NAME, "true");
+    }
+
+    private static Context newContext() {
+        return newContextBuilder().build();
+    }
+
+    private static Value eval(Context context, String code) {
+        return context.eval(JavaScriptLanguage.ID, code);
+    }
+
+    private static String statistics(Context context) {
+        return eval(context, "var s = Debug.intlCacheStatistics(); [s.hits, s.misses, s.size].join()").asString();
+    }
+
+    @Test
+    public void testNumberFormat() {
+        try (Context context = newContext()) {
+            String result = eval(context, "var r = []; for (var i = 0; i < 10; i++) { r.push((1234.5 + i).toLocaleString('de'), BigInt(i).toLocaleString('de')); }" +
+                            "var nf = new Intl.NumberFormat('de'); r.join() === r.map((s, i) => i % 2 ? nf.format(BigInt(i >> 1)) : nf.format(1234.5 + (i >> 1))).join()").toString();
+            assertEquals("true", result);
+            // Number and BigInt share the number format
+            assertEquals("19,1,1", statistics(context));
+        }
+    }
+
+    @Test
+    public void testLocaleCompare() {
+        try (Context context = newContext()) {
+            String result = eval(context, "var a = ['z', 'ä', 'a', 'Z', 'b', 'ö', 'o']; var c = new Intl.Collator('sv');" +
+                            "a.slice().sort((x, y) => x.localeCompare(y, 'sv')).join() === a.slice().sort(c.compare).join()").toString();
+            assertEquals("true", result);
+            Value s = eval(context, "Debug.intlCacheStatistics()");
+            assertEquals(1, s.getMember("misses").asInt());
+            assertEquals(1, s.getMember("size").asInt());
+        }
+    }
+
+    @Test
+    public void testDateTimeFormat() {
+        try (Context context = newContext()) {
+            String result = eval(context, "var d = new Date(2020, 6, 15, 13, 14, 15); var r = [];" +
+                            "for (var i = 0; i < 3; i++) { r.push(d.toLocaleString('en'), d.toLocaleDateString('en'), d.toLocaleTimeString('en')); }" +
+                            "[r[0] !== r[1], r[1] !== r[2], r.slice(0, 3).join() === r.slice(6).join(), r[1] === new Intl.DateTimeFormat('en').format(d)].join()").asString();
+            assertEquals("true,true,true,true", result);
+            // each method formats different fields
+            assertEquals("6,3,3", statistics(context));
+        }
+    }
+
+    @Test
+    public void testOptionsNotCached() {
+        try (Context context = newContext()) {
+            String result = eval(context, "var reads = 0; var options = { get style() { reads++; return 'percent'; } };" +
+                            "var r = [(0.5).toLocaleString('en', options), (0.25).toLocaleString('en', options), (0.5).toLocaleString(['en'])]; r.push(reads); r.join('|')").asString();
+            assertEquals("50%|25%|0.5|2", result);
+            assertEquals("0,0,0", statistics(context));
+        }
+    }
+
+    @Test
+    public void testInvalidLocale() {
+        try (Context context = newContext()) {
+            String result = eval(context, "var r = []; for (var i = 0; i < 2; i++) { try { (1).toLocaleString('x-invalid-'); } catch (e) { r.push(e.name); } } r.join()").asString();
+            assertEquals("RangeError,RangeError", result);
+            assertEquals("0,2,0", statistics(context));
+        }
+    }
+
+    @Test
+    public void testCacheSize() {
+        try (Context context = newContextBuilder().option(JSContextOptions.INTL_CACHE_SIZE_NAME, "2").build()) {
+            eval(context, "['en', 'de', 'fr', 'en'].forEach(l => (1).toLocaleString(l))");
+            Value s = eval(context, "Debug.intlCacheStatistics()");
+            assertEquals(2, s.getMember("size").asInt());
+            assertEquals(2, s.getMember("evictions").asInt());
+            assertEquals(4, s.getMember("misses").asInt());
+        }
+    }
+
+    @Test
+    public void testSharedAcrossContexts() {
+        try (Engine engine = JSTest.newEngineBuilder().build()) {
+            for (int i = 0; i < 3; i++) {
+                try (Context context = newContextBuilder().engine(engine).build()) {
+                    assertEquals("1.234,5", eval(context, "(1234.5).toLocaleString('de')").asString());
+                    assertEquals(i + ",1,1", statistics(context));
+                }
+            }
+        }
+    }
+}
@@ -43,8 +43,16 @@ package com.oracle.truffle.js.test.builtins;
 import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.PolyglotException;
 import org.graalvm.polyglot.Value;
 import org.junit.Test;
 
@@ -61,4 +69,78 @@ public class JSONParseTest {
         }
     }
 
+    @Test
+    public void testJSONParseRecords() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            String json = "[{\"a\": 1, \"b\": \"x\"}, {\"a\": 1.5, \"b\": {\"a\": true}}, {\"a\" : null ,\"b\":2, \"c\": 3}, " +
+                            "{\"b\": 1, \"a\": 2}, {\"a\\u0062\": 1, \"a\": 2, \"a\": 3}, {\"\\\"\": 1}, {\"\\\"\": 2}, {\"1\": 1, \"0\": 0}, " +
+                            "{\"__proto__\": 1, \"a\": 2}, {\"__proto__\": [], \"a\": 3}]";
+            Value result = context.eval(ID, "var p = JSON.parse('" + json.replace("\\", "\\\\") + "'); " +
+                            "JSON.stringify(p.map(o => Object.getOwnPropertyNames(o).map(k => k + '=' + JSON.stringify(o[k])).join(';')))");
+            assertEquals("[\"a=1;b=\\\"x\\\"\",\"a=1.5;b={\\\"a\\\":true}\",\"a=null;b=2;c=3\",\"b=1;a=2\",\"ab=1;a=3\",\"\\\"=1\",\"\\\"=2\",\"0=0;1=1\"," +
+                            "\"__proto__=1;a=2\",\"__proto__=[];a=3\"]", result.asString());
+            assertTrue(context.eval(ID, "p.every(o => Object.getPrototypeOf(o) === Object.prototype)").asBoolean());
+        }
+    }
+
+    private static final String STREAM_TEST_JSON = "{\"a\": [1, -2.5e3, true, false, null], \"s\": \"x\\u0041\\n\\ud83d\\ude00\", " +
+                    "\"nested\": {\"big\": 9007199254740993, \"zero\": -0, \"\u00e9\": \"\ud83d\ude00\"}}";
+
+    private static String longJSONArray() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 20000; i++) {
+            if (i > 0) {
+                sb.append(",\n ");
+            }
+            sb.append("{\"id\": ").append(i).append(", \"name\": \"item").append(i).append("\", \"value\": ").append(i * 0.5).append('}');
+        }
+        return sb.append("]").toString();
+    }
+
+    @Test
+    public void testReadJSON() {
+        try (Context context = JSTest.newContextBuilder().allowHostAccess(HostAccess.ALL).build()) {
+            Value check = context.eval(ID, "(function(parsed, text) { return JSON.stringify(parsed) === JSON.stringify(JSON.parse(text)) && Object.is(parsed.nested.zero, -0); })");
+            Value readJSON = context.eval(ID, "Graal.readJSON");
+            byte[] bytes = STREAM_TEST_JSON.getBytes(StandardCharsets.UTF_8);
+            assertTrue(check.execute(readJSON.execute(new StringReader(STREAM_TEST_JSON)), STREAM_TEST_JSON).asBoolean());
+            assertTrue(check.execute(readJSON.execute(new ByteArrayInputStream(bytes)), STREAM_TEST_JSON).asBoolean());
+            assertTrue(check.execute(readJSON.execute(ByteBuffer.wrap(bytes)), STREAM_TEST_JSON).asBoolean());
+
+            String longText = longJSONArray();
+            Value parsed = readJSON.execute(new StringReader(longText));
+            assertEquals(20000, parsed.getArraySize());
+            assertEquals("item19999", parsed.getArrayElement(19999).getMember("name").asString());
+            assertTrue(context.eval(ID, "(function(parsed, text) { return JSON.stringify(parsed) === JSON.stringify(JSON.parse(text)); })").execute(parsed, longText).asBoolean());
+
+            for (String invalid : new String[]{"", "[1, 2", "{\"a\" 1}", "[01]", "\"abc", "[1] x"}) {
+                try {
+                    readJSON.execute(new StringReader(invalid));
+                    fail(invalid);
+                } catch (PolyglotException ex) {
+                    assertTrue(invalid, ex.isGuestException());
+                    assertTrue(ex.getMessage(), ex.getMessage().startsWith("SyntaxError"));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadJSONPositionAfterRefill() {
+        try (Context context = JSTest.newContextBuilder().allowHostAccess(HostAccess.ALL).build()) {
+            Value readJSON = context.eval(ID, "Graal.readJSON");
+            StringBuilder sb = new StringBuilder("[1,");
+            for (int i = 0; i < 100000; i++) {
+                sb.append(' ');
+            }
+            String padded = sb.toString();
+            assertEquals("[1,\"ab\",2.5]", context.eval(ID, "JSON.stringify").execute(readJSON.execute(new StringReader(padded + "\"ab\", 2.5]"))).asString());
+            try {
+                readJSON.execute(new StringReader(padded + "x]"));
+                fail();
+            } catch (PolyglotException ex) {
+                assertTrue(ex.getMessage(), ex.getMessage().endsWith("at position " + padded.length()));
+            }
+        }
+    }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.builtins;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+public class JSONStringifyTest {
+
+    private static final String TEST_VALUE = "({a: [1, -0.5, 'x\\u2028\\ud800\"', null, undefined, () => 1], b: {c: true, d: new Date(0), e: Symbol()}, f: 12345678901234567890n < 0, '\\u00e9': '\\ud83d\\ude00'})";
+
+    @Test
+    public void testWriteJSON() {
+        try (Context context = JSTest.newContextBuilder().allowHostAccess(HostAccess.ALL).build()) {
+            Value writeJSON = context.eval(ID, "Graal.writeJSON");
+            Value stringify = context.eval(ID, "JSON.stringify");
+            Value value = context.eval(ID, TEST_VALUE);
+            Value replacerFn = context.eval(ID, "(function(k, v) { return typeof v === 'number' ? v * 2 : v; })");
+            Value replacerArray = context.eval(ID, "['a', 'f', 'c', 'b']");
+            Value duplicateReplacerArray = context.eval(ID, "['b', new String('a'), 'b', 'c', 'a', 0, new Number(0)]");
+            ProxyExecutable foreignReplacerFn = (args) -> args[1].isNumber() ? -1 : args[1];
+            Object[][] arguments = {{}, {null, 2}, {replacerFn, "--"}, {replacerArray, "            "}, {duplicateReplacerArray, 1}, {foreignReplacerFn, "\t"}};
+            for (Object[] args : arguments) {
+                Object replacer = args.length > 0 ? args[0] : null;
+                Object space = args.length > 1 ? args[1] : null;
+                String expected = stringify.execute(value, replacer, space).asString();
+
+                StringWriter writer = new StringWriter();
+                assertTrue(writeJSON.execute(writer, value, replacer, space).asBoolean());
+                assertEquals(expected, writer.toString());
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                assertTrue(writeJSON.execute(out, value, replacer, space).asBoolean());
+                assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+            }
+
+            StringWriter writer = new StringWriter();
+            assertFalse(writeJSON.execute(writer, context.eval(ID, "undefined")).asBoolean());
+            assertEquals("", writer.toString());
+        }
+    }
+
+    @Test
+    public void testWriteJSONBeyondStringLengthLimit() {
+        try (Context context = JSTest.newContextBuilder().allowHostAccess(HostAccess.ALL).option(JSContextOptions.STRING_LENGTH_LIMIT_NAME, "100000").build()) {
+            Value value = context.eval(ID, "Array.from({length: 50000}, (_, i) => ({id: i, name: 'item' + i}))");
+            StringWriter writer = new StringWriter();
+            assertTrue(context.eval(ID, "Graal.writeJSON").execute(writer, value).asBoolean());
+            assertTrue(writer.toString().length() > 100000);
+            assertTrue(context.eval(ID, "(function(text) { var a = JSON.parse(text); return a.length === 50000 && a[49999].name === 'item49999'; })").execute(writer.toString()).asBoolean());
+            assertTrue(context.eval(ID, "try { JSON.stringify(Array.from({length: 50000}, (_, i) => ({id: i}))); false; } catch (e) { e instanceof RangeError; }").asBoolean());
+        }
+    }
+
+    @Test
+    public void testStringifyNumberNearStringLengthLimit() {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.STRING_LENGTH_LIMIT_NAME, "12").build()) {
+            assertEquals("[1.5,-0.25]", context.eval(ID, "JSON.stringify([1.5, -0.25])").asString());
+            assertTrue(context.eval(ID, "try { JSON.stringify([1.5, -0.25, 3]); false; } catch (e) { e instanceof RangeError; }").asBoolean());
+        }
+    }
+}
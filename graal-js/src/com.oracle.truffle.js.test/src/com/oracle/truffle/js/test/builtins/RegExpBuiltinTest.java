@@ -41,12 +41,14 @@
 package com.oracle.truffle.js.test.builtins;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.Value;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
 import com.oracle.truffle.js.test.JSTest;
 
 public class RegExpBuiltinTest {
@@ -65,4 +67,59 @@ public class RegExpBuiltinTest {
         }
     }
 
+    private static Context newDebugContext(Engine engine, int regexCacheSize) {
+        Context.Builder builder = JSTest.newContextBuilder().option(JSContextOptions.DEBUG_BUILTIN_NAME, "true").option(JSContextOptions.REGEX_CACHE_SIZE_NAME, String.valueOf(regexCacheSize));
+        return (engine == null ? builder : builder.engine(engine)).build();
+    }
+
+    // evaluates the code and returns the change of the regex cache statistics
+    private static String evalRegexCacheDelta(Context context, String code) {
+        context.eval(JavaScriptLanguage.ID, "var before = Debug.regexCacheStatistics();");
+        Value result = context.eval(JavaScriptLanguage.ID, code);
+        Value delta = context.eval(JavaScriptLanguage.ID, "var after = Debug.regexCacheStatistics(); [after.hits - before.hits, after.misses - before.misses, after.evictions - before.evictions].join()");
+        return result + "|" + delta.asString();
+    }
+
+    @Test
+    public void testRegexCache() {
+        try (Context context = newDebugContext(null, 256)) {
+            String code = "var r = []; for (var j = 0; j < 2; j++) { for (var i = 0; i < 100; i++) { r.push(new RegExp('a' + i + '+', 'g').exec('xa' + i + i).index); } } r.every(x => x === 1)";
+            Assert.assertEquals("true|100,100,0", evalRegexCacheDelta(context, code));
+            // same pattern, different flags
+            Assert.assertEquals("A11,a11,A1|1,2,0", evalRegexCacheDelta(context, "[new RegExp('a1+', 'gi').exec('A11')[0], new RegExp('a1+', 'g').exec('xa11')[0], new RegExp('a1+', 'i').exec('A1')[0]].join()"));
+            // RegExp objects sharing a compiled regex have their own lastIndex
+            Assert.assertEquals("2,3,3|1,1,0", evalRegexCacheDelta(context, "var a = new RegExp('a+', 'g'); var b = new RegExp('a+', 'g'); a.exec('xa'); [a.lastIndex, b.exec('aaa')[0].length, b.lastIndex].join()"));
+        }
+    }
+
+    @Test
+    public void testRegexCacheSyntaxError() {
+        try (Context context = newDebugContext(null, 256)) {
+            String code = "var r = []; for (var i = 0; i < 2; i++) { try { new RegExp('a(' + ''); } catch (e) { r.push(e.name); } } r.join()";
+            Assert.assertEquals("SyntaxError,SyntaxError|0,2,0", evalRegexCacheDelta(context, code));
+        }
+    }
+
+    @Test
+    public void testRegexCacheSize() {
+        try (Context context = newDebugContext(null, 2)) {
+            // the repeated pattern is still in the cache of the RegExp constructor call site
+            String code = "['b1', 'b2', 'b3', 'b1'].map(p => new RegExp(p, 'y').source).join()";
+            Assert.assertEquals("b1,b2,b3,b1|0,3,1", evalRegexCacheDelta(context, code));
+            Assert.assertEquals(2, context.eval(JavaScriptLanguage.ID, "Debug.regexCacheStatistics().size").asInt());
+        }
+    }
+
+    @Test
+    public void testRegexCacheSharedAcrossContexts() {
+        try (Engine engine = JSTest.newEngineBuilder().build()) {
+            for (int i = 0; i < 3; i++) {
+                try (Context context = newDebugContext(engine, 256)) {
+                    // more patterns than the cache of the (shared) RegExp constructor holds
+                    String expected = i == 0 ? "c0c1c2c3c4c5|0,6,0" : "c0c1c2c3c4c5|6,0,0";
+                    Assert.assertEquals(expected, evalRegexCacheDelta(context, "var s = ''; for (var i = 0; i < 6; i++) { s += new RegExp('c' + i, 'm').exec('c' + i)[0]; } s"));
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.BigInt;
+
+/**
+ * Checks the long-backed fast paths of {@link BigInt} against {@link BigInteger} arithmetic, in
+ * particular around the overflow boundaries of {@code long}.
+ */
+public class BigIntArithmeticTest {
+
+    private static final BigInteger[] VALUES = createValues();
+
+    private static BigInteger[] createValues() {
+        long[] longs = {0, 1, -1, 2, -2, 3, 7, -7, 10, Integer.MAX_VALUE, Integer.MIN_VALUE, 1L << 31, 1L << 32, -(1L << 32), (1L << 32) - 1, 3037000499L, 3037000500L,
+                        -3037000500L, 1L << 62, -(1L << 62), Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE - 1, Long.MIN_VALUE + 1, Long.MAX_VALUE / 2, Long.MIN_VALUE / 2};
+        BigInteger[] values = new BigInteger[longs.length + 6];
+        for (int i = 0; i < longs.length; i++) {
+            values[i] = BigInteger.valueOf(longs[i]);
+        }
+        BigInteger twoTo63 = BigInteger.ONE.shiftLeft(63);
+        values[longs.length] = twoTo63;
+        values[longs.length + 1] = twoTo63.negate().subtract(BigInteger.ONE);
+        values[longs.length + 2] = BigInteger.ONE.shiftLeft(64);
+        values[longs.length + 3] = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        values[longs.length + 4] = new BigInteger("123456789012345678901234567890");
+        values[longs.length + 5] = new BigInteger("-123456789012345678901234567890");
+        return values;
+    }
+
+    private static void assertValue(BigInteger expected, BigInt actual) {
+        assertEquals(expected, actual.bigIntegerValue());
+        assertEquals(expected.bitLength() < Long.SIZE, actual.isLong());
+        BigInt reference = new BigInt(expected);
+        assertEquals(reference, actual);
+        assertEquals(reference.hashCode(), actual.hashCode());
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    public void testBinaryOperations() {
+        for (BigInteger x : VALUES) {
+            BigInt a = new BigInt(x);
+            for (BigInteger y : VALUES) {
+                BigInt b = new BigInt(y);
+                assertValue(x.add(y), a.add(b));
+                assertValue(x.subtract(y), a.subtract(b));
+                assertValue(x.multiply(y), a.multiply(b));
+                assertValue(x.and(y), a.and(b));
+                assertValue(x.or(y), a.or(b));
+                assertValue(x.xor(y), a.xor(b));
+                assertEquals(x.compareTo(y), a.compareTo(b));
+                if (y.signum() != 0) {
+                    assertValue(x.divide(y), a.divide(b));
+                    assertValue(x.remainder(y), a.remainder(b));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUnaryOperations() {
+        for (BigInteger x : VALUES) {
+            BigInt a = new BigInt(x);
+            assertValue(x.negate(), a.negate());
+            assertValue(x.not(), a.not());
+            assertEquals(x.signum(), a.signum());
+            assertEquals(x.longValue(), a.longValue());
+            assertEquals(x.intValue(), a.intValue());
+            assertEquals(x.doubleValue(), a.doubleValue(), 0);
+            assertValue(BigInteger.valueOf(x.longValue()), a.toBigInt64());
+            assertValue(x.mod(BigInteger.ONE.shiftLeft(64)), a.toBigUint64());
+            for (int n : new int[]{0, 1, 31, 62, 63, 64, 65, 100}) {
+                assertValue(x.shiftLeft(n), a.shiftLeft(n));
+                assertValue(x.shiftRight(n), a.shiftRight(n));
+                assertEquals(x.testBit(n), a.testBit(n));
+            }
+            assertValue(x.shiftRight(3), a.shiftLeft(-3));
+        }
+    }
+
+    @Test
+    public void testCompareValue() {
+        for (BigInteger x : VALUES) {
+            BigInt a = new BigInt(x);
+            for (BigInteger y : VALUES) {
+                if (y.bitLength() < Long.SIZE) {
+                    assertEquals(x.compareTo(y), a.compareValueTo(y.longValue()));
+                }
+            }
+            double[] doubles = {0, -0.0, 0.5, -0.5, 1.5, -1.5, 1e18, -1e18, 9.223372036854776E18, -9.223372036854776E18, 1e19, -1e19, 1e30, -1e30,
+                            Double.MAX_VALUE, -Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, x.doubleValue(), x.doubleValue() + 0.5,
+                            x.doubleValue() - 0.5};
+            for (double d : doubles) {
+                int expected;
+                if (Double.isInfinite(d)) {
+                    expected = d > 0 ? -1 : 1;
+                } else {
+                    expected = new BigDecimal(x).compareTo(new BigDecimal(d));
+                }
+                assertEquals(x + " <=> " + d, expected, a.compareValueTo(d));
+            }
+        }
+    }
+
+    @Test
+    public void testNormalizedRepresentation() {
+        assertTrue(BigInt.valueOf(Long.MAX_VALUE).isLong());
+        assertFalse(BigInt.valueOf(Long.MAX_VALUE).add(BigInt.ONE).isLong());
+        assertTrue(BigInt.valueOf(Long.MAX_VALUE).add(BigInt.ONE).subtract(BigInt.ONE).isLong());
+        assertFalse(BigInt.valueOfUnsigned(-1).isLong());
+        assertTrue(BigInt.valueOfUnsigned(Long.MAX_VALUE).isLong());
+        assertTrue(new BigInt("7fffffffffffffff", 16).isLong());
+        assertFalse(new BigInt("8000000000000000", 16).isLong());
+        assertEquals(BigInt.valueOf(42), BigInt.valueOf("42"));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Tests for objects in dictionary mode, i.e., objects that store their properties in a hash map.
+ */
+public class DictionaryObjectTest {
+
+    // adding an index property to an empty object turns it into a dictionary object
+    private static final String FUNCTIONS = "function dict() { var o = {}; o[0] = 0; return o; }" +
+                    "function desc(o, k) { var d = Object.getOwnPropertyDescriptor(o, k); return Object.keys(d).map(p => p + ':' + (typeof d[p] === 'function' ? 'f' : d[p])).join(); }";
+
+    private static String eval(String source) {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            return context.eval(JavaScriptLanguage.ID, FUNCTIONS + source).toString();
+        }
+    }
+
+    @Test
+    public void testInsertionOrder() {
+        assertEquals("0,b,c,a|0,b,c,a|1,3,4", eval("var o = dict(); o.b = 1; o.a = 2; o.c = 3; delete o.a; o.a = 4;" +
+                        "[Object.keys(o), Reflect.ownKeys(o), [o.b, o.c, o.a]].join('|')"));
+    }
+
+    @Test
+    public void testManyKeys() {
+        assertEquals("5001,2500,6250000,,2500,k1",
+                        eval("var o = dict(); for (var i = 0; i < 5000; i++) { o['k' + i] = i; } var n = Object.keys(o).length;" +
+                                        "for (var i = 0; i < 5000; i += 2) { delete o['k' + i]; } var sum = 0; for (var k in o) { sum += o[k]; }" +
+                                        "for (var i = 0; i < 5000; i += 2) { o['k' + i] = i; delete o['k' + i]; }" +
+                                        "[n, Object.keys(o).length - 1, sum, o.k0, o.k4999 - o.k2499, Object.keys(o)[1]].join()"));
+    }
+
+    @Test
+    public void testDataAttributes() {
+        assertEquals("value:1,writable:false,enumerable:false,configurable:false|1|false|TypeError|TypeError|value:undefined,writable:false,enumerable:true,configurable:false|0,y",
+                        eval("var o = dict(); Object.defineProperty(o, 'x', {value: 1}); o.x = 2; var r = [desc(o, 'x'), o.x, delete o.x];" +
+                                        "try { (function() { 'use strict'; o.x = 3; })(); } catch (e) { r.push(e.name); }" +
+                                        "try { (function() { 'use strict'; delete o.x; })(); } catch (e) { r.push(e.name); }" +
+                                        "Object.defineProperty(o, 'y', {enumerable: true}); r.push(desc(o, 'y'), Object.keys(o)); r.join('|')"));
+    }
+
+    @Test
+    public void testAccessors() {
+        assertEquals("get:f,set:undefined,enumerable:false,configurable:true|42|42|TypeError|7|true|",
+                        eval("var o = dict(); Object.defineProperty(o, 'g', {get: function() { return this === o ? 42 : -1; }, configurable: true});" +
+                                        "var r = [desc(o, 'g'), o.g]; o.g = 1; r.push(o.g);" +
+                                        "try { (function() { 'use strict'; o.g = 3; })(); } catch (e) { r.push(e.name); }" +
+                                        "var v; Object.defineProperty(o, 's', {get: () => v, set: x => { v = x; }}); o.s = 7; r.push(o.s, delete o.g, o.g); r.join('|')"));
+    }
+
+    @Test
+    public void testTransitionPreservesProperties() {
+        // accessor and non-writable properties are carried over when the object becomes a dictionary
+        assertEquals("0,x,y,z|1|2|3|get:f,set:undefined,enumerable:true,configurable:true|value:2,writable:false,enumerable:false,configurable:true",
+                        eval("var o = {get x() { return 1; }}; Object.defineProperty(o, 'y', {value: 2, configurable: true}); o[0] = 0; o.z = 3;" +
+                                        "[Reflect.ownKeys(o), o.x, o.y, o.z, desc(o, 'x'), desc(o, 'y')].join('|')"));
+    }
+
+    @Test
+    public void testRedefineMakesOrdinaryObject() {
+        // redefining an existing property converts the dictionary back to an ordinary object
+        assertEquals("0,a,b,c|1|5|3|value:5,writable:true,enumerable:false,configurable:true|get:f,set:f,enumerable:true,configurable:true|6",
+                        eval("var o = dict(); var v = 3; o.a = 1; o.b = 2; Object.defineProperty(o, 'c', {get: () => v, set: x => { v = x; }, enumerable: true, configurable: true});" +
+                                        "Object.defineProperty(o, 'b', {value: 5, enumerable: false}); o.c = 3;" +
+                                        "var r = [Reflect.ownKeys(o), o.a, o.b, o.c, desc(o, 'b'), desc(o, 'c')]; o.c = 6; r.push(v); r.join('|')"));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.util.DoubleParser;
+import com.oracle.truffle.js.test.JSTest;
+
+public class DoubleParserTest {
+
+    private static void assertParsed(String input) {
+        double expected = Double.parseDouble(input);
+        double actual = DoubleParser.parse(input, 0, input.length());
+        assertEquals(input, Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual));
+    }
+
+    private static void assertNaN(String input) {
+        assertTrue(input, Double.isNaN(DoubleParser.parse(input, 0, input.length())));
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testEdgeCases() {
+        String[] inputs = {"0", "-0", "+0", "0.0", "-0.0", "00", "0e5", "-0e-5", "1", "-1", "1.", ".5", "+.5", "-.5e1", "1e0", "1E+2", "1e-2",
+                        "0.1", "0.2", "0.3", "123.456", "9007199254740991", "9007199254740992", "9007199254740993", "9007199254740995",
+                        "18446744073709551615", "18446744073709551616", "99999999999999999999", "1e22", "1e23", "8.98846567431158e307",
+                        "1.7976931348623157e308", "1.7976931348623158e308", "1.7976931348623159e308", "1e308", "1e309", "1e400", "1e99999999",
+                        "2.2250738585072011e-308", "2.2250738585072012e-308", "2.2250738585072014e-308", "4.9e-324", "2.4703282292062327e-324",
+                        "2.4703282292062328e-324", "1e-324", "1e-400", "1e-99999999", "0.000000000000000000000000000000000000000000001",
+                        "3.14159265358979323846264338327950288419716939937510582097494459",
+                        "0.1000000000000000055511151231257827021181583404541015625",
+                        "0.1000000000000000055511151231257827021181583404541015624",
+                        "0.1000000000000000055511151231257827021181583404541015626",
+                        "9007199254740993.0000000000000000000000000000000000000001", "1" + repeat('0', 400) + "e-400", "0." + repeat('0', 400) + "1e400",
+                        "1" + repeat('0', 1000000) + "e-1000000", "0." + repeat('0', 1000000) + "1e1000005"};
+        for (String input : inputs) {
+            assertParsed(input);
+        }
+    }
+
+    @Test
+    public void testInvalid() {
+        String[] inputs = {"", "+", "-", ".", "+.", "e5", ".e5", "1e", "1e+", "1e-", "1.5.", "1..5", "1f", "1d", "1.5D", "0x10", "0x1p3",
+                        "Infinity", "-Infinity", "NaN", " 1", "1 ", "1\u0001", "1_000", "--1", "+-1", "1e5.5", "1ee5"};
+        for (String input : inputs) {
+            assertNaN(input);
+        }
+    }
+
+    @Test
+    public void testRange() {
+        String input = "[-12.5e3]";
+        assertEquals(-12.5e3, DoubleParser.parse(input, 1, input.length() - 1), 0);
+        assertEquals(12.5, DoubleParser.parse(input, 2, 6), 0);
+        assertNaN(input);
+    }
+
+    @Test
+    public void testRandomDoubles() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isNaN(value) && !Double.isInfinite(value)) {
+                assertParsed(Double.toString(value));
+                assertParsed(String.format("%.25e", value));
+            }
+            assertParsed(Double.toString(random.nextDouble()));
+            assertParsed(Long.toString(random.nextLong() >>> random.nextInt(64)) + "e" + (random.nextInt(700) - 350));
+        }
+    }
+
+    @Test
+    public void testRandomDigits() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int digits = 1 + random.nextInt(30);
+            int point = random.nextInt(digits + 1);
+            for (int d = 0; d < digits; d++) {
+                if (d == point) {
+                    sb.append('.');
+                }
+                sb.append((char) ('0' + random.nextInt(10)));
+            }
+            sb.append('e').append(random.nextInt(40) - 20);
+            assertParsed(sb.toString());
+        }
+    }
+
+    @Test
+    public void testJavaScript() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            String source = "[Number('  1.5e3\\n'), Number('-.25'), Number('1.5\\u0001'), Number('0x1.8p1'), +'123456789012345678901234567890'," +
+                            "parseFloat('3.25abc'), parseFloat('-1e-3x'), parseFloat('1e'), parseInt('123456789012345678901', 10)," +
+                            "JSON.parse('[0.1, -2.5e-3, 12345678901234567890, -0]').join(':'), 1 / JSON.parse('-0.0')].join()";
+            assertEquals("1500,-0.25,NaN,NaN,1.2345678901234568e+29,3.25,-0.001,1,123456789012345680000,0.1:-0.0025:12345678901234567000:0,-Infinity",
+                            context.eval(JavaScriptLanguage.ID, source).asString());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.doubleconv.DoubleConversion;
+import com.oracle.truffle.js.runtime.doubleconv.DtoaBuffer;
+import com.oracle.truffle.js.runtime.doubleconv.DtoaMode;
+import com.oracle.truffle.js.test.JSTest;
+
+public class DoubleToStringTest {
+
+    /**
+     * Shortest representation computed with the exact (but slow) bignum algorithm.
+     */
+    private static String bignumShortest(double value) {
+        DtoaBuffer buffer = new DtoaBuffer(DtoaBuffer.kFastDtoaMaximalLength);
+        DoubleConversion.bignumDtoa(Math.abs(value), DtoaMode.SHORTEST, 0, buffer);
+        String result = buffer.format(DtoaMode.SHORTEST, 0);
+        return value < 0 ? "-" + result : result;
+    }
+
+    private static void assertShortest(double value) {
+        String expected = bignumShortest(value);
+        assertEquals(expected, DoubleConversion.toShortest(value));
+        StringBuilder builder = new StringBuilder("x");
+        DoubleConversion.toShortest(value, builder);
+        assertEquals("x" + expected, builder.toString());
+        assertEquals(expected, value, Double.parseDouble(expected), 0);
+    }
+
+    @Test
+    public void testEdgeCases() {
+        double[] values = {Double.MIN_VALUE, 2 * Double.MIN_VALUE, 3 * Double.MIN_VALUE, Double.MIN_NORMAL, Math.nextDown(Double.MIN_NORMAL), Double.MAX_VALUE,
+                        Math.nextDown(Double.MAX_VALUE), 1, 1.5, 0.1, 0.2, 0.3, 0.1 + 0.2, 1 / 3.0, 2 / 3.0, 123.456, 1e-6, 1.5e-6, 1e-7, 1.5e-7, 1e20, 1e21,
+                        1.5e21, 123456789012345680000.0, 9007199254740991.0, 9007199254740992.0, 9007199254740994.0, 4294967295.5, 2147483648.0, 5e-324,
+                        1e23, 8.41e21, 5.5626846462680035e-309, 2.2250738585072014e-308, 9.5e-5, 0.000001, 0.0000123, 1.7976931348623157e308};
+        for (double value : values) {
+            assertShortest(value);
+            assertShortest(-value);
+        }
+        for (int e = -1074; e <= 1023; e++) {
+            double power = Math.scalb(1.0, e);
+            assertShortest(power);
+            assertShortest(Math.nextUp(power));
+            if (e > -1074) {
+                assertShortest(Math.nextDown(power));
+            }
+        }
+        for (long bits = 1; bits <= 100000; bits++) {
+            assertShortest(Double.longBitsToDouble(bits));
+        }
+        for (int e = -323; e <= 308; e++) {
+            assertShortest(Double.parseDouble("1e" + e));
+        }
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isNaN(value) && !Double.isInfinite(value) && value != 0) {
+                assertShortest(value);
+            }
+            assertShortest(random.nextDouble());
+            assertShortest(random.nextInt(1000000) / 1000.0);
+        }
+    }
+
+    @Test
+    public void testZero() {
+        assertEquals("0", DoubleConversion.toShortest(0.0));
+        assertEquals("0", DoubleConversion.toShortest(-0.0));
+    }
+
+    @Test
+    public void testJavaScript() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            String source = "[String(0.1 + 0.2), String(-0), (1e21).toString(), 5e-324 + '', String(-1.5e-7), String(123.456), String(2 ** 53 + 2)," +
+                            "JSON.stringify([0.5, -0, 1e300, 1 / 3, 100, -2.5e-10, NaN])].join(' ')";
+            assertEquals("0.30000000000000004 0 1e+21 5e-324 -1.5e-7 123.456 9007199254740994 [0.5,0,1e+300,0.3333333333333333,100,-2.5e-10,null]",
+                            context.eval(JavaScriptLanguage.ID, source).asString());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Tests for Object.keys, Object.values and Object.entries on objects with cached shapes.
+ */
+public class EnumerableOwnPropertiesTest {
+
+    private static final String FUNCTIONS = "function k(o) { return JSON.stringify(Object.keys(o)); }" +
+                    "function v(o) { return JSON.stringify(Object.values(o)); }" +
+                    "function e(o) { return JSON.stringify(Object.entries(o)); }" +
+                    "function all(o) { return [k(o), v(o), e(o)].join(' '); }";
+
+    private static String eval(String source) {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            return context.eval(JavaScriptLanguage.ID, FUNCTIONS + source).asString();
+        }
+    }
+
+    @Test
+    public void testSameShape() {
+        String expected = "[\"a\",\"b\"] [1,\"x\"] [[\"a\",1],[\"b\",\"x\"]]";
+        assertEquals(expected + "|" + expected + "|" + expected, eval("[all({a: 1, b: 'x'}), all({a: 1, b: 'x'}), all({a: 1, b: 'x'})].join('|')"));
+        assertEquals("[\"1\",\"2\",\"b\",\"a\"] [1,2,3,4]", eval("var o = {b: 3, a: 4, 2: 2, 1: 1}; [k(o), v(o)].join(' ')"));
+    }
+
+    @Test
+    public void testResultIsNotShared() {
+        assertEquals("[\"a\",\"b\"] [\"a\",\"b\"] [1,2] [1,2]", eval("var o = {a: 1, b: 2}; var k1 = Object.keys(o); k1.push('c'); var v1 = Object.values(o); v1[0] = 0;" +
+                        "[k({a: 1, b: 2}), k(o), v({a: 1, b: 2}), v(o)].join(' ')"));
+    }
+
+    @Test
+    public void testNonEnumerableAndSymbols() {
+        assertEquals("[\"b\"] [2] [[\"b\",2]]", eval("var o = {b: 2, [Symbol()]: 3}; Object.defineProperty(o, 'a', {value: 1, enumerable: false}); all(o)"));
+    }
+
+    @Test
+    public void testAccessors() {
+        assertEquals("[\"a\",\"b\",\"c\"] [1,3] [[\"a\",1],[\"c\",3]]", eval("function f() { return {get a() { delete this.b; return 1; }, b: 2, c: 3}; }" +
+                        "[k(f()), v(f()), e(f())].join(' ')"));
+    }
+
+    @Test
+    public void testShapeChanges() {
+        assertEquals("[1,2]|[1.5,2]|[1,2]|[1,2,3]|[2]", eval("var r = []; var o = {a: 1, b: 2}; r.push(v(o)); var p = {a: 1, b: 2}; p.a = 1.5; r.push(v(p)); r.push(v(o));" +
+                        "o.c = 3; r.push(v(o)); delete o.a; delete o.c; r.push(v(o)); r.join('|')"));
+    }
+
+    @Test
+    public void testElements() {
+        assertEquals("[\"0\",\"a\"] [0,1] [[\"0\",0],[\"a\",1]]", eval("var o = {a: 1}; all({a: 1}); o[0] = 0; all(o)"));
+        assertEquals("[\"0\",\"1\"] [1,2] [[\"0\",1],[\"1\",2]]", eval("(function() { return all(arguments); })(1, 2)"));
+    }
+}
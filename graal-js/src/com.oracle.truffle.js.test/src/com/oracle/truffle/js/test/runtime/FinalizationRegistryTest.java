@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSAgent;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Tests for the cleanup of FinalizationRegistry cells whose target has been collected.
+ */
+public class FinalizationRegistryTest {
+
+    private static final int MAX_GC_ATTEMPTS = 100;
+
+    private static Context newContext() {
+        return JSTest.newContextBuilder().option(JSContextOptions.ECMASCRIPT_VERSION_NAME, "2021").build();
+    }
+
+    private static JSAgent getAgent(Context context) {
+        context.enter();
+        try {
+            return JavaScriptLanguage.getJSRealm(context).getAgent();
+        } finally {
+            context.leave();
+        }
+    }
+
+    /**
+     * Collects garbage until the given condition holds. The cleanup jobs run when the evaluation
+     * returns.
+     */
+    private static void gcUntil(Context context, String condition) throws InterruptedException {
+        for (int i = 0; i < MAX_GC_ATTEMPTS; i++) {
+            System.gc();
+            if (context.eval(ID, condition).asBoolean()) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testCleanupOfCollectedTargets() throws InterruptedException {
+        try (Context context = newContext()) {
+            context.eval(ID, "var cleaned = [];" +
+                            "var registry = new FinalizationRegistry(held => cleaned.push(held));" +
+                            "(function() { for (var i = 0; i < 10; i++) { registry.register({}, i); } })();" +
+                            "var kept = {}; registry.register(kept, 'kept');" +
+                            "var others = []; for (var i = 0; i < 1000; i++) { others.push(new FinalizationRegistry(() => { throw new Error(); })); }");
+            gcUntil(context, "cleaned.length === 10");
+            assertEquals("0,1,2,3,4,5,6,7,8,9", context.eval(ID, "cleaned.sort((a, b) => a - b).join()").asString());
+            assertEquals(0, getAgent(context).getPendingFinalizationCleanupJobs());
+        }
+    }
+
+    @Test
+    public void testUnregister() throws InterruptedException {
+        try (Context context = newContext()) {
+            context.eval(ID, "var cleaned = [];" +
+                            "var registry = new FinalizationRegistry(held => cleaned.push(held));" +
+                            "var token = {};" +
+                            "(function() { registry.register({}, 'unregistered', token); registry.register({}, 'registered'); })();" +
+                            "var unregistered = registry.unregister(token);");
+            gcUntil(context, "cleaned.length === 1");
+            assertEquals("registered", context.eval(ID, "cleaned.join()").asString());
+            assertTrue(context.eval(ID, "unregistered").asBoolean());
+            assertEquals(0, getAgent(context).getPendingFinalizationCleanupJobs());
+        }
+    }
+
+    @Test
+    public void testCleanupSome() throws InterruptedException {
+        try (Context context = newContext()) {
+            context.eval(ID, "var cleaned = [];" +
+                            "var registry = new FinalizationRegistry(held => cleaned.push(held));" +
+                            "(function() { for (var i = 0; i < 5; i++) { registry.register({}, i); } })();");
+            // every cell is cleaned up exactly once, either by cleanupSome or by the cleanup job
+            gcUntil(context, "registry.cleanupSome(held => cleaned.push(held)); cleaned.length === 5");
+            assertEquals("0,1,2,3,4", context.eval(ID, "cleaned.sort((a, b) => a - b).join()").asString());
+            assertEquals(0, getAgent(context).getPendingFinalizationCleanupJobs());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Tests for-in loops over objects with the same shape, which use the enum cache of the shape.
+ */
+public class ForInEnumCacheTest {
+
+    private static final String KEYS = "function keys(o) { var r = []; for (var k in o) { r.push(k); } return r.join(); }";
+
+    private static String eval(String source) {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.NASHORN_COMPATIBILITY_MODE_NAME, "true").build()) {
+            return context.eval(JavaScriptLanguage.ID, KEYS + source).asString();
+        }
+    }
+
+    @Test
+    public void testSameShape() {
+        assertEquals("a,b,a,b,a,b", eval("[keys({a: 1, b: 2}), keys({a: 3, b: 4}), keys({a: 5, b: 6})].join()"));
+        assertEquals("1,2,a,b|1,2,a,b", eval("[keys({a: 1, b: 2, 2: 0, 1: 0}), keys({a: 1, b: 2, 2: 0, 1: 0})].join('|')"));
+    }
+
+    @Test
+    public void testPrototypeChange() {
+        assertEquals("a,b|a,b,c|a,b|a,b,d|a,b", eval("var o = {a: 1, b: 2}; var r = [keys(o)];" +
+                        "Object.prototype.c = 3; r.push(keys(o)); delete Object.prototype.c; r.push(keys(o));" +
+                        "var p = {d: 4}; Object.setPrototypeOf(o, p); r.push(keys(o)); Object.defineProperty(p, 'd', {enumerable: false}); r.push(keys(o));" +
+                        "r.join('|')"));
+        assertEquals("x,y|x,y,0|x,y", eval("function C() { this.x = 1; this.y = 2; } var r = [keys(new C())];" +
+                        "C.prototype[0] = 0; r.push(keys(new C())); delete C.prototype[0]; r.push(keys(new C())); r.join('|')"));
+        assertEquals("a|a,0|a", eval("var o = {a: 1}; var r = [keys(o)];" +
+                        "Array.prototype[0] = 0; Object.setPrototypeOf(o, Array.prototype); r.push(keys(o)); delete Array.prototype[0]; r.push(keys(o)); r.join('|')"));
+    }
+
+    @Test
+    public void testModificationDuringIteration() {
+        assertEquals("a,c|a,b,c", eval("var r = [];" +
+                        "function f(o) { var s = []; for (var k in o) { s.push(k); delete o.b; o.d = 4; } return s.join(); }" +
+                        "r.push(f({a: 1, b: 2, c: 3})); r.push(keys({a: 1, b: 2, c: 3})); r.join('|')"));
+        assertEquals("a,b,c,d|a,b,c", eval("var r = [];" +
+                        "function f(o) { var s = []; for (var k in o) { s.push(k); if (k === 'a') { Object.prototype.d = 1; } } delete Object.prototype.d; return s.join(); }" +
+                        "var o = {a: 1, b: 2, c: 3}; keys(o); r.push(f(o)); r.push(keys(o)); r.join('|')"));
+    }
+
+    @Test
+    public void testValues() {
+        assertEquals("1,2|3,4", eval("function values(o) { var r = []; for each (var v in o) { r.push(v); } return r.join(); }" +
+                        "[values({a: 1, b: 2}), values({a: 3, b: 4})].join('|')"));
+    }
+
+    @Test
+    public void testElements() {
+        assertEquals("a|0,1,a|0,a", eval("var o1 = {a: 1}; var o2 = {a: 2}; o2[0] = 0; o2[1] = 1; var o3 = [0]; o3.a = 1; [keys(o1), keys(o2), keys(o3)].join('|')"));
+    }
+}
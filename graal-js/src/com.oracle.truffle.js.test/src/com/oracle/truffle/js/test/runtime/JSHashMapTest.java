@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.util.JSHashMap;
+
+public class JSHashMapTest {
+
+    private static List<Object> keys(JSHashMap.Cursor cursor) {
+        List<Object> result = new ArrayList<>();
+        while (cursor.advance()) {
+            result.add(cursor.getKey());
+        }
+        return result;
+    }
+
+    @Test
+    public void testInsertionOrder() {
+        JSHashMap map = new JSHashMap();
+        for (int i = 0; i < 1000; i++) {
+            map.put("k" + (i * 7919 % 1000), i);
+        }
+        assertEquals(1000, map.size());
+        List<Object> keys = keys(map.getEntries());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("k" + (i * 7919 % 1000), keys.get(i));
+        }
+        map.put("k0", -1);
+        assertEquals(-1, map.get("k0"));
+        assertEquals("k0", keys(map.getEntries()).get(0));
+    }
+
+    @Test
+    public void testRemove() {
+        JSHashMap map = new JSHashMap();
+        for (int i = 0; i < 100; i++) {
+            map.put((double) i, i);
+        }
+        for (int i = 0; i < 100; i += 2) {
+            assertTrue(map.remove((double) i));
+        }
+        assertFalse(map.remove(0.0));
+        assertEquals(50, map.size());
+        assertFalse(map.has(0.0));
+        assertNull(map.get(0.0));
+        assertTrue(map.has(1.0));
+        List<Object> keys = keys(map.getEntries());
+        for (int i = 0; i < 50; i++) {
+            assertEquals((double) (2 * i + 1), keys.get(i));
+        }
+    }
+
+    @Test
+    public void testCursorSurvivesCompaction() {
+        JSHashMap map = new JSHashMap();
+        for (int i = 0; i < 64; i++) {
+            map.put(i, i);
+        }
+        JSHashMap.Cursor cursor = map.getEntries();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(cursor.advance());
+            assertEquals(i, cursor.getKey());
+        }
+        // removing most entries shrinks (and compacts) the table
+        for (int i = 0; i < 60; i++) {
+            map.remove(i);
+        }
+        // added entries are visited
+        map.put(100, 100);
+        assertEquals(5, map.size());
+        List<Object> rest = keys(cursor);
+        assertEquals(5, rest.size());
+        assertEquals(60, rest.get(0));
+        assertEquals(100, rest.get(4));
+        // exhausted cursors stay exhausted
+        map.put(101, 101);
+        assertFalse(cursor.advance());
+    }
+
+    @Test
+    public void testCursorCopy() {
+        JSHashMap map = new JSHashMap();
+        map.put("a", 1);
+        map.put("b", 2);
+        JSHashMap.Cursor cursor = map.getEntries();
+        assertTrue(cursor.advance());
+        JSHashMap.Cursor copy = cursor.copy();
+        assertEquals("b", keys(cursor).get(0));
+        assertTrue(copy.advance());
+        assertEquals("b", copy.getKey());
+        assertEquals(2, copy.getValue());
+    }
+
+    @Test
+    public void testCursorSurvivesClear() {
+        JSHashMap map = new JSHashMap();
+        for (int i = 0; i < 20; i++) {
+            map.put(i, i);
+        }
+        JSHashMap.Cursor cursor = map.getEntries();
+        assertTrue(cursor.advance());
+        map.clear();
+        assertEquals(0, map.size());
+        map.put("x", "y");
+        assertTrue(cursor.advance());
+        assertEquals("x", cursor.getKey());
+        assertFalse(cursor.advance());
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.objects.JSLazyString;
+import com.oracle.truffle.js.test.JSTest;
+
+public class JSLazyStringTest extends JSTest {
+
+    private static final int MAX_DEPTH = 128;
+
+    @Override
+    public void setup() {
+        super.setup();
+        testHelper.enterContext();
+        testHelper.getJSContext(); // initialize JSContext
+    }
+
+    @Override
+    public void close() {
+        testHelper.leaveContext();
+        super.close();
+    }
+
+    private static String part(int i) {
+        return "part" + i + "-abcdefghijklmnopqrstuvwxyz;";
+    }
+
+    private static void assertBalanced(CharSequence str, int parts) {
+        assertTrue(str instanceof JSLazyString);
+        int depth = ((JSLazyString) str).getDepth();
+        assertTrue("depth " + depth + " for " + parts + " parts", depth <= MAX_DEPTH);
+    }
+
+    @Test
+    public void testAppend() {
+        int count = 10000;
+        CharSequence str = part(0);
+        StringBuilder expected = new StringBuilder(part(0));
+        for (int i = 1; i < count; i++) {
+            str = JSLazyString.create(str, part(i));
+            expected.append(part(i));
+        }
+        assertBalanced(str, count);
+        assertEquals(expected.toString(), str.toString());
+        assertEquals(0, ((JSLazyString) str).getDepth());
+    }
+
+    @Test
+    public void testPrepend() {
+        int count = 10000;
+        CharSequence str = part(0);
+        StringBuilder expected = new StringBuilder(part(0));
+        for (int i = 1; i < count; i++) {
+            str = JSLazyString.create(part(i), str);
+            expected.insert(0, part(i));
+        }
+        assertBalanced(str, count);
+        assertEquals(expected.toString(), str.toString());
+    }
+
+    @Test
+    public void testAlternating() {
+        int count = 10000;
+        CharSequence str = part(0);
+        StringBuilder expected = new StringBuilder(part(0));
+        for (int i = 1; i < count; i++) {
+            if (i % 2 == 0) {
+                str = JSLazyString.create(str, part(i));
+                expected.append(part(i));
+            } else {
+                str = JSLazyString.create(part(i), str);
+                expected.insert(0, part(i));
+            }
+        }
+        assertBalanced(str, count);
+        assertEquals(expected.toString(), str.toString());
+    }
+
+    @Test
+    public void testConcatToLeaf() {
+        int count = 100000;
+        CharSequence str = part(0);
+        StringBuilder expected = new StringBuilder(part(0));
+        int merged = 0;
+        for (int i = 0; i < count; i++) {
+            String c = String.valueOf((char) ('a' + i % 26));
+            boolean append = (i / 50) % 2 == 0;
+            CharSequence left = append ? str : c;
+            CharSequence right = append ? c : str;
+            JSLazyString result = JSLazyString.concatToLeafMaybe(left, right, str.length() + 1);
+            if (result != null) {
+                merged++;
+                str = result;
+            } else {
+                str = JSLazyString.createChecked(left, right, str.length() + 1);
+            }
+            if (append) {
+                expected.append(c);
+            } else {
+                expected.insert(0, c);
+            }
+        }
+        assertTrue("merged " + merged, merged > count / 2);
+        assertBalanced(str, count);
+        assertEquals(expected.toString(), str.toString());
+    }
+
+    @Test
+    public void testRandomConcatenation() {
+        Random random = new Random(42);
+        List<CharSequence> strings = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            strings.add(part(i));
+            expected.add(part(i));
+        }
+        for (int i = 0; i < 5000; i++) {
+            int a = random.nextInt(strings.size());
+            int b = random.nextInt(strings.size());
+            if (strings.get(a).length() + strings.get(b).length() > 1 << 20) {
+                continue;
+            }
+            strings.set(a, JSLazyString.create(strings.get(a), strings.get(b)));
+            expected.set(a, expected.get(a) + expected.get(b));
+            if (strings.get(a) instanceof JSLazyString) {
+                assertTrue(((JSLazyString) strings.get(a)).getDepth() <= MAX_DEPTH);
+            }
+            if (random.nextInt(8) == 0) {
+                // flatten some of the strings, which are then shared as leaves
+                assertEquals(expected.get(a), strings.get(a).toString());
+            }
+        }
+        for (int i = 0; i < strings.size(); i++) {
+            assertEquals(expected.get(i), strings.get(i).toString());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.junit.Test;
+
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Tests for global properties of intrinsics that are created on first access.
+ */
+public class LazyIntrinsicsTest {
+
+    private static final String[] LAZY_GLOBALS = {"Error", "TypeError", "RangeError", "SyntaxError", "ReferenceError", "EvalError", "URIError",
+                    "ArrayBuffer", "Int8Array", "Uint8Array", "Uint8ClampedArray", "Int16Array", "Uint16Array", "Int32Array", "Uint32Array",
+                    "Float32Array", "Float64Array", "BigInt64Array", "BigUint64Array", "DataView", "SharedArrayBuffer", "Atomics"};
+
+    private static boolean evalBoolean(Context context, String source) {
+        return context.eval(ID, source).asBoolean();
+    }
+
+    @Test
+    public void testPropertyDescriptors() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            for (String name : LAZY_GLOBALS) {
+                assertTrue(name, evalBoolean(context, "var desc = Object.getOwnPropertyDescriptor(globalThis, '" + name + "');" +
+                                "desc.writable && !desc.enumerable && desc.configurable && desc.value === " + name + ";"));
+                assertTrue(name, evalBoolean(context, "typeof " + name + " === 'function' ? " + name + ".name === '" + name + "' : " + name + "[Symbol.toStringTag] === '" + name + "';"));
+            }
+        }
+    }
+
+    @Test
+    public void testPropertyOrder() {
+        String source = "Object.getOwnPropertyNames(globalThis).join();";
+        try (Context context = JSTest.newContextBuilder().build()) {
+            String before = context.eval(ID, source).asString();
+            context.eval(ID, "DataView; Int16Array; TypeError;");
+            assertEquals(before, context.eval(ID, source).asString());
+        }
+    }
+
+    @Test
+    public void testIntrinsicsUsedBeforeGlobalAccess() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            assertTrue(evalBoolean(context, "var error; try { null.foo; } catch (e) { error = e; } Object.getPrototypeOf(error) === TypeError.prototype;"));
+            assertTrue(evalBoolean(context, "var ta = new Float32Array([1, 2]).subarray(1); Object.getPrototypeOf(ta) === Float32Array.prototype;"));
+            assertTrue(evalBoolean(context, "Object.getPrototypeOf(ta.buffer) === ArrayBuffer.prototype;"));
+            assertTrue(evalBoolean(context, "Object.getPrototypeOf(Int8Array) === Object.getPrototypeOf(Uint16Array);"));
+            assertTrue(evalBoolean(context, "Object.getPrototypeOf(RangeError) === Error && Object.getPrototypeOf(URIError.prototype) === Error.prototype;"));
+        }
+    }
+
+    @Test
+    public void testAssignAndDeleteBeforeAccess() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            assertEquals(42, context.eval(ID, "DataView = 42; DataView;").asInt());
+            assertTrue(evalBoolean(context, "Object.getOwnPropertyDescriptor(globalThis, 'DataView').value === 42;"));
+            assertTrue(evalBoolean(context, "delete Int16Array; typeof Int16Array === 'undefined' && !('Int16Array' in globalThis);"));
+            assertTrue(evalBoolean(context, "Object.getPrototypeOf(new Int32Array(2).map(x => x)) === Int32Array.prototype;"));
+            assertTrue(evalBoolean(context, "Object.defineProperty(globalThis, 'Uint8Array', {enumerable: true}); " +
+                            "Object.keys(globalThis).includes('Uint8Array') && new Uint8Array(3).length === 3;"));
+        }
+    }
+
+    @Test
+    public void testFrozenGlobal() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            assertTrue(evalBoolean(context, "Object.freeze(globalThis); typeof Uint8Array === 'function' && Object.isFrozen(globalThis);"));
+            assertTrue(evalBoolean(context, "(function() { var desc = Object.getOwnPropertyDescriptor(globalThis, 'Uint8Array'); return !desc.writable && !desc.configurable; })();"));
+            assertTrue(evalBoolean(context, "(function() { 'use strict'; try { DataView = 1; return false; } catch (e) { return e instanceof TypeError; } })();"));
+        }
+    }
+
+    @Test
+    public void testNashornCompatTypedArrayJoin() {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.NASHORN_COMPATIBILITY_MODE_NAME, "true").build()) {
+            assertTrue(evalBoolean(context, "Uint8Array.prototype.join === undefined;"));
+        }
+    }
+
+    @Test
+    public void testSameGlobalShapeAcrossContexts() {
+        try (Engine engine = JSTest.newEngineBuilder().build()) {
+            Shape lastShape = null;
+            for (int i = 0; i < 3; i++) {
+                try (Context context = JSTest.newContextBuilder().engine(engine).build()) {
+                    context.eval(ID, "new Uint8Array(2); DataView; ArrayBuffer;");
+                    Shape shape = JavaScriptLanguage.getJSRealm(context).getGlobalObject().getShape();
+                    if (lastShape != null) {
+                        assertSame(lastShape, shape);
+                    }
+                    lastShape = shape;
+                }
+            }
+        }
+    }
+}
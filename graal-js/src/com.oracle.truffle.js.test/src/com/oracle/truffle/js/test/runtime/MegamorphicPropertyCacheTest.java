@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Tests for property accesses that go through the megamorphic property cache.
+ */
+public class MegamorphicPropertyCacheTest {
+
+    /** Makes the property access sites megamorphic by using them with many different shapes. */
+    private static final String SETUP = "function get(o) { return o.x; }" +
+                    "function set(o, v) { o.x = v; return o.x; }" +
+                    "function setStrict(o, v) { 'use strict'; o.x = v; }" +
+                    "function has(o) { return 'x' in o; }" +
+                    "for (var i = 0; i < 20; i++) { var s = {}; s['p' + i] = i; s.x = i; get(s); set(s, i); setStrict(s, i); has(s); }";
+
+    private static String eval(String source) {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            return context.eval(JavaScriptLanguage.ID, SETUP + source).toString();
+        }
+    }
+
+    @Test
+    public void testOwnProperty() {
+        assertEquals("1,2,3,true,false", eval("var o = {x: 1}; var r = [get(o), set(o, 2), set(o, 3.0 + 0), has(o)]; delete o.x; r.push(has(o)); r.join()"));
+        assertEquals("1,1.5,a", eval("var a = {x: 1}, b = {x: 1}; [get(a), set(b, 1.5), set(a, 'a')].join()"));
+    }
+
+    @Test
+    public void testPrototypeChanges() {
+        assertEquals("1,2,undefined,3,4", eval("function C() {} C.prototype.x = 1; var o = new C(); var r = [get(o)];" +
+                        "C.prototype.x = 2; r.push(get(o)); delete C.prototype.x; r.push(get(o)); Object.prototype.x = 3; r.push(get(o)); delete Object.prototype.x;" +
+                        "Object.setPrototypeOf(o, {x: 4}); r.push(get(o)); r.map(String).join()"));
+        assertEquals("false,true,false", eval("var o = {}; var r = [has(o)]; Object.prototype.x = 1; r.push(has(o)); delete Object.prototype.x; r.push(has(o)); r.join()"));
+        assertEquals("1,2", eval("var p = {x: 1}; var o = Object.create(p); var r = [get(o)]; p.x = 2; r.push(get(o)); r.join()"));
+    }
+
+    @Test
+    public void testShadowing() {
+        assertEquals("1,5,1,true", eval("var p = {x: 1}; var o = Object.create(p); var r = [get(o)]; set(o, 5); r.push(get(o), get(p), o.hasOwnProperty('x')); r.join()"));
+    }
+
+    @Test
+    public void testAccessors() {
+        assertEquals("get,set:20,get,10,20", eval("var log = []; var p = {get x() { log.push('get'); return this.v; }, set x(v) { log.push('set:' + v); this.v = v; }};" +
+                        "var o = Object.create(p); o.v = 10; var r = get(o); set(o, 20); log.concat(r, o.v).join()"));
+        assertEquals("undefined,TypeError", eval("var o = {get x() {}}; var r = [set(o, 1)]; try { setStrict(o, 1); } catch (e) { r.push(e.name); } r.map(String).join()"));
+    }
+
+    @Test
+    public void testNonWritable() {
+        assertEquals("1,TypeError,1,TypeError", eval("var o = Object.freeze({x: 1}); var r = [set(o, 2)]; try { setStrict(o, 2); } catch (e) { r.push(e.name); }" +
+                        "var c = Object.create(Object.freeze({x: 1})); r.push(set(c, 2)); try { setStrict(c, 2); } catch (e) { r.push(e.name); } r.join()"));
+    }
+
+    @Test
+    public void testExoticObjects() {
+        assertEquals("2,true,3,false", eval("var a = [1, 2]; a.x = 2; var r = [get(a), has(a)]; var s = new String('abc'); s.x = 3; r.push(get(s)); r.push(has(Object.create(null))); r.join()"));
+        assertEquals("7,8", eval("var p = new Proxy({}, {get: function() { return 7; }}); var d = {}; for (var i = 0; i < 300; i++) { d['k' + i] = i; } d.x = 8; [get(p), get(d)].join()"));
+    }
+
+    @Test
+    public void testPrimitives() {
+        assertEquals("undefined,1,undefined", eval("var r = [get(1)]; Number.prototype.x = 1; r.push(get(1)); delete Number.prototype.x; r.push(get(1)); r.map(String).join()"));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.HostAccess;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Tests for creating realms from a template realm ({@code js.realm-template}).
+ */
+public class RealmTemplateTest {
+
+    private static final AtomicInteger bootstrapCount = new AtomicInteger();
+
+    private static final String COUNT_BOOTSTRAP = "Java.type('" + RealmTemplateTest.class.getName() + "').countBootstrap();";
+
+    public static void countBootstrap() {
+        bootstrapCount.incrementAndGet();
+    }
+
+    @Before
+    public void resetBootstrapCount() {
+        bootstrapCount.set(0);
+    }
+
+    private static Engine newEngine(boolean realmTemplate, String bootstrap) {
+        return JSTest.newEngineBuilder().option(JSContextOptions.REALM_TEMPLATE_NAME, String.valueOf(realmTemplate)).option(JSContextOptions.REALM_BOOTSTRAP_NAME, bootstrap).build();
+    }
+
+    private static Context newContext(Engine engine) {
+        return JSTest.newContextBuilder().engine(engine).allowHostAccess(HostAccess.ALL).allowHostClassLookup(className -> true).build();
+    }
+
+    private static String evalInNewContexts(boolean realmTemplate, String bootstrap, String source, int count) {
+        StringBuilder results = new StringBuilder();
+        try (Engine engine = newEngine(realmTemplate, bootstrap)) {
+            for (int i = 0; i < count; i++) {
+                try (Context context = newContext(engine)) {
+                    results.append(context.eval(ID, source).toString()).append('\n');
+                }
+            }
+        }
+        return results.toString();
+    }
+
+    private static String repeat(String line, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(line).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testBootstrapEvaluatedOnce() {
+        String bootstrap = COUNT_BOOTSTRAP + "var answer = 42; let lexical = 'let'; function f() { return answer + lexical; }";
+        assertEquals(repeat("42let", 3), evalInNewContexts(true, bootstrap, "f()", 3));
+        assertEquals(1, bootstrapCount.get());
+    }
+
+    @Test
+    public void testBootstrapEvaluatedInEveryRealmWithoutTemplate() {
+        String bootstrap = COUNT_BOOTSTRAP + "var answer = 42;";
+        assertEquals(repeat("42", 3), evalInNewContexts(false, bootstrap, "answer", 3));
+        assertEquals(3, bootstrapCount.get());
+    }
+
+    @Test
+    public void testUncopyableRealmFallsBack() {
+        // the reactions of pending promises are not copied, so realms are created the regular way
+        String bootstrap = COUNT_BOOTSTRAP + "var promise = new Promise(function() {}); promise.then(function() {});";
+        assertEquals(repeat("object", 3), evalInNewContexts(true, bootstrap, "typeof promise", 3));
+        assertEquals(3, bootstrapCount.get());
+    }
+
+    @Test
+    public void testRealmsAreIndependent() {
+        String bootstrap = COUNT_BOOTSTRAP + "var counter = (function() { var n = 0; return () => ++n; })(); const data = {list: [1, 2], map: new Map([['k', 'v']])};";
+        String source = "var result = [counter(), counter(), data.list.length, data.map.size, typeof Array.prototype.extra, Object.prototype.hasOwnProperty('extra'), Math.max.marker].join();" +
+                        "data.list.push(3); data.map.set('k2', 'v2'); Array.prototype.extra = 1; Object.prototype.extra = 2; Math.max.marker = 3; result;";
+        assertEquals(repeat("1,2,2,1,undefined,false,", 3), evalInNewContexts(true, bootstrap, source, 3));
+        assertEquals(1, bootstrapCount.get());
+    }
+
+    @Test
+    public void testSameBuiltinsAsWithoutTemplate() {
+        String source = "[Object.getOwnPropertyNames(globalThis).join(), Object.getOwnPropertyNames(Array.prototype).join(), Reflect.ownKeys(Symbol).length," +
+                        "Object.getPrototypeOf(function*(){}.prototype) === Object.getPrototypeOf((function*(){})()).__proto__," +
+                        "[...new Set([3, 1, 3])].map(x => x * 2).join(), new Uint8Array([1, 2]).reduce((a, b) => a + b), new TypeError('x') instanceof Error," +
+                        "/(?<y>\\d+)/.exec('a12').groups.y, JSON.stringify({a: [1n].length}), typeof Java, typeof Polyglot].join('|')";
+        String expected = evalInNewContexts(false, "", source, 1);
+        assertEquals(expected + expected, evalInNewContexts(true, "", source, 2));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.array.SparseArrayStore;
+
+public class SparseArrayStoreTest {
+
+    private static void assertSameContents(TreeMap<Long, Object> expected, SparseArrayStore actual) {
+        assertEquals(expected.size(), actual.size());
+        long[] indices = new long[expected.size()];
+        int i = 0;
+        for (long index : expected.keySet()) {
+            indices[i++] = index;
+            assertEquals(expected.get(index), actual.get(index));
+        }
+        assertArrayEquals(indices, actual.indices());
+        assertEquals(expected.isEmpty() ? -1 : expected.firstKey(), actual.firstIndex());
+        assertEquals(expected.isEmpty() ? -1 : expected.lastKey(), actual.lastIndex());
+    }
+
+    private static void assertNeighbours(TreeMap<Long, Object> expected, SparseArrayStore actual, long index) {
+        Long higher = expected.higherKey(index);
+        Long lower = expected.lowerKey(index);
+        assertEquals(higher == null ? -1 : higher, actual.nextIndex(index));
+        assertEquals(lower == null ? -1 : lower, actual.previousIndex(index));
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(42);
+        TreeMap<Long, Object> expected = new TreeMap<>();
+        SparseArrayStore actual = new SparseArrayStore();
+        long range = 100_000;
+        for (int i = 0; i < 50_000; i++) {
+            long index = (long) (random.nextDouble() * range);
+            if (random.nextInt(4) == 0) {
+                expected.remove(index);
+                actual.remove(index);
+            } else {
+                expected.put(index, i);
+                actual.put(index, i);
+            }
+            if (i % 97 == 0) {
+                assertNeighbours(expected, actual, (long) (random.nextDouble() * range));
+            }
+        }
+        assertSameContents(expected, actual);
+        for (long index = 0; index < 1000; index++) {
+            assertNeighbours(expected, actual, index);
+        }
+        for (long length : new long[]{90_000, 64_000, 12_345, 4_096, 1}) {
+            expected.tailMap(length).clear();
+            actual.truncate(length);
+            assertSameContents(expected, actual);
+        }
+        actual.truncate(0);
+        assertEquals(0, actual.size());
+        assertEquals(-1, actual.firstIndex());
+        assertEquals(-1, actual.nextIndex(-1));
+    }
+
+    @Test
+    public void testLargeIndices() {
+        SparseArrayStore store = new SparseArrayStore();
+        long max = 4294967294L;
+        store.put(max, "last");
+        store.put(63, "a");
+        store.put(64, "b");
+        store.put(0, "first");
+        assertEquals(4, store.size());
+        assertArrayEquals(new long[]{0, 63, 64, max}, store.indices());
+        assertEquals(63, store.nextIndex(0));
+        assertEquals(64, store.nextIndex(63));
+        assertEquals(max, store.nextIndex(64));
+        assertEquals(-1, store.nextIndex(max));
+        assertEquals(64, store.previousIndex(max));
+        assertEquals(63, store.previousIndex(64));
+        assertEquals(0, store.previousIndex(63));
+        assertEquals(-1, store.previousIndex(0));
+        store.remove(63);
+        assertNull(store.get(63));
+        assertEquals("b", store.get(64));
+        assertEquals(64, store.nextIndex(0));
+    }
+
+    @Test
+    public void testDescendingInsertion() {
+        SparseArrayStore store = new SparseArrayStore();
+        int count = 100_000;
+        for (int i = count - 1; i >= 0; i--) {
+            store.put(i * 1000L, i);
+        }
+        assertEquals(count, store.size());
+        long index = store.firstIndex();
+        for (int i = 0; i < count; i++) {
+            assertEquals(i * 1000L, index);
+            assertEquals(i, store.get(index));
+            index = store.nextIndex(index);
+        }
+        assertEquals(-1, index);
+    }
+}
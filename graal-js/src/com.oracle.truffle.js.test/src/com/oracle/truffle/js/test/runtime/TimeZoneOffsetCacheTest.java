@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.util.TimeZoneOffsetCache;
+
+public class TimeZoneOffsetCacheTest {
+
+    private static final String[] ZONES = {"UTC", "America/New_York", "Europe/London", "Europe/Dublin", "Australia/Lord_Howe", "Asia/Kolkata", "Pacific/Apia", "America/Sao_Paulo"};
+    private static final long MS_PER_HOUR = 3600_000L;
+    private static final long[] DELTAS = {-3 * MS_PER_HOUR, -2 * MS_PER_HOUR - 1, -2 * MS_PER_HOUR, -MS_PER_HOUR - 1, -MS_PER_HOUR, -MS_PER_HOUR / 2, -1, 0, 1, MS_PER_HOUR / 2,
+                    MS_PER_HOUR - 1, MS_PER_HOUR, 2 * MS_PER_HOUR - 1, 2 * MS_PER_HOUR, 3 * MS_PER_HOUR};
+
+    private static long expectedFromUTC(ZoneRules rules, long utcTime) {
+        return rules.getOffset(Instant.ofEpochMilli(utcTime)).getTotalSeconds() * 1000L;
+    }
+
+    private static long expectedFromLocal(ZoneRules rules, long localTime) {
+        LocalDateTime localDateTime = LocalDateTime.ofEpochSecond(Math.floorDiv(localTime, 1000L), (int) Math.floorMod(localTime, 1000L) * 1000000, ZoneOffset.UTC);
+        return rules.getOffset(localDateTime).getTotalSeconds() * 1000L;
+    }
+
+    private static List<Long> timesAroundTransitions(ZoneRules rules) {
+        List<Long> times = new ArrayList<>();
+        Instant instant = Instant.parse("1900-01-01T00:00:00Z");
+        Instant end = Instant.parse("2040-01-01T00:00:00Z");
+        ZoneOffsetTransition transition;
+        while ((transition = rules.nextTransition(instant)) != null && transition.getInstant().isBefore(end)) {
+            long t = transition.toEpochSecond() * 1000L;
+            for (long delta : DELTAS) {
+                times.add(t + delta);
+            }
+            instant = transition.getInstant();
+        }
+        return times;
+    }
+
+    @Test
+    public void testTransitions() {
+        for (String zone : ZONES) {
+            ZoneRules rules = ZoneId.of(zone).getRules();
+            TimeZoneOffsetCache cache = new TimeZoneOffsetCache(ZoneId.of(zone));
+            for (long t : timesAroundTransitions(rules)) {
+                assertEquals(zone + " UTC " + t, expectedFromUTC(rules, t), cache.getOffsetFromUTC(t));
+                assertEquals(zone + " local " + t, expectedFromLocal(rules, t), cache.getOffsetFromLocal(t));
+                // uncached lookups
+                assertEquals(zone + " UTC " + t, expectedFromUTC(rules, t), new TimeZoneOffsetCache(ZoneId.of(zone)).getOffsetFromUTC(t));
+                assertEquals(zone + " local " + t, expectedFromLocal(rules, t), new TimeZoneOffsetCache(ZoneId.of(zone)).getOffsetFromLocal(t));
+            }
+        }
+    }
+
+    @Test
+    public void testRandomTimes() {
+        Random random = new Random(20200601);
+        long maxTime = 8_640_000_000_000_000L;
+        for (String zone : ZONES) {
+            ZoneRules rules = ZoneId.of(zone).getRules();
+            TimeZoneOffsetCache cache = new TimeZoneOffsetCache(ZoneId.of(zone));
+            for (int i = 0; i < 10000; i++) {
+                // mostly times close to each other, like in a loop over log entries
+                long t = i % 100 == 0 ? (long) ((random.nextDouble() * 2 - 1) * maxTime) : 1500000000000L + random.nextInt(Integer.MAX_VALUE) * 100L;
+                assertEquals(zone + " UTC " + t, expectedFromUTC(rules, t), cache.getOffsetFromUTC(t));
+                assertEquals(zone + " local " + t, expectedFromLocal(rules, t), cache.getOffsetFromLocal(t));
+            }
+        }
+    }
+}
@@ -155,8 +155,10 @@ import com.oracle.truffle.js.runtime.Symbol;
 import com.oracle.truffle.js.runtime.array.ScriptArray;
 import com.oracle.truffle.js.runtime.array.SparseArray;
 import com.oracle.truffle.js.runtime.array.TypedArray;
+import com.oracle.truffle.js.runtime.array.dyn.AbstractConstantArray;
 import com.oracle.truffle.js.runtime.array.dyn.AbstractDoubleArray;
 import com.oracle.truffle.js.runtime.array.dyn.AbstractIntArray;
+import com.oracle.truffle.js.runtime.array.dyn.AbstractWritableArray;
 import com.oracle.truffle.js.runtime.array.dyn.ConstantByteArray;
 import com.oracle.truffle.js.runtime.array.dyn.ConstantDoubleArray;
 import com.oracle.truffle.js.runtime.array.dyn.ConstantIntArray;
@@ -173,6 +175,7 @@ import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.truffleinterop.JSInteropUtil;
 import com.oracle.truffle.js.runtime.util.Pair;
+import com.oracle.truffle.js.runtime.util.PrimitiveArraySort;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
 import com.oracle.truffle.js.runtime.util.StringBuilderProfile;
 
@@ -2468,9 +2471,14 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
         private final BranchProfile hasCompareFnBranch = BranchProfile.create();
         private final BranchProfile noCompareFnBranch = BranchProfile.create();
         private final BranchProfile growProfile = BranchProfile.create();
+        private final BranchProfile primitiveSortBranch = BranchProfile.create();
         @Child private InteropLibrary interopNode;
         @Child private JSForeignToJSTypeNode importValueNode;
 
+        // last compare functions classified by isNumericCompareFunction
+        @CompilationFinal private JSFunctionData numericCompareFunctionData;
+        @CompilationFinal private JSFunctionData nonNumericCompareFunctionData;
+
         public JSArraySortNode(JSContext context, JSBuiltin builtin, boolean isTypedArrayImplementation) {
             super(context, builtin, isTypedArrayImplementation);
         }
@@ -2484,6 +2492,10 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             ScriptArray scriptArray = classProfile.profile(arrayGetArrayType(thisObj));
             long len = getLength(thisObj);
 
+            if (sortPrimitiveInPlace(thisObj, scriptArray, compare)) {
+                return thisObj;
+            }
+
             if (scriptArray instanceof SparseArray) {
                 arrayIsSparseBranch.enter();
                 array = getArraySparse(thisObj, scriptArray, len);
@@ -2519,7 +2531,58 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             return thisObj;
         }
 
-        private void delete(Object obj, Object i) {
+        /**
+         * Sorts int and double arrays directly in their backing store, if the default comparator
+         * or a numeric compare function is used.
+         *
+         * @return false if the array is not eligible for sorting in place
+         */
+        private boolean sortPrimitiveInPlace(DynamicObject thisObj, ScriptArray scriptArray, Object compare) {
+            boolean isConstant = scriptArray instanceof ConstantIntArray || scriptArray instanceof ConstantByteArray || scriptArray instanceof ConstantDoubleArray;
+            if (!(isConstant || scriptArray instanceof AbstractIntArray || scriptArray instanceof AbstractDoubleArray) || scriptArray.isFrozen()) {
+                return false;
+            }
+            boolean numeric = compare != Undefined.instance;
+            if (numeric && !isNumericCompareFunction(compare)) {
+                return false;
+            }
+            if (!isConstant && !((AbstractWritableArray) scriptArray).isDenseFromZero(thisObj)) {
+                return false;
+            }
+            if (numeric && containsNaN(thisObj, scriptArray)) {
+                return false;
+            }
+            ScriptArray array = scriptArray;
+            if (isConstant) {
+                // all elements are written back anyway, so make the array writable up front
+                AbstractConstantArray constantArray = (AbstractConstantArray) array;
+                if (array instanceof ConstantDoubleArray) {
+                    array = constantArray.createWriteableDouble(thisObj, 0, 0, false, ScriptArray.ProfileHolder.empty());
+                } else {
+                    array = constantArray.createWriteableInt(thisObj, 0, 0, false, ScriptArray.ProfileHolder.empty());
+                }
+                arraySetArrayType(thisObj, array);
+            }
+            primitiveSortBranch.enter();
+            if (array instanceof AbstractIntArray) {
+                ((AbstractIntArray) array).sortDenseInPlace(thisObj, numeric);
+            } else {
+                ((AbstractDoubleArray) array).sortDenseInPlace(thisObj, numeric);
+            }
+            return true;
+        }
+
+        private static boolean containsNaN(DynamicObject thisObj, ScriptArray scriptArray) {
+            if (scriptArray instanceof ConstantDoubleArray) {
+                double[] values = ConstantDoubleArray.getArray(thisObj);
+                return PrimitiveArraySort.containsNaN(values, 0, values.length);
+            } else if (scriptArray instanceof AbstractDoubleArray) {
+                return ((AbstractDoubleArray) scriptArray).containsNaN(thisObj);
+            }
+            return false;
+        }
+
+                private void delete(Object obj, Object i) {
             if (deletePropertyNode == null) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
                 JSContext context = getContext();
@@ -2528,6 +2591,27 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             deletePropertyNode.executeEvaluated(obj, i);
         }
 
+        @Specialization(guards = {"isTypedArrayImplementation", "isJSArrayBufferView(thisObj)"})
+        protected DynamicObject sortTypedArray(DynamicObject thisObj, final Object compare,
+                        @Cached("createClassProfile()") ValueProfile classProfile) {
+            checkCompareFunction(compare);
+            getLength(thisObj); // validates the typed array
+            TypedArray typedArray = classProfile.profile(JSArrayBufferView.typedArrayGetArrayType(thisObj));
+            if (!(typedArray instanceof TypedArray.TypedBigIntArray)) {
+                boolean numeric = compare != Undefined.instance;
+                if (!numeric || isNumericCompareFunction(compare)) {
+                    primitiveSortBranch.enter();
+                    if (typedArray instanceof TypedArray.TypedIntArray) {
+                        ((TypedArray.TypedIntArray<?>) typedArray).sort(thisObj);
+                        return thisObj;
+                    } else if (((TypedArray.TypedFloatArray<?>) typedArray).sort(thisObj, numeric)) {
+                        return thisObj;
+                    }
+                }
+            }
+            return sortJSObject(compare, thisObj);
+        }
+
         @Specialization
         protected Object sort(Object thisObj, final Object comparefn,
                         @Cached("createBinaryProfile()") ConditionProfile isJSObject) {
@@ -2580,6 +2664,33 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             }
         }
 
+        /**
+         * Returns true if the compare function is known to be {@code (a, b) => a - b}, which is
+         * free of side effects for number arguments and can be replaced by a primitive sort.
+         */
+        private boolean isNumericCompareFunction(Object compare) {
+            if (!JSFunction.isJSFunction(compare)) {
+                return false;
+            }
+            JSFunctionData functionData = JSFunction.getFunctionData((DynamicObject) compare);
+            if (functionData == numericCompareFunctionData) {
+                return true;
+            } else if (functionData == nonNumericCompareFunctionData) {
+                return false;
+            }
+            boolean numeric = functionData.isNumericCompare();
+            // only remember the first function of each kind to avoid repeated invalidation
+            if (numeric ? numericCompareFunctionData == null : nonNumericCompareFunctionData == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                if (numeric) {
+                    numericCompareFunctionData = functionData;
+                } else {
+                    nonNumericCompareFunctionData = functionData;
+                }
+            }
+            return numeric;
+        }
+
         private Comparator<Object> getComparator(Object thisObj, Object compare) {
             if (isCallable(compare)) {
                 hasCompareFnBranch.enter();
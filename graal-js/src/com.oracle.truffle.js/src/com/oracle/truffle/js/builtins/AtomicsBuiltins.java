@@ -811,11 +811,12 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
                 c = Integer.max(tmp, 0);
             }
 
-            JSAgentWaiterListEntry wl = SharedMemorySync.getWaiterList(getContext(), target, i);
+            int byteIndex = SharedMemorySync.getByteIndex(getContext(), target, i);
+            JSAgentWaiterListEntry wl = SharedMemorySync.getWaiterList(getContext(), target, byteIndex);
 
             SharedMemorySync.enterCriticalSection(getContext(), wl);
             try {
-                int[] waiters = SharedMemorySync.removeWaiters(getContext(), wl, c);
+                int[] waiters = SharedMemorySync.removeWaiters(getContext(), wl, byteIndex, c);
                 int n;
                 for (n = 0; n < waiters.length; n++) {
                     SharedMemorySync.wakeWaiter(getContext(), waiters[n]);
@@ -869,7 +870,8 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
             if (!SharedMemorySync.agentCanSuspend(getContext())) {
                 throw createTypeErrorUnsupported();
             }
-            JSAgentWaiterListEntry wl = SharedMemorySync.getWaiterList(getContext(), target, i);
+            int byteIndex = SharedMemorySync.getByteIndex(getContext(), target, i);
+            JSAgentWaiterListEntry wl = SharedMemorySync.getWaiterList(getContext(), target, byteIndex);
             SharedMemorySync.enterCriticalSection(getContext(), wl);
             try {
                 Object w = loadNode.executeWithBufferAndIndex(frame, maybeTarget, i);
@@ -879,16 +881,16 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
                     return NOT_EQUAL;
                 }
                 int id = getContext().getJSAgent().getSignifier();
-                SharedMemorySync.addWaiter(getContext(), wl, id);
+                SharedMemorySync.addWaiter(getContext(), wl, byteIndex, id);
                 if (t < 0) {
                     return TIMED_OUT;
                 }
-                boolean awoken = SharedMemorySync.suspendAgent(getContext(), wl, id, t);
+                boolean awoken = SharedMemorySync.suspendAgent(getContext(), wl, byteIndex, id, t);
                 if (awoken) {
-                    assert !wl.contains(id);
+                    assert !wl.contains(byteIndex, id);
                     return OK;
                 } else {
-                    SharedMemorySync.removeWaiter(getContext(), wl, id);
+                    SharedMemorySync.removeWaiter(getContext(), wl, byteIndex, id);
                     return TIMED_OUT;
                 }
             } finally {
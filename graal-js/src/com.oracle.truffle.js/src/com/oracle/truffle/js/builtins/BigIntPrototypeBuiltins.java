@@ -63,6 +63,7 @@ import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSBigInt;
 import com.oracle.truffle.js.runtime.builtins.JSNumberFormat;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.IntlCache;
 
 /**
  * Contains builtins for {@linkplain JSBigInt}.prototype.
@@ -195,22 +196,22 @@ public final class BigIntPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         }
 
         @TruffleBoundary
-        private DynamicObject createNumberFormat(Object locales, Object options) {
-            DynamicObject numberFormatObj = JSNumberFormat.create(getContext());
-            initNumberFormatNode.executeInit(numberFormatObj, locales, options);
-            return numberFormatObj;
+        private JSNumberFormat.InternalState getNumberFormatState(Object locales, Object options) {
+            return getContext().getIntlCache().getOrCreate(IntlCache.NUMBER_FORMAT, locales, options, () -> {
+                DynamicObject numberFormatObj = JSNumberFormat.create(getContext());
+                initNumberFormatNode.executeInit(numberFormatObj, locales, options);
+                return JSNumberFormat.getInternalState(numberFormatObj);
+            });
         }
 
         @Specialization
         protected String bigIntToLocaleString(BigInt thisObj, Object locales, Object options) {
-            DynamicObject numberFormatObj = createNumberFormat(locales, options);
-            return JSNumberFormat.format(numberFormatObj, thisObj);
+            return JSNumberFormat.format(getNumberFormatState(locales, options), thisObj);
         }
 
         @Specialization(guards = "isJSBigInt(thisObj)")
         protected String jsBigIntToLocaleString(DynamicObject thisObj, Object locales, Object options) {
-            DynamicObject numberFormatObj = createNumberFormat(locales, options);
-            return JSNumberFormat.format(numberFormatObj, getBigIntValue(thisObj));
+            return JSNumberFormat.format(getNumberFormatState(locales, options), getBigIntValue(thisObj));
         }
 
         @Fallback
@@ -42,7 +42,10 @@ package com.oracle.truffle.js.builtins;
 
 import java.util.EnumSet;
 
+import com.ibm.icu.util.TimeZone;
+
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.object.DynamicObject;
@@ -97,6 +100,7 @@ import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSDate;
 import com.oracle.truffle.js.runtime.builtins.JSDateTimeFormat;
 import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.util.IntlCache;
 
 /**
  * Contains builtins for {@linkplain JSDate}.prototype.
@@ -354,10 +358,15 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
             }
         }
 
-        protected DynamicObject createDateTimeFormat(InitializeDateTimeFormatNode initDateTimeFormatNode, Object locales, Object options) {
-            DynamicObject dateTimeFormatObj = JSDateTimeFormat.create(getContext());
-            initDateTimeFormatNode.executeInit(dateTimeFormatObj, locales, options);
-            return dateTimeFormatObj;
+        @TruffleBoundary
+        protected JSDateTimeFormat.InternalState getDateTimeFormatState(InitializeDateTimeFormatNode initDateTimeFormatNode, Object locales, Object options) {
+            // the formatter also depends on the fields to format and on the default time zone
+            String kind = IntlCache.DATE_TIME_FORMAT + ':' + initDateTimeFormatNode.getRequired() + ':' + initDateTimeFormatNode.getDefaults() + ':' + TimeZone.getDefault().getID();
+            return getContext().getIntlCache().getOrCreate(kind, locales, options, () -> {
+                DynamicObject dateTimeFormatObj = JSDateTimeFormat.create(getContext());
+                initDateTimeFormatNode.executeInit(dateTimeFormatObj, locales, options);
+                return JSDateTimeFormat.getInternalState(dateTimeFormatObj);
+            });
         }
     }
 
@@ -420,8 +429,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
             if (isNaN.profile(Double.isNaN(t))) {
                 return JSDate.INVALID_DATE_STRING;
             }
-            DynamicObject formatter = createDateTimeFormat(initDateTimeFormatNode, locales, options);
-            return JSDateTimeFormat.format(getContext(), formatter, t);
+            return JSDateTimeFormat.formatShared(getContext(), getDateTimeFormatState(initDateTimeFormatNode, locales, options), t);
         }
     }
 
@@ -488,8 +496,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
             if (isNaN.profile(Double.isNaN(t))) {
                 return JSDate.INVALID_DATE_STRING;
             }
-            DynamicObject formatter = createDateTimeFormat(initDateTimeFormatNode, locales, options);
-            return JSDateTimeFormat.format(getContext(), formatter, t);
+            return JSDateTimeFormat.formatShared(getContext(), getDateTimeFormatState(initDateTimeFormatNode, locales, options), t);
         }
     }
 
@@ -524,8 +531,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
             if (isNaN.profile(Double.isNaN(t))) {
                 return JSDate.INVALID_DATE_STRING;
             }
-            DynamicObject formatter = createDateTimeFormat(initDateTimeFormatNode, locales, options);
-            return JSDateTimeFormat.format(getContext(), formatter, t);
+            return JSDateTimeFormat.formatShared(getContext(), getDateTimeFormatState(initDateTimeFormatNode, locales, options), t);
         }
     }
 
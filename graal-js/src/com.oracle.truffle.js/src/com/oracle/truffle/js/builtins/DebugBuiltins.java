@@ -63,6 +63,7 @@ import com.oracle.truffle.api.profiles.ValueProfile;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugArrayTypeNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugAssertIntNodeGen;
+import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugCacheStatisticsNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugClassNameNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugClassNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugCompileFunctionNodeGen;
@@ -118,6 +119,7 @@ import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.BoundedLRUCache;
 import com.oracle.truffle.object.DynamicObjectImpl;
 
 /**
@@ -157,6 +159,9 @@ public final class DebugBuiltins extends JSBuiltinsContainer.SwitchEnum<DebugBui
         systemProperty(1),
         systemProperties(0),
         neverPartOfCompilation(0),
+        parseCacheStatistics(0),
+        intlCacheStatistics(0),
+        regexCacheStatistics(0),
         dumpHeap(2);
 
         private final int length;
@@ -219,6 +224,12 @@ public final class DebugBuiltins extends JSBuiltinsContainer.SwitchEnum<DebugBui
                 return DebugSystemPropertiesNodeGen.create(context, builtin, args().createArgumentNodes(context));
             case neverPartOfCompilation:
                 return DebugNeverPartOfCompilationNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case parseCacheStatistics:
+                return DebugCacheStatisticsNodeGen.create(context, builtin, context.getParseCache(), args().createArgumentNodes(context));
+            case intlCacheStatistics:
+                return DebugCacheStatisticsNodeGen.create(context, builtin, context.getIntlCache(), args().createArgumentNodes(context));
+            case regexCacheStatistics:
+                return DebugCacheStatisticsNodeGen.create(context, builtin, context.getRegexCache(), args().createArgumentNodes(context));
             case typedArrayDetachBuffer:
                 return DebugTypedArrayDetachBufferNodeGen.create(context, builtin, args().fixedArgs(1).createArgumentNodes(context));
 
@@ -689,6 +700,30 @@ public final class DebugBuiltins extends JSBuiltinsContainer.SwitchEnum<DebugBui
         }
     }
 
+    /**
+     * Returns the counters of one of the caches shared by all realms of the context.
+     */
+    public abstract static class DebugCacheStatisticsNode extends JSBuiltinNode {
+        private final BoundedLRUCache<?, ?> cache;
+
+        public DebugCacheStatisticsNode(JSContext context, JSBuiltin builtin, BoundedLRUCache<?, ?> cache) {
+            super(context, builtin);
+            this.cache = cache;
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object cacheStatistics() {
+            DynamicObject result = JSUserObject.create(getContext());
+            JSObject.set(result, "hits", (double) cache.getHits());
+            JSObject.set(result, "misses", (double) cache.getMisses());
+            JSObject.set(result, "evictions", (double) cache.getEvictions());
+            JSObject.set(result, "size", cache.size());
+            JSObject.set(result, "maxSize", cache.getMaxSize());
+            return result;
+        }
+    }
+
     public abstract static class DebugSystemProperty extends JSBuiltinNode {
 
         public DebugSystemProperty(JSContext context, JSBuiltin builtin) {
@@ -230,6 +230,13 @@ public final class ForInIteratorPrototypeBuiltins extends JSBuiltinsContainer.Sw
                     }
                 }
 
+                if (state.enumCache != null) {
+                    if (state.enumCache.isStillValidFor(object)) {
+                        // the prototypes of the object still have no enumerable properties
+                        return DONE;
+                    }
+                    state.enumCache = null;
+                }
                 DynamicObject proto = getPrototypeNode.executeJSObject(object);
                 if (tryFastForwardImmutablePrototype(proto)) {
                     proto = Null.instance;
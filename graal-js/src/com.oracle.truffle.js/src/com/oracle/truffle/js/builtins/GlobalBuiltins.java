@@ -146,6 +146,7 @@ import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.truffleinterop.JSInteropUtil;
+import com.oracle.truffle.js.runtime.util.DoubleParser;
 
 /**
  * Contains builtins for the global object.
@@ -1003,7 +1004,7 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
                     // parseRawDontFitLong() can produce an incorrect result
                     // due to subtle rounding errors (for radix 10) but the spec.
                     // requires exact processing for this radix
-                    return parseDouble(Boundaries.substring(inputString, 0, len));
+                    return parseDouble(inputString, len);
                 } else {
                     return JSRuntime.parseRawDontFitLong(inputString, radix, len);
                 }
@@ -1012,8 +1013,8 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
         }
 
         @TruffleBoundary
-        private static double parseDouble(String s) {
-            return Double.parseDouble(s);
+        private static double parseDouble(String s, int len) {
+            return DoubleParser.parse(s, 0, len);
         }
 
         private static Object convertToRadix(int thing, int radix) {
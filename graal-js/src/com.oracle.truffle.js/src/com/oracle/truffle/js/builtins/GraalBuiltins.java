@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.js.builtins.GraalBuiltinsFactory.GraalReadJSONNodeGen;
+import com.oracle.truffle.js.builtins.GraalBuiltinsFactory.GraalWriteJSONNodeGen;
+import com.oracle.truffle.js.builtins.helper.CreateJSONDataNode;
+import com.oracle.truffle.js.builtins.helper.JSONData;
+import com.oracle.truffle.js.builtins.helper.JSONStringifyStringNode;
+import com.oracle.truffle.js.builtins.helper.TruffleJSONStreamParser;
+import com.oracle.truffle.js.nodes.function.JSBuiltin;
+import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.builtins.JSUserObject;
+import com.oracle.truffle.js.runtime.objects.JSAttributes;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Functions of the non-standard {@code Graal} object.
+ */
+public final class GraalBuiltins extends JSBuiltinsContainer.Lambda {
+
+    public static final JSBuiltinsContainer BUILTINS = new GraalBuiltins();
+
+    protected GraalBuiltins() {
+        super(JSRealm.GRAAL_CLASS_NAME);
+        defineFunction("readJSON", 1, JSAttributes.getDefaultNotEnumerable(), (context, builtin) -> GraalReadJSONNodeGen.create(context, builtin, args().fixedArgs(1).createArgumentNodes(context)));
+        defineFunction("writeJSON", 4, JSAttributes.getDefaultNotEnumerable(), (context, builtin) -> GraalWriteJSONNodeGen.create(context, builtin, args().fixedArgs(4).createArgumentNodes(context)));
+    }
+
+    /**
+     * Non-standard Graal.readJSON(source) that parses a JSON text incrementally, without
+     * materializing it as a string first. The source is either a file name or {@code File} (read
+     * through {@link TruffleFile}), or a host {@link Reader}, {@link InputStream} (UTF-8), or
+     * {@link ByteBuffer} (UTF-8).
+     */
+    public abstract static class GraalReadJSONNode extends JSBuiltinNode {
+
+        public GraalReadJSONNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @Specialization
+        @TruffleBoundary(transferToInterpreterOnException = false)
+        protected Object readJSON(Object source) {
+            TruffleLanguage.Env env = getContext().getRealm().getEnv();
+            TruffleJSONStreamParser parser = new TruffleJSONStreamParser(getContext());
+            if (env.isHostObject(source)) {
+                Object hostObject = env.asHostObject(source);
+                if (hostObject instanceof Reader) {
+                    return parser.parse((Reader) hostObject);
+                } else if (hostObject instanceof InputStream) {
+                    return parser.parse((InputStream) hostObject);
+                } else if (hostObject instanceof ByteBuffer) {
+                    return parser.parse((ByteBuffer) hostObject);
+                }
+            }
+            TruffleFile file = GlobalBuiltins.getFileFromArgument(source, env);
+            try (Reader reader = file.newBufferedReader()) {
+                return parser.parse(reader);
+            } catch (IOException | SecurityException ex) {
+                throw Errors.createErrorFromException(ex);
+            }
+        }
+    }
+
+    /**
+     * Non-standard Graal.writeJSON(output, value, replacer, space) that serializes the value like
+     * JSON.stringify, but writes the result to a host {@link Writer} or {@link OutputStream}
+     * (UTF-8) in chunks instead of creating a string, so the output size is not limited by the
+     * maximum string length. Returns whether anything was written, i.e., false for values that
+     * JSON.stringify maps to undefined.
+     */
+    public abstract static class GraalWriteJSONNode extends JSBuiltinNode {
+        @Child private JSONStringifyStringNode jsonStringifyStringNode;
+        @Child private CreateJSONDataNode createJSONDataNode;
+
+        public GraalWriteJSONNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+            this.jsonStringifyStringNode = JSONStringifyStringNode.create(context);
+            this.createJSONDataNode = CreateJSONDataNode.create();
+        }
+
+        @Specialization
+        protected boolean writeJSON(Object output, Object value, Object replacer, Object space) {
+            Writer writer = toWriter(output);
+            JSONData data = createJSONDataNode.execute(replacer, space, writer);
+            DynamicObject wrapper = JSUserObject.create(getContext());
+            JSRuntime.createDataProperty(wrapper, "", value);
+            Object result = jsonStringifyStringNode.execute(data, "", wrapper);
+            flush(writer);
+            return result != Undefined.instance;
+        }
+
+        @TruffleBoundary
+        private Writer toWriter(Object output) {
+            TruffleLanguage.Env env = getContext().getRealm().getEnv();
+            if (env.isHostObject(output)) {
+                Object hostObject = env.asHostObject(output);
+                if (hostObject instanceof Writer) {
+                    return (Writer) hostObject;
+                } else if (hostObject instanceof OutputStream) {
+                    return new OutputStreamWriter((OutputStream) hostObject, StandardCharsets.UTF_8);
+                }
+            }
+            throw Errors.createTypeError("Writer or OutputStream expected");
+        }
+
+        @TruffleBoundary
+        private static void flush(Writer writer) {
+            try {
+                writer.flush();
+            } catch (IOException ex) {
+                throw Errors.createErrorFromException(ex);
+            }
+        }
+    }
+}
@@ -71,6 +71,7 @@ import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSNumber;
 import com.oracle.truffle.js.runtime.builtins.JSNumberFormat;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.IntlCache;
 
 /**
  * Contains builtins for {@linkplain JSNumber}.prototype.
@@ -278,22 +279,22 @@ public final class NumberPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         }
 
         @TruffleBoundary
-        private DynamicObject createNumberFormat(Object locales, Object options) {
-            DynamicObject numberFormatObj = JSNumberFormat.create(getContext());
-            initNumberFormatNode.executeInit(numberFormatObj, locales, options);
-            return numberFormatObj;
+        private JSNumberFormat.InternalState getNumberFormatState(Object locales, Object options) {
+            return getContext().getIntlCache().getOrCreate(IntlCache.NUMBER_FORMAT, locales, options, () -> {
+                DynamicObject numberFormatObj = JSNumberFormat.create(getContext());
+                initNumberFormatNode.executeInit(numberFormatObj, locales, options);
+                return JSNumberFormat.getInternalState(numberFormatObj);
+            });
         }
 
         @Specialization(guards = "isJSNumber(thisObj)")
         protected String jsNumberToLocaleString(DynamicObject thisObj, Object locales, Object options) {
-            DynamicObject numberFormatObj = createNumberFormat(locales, options);
-            return JSNumberFormat.format(numberFormatObj, getNumberValue(thisObj));
+            return JSNumberFormat.format(getNumberFormatState(locales, options), getNumberValue(thisObj));
         }
 
         @Specialization(guards = "isJavaNumber(thisObj)")
         protected String javaNumberToLocaleString(Object thisObj, Object locales, Object options) {
-            DynamicObject numberFormatObj = createNumberFormat(locales, options);
-            return JSNumberFormat.format(numberFormatObj, JSRuntime.doubleValue((Number) thisObj));
+            return JSNumberFormat.format(getNumberFormatState(locales, options), JSRuntime.doubleValue((Number) thisObj));
         }
 
         @Specialization(guards = {"!isJSNumber(notANumber)", "!isJavaNumber(notANumber)"})
@@ -133,6 +133,7 @@ import com.oracle.truffle.js.runtime.builtins.JSString;
 import com.oracle.truffle.js.runtime.objects.JSLazyString;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.IntlCache;
 import com.oracle.truffle.js.runtime.util.IntlUtil;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
 import com.oracle.truffle.js.runtime.util.StringBuilderProfile;
@@ -2284,10 +2285,14 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         }
 
         @TruffleBoundary
-        private DynamicObject createCollator(Object locales, Object options) {
-            DynamicObject collatorObj = JSCollator.create(getContext());
-            initCollatorNode.executeInit(collatorObj, locales, options);
-            return collatorObj;
+        private JSCollator.InternalState getCollatorState(Object locales, Object options) {
+            return getContext().getIntlCache().getOrCreate(IntlCache.COLLATOR, locales, options, () -> {
+                DynamicObject collatorObj = JSCollator.create(getContext());
+                initCollatorNode.executeInit(collatorObj, locales, options);
+                JSCollator.InternalState state = JSCollator.getInternalState(collatorObj);
+                state.freeze();
+                return state;
+            });
         }
 
         @Specialization
@@ -2296,8 +2301,7 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
             requireObjectCoercible(thisObj);
             String thisStr = toString(thisObj);
             String thatStr = toString2Node.executeString(thatObj);
-            DynamicObject collator = createCollator(locales, options);
-            return JSCollator.compare(collator, thisStr, thatStr);
+            return JSCollator.compare(getCollatorState(locales, options), thisStr, thatStr);
         }
     }
 
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins.helper;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
+import com.oracle.truffle.js.nodes.cast.JSToIntegerAsIntNode;
+import com.oracle.truffle.js.nodes.cast.JSToNumberNode;
+import com.oracle.truffle.js.nodes.cast.JSToStringNode;
+import com.oracle.truffle.js.nodes.unary.IsCallableNode;
+import com.oracle.truffle.js.nodes.unary.JSIsArrayNode;
+import com.oracle.truffle.js.runtime.Boundaries;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.builtins.JSArray;
+import com.oracle.truffle.js.runtime.builtins.JSNumber;
+import com.oracle.truffle.js.runtime.builtins.JSString;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Interprets the replacer and space arguments of JSON.stringify (steps 4 to 8) and creates the
+ * {@link JSONData} used by {@link JSONStringifyStringNode}.
+ */
+public final class CreateJSONDataNode extends JavaScriptBaseNode {
+
+    @Child private IsCallableNode isCallableNode = IsCallableNode.create();
+    @Child private JSIsArrayNode isArrayNode = JSIsArrayNode.createIsArray();
+    @Child private JSToStringNode toStringNode;
+    @Child private JSToNumberNode toNumberNode;
+    @Child private JSToIntegerAsIntNode toIntegerNode;
+    private final BranchProfile replacerArrayBranch = BranchProfile.create();
+    private final BranchProfile spaceIsStringBranch = BranchProfile.create();
+    private final ConditionProfile spaceIsUndefinedProfile = ConditionProfile.createBinaryProfile();
+
+    private CreateJSONDataNode() {
+    }
+
+    public static CreateJSONDataNode create() {
+        return new CreateJSONDataNode();
+    }
+
+    /**
+     * @param writer if not null, the output is written to this writer, see {@link JSONData}.
+     */
+    public JSONData execute(Object replacer, Object space, Writer writer) {
+        Object replacerFn = null;
+        List<String> replacerList = null;
+        if (isCallableNode.executeBoolean(replacer)) {
+            replacerFn = replacer;
+        } else if (isArrayNode.execute(replacer)) {
+            replacerArrayBranch.enter();
+            replacerList = createReplacerList((DynamicObject) replacer);
+        }
+        String gap = spaceIsUndefinedProfile.profile(space == Undefined.instance) ? "" : getGap(space);
+        return new JSONData(gap, replacerFn, replacerList, writer);
+    }
+
+    private List<String> createReplacerList(DynamicObject replacerObj) {
+        long len = JSRuntime.toLength(JSObject.get(replacerObj, JSArray.LENGTH));
+        Set<String> items = newItemSet();
+        for (long i = 0; i < len; i++) {
+            // harmony/proxies-json.js requires toString()
+            Object v = JSObject.get(replacerObj, Boundaries.stringValueOf(i));
+            String item = null; // Let item be undefined.
+            if (JSRuntime.isString(v)) {
+                item = JSRuntime.toStringIsString(v);
+            } else if (JSRuntime.isNumber(v) || JSNumber.isJSNumber(v) || JSString.isJSString(v)) {
+                item = toString(v);
+            }
+            if (item != null) { // If item is not undefined ...
+                addItem(items, item);
+            }
+        }
+        return toList(items);
+    }
+
+    @TruffleBoundary
+    private static Set<String> newItemSet() {
+        return new LinkedHashSet<>();
+    }
+
+    @TruffleBoundary
+    private static void addItem(Set<String> items, String item) {
+        items.add(item);
+    }
+
+    @TruffleBoundary
+    private static List<String> toList(Set<String> items) {
+        return new ArrayList<>(items);
+    }
+
+    private String getGap(Object spaceParam) {
+        Object space = spaceParam;
+        if (JSObject.isDynamicObject(space)) {
+            if (JSNumber.isJSNumber(space)) {
+                space = toNumber(space);
+            } else if (JSString.isJSString(space)) {
+                space = toString(space);
+            }
+        }
+        if (JSRuntime.isNumber(space)) {
+            if (toIntegerNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                toIntegerNode = insert(JSToIntegerAsIntNode.create());
+            }
+            int newSpace = Math.max(0, Math.min(10, toIntegerNode.executeInt(space)));
+            return makeGap(newSpace);
+        } else if (JSRuntime.isString(space)) {
+            spaceIsStringBranch.enter();
+            return makeGap(JSRuntime.toStringIsString(space));
+        } else {
+            return "";
+        }
+    }
+
+    @TruffleBoundary
+    private static String makeGap(String spaceStr) {
+        if (spaceStr.length() <= 10) {
+            return spaceStr;
+        } else {
+            return spaceStr.substring(0, 10);
+        }
+    }
+
+    @TruffleBoundary
+    private static String makeGap(int spaceValue) {
+        char[] ar = new char[spaceValue];
+        Arrays.fill(ar, ' ');
+        return new String(ar);
+    }
+
+    private String toString(Object target) {
+        if (toStringNode == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            toStringNode = insert(JSToStringNode.create());
+        }
+        return toStringNode.executeString(target);
+    }
+
+    private Number toNumber(Object target) {
+        if (toNumberNode == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            toNumberNode = insert(JSToNumberNode.create());
+        }
+        return toNumberNode.executeNumber(target);
+    }
+}
@@ -43,6 +43,7 @@ package com.oracle.truffle.js.builtins.helper;
 import com.oracle.truffle.api.CompilerDirectives.*;
 import com.oracle.truffle.api.profiles.*;
 import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.util.DoubleParser;
 
 public class FloatParser {
 
@@ -76,7 +77,7 @@ public class FloatParser {
 
     @TruffleBoundary
     private double parseValidSubstring() {
-        return Double.parseDouble(input.substring(0, pos));
+        return DoubleParser.parse(input, 0, pos);
     }
 
     private void strDecimalLiteral() {
@@ -40,10 +40,13 @@
  */
 package com.oracle.truffle.js.builtins.helper;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.js.runtime.Errors;
 
 public class JSONData {
 
@@ -51,14 +54,27 @@ public class JSONData {
     private int indent;
     private final String gap;
     private final List<String> propertyList;
-    private final DynamicObject replacerFnObj;
+    private final Object replacerFnObj;
+    private final Writer writer;
+    private char[] writeBuffer;
 
     private static final int MAX_STACK_SIZE = 1000;
+    /** Buffered output size after which the output is passed on to the {@link #getWriter writer}. */
+    static final int WRITE_THRESHOLD = 8192;
 
-    public JSONData(String gap, DynamicObject replacerFnObj, List<String> replacerList) {
+    public JSONData(String gap, Object replacerFnObj, List<String> replacerList) {
+        this(gap, replacerFnObj, replacerList, null);
+    }
+
+    /**
+     * @param writer if not null, the output is written to this writer in chunks instead of being
+     *            returned as a single string.
+     */
+    public JSONData(String gap, Object replacerFnObj, List<String> replacerList, Writer writer) {
         this.gap = gap;
         this.replacerFnObj = replacerFnObj;
         this.propertyList = replacerList;
+        this.writer = writer;
     }
 
     public String getGap() {
@@ -77,7 +93,7 @@ public class JSONData {
         return propertyList;
     }
 
-    public DynamicObject getReplacerFnObj() {
+    public Object getReplacerFnObj() {
         return replacerFnObj;
     }
 
@@ -92,4 +108,26 @@ public class JSONData {
     public void popStack() {
         stack.remove(stack.size() - 1);
     }
+
+    public Writer getWriter() {
+        return writer;
+    }
+
+    /**
+     * Moves the buffered output to the writer.
+     */
+    @TruffleBoundary
+    public void write(StringBuilder builder) {
+        int length = builder.length();
+        if (writeBuffer == null || writeBuffer.length < length) {
+            writeBuffer = new char[Math.max(length, WRITE_THRESHOLD)];
+        }
+        builder.getChars(0, length, writeBuffer, 0);
+        builder.setLength(0);
+        try {
+            writer.write(writeBuffer, 0, length);
+        } catch (IOException ex) {
+            throw Errors.createErrorFromException(ex);
+        }
+    }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins.helper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.js.runtime.objects.JSAttributes;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
+
+/**
+ * Shape transitions observed while parsing a JSON text.
+ *
+ * Arrays of records typically repeat the same key sequence for every element. Once a member has
+ * been added to an object via the generic property definition path, the resulting transition is
+ * recorded here, so that the following objects with the same key sequence can be extended by a
+ * direct shape transition, reusing the key string of the first object.
+ */
+final class JSONShapeCache {
+
+    private final Map<Shape, Transition> transitions = new HashMap<>();
+
+    static final class Transition {
+        final String key;
+        final Shape newShape;
+        final Property property;
+        /** Whether the key can be matched against the raw input, i.e., needs no escaping. */
+        final boolean plainKey;
+        Transition next;
+
+        Transition(String key, Shape newShape) {
+            this.key = key;
+            this.newShape = newShape;
+            this.property = newShape.getLastProperty();
+            this.plainKey = isPlainKey(key);
+        }
+
+        private static boolean isPlainKey(String key) {
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                if (c < ' ' || c == '"' || c == '\\') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Transition find(String otherKey) {
+            for (Transition t = this; t != null; t = t.next) {
+                if (t.key.equals(otherKey)) {
+                    return t;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Adds the property of this transition to an object of the given shape, if possible.
+         */
+        boolean tryAdd(DynamicObject object, Shape shape, Object value) {
+            if (shape.isValid() && newShape.isValid() && property.getLocation().canSet(value)) {
+                property.setSafe(object, value, shape, newShape);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Returns the transitions recorded for the given shape, most recently recorded first.
+     */
+    Transition get(Shape shape) {
+        return transitions.get(shape);
+    }
+
+    /**
+     * Records the transition from {@code oldShape} to {@code newShape} if it added a plain data
+     * property with the given key.
+     */
+    void record(Shape oldShape, Shape newShape, String key) {
+        if (newShape.getParent() != oldShape) {
+            return;
+        }
+        Property property = newShape.getLastProperty();
+        if (property == null || !key.equals(property.getKey()) || !JSProperty.isData(property) || JSProperty.isProxy(property) ||
+                        (property.getFlags() & JSAttributes.ATTRIBUTES_MASK) != JSAttributes.getDefault()) {
+            return;
+        }
+        Transition head = transitions.get(oldShape);
+        Transition transition = new Transition(key, newShape);
+        for (Transition t = head, prev = null; t != null; prev = t, t = t.next) {
+            if (t.key.equals(key)) {
+                // superseded, e.g. by a generalized property location
+                if (prev == null) {
+                    head = t.next;
+                } else {
+                    prev.next = t.next;
+                }
+                break;
+            }
+        }
+        transition.next = head;
+        transitions.put(oldShape, transition);
+    }
+}
@@ -101,6 +101,10 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
             }
             StringBuilder builder = new StringBuilder();
             jsonStrExecute(builder, data, value);
+            if (data.getWriter() != null) {
+                data.write(builder);
+                return "";
+            }
             return stringBuilderProfile.toString(builder);
         } catch (StackOverflowError ex) {
             throwStackError();
@@ -168,7 +172,7 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
         } else if (n instanceof Long) {
             stringBuilderProfile.append(builder, ((Long) n).longValue());
         } else {
-            stringBuilderProfile.append(builder, JSRuntime.doubleToString(d));
+            stringBuilderProfile.append(builder, d);
         }
     }
 
@@ -296,6 +300,7 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
                 appendColon(builder, data);
                 jsonStrExecute(builder, data, strPPrepared);
                 hasContent = true;
+                writeIfFull(builder, data);
             }
         }
         return hasContent;
@@ -339,6 +344,7 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
                     appendColon(builder, data);
                     jsonStrExecute(builder, data, strPPrepared);
                     hasContent = true;
+                    writeIfFull(builder, data);
                 }
             }
             return hasContent;
@@ -370,7 +376,7 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
         }
         // output will reach maximum length in at most in StringLengthLimit steps
         long length = JSRuntime.toLength(lenObject);
-        if (length > context.getStringLengthLimit()) {
+        if (length > (data.getWriter() == null ? context.getStringLengthLimit() : Integer.MAX_VALUE)) {
             throw Errors.createRangeErrorInvalidStringLength();
         }
         int len = (int) length;
@@ -394,6 +400,7 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
             } else {
                 stringBuilderProfile.append(builder, Null.NAME);
             }
+            writeIfFull(builder, data);
         }
 
         concatEnd(builder, data, stepback, ']', len > 0);
@@ -402,6 +409,16 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
         data.setIndent(stepback);
     }
 
+    /**
+     * When writing to a {@link JSONData#getWriter() writer}, passes the output on once the buffer
+     * is full, so that the string length limit only applies to the buffered part.
+     */
+    private static void writeIfFull(StringBuilder builder, JSONData data) {
+        if (data.getWriter() != null && builder.length() >= JSONData.WRITE_THRESHOLD) {
+            data.write(builder);
+        }
+    }
+
     private static void checkStackDepth(JSONData data) {
         if (data.stackTooDeep()) {
             throwStackError();
@@ -42,6 +42,9 @@ package com.oracle.truffle.js.builtins.helper;
 
 import static com.oracle.truffle.js.runtime.builtins.JSArrayBufferView.typedArrayGetArrayType;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.BigInt;
@@ -52,29 +55,179 @@ import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.array.TypedArray;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
 import com.oracle.truffle.js.runtime.builtins.JSSharedArrayBuffer;
+import com.oracle.truffle.js.runtime.util.ByteBufferAtomics;
 import com.oracle.truffle.js.runtime.util.Fences;
 
 /**
  * Implementation of the synchronization primitives of ECMA2017 Shared Memory model.
+ *
+ * Atomic operations use lock-free hardware atomics on the 32-bit and 64-bit words of the
+ * underlying direct byte buffer (see {@link ByteBufferAtomics}); 8-bit and 16-bit elements are
+ * updated by compare-and-exchange on their enclosing 32-bit word. Only if the buffer does not
+ * support this (e.g., a misaligned buffer or a partial word at its end), the operations fall back
+ * to atomic sections of the agent.
  */
 public final class SharedMemorySync {
 
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
     private SharedMemorySync() {
         // should not be constructed
     }
 
+    private static ByteBuffer getBuffer(DynamicObject target) {
+        return JSArrayBufferView.typedArrayGetByteBuffer(target, true);
+    }
+
+    private static int getByteIndex(DynamicObject target, TypedArray array, int index) {
+        return JSArrayBufferView.typedArrayGetOffset(target, true) + index * array.bytesPerElement();
+    }
+
+    private static int getWordIndex(int byteIndex) {
+        return byteIndex & -Integer.BYTES;
+    }
+
+    /**
+     * Position of the lowest bit of an element of less than 4 bytes in its enclosing word.
+     */
+    private static int getShift(int byteIndex, int bytesPerElement) {
+        int offsetInWord = byteIndex & (Integer.BYTES - 1);
+        return Byte.SIZE * (LITTLE_ENDIAN ? offsetInWord : Integer.BYTES - bytesPerElement - offsetInWord);
+    }
+
+    private static int getMask(int bytesPerElement) {
+        return bytesPerElement == Integer.BYTES ? -1 : (1 << (Byte.SIZE * bytesPerElement)) - 1;
+    }
+
+    private static boolean isLockFree(ByteBuffer buffer, int byteIndex, int bytesPerElement) {
+        if (bytesPerElement == Long.BYTES) {
+            return ByteBufferAtomics.isSupported(buffer, byteIndex, Long.BYTES);
+        }
+        return ByteBufferAtomics.isSupported(buffer, getWordIndex(byteIndex), Integer.BYTES);
+    }
+
+    /**
+     * Converts the raw bits of an integer element to the value returned by
+     * {@link TypedArray.TypedIntArray#getInt}.
+     */
+    private static int toElementValue(TypedArray array, int bits) {
+        if (array instanceof TypedArray.DirectInt8Array) {
+            return (byte) bits;
+        } else if (array instanceof TypedArray.DirectUint8Array) {
+            return bits & 0xFF;
+        } else if (array instanceof TypedArray.DirectInt16Array) {
+            return (short) bits;
+        } else if (array instanceof TypedArray.DirectUint16Array) {
+            return bits & 0xFFFF;
+        }
+        return bits;
+    }
+
+    private static BigInt toBigIntElementValue(TypedArray array, long bits) {
+        return array instanceof TypedArray.DirectBigUint64Array ? BigInt.valueOfUnsigned(bits) : BigInt.valueOf(bits);
+    }
+
+    private static int getElementVolatile(ByteBuffer buffer, int byteIndex, int bytesPerElement) {
+        if (bytesPerElement == Integer.BYTES) {
+            return ByteBufferAtomics.getIntVolatile(buffer, byteIndex);
+        }
+        int word = ByteBufferAtomics.getIntVolatile(buffer, getWordIndex(byteIndex));
+        return (word >>> getShift(byteIndex, bytesPerElement)) & getMask(bytesPerElement);
+    }
+
+    /**
+     * Replaces the element with {@code value} if it is equal to {@code expected}, comparing only
+     * the bits of the element.
+     *
+     * @return the previous bits of the element
+     */
+    private static int compareAndExchangeElement(ByteBuffer buffer, int byteIndex, int bytesPerElement, int expected, int value) {
+        if (bytesPerElement == Integer.BYTES) {
+            return ByteBufferAtomics.compareAndExchangeInt(buffer, byteIndex, expected, value);
+        }
+        int wordIndex = getWordIndex(byteIndex);
+        int shift = getShift(byteIndex, bytesPerElement);
+        int mask = getMask(bytesPerElement);
+        int expectedBits = expected & mask;
+        int word = ByteBufferAtomics.getIntVolatile(buffer, wordIndex);
+        for (;;) {
+            int bits = (word >>> shift) & mask;
+            if (bits != expectedBits) {
+                return bits;
+            }
+            int newWord = (word & ~(mask << shift)) | ((value & mask) << shift);
+            int witness = ByteBufferAtomics.compareAndExchangeInt(buffer, wordIndex, word, newWord);
+            if (witness == word) {
+                return bits;
+            }
+            word = witness;
+        }
+    }
+
     // ##### Getters and setters with ordering and memory barriers
-    @TruffleBoundary
     public static int doVolatileGet(DynamicObject target, int intArrayOffset) {
+        TypedArray array = typedArrayGetArrayType(target);
+        ByteBuffer buffer = getBuffer(target);
+        int byteIndex = getByteIndex(target, array, intArrayOffset);
+        int bytesPerElement = array.bytesPerElement();
+        if (isLockFree(buffer, byteIndex, bytesPerElement)) {
+            return toElementValue(array, getElementVolatile(buffer, byteIndex, bytesPerElement));
+        }
+        return doVolatileGetWithFence(target, intArrayOffset);
+    }
+
+    public static BigInt doVolatileGetBigInt(DynamicObject target, int intArrayOffset) {
+        TypedArray array = typedArrayGetArrayType(target);
+        ByteBuffer buffer = getBuffer(target);
+        int byteIndex = getByteIndex(target, array, intArrayOffset);
+        if (isLockFree(buffer, byteIndex, Long.BYTES)) {
+            return toBigIntElementValue(array, ByteBufferAtomics.getLongVolatile(buffer, byteIndex));
+        }
+        return doVolatileGetBigIntWithFence(target, intArrayOffset);
+    }
+
+    public static void doVolatilePut(DynamicObject target, int index, int value) {
+        TypedArray array = typedArrayGetArrayType(target);
+        ByteBuffer buffer = getBuffer(target);
+        int byteIndex = getByteIndex(target, array, index);
+        int bytesPerElement = array.bytesPerElement();
+        if (isLockFree(buffer, byteIndex, bytesPerElement)) {
+            if (bytesPerElement == Integer.BYTES) {
+                ByteBufferAtomics.setIntVolatile(buffer, byteIndex, value);
+            } else {
+                // a plain store of the element could undo a concurrent update of its neighbors
+                int expected = getElementVolatile(buffer, byteIndex, bytesPerElement);
+                int witness;
+                while ((witness = compareAndExchangeElement(buffer, byteIndex, bytesPerElement, expected, value)) != expected) {
+                    expected = witness;
+                }
+            }
+            return;
+        }
+        doVolatilePutWithFence(target, index, value);
+    }
+
+    public static void doVolatilePutBigInt(DynamicObject target, int index, BigInt value) {
+        TypedArray array = typedArrayGetArrayType(target);
+        ByteBuffer buffer = getBuffer(target);
+        int byteIndex = getByteIndex(target, array, index);
+        if (isLockFree(buffer, byteIndex, Long.BYTES)) {
+            ByteBufferAtomics.setLongVolatile(buffer, byteIndex, value.longValue());
+            return;
+        }
+        doVolatilePutBigIntWithFence(target, index, value);
+    }
+
+    @TruffleBoundary
+    private static int doVolatileGetWithFence(DynamicObject target, int intArrayOffset) {
         Fences.acquireFence();
         TypedArray array = typedArrayGetArrayType(target);
         TypedArray.TypedIntArray<?> typedArray = (TypedArray.TypedIntArray<?>) array;
         return typedArray.getInt(target, intArrayOffset, true);
     }
 
-    // ##### Getters and setters with ordering and memory barriers
     @TruffleBoundary
-    public static BigInt doVolatileGetBigInt(DynamicObject target, int intArrayOffset) {
+    private static BigInt doVolatileGetBigIntWithFence(DynamicObject target, int intArrayOffset) {
         Fences.acquireFence();
         TypedArray array = typedArrayGetArrayType(target);
         TypedArray.TypedBigIntArray<?> typedArray = (TypedArray.TypedBigIntArray<?>) array;
@@ -82,7 +235,7 @@ public final class SharedMemorySync {
     }
 
     @TruffleBoundary
-    public static void doVolatilePut(DynamicObject target, int index, int value) {
+    private static void doVolatilePutWithFence(DynamicObject target, int index, int value) {
         TypedArray array = typedArrayGetArrayType(target);
         TypedArray.TypedIntArray<?> typedArray = (TypedArray.TypedIntArray<?>) array;
         typedArray.setInt(target, index, value, true);
@@ -90,136 +243,158 @@ public final class SharedMemorySync {
     }
 
     @TruffleBoundary
-    public static void doVolatilePutBigInt(DynamicObject target, int index, BigInt value) {
+    private static void doVolatilePutBigIntWithFence(DynamicObject target, int index, BigInt value) {
         TypedArray array = typedArrayGetArrayType(target);
         TypedArray.TypedBigIntArray<?> typedArray = (TypedArray.TypedBigIntArray<?>) array;
         typedArray.setBigInt(target, index, value, true);
         Fences.releaseFence();
     }
 
+    /**
+     * Returns the index of the element in the underlying buffer, which identifies the memory
+     * location for atomic sections and waiter lists independent of the view.
+     */
+    public static int getByteIndex(JSContext cx, DynamicObject target, int index) {
+        return JSArrayBufferView.getByteOffset(target, true, cx) + index * typedArrayGetArrayType(target).bytesPerElement();
+    }
+
     // ##### Atomic CAS primitives
-    @TruffleBoundary
     public static boolean compareAndSwapInt(JSContext cx, DynamicObject target, int intArrayOffset, int initial, int result) {
-        cx.getJSAgent().atomicSectionEnter(target);
+        TypedArray array = typedArrayGetArrayType(target);
+        ByteBuffer buffer = getBuffer(target);
+        int byteIndex = getByteIndex(target, array, intArrayOffset);
+        int bytesPerElement = array.bytesPerElement();
+        if (isLockFree(buffer, byteIndex, bytesPerElement)) {
+            return compareAndExchangeElement(buffer, byteIndex, bytesPerElement, initial, result) == (initial & getMask(bytesPerElement));
+        }
+        return compareAndSwapIntLocked(cx, target, intArrayOffset, initial, result);
+    }
+
+    @TruffleBoundary
+    private static boolean compareAndSwapIntLocked(JSContext cx, DynamicObject target, int intArrayOffset, int initial, int result) {
+        int byteIndex = getByteIndex(cx, target, intArrayOffset);
+        cx.getJSAgent().atomicSectionEnter(target, byteIndex);
         try {
-            int value = doVolatileGet(target, intArrayOffset);
+            int value = doVolatileGetWithFence(target, intArrayOffset);
             if (value == initial) {
-                doVolatilePut(target, intArrayOffset, result);
+                doVolatilePutWithFence(target, intArrayOffset, result);
                 return true;
             }
             return false;
         } finally {
-            cx.getJSAgent().atomicSectionLeave(target);
+            cx.getJSAgent().atomicSectionLeave(target, byteIndex);
         }
     }
 
-    @TruffleBoundary
     public static boolean compareAndSwapBigInt(JSContext cx, DynamicObject target, int intArrayOffset, BigInt initial, BigInt result) {
-        cx.getJSAgent().atomicSectionEnter(target);
+        TypedArray array = typedArrayGetArrayType(target);
+        ByteBuffer buffer = getBuffer(target);
+        int byteIndex = getByteIndex(target, array, intArrayOffset);
+        if (isLockFree(buffer, byteIndex, Long.BYTES)) {
+            long expected = initial.longValue();
+            return ByteBufferAtomics.compareAndExchangeLong(buffer, byteIndex, expected, result.longValue()) == expected;
+        }
+        return compareAndSwapBigIntLocked(cx, target, intArrayOffset, initial, result);
+    }
+
+    @TruffleBoundary
+    private static boolean compareAndSwapBigIntLocked(JSContext cx, DynamicObject target, int intArrayOffset, BigInt initial, BigInt result) {
+        int byteIndex = getByteIndex(cx, target, intArrayOffset);
+        cx.getJSAgent().atomicSectionEnter(target, byteIndex);
         try {
-            BigInt value = doVolatileGetBigInt(target, intArrayOffset);
+            BigInt value = doVolatileGetBigIntWithFence(target, intArrayOffset);
             if (value.compareTo(initial) == 0) {
-                doVolatilePutBigInt(target, intArrayOffset, result);
+                doVolatilePutBigIntWithFence(target, intArrayOffset, result);
                 return true;
             }
             return false;
         } finally {
-            cx.getJSAgent().atomicSectionLeave(target);
+            cx.getJSAgent().atomicSectionLeave(target, byteIndex);
         }
     }
 
     // ##### Atomic Fetch-or-Get primitives
-    @TruffleBoundary
-    public static long atomicFetchOrGetUnsigned(JSContext cx, DynamicObject target, int intArrayOffset, Object expected, Object replacement) {
-        cx.getJSAgent().atomicSectionEnter(target);
-        long read = JSRuntime.toUInt32(doVolatileGet(target, intArrayOffset));
-        if (read == JSRuntime.toUInt32(expected)) {
-            doVolatilePut(target, intArrayOffset, (int) JSRuntime.toUInt32(replacement));
+
+    /**
+     * Replaces the integer element with {@code replacement} if its value, converted to the element
+     * type, is equal to {@code expected} converted to the element type.
+     *
+     * @return the previous value of the element, as returned by
+     *         {@link TypedArray.TypedIntArray#getInt}
+     */
+    public static int atomicFetchOrGetInt(JSContext cx, DynamicObject target, int intArrayOffset, int expected, int replacement) {
+        TypedArray array = typedArrayGetArrayType(target);
+        ByteBuffer buffer = getBuffer(target);
+        int byteIndex = getByteIndex(target, array, intArrayOffset);
+        int bytesPerElement = array.bytesPerElement();
+        if (isLockFree(buffer, byteIndex, bytesPerElement)) {
+            return toElementValue(array, compareAndExchangeElement(buffer, byteIndex, bytesPerElement, expected, replacement));
         }
-        cx.getJSAgent().atomicSectionLeave(target);
-        return read;
+        return atomicFetchOrGetIntLocked(cx, target, intArrayOffset, expected, replacement);
     }
 
     @TruffleBoundary
-    public static long atomicFetchOrGetLong(JSContext cx, DynamicObject target, int intArrayOffset, long expected, long replacement) {
-        cx.getJSAgent().atomicSectionEnter(target);
+    private static int atomicFetchOrGetIntLocked(JSContext cx, DynamicObject target, int intArrayOffset, int expected, int replacement) {
+        TypedArray array = typedArrayGetArrayType(target);
+        int byteIndex = getByteIndex(cx, target, intArrayOffset);
+        cx.getJSAgent().atomicSectionEnter(target, byteIndex);
         try {
-            int read = doVolatileGet(target, intArrayOffset);
-            if (read == expected) {
-                doVolatilePut(target, intArrayOffset, (int) replacement);
+            int read = doVolatileGetWithFence(target, intArrayOffset);
+            if (read == toElementValue(array, expected)) {
+                doVolatilePutWithFence(target, intArrayOffset, replacement);
             }
             return read;
         } finally {
-            cx.getJSAgent().atomicSectionLeave(target);
+            cx.getJSAgent().atomicSectionLeave(target, byteIndex);
         }
     }
 
-    @TruffleBoundary
-    public static int atomicFetchOrGetInt(JSContext cx, DynamicObject target, int intArrayOffset, int expected, int replacement) {
-        cx.getJSAgent().atomicSectionEnter(target);
-        try {
-            int read = doVolatileGet(target, intArrayOffset);
-            if (read == expected) {
-                doVolatilePut(target, intArrayOffset, replacement);
-            }
-            return read;
-        } finally {
-            cx.getJSAgent().atomicSectionLeave(target);
-        }
+    public static long atomicFetchOrGetUnsigned(JSContext cx, DynamicObject target, int intArrayOffset, Object expected, Object replacement) {
+        return JSRuntime.toUInt32(atomicFetchOrGetInt(cx, target, intArrayOffset, (int) JSRuntime.toUInt32(expected), (int) JSRuntime.toUInt32(replacement)));
     }
 
-    @TruffleBoundary
     public static int atomicFetchOrGetShort(JSContext cx, DynamicObject target, int intArrayOffset, int expected, int replacement, boolean sign) {
-        cx.getJSAgent().atomicSectionEnter(target);
-        int read = doVolatileGet(target, intArrayOffset);
-        read = sign ? read : read & 0xFFFF;
-        int expectedChopped = sign ? (short) expected : expected & 0xFFFF;
-        if (read == expectedChopped) {
-            int signed = sign ? replacement : replacement & 0xFFFF;
-            SharedMemorySync.doVolatilePut(target, intArrayOffset, (short) signed);
-        }
-        cx.getJSAgent().atomicSectionLeave(target);
-        return read;
+        assert sign == (typedArrayGetArrayType(target) instanceof TypedArray.DirectInt16Array);
+        return atomicFetchOrGetInt(cx, target, intArrayOffset, expected, replacement);
     }
 
-    @TruffleBoundary
     public static int atomicFetchOrGetByte(JSContext cx, DynamicObject target, int intArrayOffset, int expected, int replacement, boolean sign) {
-        cx.getJSAgent().atomicSectionEnter(target);
-        try {
-            int read = doVolatileGet(target, intArrayOffset);
-            read = sign ? read : read & 0xFF;
-            int expectedChopped = sign ? (byte) expected : expected & 0xFF;
-            if (read == expectedChopped) {
-                int signed = sign ? replacement : replacement & 0xFF;
-                SharedMemorySync.doVolatilePut(target, intArrayOffset, (byte) signed);
-            }
-            return read;
-        } finally {
-            cx.getJSAgent().atomicSectionLeave(target);
+        assert sign == (typedArrayGetArrayType(target) instanceof TypedArray.DirectInt8Array);
+        return atomicFetchOrGetInt(cx, target, intArrayOffset, expected, replacement);
+    }
+
+    public static BigInt atomicFetchOrGetBigInt(JSContext cx, DynamicObject target, int intArrayOffset, BigInt expected, BigInt replacement) {
+        TypedArray array = typedArrayGetArrayType(target);
+        ByteBuffer buffer = getBuffer(target);
+        int byteIndex = getByteIndex(target, array, intArrayOffset);
+        if (isLockFree(buffer, byteIndex, Long.BYTES)) {
+            return toBigIntElementValue(array, ByteBufferAtomics.compareAndExchangeLong(buffer, byteIndex, expected.longValue(), replacement.longValue()));
         }
+        return atomicFetchOrGetBigIntLocked(cx, target, intArrayOffset, expected, replacement);
     }
 
     @TruffleBoundary
-    public static BigInt atomicFetchOrGetBigInt(JSContext cx, DynamicObject target, int intArrayOffset, BigInt expected, BigInt replacement) {
-        cx.getJSAgent().atomicSectionEnter(target);
+    private static BigInt atomicFetchOrGetBigIntLocked(JSContext cx, DynamicObject target, int intArrayOffset, BigInt expected, BigInt replacement) {
+        int byteIndex = getByteIndex(cx, target, intArrayOffset);
+        cx.getJSAgent().atomicSectionEnter(target, byteIndex);
         try {
-            BigInt read = doVolatileGetBigInt(target, intArrayOffset);
+            BigInt read = doVolatileGetBigIntWithFence(target, intArrayOffset);
             if (read.compareTo(expected) == 0) {
-                doVolatilePutBigInt(target, intArrayOffset, replacement);
+                doVolatilePutBigIntWithFence(target, intArrayOffset, replacement);
             }
             return read;
         } finally {
-            cx.getJSAgent().atomicSectionLeave(target);
+            cx.getJSAgent().atomicSectionLeave(target, byteIndex);
         }
     }
 
     // ##### Thread Wake/Park primitives
 
     @SuppressWarnings("unused")
-    public static JSAgentWaiterListEntry getWaiterList(JSContext cx, DynamicObject target, int indexPos) {
+    public static JSAgentWaiterListEntry getWaiterList(JSContext cx, DynamicObject target, int byteIndex) {
         DynamicObject arrayBuffer = JSArrayBufferView.getArrayBuffer(target, JSArrayBufferView.isJSArrayBufferView(target));
         JSAgentWaiterList waiterList = JSSharedArrayBuffer.getWaiterList(arrayBuffer);
-        return waiterList.getListForIndex(indexPos);
+        return waiterList.getListForIndex(byteIndex);
     }
 
     @TruffleBoundary
@@ -238,24 +413,24 @@ public final class SharedMemorySync {
     }
 
     @TruffleBoundary
-    public static void addWaiter(JSContext cx, JSAgentWaiterListEntry wl, int id) {
+    public static void addWaiter(JSContext cx, JSAgentWaiterListEntry wl, int byteIndex, int id) {
         assert cx.getJSAgent().inCriticalSection();
-        assert !wl.contains(id);
-        wl.add(id);
+        assert !wl.contains(byteIndex, id);
+        wl.add(byteIndex, id);
     }
 
     @TruffleBoundary
-    public static void removeWaiter(JSContext cx, JSAgentWaiterListEntry wl, int w) {
+    public static void removeWaiter(JSContext cx, JSAgentWaiterListEntry wl, int byteIndex, int w) {
         assert cx.getJSAgent().inCriticalSection();
-        assert wl.contains(w);
-        wl.remove(w);
+        boolean removed = wl.remove(byteIndex, w);
+        assert removed;
     }
 
     /* ECMA2017 24.4.1.9 - Suspend returns true if agent was woken by another agent */
     @TruffleBoundary
-    public static boolean suspendAgent(JSContext cx, JSAgentWaiterListEntry wl, int w, int timeout) {
+    public static boolean suspendAgent(JSContext cx, JSAgentWaiterListEntry wl, int byteIndex, int w, int timeout) {
         assert cx.getJSAgent().inCriticalSection();
-        assert wl.contains(w);
+        assert wl.contains(byteIndex, w);
         assert cx.getJSAgent().getSignifier() == w;
         assert cx.getJSAgent().canBlock();
         cx.getJSAgent().criticalSectionLeave(wl);
@@ -277,13 +452,8 @@ public final class SharedMemorySync {
     }
 
     @TruffleBoundary
-    public static int[] removeWaiters(JSContext cx, JSAgentWaiterListEntry wl, int count) {
+    public static int[] removeWaiters(JSContext cx, JSAgentWaiterListEntry wl, int byteIndex, int count) {
         assert cx.getJSAgent().inCriticalSection();
-        int c = Integer.min(wl.size(), count);
-        int[] removed = new int[c];
-        while (c-- > 0) {
-            removed[c] = wl.poll();
-        }
-        return removed;
+        return wl.removeWaiters(byteIndex, count);
     }
 }
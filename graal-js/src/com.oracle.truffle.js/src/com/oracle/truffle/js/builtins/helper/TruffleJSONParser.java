@@ -42,6 +42,7 @@ package com.oracle.truffle.js.builtins.helper;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSException;
@@ -51,6 +52,7 @@ import com.oracle.truffle.js.runtime.builtins.JSAbstractArray;
 import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.builtins.JSUserObject;
 import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.util.DoubleParser;
 
 public class TruffleJSONParser {
 
@@ -59,6 +61,7 @@ public class TruffleJSONParser {
     protected int len;
     protected String parseStr;
     protected int parseDepth;
+    private final JSONShapeCache shapeCache = new JSONShapeCache();
 
     protected static final char[] NullLiteral = new char[]{'n', 'u', 'l', 'l'};
     protected static final char[] BooleanTrueLiteral = new char[]{'t', 'r', 'u', 'e'};
@@ -72,10 +75,23 @@ public class TruffleJSONParser {
     }
 
     public Object parse(String value) {
-        this.pos = 0;
-        this.parseDepth = 0;
         this.parseStr = value;
         this.len = parseStr.length();
+        try {
+            return parseDocument();
+        } finally {
+            parseStr = null;
+        }
+    }
+
+    /**
+     * Parses the whole input as a single JSON text. The input is accessed only via
+     * {@link #get(int)}, {@link #isValidPos(int)}, {@link #substring(int, int)},
+     * {@link #parseSafeInteger(int, int)}, and {@link #parseDouble(int, int)}.
+     */
+    protected final Object parseDocument() {
+        this.pos = 0;
+        this.parseDepth = 0;
         try {
             skipWhitespace();
             Object result = parseJSONText();
@@ -92,8 +108,6 @@ public class TruffleJSONParser {
             throwSyntaxError(unexpectedEndOfInputMessage());
         } catch (Exception ex) {
             throwSyntaxError(null);
-        } finally {
-            parseStr = null;
         }
         return null;
     }
@@ -157,20 +171,57 @@ public class TruffleJSONParser {
     }
 
     private void parseJSONMemberList(DynamicObject object) {
-        Member member = parseJSONMember();
-        JSRuntime.createDataProperty(object, member.getKey(), member.getValue());
+        parseJSONMember(object);
         while (get() == ',') {
             read();
-            member = parseJSONMember();
-            JSRuntime.createDataProperty(object, member.getKey(), member.getValue());
+            parseJSONMember(object);
         }
     }
 
-    private Member parseJSONMember() {
-        String jsonString = parseJSONString();
+    /**
+     * Parses a member and adds it to the object, using a shape transition recorded for a previous
+     * object with the same keys where possible (see {@link JSONShapeCache}).
+     */
+    private void parseJSONMember(DynamicObject object) {
+        Shape shape = object.getShape();
+        JSONShapeCache.Transition transition = shapeCache.get(shape);
+        String key;
+        if (transition != null && transition.plainKey && readExpectedKey(transition.key)) {
+            key = transition.key;
+        } else {
+            key = parseJSONString();
+            if (transition != null) {
+                transition = transition.find(key);
+            }
+        }
         read(':');
-        Object jsonValue = parseJSONValue();
-        return new Member(jsonString, jsonValue);
+        Object value = parseJSONValue();
+        if (transition == null || !transition.tryAdd(object, shape, value)) {
+            JSRuntime.createDataProperty(object, key, value);
+            shapeCache.record(shape, object.getShape(), key);
+        }
+    }
+
+    /**
+     * Checks whether the input at the current position is the given key without escapes and, if
+     * so, skips it.
+     */
+    private boolean readExpectedKey(String key) {
+        int keyLength = key.length();
+        if (!isStringQuote(get()) || !isValidPos(pos + keyLength + 1)) {
+            return false;
+        }
+        for (int i = 0; i < keyLength; i++) {
+            if (get(pos + 1 + i) != key.charAt(i)) {
+                return false;
+            }
+        }
+        if (!isStringQuote(get(pos + 1 + keyLength))) {
+            return false;
+        }
+        pos += keyLength + 1;
+        read();
+        return true;
     }
 
     private Object parseJSONArray() {
@@ -255,7 +306,7 @@ public class TruffleJSONParser {
             pos++; // don't skip whitespace here
             c = get();
         }
-        String s = parseStr.substring(startPos, pos);
+        String s = substring(startPos, pos);
         if (hasEscapes) {
             return unquoteJSON(s);
         } else {
@@ -367,7 +418,7 @@ public class TruffleJSONParser {
             error("Expected number but found ident");
         } else if (firstPosIsZero) {
             // "0" should be parsable, but "08" not
-            if ((startPos + 1) < len) {
+            if (isValidPos(startPos + 1)) {
                 c = get(startPos + 1);
                 if (c == 'x' || c == 'X' || JSRuntime.isAsciiDigit(c)) {
                     error("octal and hexadecimal not allowed");
@@ -395,8 +446,7 @@ public class TruffleJSONParser {
             }
         } else if (fractionPos == -1 && !hasExponent && (endPos - startPos <= JSRuntime.MAX_SAFE_INTEGER_DIGITS)) {
             // safe integer but not zero
-            final int radix = 10;
-            long safeInt = JSRuntime.parseSafeInteger(parseStr, startPos, endPos, radix);
+            long safeInt = parseSafeInteger(startPos, endPos);
             assert safeInt != 0;
             if (safeInt != JSRuntime.INVALID_SAFE_INTEGER) {
                 safeInt *= sign;
@@ -407,12 +457,7 @@ public class TruffleJSONParser {
                 }
             }
         }
-        String valueStr = parseStr.substring(startPos, endPos);
-        return parseAsDouble(sign, valueStr);
-    }
-
-    protected static Number parseAsDouble(int sign, String valueStr) {
-        return Double.parseDouble(valueStr) * sign;
+        return parseDouble(startPos, endPos) * sign;
     }
 
     protected int readDigits() {
@@ -440,7 +485,7 @@ public class TruffleJSONParser {
         if (pos == startPos) {
             error("Expected number but found ident");
         }
-        return sign * Integer.parseInt(parseStr.substring(startPos, pos));
+        return sign * Integer.parseInt(substring(startPos, pos));
     }
 
     protected boolean isExponentPart() {
@@ -502,15 +547,36 @@ public class TruffleJSONParser {
         return parseStr.charAt(posParam);
     }
 
+    protected String substring(int beginIndex, int endIndex) {
+        return parseStr.substring(beginIndex, endIndex);
+    }
+
+    /**
+     * Parses the number in the given range, which has already been validated, without extracting
+     * it as a string.
+     */
+    protected double parseDouble(int beginIndex, int endIndex) {
+        return DoubleParser.parse(parseStr, beginIndex, endIndex);
+    }
+
+    /**
+     * Parses the decimal digits in the given range as a safe integer.
+     *
+     * @return the parsed value or {@link JSRuntime#INVALID_SAFE_INTEGER}
+     */
+    protected long parseSafeInteger(int beginIndex, int endIndex) {
+        return JSRuntime.parseSafeInteger(parseStr, beginIndex, endIndex, 10);
+    }
+
     protected void read() {
-        assert len > pos;
+        assert isValidPos(pos);
         pos++;
         skipWhitespace();
     }
 
     protected void read(String expected) {
-        assert len >= pos + expected.length();
-        assert parseStr.substring(pos, pos + expected.length()).equals(expected);
+        assert isValidPos(pos + expected.length() - 1);
+        assert substring(pos, pos + expected.length()).equals(expected);
         pos += expected.length();
         skipWhitespace();
     }
@@ -530,11 +596,15 @@ public class TruffleJSONParser {
     }
 
     protected boolean posValid() {
-        return pos < len;
+        return isValidPos(pos);
+    }
+
+    protected boolean isValidPos(int posParam) {
+        return posParam < len;
     }
 
     protected boolean isLiteral(char[] literal) {
-        if (len < pos + literal.length) {
+        if (!isValidPos(pos + literal.length - 1)) {
             return false;
         }
         // fastpath for the cached current character
@@ -548,22 +618,4 @@ public class TruffleJSONParser {
         }
         return true;
     }
-
-    protected final class Member {
-        private final String key;
-        private final Object value;
-
-        public Member(String key, Object value) {
-            this.key = key;
-            this.value = value;
-        }
-
-        public String getKey() {
-            return key;
-        }
-
-        public Object getValue() {
-            return value;
-        }
-    }
 }
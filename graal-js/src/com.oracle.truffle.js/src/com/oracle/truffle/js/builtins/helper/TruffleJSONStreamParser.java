@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.util.DoubleParser;
+
+/**
+ * JSON parser that reads its input incrementally from a {@link Reader}, {@link InputStream} or
+ * {@link ByteBuffer} instead of requiring the whole document as a {@link String}.
+ *
+ * Only a window of the input is kept in a read buffer of bounded size. Characters before the
+ * current position are discarded when the buffer is refilled, unless they belong to the string or
+ * number token being parsed; the buffer only grows beyond its initial size for tokens longer than
+ * that. Byte input is decoded as UTF-8.
+ *
+ * Positions are relative to the retained window rather than to the start of the input: when the
+ * prefix is discarded outside of a token, and at the start of every token, all positions are
+ * rebased to the start of the buffer and the discarded length is added to {@link #positionBase},
+ * which is only used to report input positions in error messages. Hence the input may be longer
+ * than {@link Integer#MAX_VALUE} characters, as long as every single token fits into a
+ * {@code char[]}.
+ */
+public final class TruffleJSONStreamParser extends TruffleJSONParser {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final int bufferSize;
+
+    private Reader reader;
+    private char[] buffer;
+    /** Number of characters discarded before position 0, see {@link #error(String)}. */
+    private long positionBase;
+    /** Position of {@code buffer[0]}. */
+    private int bufferStart;
+    /** Position after the last character read into the buffer. */
+    private int bufferEnd;
+    private boolean eof;
+    /** Position of the first character of the current string or number token, or -1. */
+    private int tokenStart;
+    /** For parsing number tokens in place, see {@link #parseDouble(int, int)}. */
+    private final CharSequence bufferView = new BufferView();
+
+    public TruffleJSONStreamParser(JSContext context) {
+        this(context, DEFAULT_BUFFER_SIZE);
+    }
+
+    public TruffleJSONStreamParser(JSContext context, int bufferSize) {
+        super(context);
+        assert bufferSize > 0;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Parses a JSON text from the given reader. The reader is not closed.
+     */
+    @TruffleBoundary
+    public Object parse(Reader source) {
+        this.reader = source;
+        this.buffer = new char[bufferSize];
+        this.positionBase = 0;
+        this.bufferStart = 0;
+        this.bufferEnd = 0;
+        this.eof = false;
+        this.tokenStart = -1;
+        try {
+            return parseDocument();
+        } finally {
+            this.reader = null;
+            this.buffer = null;
+        }
+    }
+
+    /**
+     * Parses a UTF-8 encoded JSON text from the given stream. The stream is not closed.
+     */
+    @TruffleBoundary
+    public Object parse(InputStream source) {
+        return parse(new InputStreamReader(source, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a UTF-8 encoded JSON text from the remaining bytes of the given buffer, advancing its
+     * position.
+     */
+    @TruffleBoundary
+    public Object parse(ByteBuffer source) {
+        return parse(new ByteBufferInputStream(source));
+    }
+
+    @Override
+    protected char get(int posParam) {
+        int position = posParam;
+        if (position >= bufferEnd) {
+            position = fill(position);
+            if (position < 0) {
+                throw new StringIndexOutOfBoundsException(posParam);
+            }
+        }
+        assert position >= bufferStart;
+        return buffer[position - bufferStart];
+    }
+
+    @Override
+    protected boolean isValidPos(int posParam) {
+        return posParam < bufferEnd || fill(posParam) >= 0;
+    }
+
+    @Override
+    protected String substring(int beginIndex, int endIndex) {
+        assert beginIndex >= bufferStart && endIndex <= bufferEnd;
+        return new String(buffer, beginIndex - bufferStart, endIndex - beginIndex);
+    }
+
+    @Override
+    protected double parseDouble(int beginIndex, int endIndex) {
+        assert beginIndex >= bufferStart && endIndex <= bufferEnd;
+        return DoubleParser.parse(bufferView, beginIndex, endIndex);
+    }
+
+    @Override
+    protected long parseSafeInteger(int beginIndex, int endIndex) {
+        long result = 0;
+        for (int i = beginIndex; i < endIndex; i++) {
+            char c = buffer[i - bufferStart];
+            if (!JSRuntime.isAsciiDigit(c)) {
+                return JSRuntime.INVALID_SAFE_INTEGER;
+            }
+            result = result * 10 + (c - '0');
+            if (result > JSRuntime.MAX_SAFE_INTEGER_LONG) {
+                return JSRuntime.INVALID_SAFE_INTEGER;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected String parseJSONStringCharacters() {
+        rebase();
+        tokenStart = pos;
+        try {
+            return super.parseJSONStringCharacters();
+        } finally {
+            tokenStart = -1;
+        }
+    }
+
+    @Override
+    protected Number parseJSONNumber() {
+        rebase();
+        tokenStart = pos;
+        try {
+            return super.parseJSONNumber();
+        } finally {
+            tokenStart = -1;
+        }
+    }
+
+    @Override
+    protected Object error(String message) {
+        // the input is no longer available for reparsing, see TruffleJSONParser.error
+        throw Errors.createSyntaxError((message == null ? "Cannot parse JSON" : message) + " at position " + (positionBase + pos));
+    }
+
+    /**
+     * Reads more input until the character at {@code posParam} is in the buffer. Outside of a
+     * token, discarding the buffer prefix rebases all positions, including {@code posParam}.
+     *
+     * @return the rebased {@code posParam}, or -1 if the end of the input is reached before it
+     */
+    private int fill(int posParam) {
+        int position = posParam;
+        while (position >= bufferEnd) {
+            if (eof) {
+                return -1;
+            }
+            int used = bufferEnd - bufferStart;
+            if (used == buffer.length) {
+                int keep = tokenStart >= 0 ? tokenStart : Math.min(pos, position);
+                int discard = keep - bufferStart;
+                if (discard > 0) {
+                    System.arraycopy(buffer, discard, buffer, 0, used - discard);
+                    bufferStart = keep;
+                    used -= discard;
+                    if (tokenStart < 0) {
+                        // token parsing keeps positions in locals, so only rebase outside of it
+                        position -= rebase();
+                    }
+                } else {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+            int count;
+            try {
+                count = reader.read(buffer, used, buffer.length - used);
+            } catch (IOException ex) {
+                throw Errors.createErrorFromException(ex);
+            }
+            if (count < 0) {
+                eof = true;
+            } else {
+                bufferEnd += count;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Moves position 0 to the start of the buffer.
+     *
+     * @return the distance by which all positions were moved
+     */
+    private int rebase() {
+        int shift = bufferStart;
+        positionBase += shift;
+        pos -= shift;
+        bufferEnd -= shift;
+        bufferStart = 0;
+        return shift;
+    }
+
+    /**
+     * Exposes the remaining bytes of a {@link ByteBuffer} to an {@link InputStreamReader}.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer source;
+
+        ByteBufferInputStream(ByteBuffer source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read() {
+            return source.hasRemaining() ? source.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!source.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, source.remaining());
+            source.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return source.remaining();
+        }
+    }
+
+    /**
+     * Exposes the read buffer as a character sequence indexed by input position.
+     */
+    private final class BufferView implements CharSequence {
+        @Override
+        public int length() {
+            return bufferEnd;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return buffer[index - bufferStart];
+        }
+
+        @Override
+        public CharSequence subSequence(int beginIndex, int endIndex) {
+            return substring(beginIndex, endIndex);
+        }
+
+        @Override
+        public String toString() {
+            return substring(bufferStart, bufferEnd);
+        }
+    }
+}
@@ -44,8 +44,12 @@ import java.util.List;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.js.builtins.helper.ListGetNode;
@@ -56,16 +60,25 @@ import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.builtins.JSClass;
 import com.oracle.truffle.js.runtime.builtins.JSProxy;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
+import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.util.JSClassProfile;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
 import com.oracle.truffle.js.runtime.util.UnmodifiableArrayList;
 
 /**
  * EnumerableOwnPropertyNames (O, kind).
+ *
+ * Objects with only shape properties are handled by a shape cache: the keys are taken from the
+ * shape data, and values are read directly from the cached properties if all of them are data
+ * properties (i.e., reading them cannot run user code that changes the object).
  */
+@ImportStatic({JSConfig.class, JSShape.class})
 public abstract class EnumerableOwnPropertyNamesNode extends JavaScriptBaseNode {
+    /** Maximum number of properties read by an unrolled loop. */
+    static final int MAX_CACHED_PROPERTIES = 32;
 
     private final boolean keys;
     private final boolean values;
@@ -94,6 +107,59 @@ public abstract class EnumerableOwnPropertyNamesNode extends JavaScriptBaseNode
 
     public abstract UnmodifiableArrayList<? extends Object> execute(DynamicObject obj);
 
+    @Specialization(guards = {"FastOwnKeys", "isKeysOnly()", "cachedShape == thisObj.getShape()", "cachedJSClass.hasOnlyShapeProperties(thisObj)"}, //
+                    assumptions = "cachedShape.getValidAssumption()", limit = "3")
+    protected static UnmodifiableArrayList<? extends Object> doKeysCachedShape(@SuppressWarnings("unused") DynamicObject thisObj,
+                    @Cached("thisObj.getShape()") Shape cachedShape,
+                    @SuppressWarnings("unused") @Cached("getJSClass(cachedShape)") JSClass cachedJSClass,
+                    @Cached("getEnumerablePropertyNames(cachedShape)") UnmodifiableArrayList<String> cachedKeys) {
+        return cachedKeys;
+    }
+
+    @Specialization(guards = {"FastOwnKeys", "!isKeysOnly()", "cachedShape == thisObj.getShape()", "cachedProperties != null", "cachedJSClass.hasOnlyShapeProperties(thisObj)"}, //
+                    assumptions = "cachedShape.getValidAssumption()", limit = "3")
+    @ExplodeLoop
+    protected UnmodifiableArrayList<? extends Object> doValuesCachedShape(DynamicObject thisObj,
+                    @Cached("thisObj.getShape()") Shape cachedShape,
+                    @SuppressWarnings("unused") @Cached("getJSClass(cachedShape)") JSClass cachedJSClass,
+                    @Cached(value = "getDataPropertiesOrNull(cachedShape)", dimensions = 1) Property[] cachedProperties) {
+        Object[] elements = new Object[cachedProperties.length];
+        for (int i = 0; i < cachedProperties.length; i++) {
+            Property property = cachedProperties[i];
+            Object value = property.get(thisObj, cachedShape);
+            if (JSProperty.isProxy(property)) {
+                value = ((PropertyProxy) value).get(thisObj);
+            }
+            if (keys) {
+                elements[i] = JSArray.createConstant(context, new Object[]{property.getKey(), value});
+            } else {
+                elements[i] = value;
+            }
+        }
+        return new UnmodifiableArrayList<>(elements);
+    }
+
+    protected final boolean isKeysOnly() {
+        return keys && !values;
+    }
+
+    /**
+     * Returns the enumerable properties of the shape if they are all data properties and few
+     * enough to be read by an unrolled loop, otherwise {@code null}.
+     */
+    static Property[] getDataPropertiesOrNull(Shape shape) {
+        List<Property> properties = JSShape.getEnumerableProperties(shape);
+        if (properties.size() > MAX_CACHED_PROPERTIES) {
+            return null;
+        }
+        for (Property property : properties) {
+            if (!JSProperty.isData(property)) {
+                return null;
+            }
+        }
+        return properties.toArray(new Property[properties.size()]);
+    }
+
     @Specialization
     protected UnmodifiableArrayList<? extends Object> enumerableOwnPropertyNames(DynamicObject thisObj,
                     @Cached JSClassProfile jsclassProfile,
@@ -48,6 +48,8 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.dsl.Cached;
@@ -67,12 +69,14 @@ import com.oracle.truffle.js.nodes.JavaScriptNode;
 import com.oracle.truffle.js.nodes.cast.JSToObjectNode;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSArguments;
+import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.builtins.JSAdapter;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSString;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.util.DebugCounter;
 import com.oracle.truffle.js.runtime.util.ForInIterator;
 import com.oracle.truffle.js.runtime.util.IteratorUtil;
 
@@ -86,6 +90,9 @@ public abstract class EnumerateNode extends JavaScriptNode {
     private final boolean requireIterable;
     protected final JSContext context;
     @Child @Executed protected JavaScriptNode targetNode;
+    /** For-in enum cache of the object shape seen at this site (if only one was seen so far). */
+    @CompilationFinal private ForInIterator.EnumCache cachedEnumCache;
+    @CompilationFinal private boolean enumCacheGeneric;
 
     protected EnumerateNode(JSContext context, boolean values, boolean requireIterable, JavaScriptNode targetNode) {
         this.context = context;
@@ -120,6 +127,10 @@ public abstract class EnumerateNode extends JavaScriptNode {
     protected DynamicObject doEnumerateObject(DynamicObject iteratedObject,
                     @Cached("createBinaryProfile()") ConditionProfile isObject) {
         if (isObject.profile(JSRuntime.isObject(iteratedObject))) {
+            ForInIterator.EnumCache enumCache = getEnumCache(iteratedObject);
+            if (enumCache != null) {
+                return JSObject.create(context, context.getForInIteratorFactory(), new ForInIterator(iteratedObject, values, enumCache));
+            }
             return newForInIterator(context, iteratedObject, values);
         } else {
             // null or undefined
@@ -128,6 +139,35 @@ public abstract class EnumerateNode extends JavaScriptNode {
         }
     }
 
+    private ForInIterator.EnumCache getEnumCache(DynamicObject iteratedObject) {
+        if (!JSConfig.FastOwnKeys) {
+            return null;
+        }
+        ForInIterator.EnumCache enumCache = cachedEnumCache;
+        if (enumCache != null && enumCache.isValidFor(iteratedObject)) {
+            enumCacheHitCount.inc();
+            return enumCache;
+        }
+        if (!enumCacheGeneric) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            enumCache = ForInIterator.EnumCache.lookup(iteratedObject);
+            if (enumCache != null && cachedEnumCache == null) {
+                cachedEnumCache = enumCache;
+            } else {
+                cachedEnumCache = null;
+                enumCacheGeneric = true;
+            }
+        } else {
+            enumCache = ForInIterator.EnumCache.lookup(iteratedObject);
+        }
+        if (enumCache == null) {
+            enumCacheMissCount.inc();
+        } else {
+            enumCacheHitCount.inc();
+        }
+        return enumCache;
+    }
+
     @Specialization(guards = "isJSAdapter(iteratedObject)")
     protected DynamicObject doEnumerateJSAdapter(DynamicObject iteratedObject,
                     @Cached("createValues()") EnumerateNode enumerateCallbackResultNode) {
@@ -307,6 +347,9 @@ public abstract class EnumerateNode extends JavaScriptNode {
         return enumerateNode.execute(toObjectNode.execute(iteratedObject));
     }
 
+    private static final DebugCounter enumCacheHitCount = DebugCounter.create("For-in enum cache hits");
+    private static final DebugCounter enumCacheMissCount = DebugCounter.create("For-in enum cache misses");
+
     private static final class ArrayIterator implements Iterator<Object> {
         private final Object array;
         private final int length;
@@ -49,7 +49,9 @@ import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.Property;
 import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.builtins.JSAdapter;
@@ -59,6 +61,7 @@ import com.oracle.truffle.js.runtime.builtins.JSProxy;
 import com.oracle.truffle.js.runtime.java.JavaImporter;
 import com.oracle.truffle.js.runtime.java.JavaPackage;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.MegamorphicPropertyCache;
 import com.oracle.truffle.js.runtime.util.JSClassProfile;
 
 /**
@@ -221,6 +224,7 @@ public class HasPropertyCacheNode extends PropertyCacheNode<HasPropertyCacheNode
     public static final class GenericHasPropertyCacheNode extends HasCacheNode {
         @Child private InteropLibrary interop;
         private final JSClassProfile jsclassProfile = JSClassProfile.create();
+        private final ConditionProfile cacheHitProfile = ConditionProfile.createBinaryProfile();
 
         public GenericHasPropertyCacheNode() {
             super(null);
@@ -231,6 +235,12 @@ public class HasPropertyCacheNode extends PropertyCacheNode<HasPropertyCacheNode
         protected boolean hasProperty(Object thisObj, HasPropertyCacheNode root) {
             if (JSObject.isJSObject(thisObj)) {
                 Object key = root.getKey();
+                if (JSConfig.MegamorphicPropertyCache) {
+                    MegamorphicPropertyCache.Entry cacheEntry = root.getContext().getMegamorphicPropertyCache().lookup((DynamicObject) thisObj, key);
+                    if (cacheHitProfile.profile(cacheEntry != null)) {
+                        return root.isOwnProperty() ? cacheEntry.isOwnProperty() : cacheEntry.isPresent();
+                    }
+                }
                 if (root.isOwnProperty()) {
                     return JSObject.hasOwnProperty((DynamicObject) thisObj, key, jsclassProfile);
                 } else {
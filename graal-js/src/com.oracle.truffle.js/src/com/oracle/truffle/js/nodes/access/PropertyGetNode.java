@@ -109,6 +109,7 @@ import com.oracle.truffle.js.runtime.objects.Accessor;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.JSShape;
+import com.oracle.truffle.js.runtime.objects.MegamorphicPropertyCache;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.JSClassProfile;
@@ -1107,6 +1108,7 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
         private final JSContext context;
         private final BranchProfile nullOrUndefinedBranch = BranchProfile.create();
         private final BranchProfile fallbackBranch = BranchProfile.create();
+        private final ConditionProfile cacheHitProfile = ConditionProfile.createBinaryProfile();
 
         GetPropertyFromJSObjectNode(PropertyGetNode root) {
             this.key = root.getKey();
@@ -1157,7 +1159,13 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
             }
 
             // 1. try to get a JS property
-            Object value = isMethod ? jsclass.getMethodHelper(object, receiver, key) : jsclass.getHelper(object, receiver, key);
+            Object value;
+            MegamorphicPropertyCache.Entry cacheEntry = JSConfig.MegamorphicPropertyCache ? root.getContext().getMegamorphicPropertyCache().lookup(object, key) : null;
+            if (cacheHitProfile.profile(cacheEntry != null)) {
+                value = cacheEntry.getValue(object, receiver);
+            } else {
+                value = isMethod ? jsclass.getMethodHelper(object, receiver, key) : jsclass.getHelper(object, receiver, key);
+            }
             if (value != null) {
                 return value;
             }
@@ -76,6 +76,7 @@ import com.oracle.truffle.js.nodes.function.JSFunctionCallNode;
 import com.oracle.truffle.js.nodes.interop.ExportValueNode;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSArguments;
+import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.Symbol;
@@ -90,6 +91,7 @@ import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.JSShape;
+import com.oracle.truffle.js.runtime.objects.MegamorphicPropertyCache;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
@@ -990,6 +992,7 @@ public class PropertySetNode extends PropertyCacheNode<PropertySetNode.SetCacheN
         private final ConditionProfile isObject = ConditionProfile.createBinaryProfile();
         private final ConditionProfile isStrictSymbol = ConditionProfile.createBinaryProfile();
         private final ConditionProfile isForeignObject = ConditionProfile.createBinaryProfile();
+        private final ConditionProfile cacheHitProfile = ConditionProfile.createBinaryProfile();
 
         public GenericPropertySetNode(JSContext context) {
             super(null);
@@ -1029,6 +1032,12 @@ public class PropertySetNode extends PropertyCacheNode<PropertySetNode.SetCacheN
                     JSObject.defineOwnProperty(thisJSObj, key, PropertyDescriptor.createData(value, root.getAttributeFlags()), root.isStrict());
                 }
             } else {
+                if (JSConfig.MegamorphicPropertyCache) {
+                    MegamorphicPropertyCache.Entry cacheEntry = root.getContext().getMegamorphicPropertyCache().lookup(thisJSObj, key);
+                    if (cacheHitProfile.profile(cacheEntry != null && cacheEntry.setValue(thisJSObj, value, receiver, root.isStrict()))) {
+                        return;
+                    }
+                }
                 JSObject.setWithReceiver(thisJSObj, key, value, receiver, root.isStrict(), jsclassProfile);
             }
         }
@@ -119,6 +119,14 @@ public abstract class InitializeDateTimeFormatNode extends JavaScriptBaseNode {
 
     public abstract DynamicObject executeInit(DynamicObject collator, Object locales, Object options);
 
+    public String getRequired() {
+        return required;
+    }
+
+    public String getDefaults() {
+        return defaults;
+    }
+
     public static InitializeDateTimeFormatNode createInitalizeDateTimeFormatNode(JSContext context, String required, String defaults) {
         return InitializeDateTimeFormatNodeGen.create(context, required, defaults);
     }
@@ -71,6 +71,7 @@ import com.oracle.truffle.js.runtime.PromiseHook;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
 import com.oracle.truffle.js.runtime.objects.PromiseCapabilityRecord;
+import com.oracle.truffle.js.runtime.objects.PromiseReactionJob;
 import com.oracle.truffle.js.runtime.objects.PromiseReactionRecord;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 
@@ -94,21 +95,37 @@ public class PromiseReactionJobNode extends JavaScriptBaseNode {
         return new PromiseReactionJobNode(context);
     }
 
+    /**
+     * Creates a job function that can be called without arguments.
+     */
     public DynamicObject execute(Object reaction, Object argument) {
-        JSFunctionData functionData = context.getOrCreateBuiltinFunctionData(JSContext.BuiltinFunctionKey.PromiseReactionJob, (c) -> createPromiseReactionJobImpl(c));
+        JSFunctionData functionData = context.getOrCreateBuiltinFunctionData(JSContext.BuiltinFunctionKey.PromiseReactionJob, (c) -> createPromiseReactionJobImpl(c, true));
         DynamicObject function = JSFunction.create(context.getRealm(), functionData);
         setReaction.setValue(function, reaction);
         setArgument.setValue(function, argument);
         return function;
     }
 
-    private static JSFunctionData createPromiseReactionJobImpl(JSContext context) {
-        CallTarget callTarget = Truffle.getRuntime().createCallTarget(new PromiseReactionJobRootNode(context));
+    /**
+     * Creates a job record; cheaper than a job function if the job is only enqueued.
+     */
+    public PromiseReactionJob createJob(PromiseReactionRecord reaction, Object argument) {
+        JSFunctionData functionData = context.getOrCreateBuiltinFunctionData(JSContext.BuiltinFunctionKey.PromiseReactionRecordJob, (c) -> createPromiseReactionJobImpl(c, false));
+        return PromiseReactionJob.create(context.getRealm(), functionData.getCallTarget(), reaction, argument);
+    }
+
+    private static JSFunctionData createPromiseReactionJobImpl(JSContext context, boolean jobFunction) {
+        CallTarget callTarget = Truffle.getRuntime().createCallTarget(new PromiseReactionJobRootNode(context, jobFunction));
         return JSFunctionData.createCallOnly(context, callTarget, 0, "");
     }
 
+    /**
+     * Executes a PromiseReactionJob, stored either in the hidden properties of a job function or in
+     * a {@link PromiseReactionJob} record passed as the only argument.
+     */
     public static class PromiseReactionJobRootNode extends JavaScriptRootNode implements InstrumentableNode {
         private final JSContext context;
+        private final boolean jobFunction;
         @Child private PropertyGetNode getReaction;
         @Child private PropertyGetNode getArgument;
         @Child private JSFunctionCallNode callResolveNode;
@@ -118,18 +135,40 @@ public class PromiseReactionJobNode extends JavaScriptBaseNode {
         private final ConditionProfile handlerProf = ConditionProfile.createBinaryProfile();
         private final ValueProfile typeProfile = ValueProfile.createClassProfile();
 
-        PromiseReactionJobRootNode(JSContext context) {
+        PromiseReactionJobRootNode(JSContext context, boolean jobFunction) {
             super(context.getLanguage(), null, null);
             this.context = context;
-            this.getReaction = PropertyGetNode.createGetHidden(REACTION_KEY, context);
-            this.getArgument = PropertyGetNode.createGetHidden(ARGUMENT_KEY, context);
+            this.jobFunction = jobFunction;
+            if (jobFunction) {
+                this.getReaction = PropertyGetNode.createGetHidden(REACTION_KEY, context);
+                this.getArgument = PropertyGetNode.createGetHidden(ARGUMENT_KEY, context);
+            }
+        }
+
+        private PromiseReactionRecord getReaction(Frame frame) {
+            if (jobFunction) {
+                return (PromiseReactionRecord) getReaction.getValue(JSFrameUtil.getFunctionObject(frame));
+            } else {
+                return getJob(frame).getReaction();
+            }
+        }
+
+        private Object getArgument(Frame frame) {
+            if (jobFunction) {
+                return getArgument.getValue(JSFrameUtil.getFunctionObject(frame));
+            } else {
+                return getJob(frame).getArgument();
+            }
+        }
+
+        private static PromiseReactionJob getJob(Frame frame) {
+            return (PromiseReactionJob) JSArguments.getUserArgument(frame.getArguments(), 0);
         }
 
         @Override
         public Object execute(VirtualFrame frame) {
-            DynamicObject functionObject = JSFrameUtil.getFunctionObject(frame);
-            PromiseReactionRecord reaction = (PromiseReactionRecord) getReaction.getValue(functionObject);
-            Object argument = getArgument.getValue(functionObject);
+            PromiseReactionRecord reaction = getReaction(frame);
+            Object argument = getArgument(frame);
 
             PromiseCapabilityRecord promiseCapability = reaction.getCapability();
             Object handler = reaction.getHandler();
@@ -220,8 +259,7 @@ public class PromiseReactionJobNode extends JavaScriptBaseNode {
                 return null;
             }
 
-            DynamicObject functionObject = JSFrameUtil.getFunctionObject(frame);
-            PromiseReactionRecord reaction = (PromiseReactionRecord) getReaction.getValue(functionObject);
+            PromiseReactionRecord reaction = getReaction(frame);
             PromiseCapabilityRecord promiseCapability = reaction.getCapability();
             if (promiseCapability != null) {
                 return AwaitNode.findAsyncStackFramesFromPromise(promiseCapability.getPromise());
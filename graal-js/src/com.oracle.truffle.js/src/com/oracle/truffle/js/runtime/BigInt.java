@@ -54,30 +54,51 @@ import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.runtime.truffleinterop.JSMetaType;
 
+/**
+ * A BigInt value. Values that fit into a {@code long} are stored as such, and arithmetic on them is
+ * performed with overflow checks, so that common operations do not allocate {@link BigInteger}s
+ * and can be compiled without boundaries. Larger values (and results that overflow) are stored as
+ * {@link BigInteger}. The representation is normalized, i.e. a value is stored as a
+ * {@link BigInteger} only if it does not fit into a {@code long}.
+ */
 @ExportLibrary(InteropLibrary.class)
 @ValueType
 public final class BigInt implements Comparable<BigInt>, TruffleObject {
 
     static final long serialVersionUID = 6019523258212492110L;
 
+    /** The value if it does not fit into a {@code long}, otherwise {@code null}. */
     private final BigInteger value;
+    /** The value if it fits into a {@code long}. */
+    private final long longValue;
 
-    public static final BigInt ZERO = new BigInt(BigInteger.ZERO);
-    public static final BigInt ONE = new BigInt(BigInteger.ONE);
-    public static final BigInt NEGATIVE_ONE = new BigInt(BigInteger.valueOf(-1));
-    public static final BigInt TWO = new BigInt(BigInteger.valueOf(2));
+    public static final BigInt ZERO = new BigInt(0L);
+    public static final BigInt ONE = new BigInt(1L);
+    public static final BigInt NEGATIVE_ONE = new BigInt(-1L);
+    public static final BigInt TWO = new BigInt(2L);
 
-    public static final BigInt MAX_INT = new BigInt(BigInteger.valueOf(Integer.MAX_VALUE));
-    public static final BigInt MIN_INT = new BigInt(BigInteger.valueOf(Integer.MIN_VALUE));
+    public static final BigInt MAX_INT = new BigInt(Integer.MAX_VALUE);
+    public static final BigInt MIN_INT = new BigInt(Integer.MIN_VALUE);
 
     private static final BigInteger TWO64 = BigInteger.ONE.shiftLeft(64);
 
     public BigInt(String s, int r) {
-        this.value = new BigInteger(s, r);
+        this(new BigInteger(s, r));
     }
 
     public BigInt(BigInteger v) {
-        this.value = v;
+        if (v.bitLength() < Long.SIZE) {
+            this.value = null;
+            this.longValue = v.longValue();
+        } else {
+            this.value = v;
+            this.longValue = 0;
+        }
+    }
+
+    private BigInt(long v) {
+        this.value = null;
+        this.longValue = v;
     }
 
     @TruffleBoundary
@@ -96,20 +117,23 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
         return new BigInt(parseBigInteger(s));
     }
 
-    @TruffleBoundary
     public static BigInt valueOf(long i) {
-        return new BigInt(BigInteger.valueOf(i));
+        return new BigInt(i);
     }
 
-    @TruffleBoundary
     public static BigInt valueOfUnsigned(long i) {
         if (i >= 0) {
-            return new BigInt(BigInteger.valueOf(i));
+            return new BigInt(i);
         } else {
-            return new BigInt(BigInteger.valueOf(i).mod(TWO64));
+            return valueOfUnsignedSlow(i);
         }
     }
 
+    @TruffleBoundary
+    private static BigInt valueOfUnsignedSlow(long i) {
+        return new BigInt(BigInteger.valueOf(i).mod(TWO64));
+    }
+
     @TruffleBoundary
     private static BigInteger parseBigInteger(final String valueString) {
 
@@ -141,52 +165,95 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
         return new BigInteger(trimmedString, 10);
     }
 
-    @TruffleBoundary
+    /**
+     * Returns whether the value fits into a {@code long}, i.e. is not stored as a
+     * {@link BigInteger}.
+     */
+    public boolean isLong() {
+        return value == null;
+    }
+
     public int intValue() {
-        return value.intValue();
+        if (value == null) {
+            return (int) longValue;
+        }
+        return (int) bigLongValue(value);
     }
 
-    @TruffleBoundary
     public double doubleValue() {
+        if (value == null) {
+            return longValue;
+        }
+        return bigDoubleValue(value);
+    }
+
+    @TruffleBoundary
+    private static double bigDoubleValue(BigInteger value) {
         return value.doubleValue();
     }
 
     public BigInteger bigIntegerValue() {
+        if (value == null) {
+            return toBigInteger(longValue);
+        }
         return value;
     }
 
     @TruffleBoundary
+    private static BigInteger toBigInteger(long value) {
+        return BigInteger.valueOf(value);
+    }
+
     public BigInt toBigInt64() {
-        return valueOf(value.longValue());
+        if (value == null) {
+            return this;
+        }
+        return valueOf(bigLongValue(value));
     }
 
-    @TruffleBoundary
     public BigInt toBigUint64() {
-        return new BigInt(value.mod(TWO64));
+        if (value == null && longValue >= 0) {
+            return this;
+        }
+        return toBigUint64Slow();
+    }
+
+    @TruffleBoundary
+    private BigInt toBigUint64Slow() {
+        return new BigInt(bigIntegerValue().mod(TWO64));
     }
 
     @TruffleBoundary
     public BigInt pow(int e) {
-        return new BigInt(value.pow(e));
+        return new BigInt(bigIntegerValue().pow(e));
     }
 
     @TruffleBoundary
     public BigInt mod(BigInt m) {
-        return new BigInt(value.mod(m.value));
+        return new BigInt(bigIntegerValue().mod(m.bigIntegerValue()));
     }
 
     @Override
-    @TruffleBoundary
     public int compareTo(BigInt b) {
-        return value.compareTo(b.value);
+        if (value == null && b.value == null) {
+            return Long.compare(longValue, b.longValue);
+        }
+        return compareToSlow(b);
     }
 
     @TruffleBoundary
+    private int compareToSlow(BigInt b) {
+        return bigIntegerValue().compareTo(b.bigIntegerValue());
+    }
+
     public int compareValueTo(long b) {
-        return value.compareTo(BigInteger.valueOf(b));
+        if (value == null) {
+            return Long.compare(longValue, b);
+        }
+        // a value that does not fit into a long is greater or less than any long
+        return value.signum();
     }
 
-    @TruffleBoundary
     public int compareValueTo(double b) {
 
         assert !Double.isNaN(b) : "unexpected NAN in BigInt value comparison";
@@ -195,55 +262,118 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
             return -1;
         } else if (b == Double.NEGATIVE_INFINITY) {
             return 1;
+        } else if (value == null && b > Long.MIN_VALUE && b < Long.MAX_VALUE) {
+            long integral = (long) b;
+            if (longValue != integral) {
+                return Long.compare(longValue, integral);
+            }
+            // b is integral or has a fractional part with the sign of b
+            return b > integral ? -1 : (b < integral ? 1 : 0);
         } else {
-            BigDecimal thisValue = new BigDecimal(value);
-            BigDecimal theOtherValue = new BigDecimal(b);
-            return thisValue.compareTo(theOtherValue);
+            return compareValueToSlow(b);
         }
     }
 
     @TruffleBoundary
+    private int compareValueToSlow(double b) {
+        BigDecimal thisValue = new BigDecimal(bigIntegerValue());
+        BigDecimal theOtherValue = new BigDecimal(b);
+        return thisValue.compareTo(theOtherValue);
+    }
+
     public BigInt subtract(BigInt b) {
-        return new BigInt(value.subtract(b.value));
+        if (value == null && b.value == null) {
+            long x = longValue;
+            long y = b.longValue;
+            long r = x - y;
+            if (((x ^ y) & (x ^ r)) >= 0) {
+                return new BigInt(r);
+            }
+        }
+        return subtractSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt subtractSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().subtract(b.bigIntegerValue()));
+    }
+
     public BigInt add(BigInt b) {
-        return new BigInt(value.add(b.value));
+        if (value == null && b.value == null) {
+            long x = longValue;
+            long y = b.longValue;
+            long r = x + y;
+            if (((x ^ r) & (y ^ r)) >= 0) {
+                return new BigInt(r);
+            }
+        }
+        return addSlow(b);
+    }
+
+    @TruffleBoundary
+    private BigInt addSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().add(b.bigIntegerValue()));
     }
 
     @TruffleBoundary
     public String toString(int radix) {
+        if (value == null) {
+            return Long.toString(longValue, radix);
+        }
         return value.toString(radix);
     }
 
-    @TruffleBoundary
     public boolean testBit(int n) {
-        return value.testBit(n);
+        if (value == null && n >= 0) {
+            return ((longValue >> Math.min(n, Long.SIZE - 1)) & 1) != 0;
+        }
+        return testBitSlow(n);
+    }
+
+    @TruffleBoundary
+    private boolean testBitSlow(int n) {
+        return bigIntegerValue().testBit(n);
     }
 
     @TruffleBoundary(allowInlining = true)
     public int signum() {
+        if (value == null) {
+            return Long.signum(longValue);
+        }
         return value.signum();
     }
 
-    @TruffleBoundary
     public BigInt negate() {
-        return new BigInt(value.negate());
+        if (value == null && longValue != Long.MIN_VALUE) {
+            return new BigInt(-longValue);
+        }
+        return negateSlow();
     }
 
     @TruffleBoundary
+    private BigInt negateSlow() {
+        return new BigInt(bigIntegerValue().negate());
+    }
+
     public BigInt not() {
+        if (value == null) {
+            return new BigInt(~longValue);
+        }
+        return notSlow();
+    }
+
+    @TruffleBoundary
+    private BigInt notSlow() {
         return new BigInt(value.not());
     }
 
     @Override
     @TruffleBoundary
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((value == null) ? 0 : value.hashCode());
-        return result;
+        if (value == null) {
+            return Long.hashCode(longValue);
+        }
+        return value.hashCode();
     }
 
     @Override
@@ -260,69 +390,145 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
         }
         BigInt other = (BigInt) obj;
         if (value == null) {
-            if (other.value != null) {
-                return false;
-            }
-        } else if (!value.equals(other.value)) {
-            return false;
+            return other.value == null && longValue == other.longValue;
+        } else {
+            return value.equals(other.value);
         }
-        return true;
     }
 
-    @TruffleBoundary
     public BigInt and(BigInt b) {
-        return new BigInt(value.and(b.value));
+        if (value == null && b.value == null) {
+            return new BigInt(longValue & b.longValue);
+        }
+        return andSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt andSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().and(b.bigIntegerValue()));
+    }
+
     public BigInt or(BigInt b) {
-        return new BigInt(value.or(b.value));
+        if (value == null && b.value == null) {
+            return new BigInt(longValue | b.longValue);
+        }
+        return orSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt orSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().or(b.bigIntegerValue()));
+    }
+
     public BigInt xor(BigInt b) {
-        return new BigInt(value.xor(b.value));
+        if (value == null && b.value == null) {
+            return new BigInt(longValue ^ b.longValue);
+        }
+        return xorSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt xorSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().xor(b.bigIntegerValue()));
+    }
+
     public BigInt multiply(BigInt b) {
-        return new BigInt(value.multiply(b.value));
+        if (value == null && b.value == null) {
+            long x = longValue;
+            long y = b.longValue;
+            long r = x * y;
+            // same overflow check as Math.multiplyExact
+            if ((((Math.abs(x) | Math.abs(y)) >>> 31) == 0) || ((y == 0 || r / y == x) && !(x == Long.MIN_VALUE && y == -1))) {
+                return new BigInt(r);
+            }
+        }
+        return multiplySlow(b);
     }
 
     @TruffleBoundary
+    private BigInt multiplySlow(BigInt b) {
+        return new BigInt(bigIntegerValue().multiply(b.bigIntegerValue()));
+    }
+
     public BigInt divide(BigInt b) {
-        return new BigInt(value.divide(b.value));
+        if (value == null && b.value == null && b.longValue != 0 && !(longValue == Long.MIN_VALUE && b.longValue == -1)) {
+            return new BigInt(longValue / b.longValue);
+        }
+        return divideSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt divideSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().divide(b.bigIntegerValue()));
+    }
+
     public BigInt remainder(BigInt b) {
-        return new BigInt(value.remainder(b.value));
+        if (value == null && b.value == null && b.longValue != 0) {
+            return new BigInt(longValue % b.longValue);
+        }
+        return remainderSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt remainderSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().remainder(b.bigIntegerValue()));
+    }
+
     public BigInt shiftLeft(int b) {
-        return new BigInt(value.shiftLeft(b));
+        if (value == null && b >= 0 && b < Long.SIZE) {
+            long r = longValue << b;
+            if ((r >> b) == longValue) {
+                return new BigInt(r);
+            }
+        }
+        return shiftLeftSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt shiftLeftSlow(int b) {
+        return new BigInt(bigIntegerValue().shiftLeft(b));
+    }
+
     public BigInt shiftRight(int b) {
-        return new BigInt(value.shiftRight(b));
+        if (value == null && b >= 0) {
+            return new BigInt(longValue >> Math.min(b, Long.SIZE - 1));
+        }
+        return shiftRightSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt shiftRightSlow(int b) {
+        return new BigInt(bigIntegerValue().shiftRight(b));
+    }
+
     public long longValueExact() {
-        return value.longValueExact();
+        if (value == null) {
+            return longValue;
+        }
+        return bigLongValueExact(value);
     }
 
     @TruffleBoundary
+    private static long bigLongValueExact(BigInteger value) {
+        return value.longValueExact();
+    }
+
     public long longValue() {
+        if (value == null) {
+            return longValue;
+        }
+        return bigLongValue(value);
+    }
+
+    @TruffleBoundary
+    private static long bigLongValue(BigInteger value) {
         return value.longValue();
     }
 
     @Override
     @TruffleBoundary
     public String toString() {
-        return value.toString(10);
+        return toString(10);
     }
 
     @ExportMessage
@@ -331,102 +537,88 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
     }
 
     @ExportMessage
-    @TruffleBoundary
     boolean fitsInByte() {
-        return value.bitLength() < Byte.SIZE;
+        return value == null && longValue == (byte) longValue;
     }
 
     @ExportMessage
-    @TruffleBoundary
     boolean fitsInShort() {
-        return value.bitLength() < Short.SIZE;
+        return value == null && longValue == (short) longValue;
     }
 
     @ExportMessage
-    @TruffleBoundary
     boolean fitsInInt() {
-        return value.bitLength() < Integer.SIZE;
+        return value == null && longValue == (int) longValue;
     }
 
     @ExportMessage
-    @TruffleBoundary
     public boolean fitsInLong() {
-        return value.bitLength() < Long.SIZE;
+        return value == null;
     }
 
     @ExportMessage
     @TruffleBoundary
     boolean fitsInDouble() {
-        if (value.bitLength() <= 53) { // 53 = size of double mantissa + 1
-            return true;
-        } else {
-            double doubleValue = value.doubleValue();
-            if (!Double.isFinite(doubleValue)) {
-                return false;
-            }
-            return new BigDecimal(doubleValue).toBigIntegerExact().equals(value);
+        if (value == null) {
+            return (long) (double) longValue == longValue && longValue != Long.MAX_VALUE;
+        }
+        double doubleValue = value.doubleValue();
+        if (!Double.isFinite(doubleValue)) {
+            return false;
         }
+        return new BigDecimal(doubleValue).toBigIntegerExact().equals(value);
     }
 
     @ExportMessage
     @TruffleBoundary
     boolean fitsInFloat() {
-        if (value.bitLength() <= 24) { // 24 = size of float mantissa + 1
-            return true;
-        } else {
-            float floatValue = value.floatValue();
-            if (!Float.isFinite(floatValue)) {
-                return false;
-            }
-            return new BigDecimal(floatValue).toBigIntegerExact().equals(value);
+        if (value == null) {
+            return (long) (float) longValue == longValue && longValue != Long.MAX_VALUE;
+        }
+        float floatValue = value.floatValue();
+        if (!Float.isFinite(floatValue)) {
+            return false;
         }
+        return new BigDecimal(floatValue).toBigIntegerExact().equals(value);
     }
 
     @ExportMessage
-    @TruffleBoundary
     byte asByte() throws UnsupportedMessageException {
-        try {
-            return value.byteValueExact();
-        } catch (ArithmeticException e) {
-            throw UnsupportedMessageException.create();
+        if (fitsInByte()) {
+            return (byte) longValue;
         }
+        throw UnsupportedMessageException.create();
     }
 
     @ExportMessage
-    @TruffleBoundary
     short asShort() throws UnsupportedMessageException {
-        try {
-            return value.shortValueExact();
-        } catch (ArithmeticException e) {
-            throw UnsupportedMessageException.create();
+        if (fitsInShort()) {
+            return (short) longValue;
         }
+        throw UnsupportedMessageException.create();
     }
 
     @ExportMessage
-    @TruffleBoundary
     int asInt() throws UnsupportedMessageException {
-        try {
-            return value.intValueExact();
-        } catch (ArithmeticException e) {
-            throw UnsupportedMessageException.create();
+        if (fitsInInt()) {
+            return (int) longValue;
         }
+        throw UnsupportedMessageException.create();
     }
 
     @ExportMessage
-    @TruffleBoundary
     long asLong() throws UnsupportedMessageException {
-        try {
-            return longValueExact();
-        } catch (ArithmeticException e) {
-            throw UnsupportedMessageException.create();
+        if (fitsInLong()) {
+            return longValue;
         }
+        throw UnsupportedMessageException.create();
     }
 
     @ExportMessage
     @TruffleBoundary
     float asFloat() throws UnsupportedMessageException {
         if (fitsInFloat()) {
-            return value.floatValue();
+            return value == null ? longValue : value.floatValue();
         } else {
             throw UnsupportedMessageException.create();
         }
@@ -436,7 +628,7 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
     @TruffleBoundary
     double asDouble() throws UnsupportedMessageException {
         if (fitsInDouble()) {
-            return value.doubleValue();
+            return doubleValue();
         } else {
             throw UnsupportedMessageException.create();
         }
@@ -40,6 +40,8 @@
  */
 package com.oracle.truffle.js.runtime;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.util.ArrayDeque;
 import java.util.Deque;
@@ -50,12 +52,15 @@ import org.graalvm.collections.EconomicSet;
 import org.graalvm.collections.Equivalence;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleContext;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.JSAgentWaiterList.JSAgentWaiterListEntry;
+import com.oracle.truffle.js.runtime.builtins.FinalizationRecord;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
 import com.oracle.truffle.js.runtime.builtins.JSFinalizationRegistry;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSSharedArrayBuffer;
+import com.oracle.truffle.js.runtime.objects.PromiseReactionJob;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 
 /**
@@ -73,9 +78,9 @@ public abstract class JSAgent implements EcmaAgent {
     private boolean inCriticalSection;
 
     /**
-     * ECMA 8.4 "PromiseJobs" job queue.
+     * ECMA 8.4 "PromiseJobs" job queue. Contains job functions and {@link PromiseReactionJob}s.
      */
-    private final Deque<DynamicObject> promiseJobsQueue;
+    private final Deque<Object> promiseJobsQueue;
 
     /**
      * According to ECMA2017 8.4 the queue of pending jobs (promises reactions) must be processed
@@ -92,13 +97,37 @@ public abstract class JSAgent implements EcmaAgent {
      */
     private EconomicSet<Object> weakRefTargets;
 
+    /**
+     * Finalization registries whose cells are checked for collected targets on every cleanup, in
+     * addition to the cells reported by {@link #finalizationQueue}. Only used in TestV8 mode, see
+     * {@link JSContext#registerFinalizationRegistry}.
+     */
     private final Deque<WeakReference<DynamicObject>> finalizationRegistryQueue;
 
+    /**
+     * The cells ({@link FinalizationRecord}s) of all finalization registries of this agent are
+     * enqueued here once their target has been collected.
+     */
+    private final ReferenceQueue<Object> finalizationQueue;
+
+    /**
+     * Finalization registries with cells whose cleanup callback is pending, in the order in which
+     * their first such cell was found. A registry may appear more than once.
+     */
+    private final Deque<DynamicObject> finalizationRegistriesToCleanup;
+
+    /**
+     * Number of collected cells whose cleanup callback has not been called yet.
+     */
+    private int pendingFinalizationCleanupJobs;
+
     public JSAgent(boolean canBlock) {
         this.signifier = signifierGenerator.incrementAndGet();
         this.canBlock = canBlock;
         this.promiseJobsQueue = new ArrayDeque<>(4);
         this.finalizationRegistryQueue = new ArrayDeque<>(4);
+        this.finalizationQueue = new ReferenceQueue<>();
+        this.finalizationRegistriesToCleanup = new ArrayDeque<>(4);
     }
 
     public abstract void wakeAgent(int w);
@@ -127,22 +156,22 @@ public abstract class JSAgent implements EcmaAgent {
         wl.unlock();
     }
 
-    public void atomicSectionEnter(DynamicObject target) {
+    public void atomicSectionEnter(DynamicObject target, int byteIndex) {
         assert !inAtomicSection;
         assert JSArrayBufferView.isJSArrayBufferView(target);
         DynamicObject arrayBuffer = JSArrayBufferView.getArrayBuffer(target, JSArrayBufferView.isJSArrayBufferView(target));
         JSAgentWaiterList waiterList = JSSharedArrayBuffer.getWaiterList(arrayBuffer);
-        waiterList.lock();
+        waiterList.lock(byteIndex);
         inAtomicSection = true;
     }
 
-    public void atomicSectionLeave(DynamicObject target) {
+    public void atomicSectionLeave(DynamicObject target, int byteIndex) {
         assert inAtomicSection;
         assert JSArrayBufferView.isJSArrayBufferView(target);
         DynamicObject arrayBuffer = JSArrayBufferView.getArrayBuffer(target, JSArrayBufferView.isJSArrayBufferView(target));
         JSAgentWaiterList waiterList = JSSharedArrayBuffer.getWaiterList(arrayBuffer);
         inAtomicSection = false;
-        waiterList.unlock();
+        waiterList.unlock(byteIndex);
     }
 
     @TruffleBoundary
@@ -150,22 +179,50 @@ public abstract class JSAgent implements EcmaAgent {
         promiseJobsQueue.push(job);
     }
 
+    @TruffleBoundary
+    public final void enqueuePromiseJob(PromiseReactionJob job) {
+        promiseJobsQueue.push(job);
+    }
+
     @TruffleBoundary
     public final void processAllPromises(boolean processWeakRefs) {
+        // the context of the previous job's realm stays entered while the realm does not change
+        JSRealm enteredRealm = null;
+        TruffleContext enteredContext = null;
+        Object prev = null;
         try {
-            while (!promiseJobsQueue.isEmpty()) {
-                DynamicObject nextJob = promiseJobsQueue.pollLast();
-                if (JSFunction.isJSFunction(nextJob)) {
-                    JSRealm functionRealm = JSFunction.getRealm(nextJob);
-                    Object prev = functionRealm.getTruffleContext().enter();
-                    try {
-                        JSFunction.call(nextJob, Undefined.instance, JSArguments.EMPTY_ARGUMENTS_ARRAY);
-                    } finally {
-                        functionRealm.getTruffleContext().leave(prev);
+            Object nextJob;
+            while ((nextJob = promiseJobsQueue.pollLast()) != null) {
+                JSRealm jobRealm;
+                if (nextJob instanceof PromiseReactionJob) {
+                    jobRealm = ((PromiseReactionJob) nextJob).getRealm();
+                } else if (JSFunction.isJSFunction(nextJob)) {
+                    jobRealm = JSFunction.getRealm((DynamicObject) nextJob);
+                } else {
+                    continue;
+                }
+                if (jobRealm != enteredRealm) {
+                    TruffleContext jobContext = jobRealm.getTruffleContext();
+                    if (jobContext != enteredContext) {
+                        if (enteredContext != null) {
+                            enteredContext.leave(prev);
+                            enteredContext = null;
+                        }
+                        prev = jobContext.enter();
+                        enteredContext = jobContext;
                     }
+                    enteredRealm = jobRealm;
+                }
+                if (nextJob instanceof PromiseReactionJob) {
+                    ((PromiseReactionJob) nextJob).run();
+                } else {
+                    JSFunction.call((DynamicObject) nextJob, Undefined.instance, JSArguments.EMPTY_ARGUMENTS_ARRAY);
                 }
             }
         } finally {
+            if (enteredContext != null) {
+                enteredContext.leave(prev);
+            }
             // Ensure that there are no leftovers when the processing
             // is terminated by an exception (like ExitException).
             promiseJobsQueue.clear();
@@ -179,19 +236,69 @@ public abstract class JSAgent implements EcmaAgent {
     }
 
     /**
-     * Cleanup the finalizationRegistries that are unreferenced; cleanup referenced ones according
-     * to 4.1.3 Execution and 4.1.4.1 HostCleanupFinalizatioRegistry.
+     * Cleanup the finalizationRegistries with collected cells according to 4.1.3 Execution and
+     * 4.1.4.1 HostCleanupFinalizatioRegistry. The work done is proportional to the number of
+     * collected cells, not to the number of registries.
      */
     private void cleanupFinalizers() {
+        pollFinalizationQueue();
         for (Iterator<WeakReference<DynamicObject>> iter = finalizationRegistryQueue.iterator(); iter.hasNext();) {
             WeakReference<DynamicObject> ref = iter.next();
             DynamicObject fg = ref.get();
             if (fg == null) {
                 iter.remove();
             } else {
-                JSFinalizationRegistry.hostCleanupFinalizationRegistry(fg);
+                // cleared references may not appear in the ReferenceQueue immediately
+                JSFinalizationRegistry.collectClearedCells(fg);
             }
         }
+        DynamicObject fg;
+        while ((fg = finalizationRegistriesToCleanup.peek()) != null) {
+            JSFinalizationRegistry.hostCleanupFinalizationRegistry(fg);
+            finalizationRegistriesToCleanup.poll();
+        }
+    }
+
+    /**
+     * Moves the cells whose target has been collected since the last call to the pending cells of
+     * their finalization registry.
+     */
+    @TruffleBoundary
+    public final void pollFinalizationQueue() {
+        Reference<?> ref;
+        while ((ref = finalizationQueue.poll()) != null) {
+            JSFinalizationRegistry.cellCleared((FinalizationRecord) ref);
+        }
+    }
+
+    public final ReferenceQueue<Object> getFinalizationQueue() {
+        return finalizationQueue;
+    }
+
+    /**
+     * Called when a finalization registry has a new pending cell.
+     */
+    public final void finalizationCleanupJobAdded(DynamicObject finalizationRegistry, boolean firstOfRegistry) {
+        pendingFinalizationCleanupJobs++;
+        if (firstOfRegistry) {
+            finalizationRegistriesToCleanup.add(finalizationRegistry);
+        }
+    }
+
+    /**
+     * Called when a pending cell has been cleaned up or unregistered.
+     */
+    public final void finalizationCleanupJobRemoved() {
+        assert pendingFinalizationCleanupJobs > 0;
+        pendingFinalizationCleanupJobs--;
+    }
+
+    /**
+     * Returns the number of cells of finalization registries whose target has been collected and
+     * whose cleanup callback has not been called yet.
+     */
+    public final int getPendingFinalizationCleanupJobs() {
+        return pendingFinalizationCleanupJobs;
     }
 
     public final void interopBoundaryEnter() {
@@ -40,55 +40,98 @@
  */
 package com.oracle.truffle.js.runtime;
 
-import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.locks.Lock;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.ReentrantLock;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
 /**
  * Java-based implementation of ECMA2017 WaiterList (24.4.1.2).
+ *
+ * The waiter lists of a shared array buffer are keyed by byte index and striped over a fixed number
+ * of {@link JSAgentWaiterListEntry entries}, each guarded by its own lock, so that agents waiting
+ * on or notifying different locations rarely contend. Atomic read-modify-write operations are
+ * serialized per 8-byte word using a separate set of striped locks; overlapping accesses of any
+ * element size always map to the same lock.
  */
-public class JSAgentWaiterList {
+public final class JSAgentWaiterList {
 
-    private final Map<Integer, JSAgentWaiterListEntry> waiters;
+    private static final int STRIPE_COUNT = 64;
 
-    private final Lock globalMonitor;
+    private final AtomicReferenceArray<JSAgentWaiterListEntry> waiterStripes;
+    private final AtomicReferenceArray<ReentrantLock> atomicsStripes;
 
     @TruffleBoundary
     public JSAgentWaiterList() {
-        this.waiters = new ConcurrentHashMap<>();
-        this.globalMonitor = new ReentrantLock();
+        this.waiterStripes = new AtomicReferenceArray<>(STRIPE_COUNT);
+        this.atomicsStripes = new AtomicReferenceArray<>(STRIPE_COUNT);
+    }
+
+    private static int stripe(int word) {
+        int h = word * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (STRIPE_COUNT - 1);
     }
 
-    public JSAgentWaiterListEntry getListForIndex(int indexPos) {
-        JSAgentWaiterListEntry list = Boundaries.mapPutIfAbsent(waiters, indexPos, new JSAgentWaiterListEntry());
-        if (list == null) {
-            return Boundaries.mapGet(waiters, indexPos);
-        } else {
-            return list;
+    /**
+     * Returns the entry holding the waiters on the given byte index (and possibly others).
+     */
+    @TruffleBoundary
+    public JSAgentWaiterListEntry getListForIndex(int byteIndex) {
+        int stripe = stripe(byteIndex);
+        JSAgentWaiterListEntry entry = waiterStripes.get(stripe);
+        if (entry == null) {
+            entry = new JSAgentWaiterListEntry();
+            if (!waiterStripes.compareAndSet(stripe, null, entry)) {
+                entry = waiterStripes.get(stripe);
+            }
         }
+        return entry;
     }
 
-    public void lock() {
-        globalMonitor.lock();
+    private ReentrantLock getAtomicsLock(int byteIndex) {
+        int stripe = stripe(byteIndex >>> 3);
+        ReentrantLock lock = atomicsStripes.get(stripe);
+        if (lock == null) {
+            lock = new ReentrantLock();
+            if (!atomicsStripes.compareAndSet(stripe, null, lock)) {
+                lock = atomicsStripes.get(stripe);
+            }
+        }
+        return lock;
+    }
+
+    /**
+     * Enters the atomic section for the element at the given byte index.
+     */
+    @TruffleBoundary
+    public void lock(int byteIndex) {
+        getAtomicsLock(byteIndex).lock();
     }
 
-    public void unlock() {
-        globalMonitor.unlock();
+    @TruffleBoundary
+    public void unlock(int byteIndex) {
+        getAtomicsLock(byteIndex).unlock();
     }
 
-    public static final class JSAgentWaiterListEntry extends ConcurrentLinkedQueue<Integer> {
+    /**
+     * Waiters of one stripe, in FIFO order per byte index. All accesses must happen while holding
+     * the lock of the entry.
+     */
+    public static final class JSAgentWaiterListEntry {
 
-        private static final long serialVersionUID = 2655886588267252886L;
+        private static final int INITIAL_CAPACITY = 4;
 
-        private final Lock indexMonitor;
+        private final ReentrantLock indexMonitor;
+        private int[] byteIndices;
+        private int[] signifiers;
+        private int size;
 
         @TruffleBoundary
         public JSAgentWaiterListEntry() {
-            super();
             this.indexMonitor = new ReentrantLock();
+            this.byteIndices = new int[INITIAL_CAPACITY];
+            this.signifiers = new int[INITIAL_CAPACITY];
         }
 
         public void lock() {
@@ -99,6 +142,69 @@ public class JSAgentWaiterList {
             indexMonitor.unlock();
         }
 
-    }
+        private int indexOf(int byteIndex, int signifier) {
+            assert indexMonitor.isHeldByCurrentThread();
+            for (int i = 0; i < size; i++) {
+                if (byteIndices[i] == byteIndex && signifiers[i] == signifier) {
+                    return i;
+                }
+            }
+            return -1;
+        }
 
+        public boolean contains(int byteIndex, int signifier) {
+            return indexOf(byteIndex, signifier) >= 0;
+        }
+
+        public void add(int byteIndex, int signifier) {
+            assert indexMonitor.isHeldByCurrentThread();
+            if (size == signifiers.length) {
+                byteIndices = Arrays.copyOf(byteIndices, size * 2);
+                signifiers = Arrays.copyOf(signifiers, size * 2);
+            }
+            byteIndices[size] = byteIndex;
+            signifiers[size] = signifier;
+            size++;
+        }
+
+        public boolean remove(int byteIndex, int signifier) {
+            int i = indexOf(byteIndex, signifier);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(byteIndices, i + 1, byteIndices, i, size - i - 1);
+            System.arraycopy(signifiers, i + 1, signifiers, i, size - i - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Removes up to {@code count} waiters on the given byte index, in the order they were added.
+         *
+         * @return the signifiers of the removed waiters
+         */
+        public int[] removeWaiters(int byteIndex, int count) {
+            assert indexMonitor.isHeldByCurrentThread();
+            int removedCount = 0;
+            for (int i = 0; i < size && removedCount < count; i++) {
+                if (byteIndices[i] == byteIndex) {
+                    removedCount++;
+                }
+            }
+            int[] removed = new int[removedCount];
+            int r = 0;
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (r < removedCount && byteIndices[i] == byteIndex) {
+                    removed[r++] = signifiers[i];
+                } else {
+                    byteIndices[kept] = byteIndices[i];
+                    signifiers[kept] = signifiers[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return removed;
+        }
+    }
 }
@@ -89,6 +89,10 @@ public final class JSConfig {
     public static final int DictionaryObjectThreshold = 256;
     public static final int DictionaryObjectTransitionThreshold = 1024;
     public static final boolean MergeShapes = true;
+    /** Cache lookups of megamorphic property accesses by shape and key. */
+    public static final boolean MegamorphicPropertyCache = true;
+    /** Number of entries of the megamorphic property cache of a context (a power of 2). */
+    public static final int MegamorphicPropertyCacheSize = 1024;
 
     // JSON options
     public static final boolean TruffleJSONParser = true;
@@ -126,12 +126,17 @@ import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSPrototypeData;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.JSShapeData;
+import com.oracle.truffle.js.runtime.objects.MegamorphicPropertyCache;
 import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.objects.PromiseReactionJob;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.CompilableBiFunction;
 import com.oracle.truffle.js.runtime.util.CompilableFunction;
+import com.oracle.truffle.js.runtime.util.CompiledRegexCache;
 import com.oracle.truffle.js.runtime.util.DebugJSAgent;
+import com.oracle.truffle.js.runtime.util.IntlCache;
+import com.oracle.truffle.js.runtime.util.ParseCache;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 import com.oracle.truffle.js.runtime.util.TimeProfiler;
 
@@ -183,6 +188,15 @@ public class JSContext {
 
     private final TimeProfiler timeProfiler;
 
+    /** Parsed eval and Function constructor sources, shared by all realms of this context. */
+    private final ParseCache parseCache;
+
+    /** Intl formatters and collators of toLocaleString and localeCompare. */
+    private final IntlCache intlCache;
+
+    /** Compiled regular expressions, shared by all realms of this context. */
+    private final CompiledRegexCache regexCache;
+
     private final JSObjectFactory.BoundProto moduleNamespaceFactory;
 
     /** The TRegex engine, as obtained from RegexLanguage. */
@@ -229,6 +243,7 @@ public class JSContext {
         PromiseGetCapabilitiesExecutor,
         PromiseResolveThenableJob,
         PromiseReactionJob,
+        PromiseReactionRecordJob,
         PromiseAllResolveElement,
         PromiseAllSettledResolveElement,
         PromiseAllSettledRejectElement,
@@ -303,6 +318,7 @@ public class JSContext {
     final JSFunctionData protoSetterFunctionData;
 
     private Map<Shape, JSShapeData> shapeDataMap;
+    private volatile MegamorphicPropertyCache megamorphicPropertyCache;
 
     final Assumption noChildRealmsAssumption;
     private final Assumption singleRealmAssumption;
@@ -313,6 +329,12 @@ public class JSContext {
     private static final int REALM_INITIALIZING = 1;
     private static final int REALM_INITIALIZED = 2;
 
+    /**
+     * Template for new top-level realms, if enabled and supported (see {@link JSRealmTemplate}).
+     */
+    private volatile JSRealmTemplate realmTemplate;
+    private boolean realmTemplateCaptured;
+
     private final ContextReference<JSRealm> contextRef;
     @CompilationFinal private AllocationReporter allocationReporter;
 
@@ -441,6 +463,9 @@ public class JSContext {
         this.builtinFunctionData = new JSFunctionData[BuiltinFunctionKey.values().length];
 
         this.timeProfiler = contextOptions.isProfileTime() ? new TimeProfiler() : null;
+        this.parseCache = new ParseCache(contextOptions.getParseCacheSize());
+        this.intlCache = new IntlCache(contextOptions.getIntlCacheSize());
+        this.regexCache = new CompiledRegexCache(contextOptions.getRegexCacheSize());
 
         this.singleRealmAssumption = Truffle.getRuntime().createAssumption("single realm");
         this.noChildRealmsAssumption = Truffle.getRuntime().createAssumption("no child realms");
@@ -611,8 +636,14 @@ public class JSContext {
         if (!isTop) {
             noChildRealmsAssumption.invalidate();
         }
-        JSRealm newRealm = new JSRealm(this, env);
-        newRealm.setupGlobals();
+        JSRealmTemplate template = isTop ? realmTemplate : null;
+        JSRealm newRealm;
+        if (template != null && template.isCompatible(env) && JSRealmTemplate.isSupported(this, env)) {
+            newRealm = template.createRealm(env);
+        } else {
+            newRealm = new JSRealm(this, env);
+            newRealm.setupGlobals();
+        }
 
         if (isTop) {
             if (contextOptions.isTest262Mode() || contextOptions.isTestV8Mode()) {
@@ -630,6 +661,16 @@ public class JSContext {
         return newRealm;
     }
 
+    /**
+     * Captures the template for new realms from the first initialized top-level realm.
+     */
+    synchronized void initializeRealmTemplate(JSRealm realm) {
+        if (!realmTemplateCaptured && JSRealmTemplate.isSupported(this, realm.getEnv())) {
+            realmTemplateCaptured = true;
+            realmTemplate = JSRealmTemplate.capture(realm);
+        }
+    }
+
     public final Shape createEmptyShape() {
         return makeEmptyShapeWithNullPrototype(JSUserObject.INSTANCE);
     }
@@ -684,6 +725,14 @@ public class JSContext {
         realm.getAgent().enqueuePromiseJob(job);
     }
 
+    /**
+     * ECMA 8.4.1 EnqueueJob for a PromiseReactionJob.
+     */
+    public final void promiseEnqueueJob(PromiseReactionJob job) {
+        invalidatePromiseQueueNotUsedAssumption();
+        job.getRealm().getAgent().enqueuePromiseJob(job);
+    }
+
     private void invalidatePromiseQueueNotUsedAssumption() {
         Assumption promiseJobsQueueEmptyAssumption = language.getPromiseJobsQueueEmptyAssumption();
         if (promiseJobsQueueEmptyAssumption.isValid()) {
@@ -705,13 +754,29 @@ public class JSContext {
 
     public void registerFinalizationRegistry(DynamicObject finalizationRegistry) {
         invalidatePromiseQueueNotUsedAssumption();
-        getJSAgent().registerFinalizationRegistry(finalizationRegistry);
+        if (contextOptions.isTestV8Mode()) {
+            // V8 tests expect the invocation of the callbacks as soon as possible
+            // => check all registries instead of waiting for the enqueuing of cleared cells.
+            getJSAgent().registerFinalizationRegistry(finalizationRegistry);
+        }
     }
 
     public TimeProfiler getTimeProfiler() {
         return timeProfiler;
     }
 
+    public ParseCache getParseCache() {
+        return parseCache;
+    }
+
+    public IntlCache getIntlCache() {
+        return intlCache;
+    }
+
+    public CompiledRegexCache getRegexCache() {
+        return regexCache;
+    }
+
     /**
      * Get the current Realm using {@link ContextReference}.
      */
@@ -1013,6 +1078,25 @@ public class JSContext {
         return map;
     }
 
+    public MegamorphicPropertyCache getMegamorphicPropertyCache() {
+        assert JSConfig.MegamorphicPropertyCache;
+        MegamorphicPropertyCache cache = megamorphicPropertyCache;
+        if (cache == null) {
+            cache = createMegamorphicPropertyCache();
+        }
+        return cache;
+    }
+
+    @TruffleBoundary
+    private synchronized MegamorphicPropertyCache createMegamorphicPropertyCache() {
+        MegamorphicPropertyCache cache = megamorphicPropertyCache;
+        if (cache == null) {
+            cache = new MegamorphicPropertyCache(this, JSConfig.MegamorphicPropertyCacheSize);
+            megamorphicPropertyCache = cache;
+        }
+        return cache;
+    }
+
     public JavaScriptLanguage getLanguage() {
         return language;
     }
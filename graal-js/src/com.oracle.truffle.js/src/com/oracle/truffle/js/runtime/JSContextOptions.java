@@ -388,10 +388,24 @@ public final class JSContextOptions {
     @Option(name = LOCALE_NAME, category = OptionCategory.EXPERT, help = "Use a specific default locale for locale-sensitive operations.") //
     public static final OptionKey<String> LOCALE = new OptionKey<>("");
 
+    public static final String PARSE_CACHE_SIZE_NAME = JS_OPTION_PREFIX + "parse-cache-size";
+    @Option(name = PARSE_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, help = "Maximum size of the parsing cache shared by eval and the Function constructor to avoid re-parsing known sources.") //
+    public static final OptionKey<Integer> PARSE_CACHE_SIZE = new OptionKey<>(256);
+    @CompilationFinal private int parseCacheSize;
+
+    public static final String INTL_CACHE_SIZE_NAME = JS_OPTION_PREFIX + "intl-cache-size";
+    @Option(name = INTL_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, help = "Maximum size of the cache of Intl formatters and collators used by toLocaleString and localeCompare.") //
+    public static final OptionKey<Integer> INTL_CACHE_SIZE = new OptionKey<>(64);
+    @CompilationFinal private int intlCacheSize;
+
+    public static final String REGEX_CACHE_SIZE_NAME = JS_OPTION_PREFIX + "regex-cache-size";
+    @Option(name = REGEX_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, help = "Maximum size of the cache of compiled regular expressions shared by all RegExp objects of an engine.") //
+    public static final OptionKey<Integer> REGEX_CACHE_SIZE = new OptionKey<>(256);
+    @CompilationFinal private int regexCacheSize;
+
     public static final String FUNCTION_CONSTRUCTOR_CACHE_SIZE_NAME = JS_OPTION_PREFIX + "function-constructor-cache-size";
-    @Option(name = FUNCTION_CONSTRUCTOR_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, help = "Maximum size of the parsing cache used by the Function constructor to avoid re-parsing known sources.") //
+    @Option(name = FUNCTION_CONSTRUCTOR_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, help = "Deprecated, replaced by " + PARSE_CACHE_SIZE_NAME + ".", deprecated = true) //
     public static final OptionKey<Integer> FUNCTION_CONSTRUCTOR_CACHE_SIZE = new OptionKey<>(32);
-    @CompilationFinal private int functionConstructorCacheSize;
 
     public static final String STRING_LENGTH_LIMIT_NAME = JS_OPTION_PREFIX + "string-length-limit";
     @Option(name = STRING_LENGTH_LIMIT_NAME, category = OptionCategory.EXPERT, help = "Maximum string length.") //
@@ -465,6 +479,14 @@ public final class JSContextOptions {
     public static final OptionKey<Integer> FUNCTION_CACHE_LIMIT = new OptionKey<>(JSConfig.FunctionCacheLimit);
     @CompilationFinal private int functionCacheLimit;
 
+    public static final String REALM_TEMPLATE_NAME = JS_OPTION_PREFIX + "realm-template";
+    @Option(name = REALM_TEMPLATE_NAME, category = OptionCategory.EXPERT, help = "Create new realms by copying a fully initialized template realm (shared engines only).") //
+    public static final OptionKey<Boolean> REALM_TEMPLATE = new OptionKey<>(false);
+
+    public static final String REALM_BOOTSTRAP_NAME = JS_OPTION_PREFIX + "realm-bootstrap";
+    @Option(name = REALM_BOOTSTRAP_NAME, category = OptionCategory.EXPERT, help = "Source code evaluated in every new realm before any other code. Evaluated only once if realm-template is enabled.") //
+    public static final OptionKey<String> REALM_BOOTSTRAP = new OptionKey<>("");
+
     JSContextOptions(JSParserOptions parserOptions, OptionValues optionValues) {
         this.parserOptions = parserOptions;
         this.optionValues = optionValues;
@@ -535,7 +557,10 @@ public final class JSContextOptions {
         this.test262Mode = readBooleanOption(TEST262_MODE);
         this.testV8Mode = readBooleanOption(TESTV8_MODE);
         this.validateRegExpLiterals = readBooleanOption(VALIDATE_REGEXP_LITERALS);
-        this.functionConstructorCacheSize = readIntegerOption(FUNCTION_CONSTRUCTOR_CACHE_SIZE);
+        this.parseCacheSize = FUNCTION_CONSTRUCTOR_CACHE_SIZE.hasBeenSet(optionValues) && !PARSE_CACHE_SIZE.hasBeenSet(optionValues) ? readIntegerOption(FUNCTION_CONSTRUCTOR_CACHE_SIZE)
+                        : readIntegerOption(PARSE_CACHE_SIZE);
+        this.intlCacheSize = readIntegerOption(INTL_CACHE_SIZE);
+        this.regexCacheSize = readIntegerOption(REGEX_CACHE_SIZE);
         this.stringLengthLimit = readIntegerOption(STRING_LENGTH_LIMIT);
         this.bindMemberFunctions = readBooleanOption(BIND_MEMBER_FUNCTIONS);
         this.commonJSRequire = readBooleanOption(COMMONJS_REQUIRE);
@@ -827,8 +852,16 @@ public final class JSContextOptions {
         return LOCALE.getValue(optionValues);
     }
 
-    public int getFunctionConstructorCacheSize() {
-        return functionConstructorCacheSize;
+    public int getParseCacheSize() {
+        return parseCacheSize;
+    }
+
+    public int getIntlCacheSize() {
+        return intlCacheSize;
+    }
+
+    public int getRegexCacheSize() {
+        return regexCacheSize;
     }
 
     public int getStringLengthLimit() {
@@ -857,6 +890,16 @@ public final class JSContextOptions {
         return PROFILE_TIME.getValue(optionValues);
     }
 
+    public boolean isRealmTemplate() {
+        CompilerAsserts.neverPartOfCompilation("Option realm-template was assumed not to be accessed in compiled code.");
+        return REALM_TEMPLATE.getValue(optionValues);
+    }
+
+    public String getRealmBootstrap() {
+        CompilerAsserts.neverPartOfCompilation("Option realm-bootstrap was assumed not to be accessed in compiled code.");
+        return REALM_BOOTSTRAP.getValue(optionValues);
+    }
+
     public boolean isTestCloneUninitialized() {
         return testCloneUninitialized;
     }
@@ -930,7 +973,9 @@ public final class JSContextOptions {
         hash = 53 * hash + (this.test262Mode ? 1 : 0);
         hash = 53 * hash + (this.testV8Mode ? 1 : 0);
         hash = 53 * hash + (this.validateRegExpLiterals ? 1 : 0);
-        hash = 53 * hash + this.functionConstructorCacheSize;
+        hash = 53 * hash + this.parseCacheSize;
+        hash = 53 * hash + this.intlCacheSize;
+        hash = 53 * hash + this.regexCacheSize;
         hash = 53 * hash + this.stringLengthLimit;
         hash = 53 * hash + (this.bindMemberFunctions ? 1 : 0);
         hash = 53 * hash + (this.commonJSRequire ? 1 : 0);
@@ -1044,7 +1089,13 @@ public final class JSContextOptions {
         if (this.validateRegExpLiterals != other.validateRegExpLiterals) {
             return false;
         }
-        if (this.functionConstructorCacheSize != other.functionConstructorCacheSize) {
+        if (this.parseCacheSize != other.parseCacheSize) {
+            return false;
+        }
+        if (this.intlCacheSize != other.intlCacheSize) {
+            return false;
+        }
+        if (this.regexCacheSize != other.regexCacheSize) {
             return false;
         }
         if (this.stringLengthLimit != other.stringLengthLimit) {
@@ -54,6 +54,7 @@ import java.util.Objects;
 import java.util.SplittableRandom;
 import java.util.TimeZone;
 import java.util.WeakHashMap;
+import java.util.function.Function;
 
 import org.graalvm.home.HomeFinder;
 import org.graalvm.options.OptionValues;
@@ -70,12 +71,14 @@ import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.Property;
 import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.js.builtins.ArrayIteratorPrototypeBuiltins;
 import com.oracle.truffle.js.builtins.AtomicsBuiltins;
 import com.oracle.truffle.js.builtins.ConsoleBuiltins;
 import com.oracle.truffle.js.builtins.ConstructorBuiltins;
 import com.oracle.truffle.js.builtins.DebugBuiltins;
 import com.oracle.truffle.js.builtins.GlobalBuiltins;
+import com.oracle.truffle.js.builtins.GraalBuiltins;
 import com.oracle.truffle.js.builtins.JSBuiltinsContainer;
 import com.oracle.truffle.js.builtins.JavaBuiltins;
 import com.oracle.truffle.js.builtins.MapIteratorPrototypeBuiltins;
@@ -148,11 +151,13 @@ import com.oracle.truffle.js.runtime.objects.JSAttributes;
 import com.oracle.truffle.js.runtime.objects.JSModuleLoader;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.PrintWriterWrapper;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
+import com.oracle.truffle.js.runtime.util.TimeZoneOffsetCache;
 
 /**
  * Container for JavaScript globals (i.e. an ECMAScript 6 Realm object).
@@ -171,6 +176,7 @@ public class JSRealm {
     public static final String PERFORMANCE_CLASS_NAME = "performance";
     public static final String DEBUG_CLASS_NAME = "Debug";
     public static final String CONSOLE_CLASS_NAME = "Console";
+    public static final String GRAAL_CLASS_NAME = "Graal";
 
     private static final String GRAALVM_VERSION = HomeFinder.getInstance().getVersion();
 
@@ -195,30 +201,30 @@ public class JSRealm {
     private final DynamicObject stringPrototype;
     private final DynamicObject regExpConstructor;
     private final DynamicObject regExpPrototype;
-    private final DynamicObject collatorConstructor;
-    private final DynamicObject collatorPrototype;
-    private final DynamicObject numberFormatConstructor;
-    private final DynamicObject numberFormatPrototype;
-    private final DynamicObject pluralRulesConstructor;
-    private final DynamicObject pluralRulesPrototype;
-    private final DynamicObject listFormatConstructor;
-    private final DynamicObject listFormatPrototype;
-    private final DynamicObject dateTimeFormatConstructor;
-    private final DynamicObject dateTimeFormatPrototype;
-    private final DynamicObject relativeTimeFormatConstructor;
-    private final DynamicObject relativeTimeFormatPrototype;
-    private final DynamicObject segmenterConstructor;
-    private final DynamicObject segmenterPrototype;
-    private final DynamicObject displayNamesConstructor;
-    private final DynamicObject displayNamesPrototype;
-    private final DynamicObject localeConstructor;
-    private final DynamicObject localePrototype;
+    @CompilationFinal private DynamicObject collatorConstructor;
+    @CompilationFinal private DynamicObject collatorPrototype;
+    @CompilationFinal private DynamicObject numberFormatConstructor;
+    @CompilationFinal private DynamicObject numberFormatPrototype;
+    @CompilationFinal private DynamicObject pluralRulesConstructor;
+    @CompilationFinal private DynamicObject pluralRulesPrototype;
+    @CompilationFinal private DynamicObject listFormatConstructor;
+    @CompilationFinal private DynamicObject listFormatPrototype;
+    @CompilationFinal private DynamicObject dateTimeFormatConstructor;
+    @CompilationFinal private DynamicObject dateTimeFormatPrototype;
+    @CompilationFinal private DynamicObject relativeTimeFormatConstructor;
+    @CompilationFinal private DynamicObject relativeTimeFormatPrototype;
+    @CompilationFinal private DynamicObject segmenterConstructor;
+    @CompilationFinal private DynamicObject segmenterPrototype;
+    @CompilationFinal private DynamicObject displayNamesConstructor;
+    @CompilationFinal private DynamicObject displayNamesPrototype;
+    @CompilationFinal private DynamicObject localeConstructor;
+    @CompilationFinal private DynamicObject localePrototype;
     private final DynamicObject dateConstructor;
     private final DynamicObject datePrototype;
     @CompilationFinal(dimensions = 1) private final DynamicObject[] errorConstructors;
     @CompilationFinal(dimensions = 1) private final DynamicObject[] errorPrototypes;
-    private final DynamicObject callSiteConstructor;
-    private final DynamicObject callSitePrototype;
+    @CompilationFinal private DynamicObject callSiteConstructor;
+    @CompilationFinal private DynamicObject callSitePrototype;
 
     private final Shape initialRegExpPrototypeShape;
     private final JSObjectFactory.RealmData objectFactories;
@@ -230,8 +236,8 @@ public class JSRealm {
     private final DynamicObject mapPrototype;
     private final DynamicObject setConstructor;
     private final DynamicObject setPrototype;
-    private final DynamicObject weakRefConstructor;
-    private final DynamicObject weakRefPrototype;
+    @CompilationFinal private DynamicObject weakRefConstructor;
+    @CompilationFinal private DynamicObject weakRefPrototype;
     private final DynamicObject weakMapConstructor;
     private final DynamicObject weakMapPrototype;
     private final DynamicObject weakSetConstructor;
@@ -248,29 +254,29 @@ public class JSRealm {
     private Map<String, Object> commonJSPreLoadedBuiltins;
     private Object jsonParseFunctionObject;
 
-    private final DynamicObject arrayBufferConstructor;
-    private final DynamicObject arrayBufferPrototype;
-    private final DynamicObject sharedArrayBufferConstructor;
-    private final DynamicObject sharedArrayBufferPrototype;
+    @CompilationFinal private DynamicObject arrayBufferConstructor;
+    @CompilationFinal private DynamicObject arrayBufferPrototype;
+    @CompilationFinal private DynamicObject sharedArrayBufferConstructor;
+    @CompilationFinal private DynamicObject sharedArrayBufferPrototype;
 
     @CompilationFinal(dimensions = 1) private final DynamicObject[] typedArrayConstructors;
     @CompilationFinal(dimensions = 1) private final DynamicObject[] typedArrayPrototypes;
-    private final DynamicObject dataViewConstructor;
-    private final DynamicObject dataViewPrototype;
+    @CompilationFinal private DynamicObject dataViewConstructor;
+    @CompilationFinal private DynamicObject dataViewPrototype;
     private final DynamicObject jsAdapterConstructor;
     private final DynamicObject jsAdapterPrototype;
     private final DynamicObject javaImporterConstructor;
     private final DynamicObject javaImporterPrototype;
     private final DynamicObject proxyConstructor;
     private final DynamicObject proxyPrototype;
-    private final DynamicObject finalizationRegistryConstructor;
-    private final DynamicObject finalizationRegistryPrototype;
+    @CompilationFinal private DynamicObject finalizationRegistryConstructor;
+    @CompilationFinal private DynamicObject finalizationRegistryPrototype;
 
     private final DynamicObject iteratorPrototype;
     private final DynamicObject arrayIteratorPrototype;
     private final DynamicObject setIteratorPrototype;
     private final DynamicObject mapIteratorPrototype;
-    private final DynamicObject segmentIteratorPrototype;
+    @CompilationFinal private DynamicObject segmentIteratorPrototype;
     private final DynamicObject stringIteratorPrototype;
     private final DynamicObject regExpStringIteratorPrototype;
     private final DynamicObject enumerateIteratorPrototype;
@@ -337,6 +343,11 @@ public class JSRealm {
      */
     @CompilationFinal private ZoneId localTimeZoneId;
 
+    /**
+     * Offsets of the local time zone. Initialized lazily.
+     */
+    private TimeZoneOffsetCache localTimeZoneOffsetCache;
+
     public static final long NANOSECONDS_PER_MILLISECOND = 1000000;
     private SplittableRandom random;
     private long nanoToZeroTimeOffset;
@@ -386,9 +397,15 @@ public class JSRealm {
      */
     private final Map<TruffleFile, DynamicObject> commonJSRequireCache;
 
+    /**
+     * Whether this realm is a copy of a {@link JSRealmTemplate template} realm.
+     */
+    private final boolean copiedFromTemplate;
+
     public JSRealm(JSContext context, TruffleLanguage.Env env) {
         this.context = context;
         this.truffleLanguageEnv = env; // can be null
+        this.copiedFromTemplate = false;
 
         // need to build Function and Function.proto in a weird order to avoid circular dependencies
         this.objectPrototype = JSObjectPrototype.create(context);
@@ -478,20 +495,8 @@ public class JSRealm {
 
         this.errorConstructors = new DynamicObject[JSErrorType.errorTypes().length];
         this.errorPrototypes = new DynamicObject[JSErrorType.errorTypes().length];
-        initializeErrorConstructors();
-        ctor = JSError.createCallSiteConstructor(this);
-        this.callSiteConstructor = ctor.getFunctionObject();
-        this.callSitePrototype = ctor.getPrototype();
-
-        ctor = JSArrayBuffer.createConstructor(this);
-        this.arrayBufferConstructor = ctor.getFunctionObject();
-        this.arrayBufferPrototype = ctor.getPrototype();
         this.typedArrayConstructors = new DynamicObject[TypedArray.factories(context).length];
         this.typedArrayPrototypes = new DynamicObject[TypedArray.factories(context).length];
-        initializeTypedArrayConstructors();
-        ctor = JSDataView.createConstructor(this);
-        this.dataViewConstructor = ctor.getFunctionObject();
-        this.dataViewPrototype = ctor.getPrototype();
 
         if (context.getContextOptions().isBigInt()) {
             ctor = JSBigInt.createConstructor(this);
@@ -509,35 +514,6 @@ public class JSRealm {
         this.stringIteratorPrototype = es6 ? createStringIteratorPrototype() : null;
         this.regExpStringIteratorPrototype = context.getContextOptions().getEcmaScriptVersion() >= JSConfig.ECMAScript2019 ? createRegExpStringIteratorPrototype() : null;
 
-        ctor = JSCollator.createConstructor(this);
-        this.collatorConstructor = ctor.getFunctionObject();
-        this.collatorPrototype = ctor.getPrototype();
-        ctor = JSNumberFormat.createConstructor(this);
-        this.numberFormatConstructor = ctor.getFunctionObject();
-        this.numberFormatPrototype = ctor.getPrototype();
-        ctor = JSDateTimeFormat.createConstructor(this);
-        this.dateTimeFormatConstructor = ctor.getFunctionObject();
-        this.dateTimeFormatPrototype = ctor.getPrototype();
-        ctor = JSPluralRules.createConstructor(this);
-        this.pluralRulesConstructor = ctor.getFunctionObject();
-        this.pluralRulesPrototype = ctor.getPrototype();
-        ctor = JSListFormat.createConstructor(this);
-        this.listFormatConstructor = ctor.getFunctionObject();
-        this.listFormatPrototype = ctor.getPrototype();
-        ctor = JSRelativeTimeFormat.createConstructor(this);
-        this.relativeTimeFormatConstructor = ctor.getFunctionObject();
-        this.relativeTimeFormatPrototype = ctor.getPrototype();
-        ctor = JSSegmenter.createConstructor(this);
-        this.segmenterConstructor = ctor.getFunctionObject();
-        this.segmenterPrototype = ctor.getPrototype();
-        this.segmentIteratorPrototype = JSSegmenter.createSegmentIteratorPrototype(context, this);
-        ctor = JSDisplayNames.createConstructor(this);
-        this.displayNamesConstructor = ctor.getFunctionObject();
-        this.displayNamesPrototype = ctor.getPrototype();
-        ctor = JSLocale.createConstructor(this);
-        this.localeConstructor = ctor.getFunctionObject();
-        this.localePrototype = ctor.getPrototype();
-
         if (es6) {
             ctor = JSFunction.createGeneratorFunctionConstructor(this);
             this.generatorFunctionConstructor = ctor.getFunctionObject();
@@ -552,15 +528,6 @@ public class JSRealm {
         this.forInIteratorPrototype = JSFunction.createForInIteratorPrototype(this);
         this.arrayProtoValuesIterator = (DynamicObject) getArrayPrototype().get(Symbol.SYMBOL_ITERATOR, Undefined.instance);
 
-        if (context.isOptionSharedArrayBuffer()) {
-            ctor = JSSharedArrayBuffer.createConstructor(this);
-            this.sharedArrayBufferConstructor = ctor.getFunctionObject();
-            this.sharedArrayBufferPrototype = ctor.getPrototype();
-        } else {
-            this.sharedArrayBufferConstructor = null;
-            this.sharedArrayBufferPrototype = null;
-        }
-
         this.mathObject = JSMath.create(this);
 
         boolean es8 = context.getContextOptions().getEcmaScriptVersion() >= JSConfig.ECMAScript2017;
@@ -589,22 +556,6 @@ public class JSRealm {
             this.asyncGeneratorObjectPrototype = null;
         }
 
-        boolean es12 = context.getContextOptions().getEcmaScriptVersion() >= JSConfig.ECMAScript2021;
-        if (es12) {
-            ctor = JSWeakRef.createConstructor(this);
-            this.weakRefConstructor = ctor.getFunctionObject();
-            this.weakRefPrototype = ctor.getPrototype();
-
-            ctor = JSFinalizationRegistry.createConstructor(this);
-            this.finalizationRegistryConstructor = ctor.getFunctionObject();
-            this.finalizationRegistryPrototype = ctor.getPrototype();
-        } else {
-            this.weakRefConstructor = null;
-            this.weakRefPrototype = null;
-            this.finalizationRegistryConstructor = null;
-            this.finalizationRegistryPrototype = null;
-        }
-
         boolean nashornCompat = context.isOptionNashornCompatibilityMode();
         if (nashornCompat) {
             ctor = JSAdapter.createConstructor(this);
@@ -633,24 +584,310 @@ public class JSRealm {
         }
     }
 
-    private void initializeTypedArrayConstructors() {
+    /**
+     * Creates a realm by copying the object graph of a template realm (see {@link JSRealmTemplate}).
+     */
+    JSRealm(JSRealm template, TruffleLanguage.Env env, JSRealmTemplate.Copier copier) {
+        this.context = template.context;
+        this.truffleLanguageEnv = env; // can be null
+        this.copiedFromTemplate = true;
+        assert context.isMultiContext() && template.objectFactories == null;
+        this.objectFactories = null;
+
+        copier.begin(this);
+        this.globalObject = copier.copy(template.globalObject);
+        this.objectConstructor = copier.copy(template.objectConstructor);
+        this.objectPrototype = copier.copy(template.objectPrototype);
+        this.functionConstructor = copier.copy(template.functionConstructor);
+        this.functionPrototype = copier.copy(template.functionPrototype);
+        this.arrayConstructor = copier.copy(template.arrayConstructor);
+        this.arrayPrototype = copier.copy(template.arrayPrototype);
+        this.booleanConstructor = copier.copy(template.booleanConstructor);
+        this.booleanPrototype = copier.copy(template.booleanPrototype);
+        this.numberConstructor = copier.copy(template.numberConstructor);
+        this.numberPrototype = copier.copy(template.numberPrototype);
+        this.bigIntConstructor = copier.copy(template.bigIntConstructor);
+        this.bigIntPrototype = copier.copy(template.bigIntPrototype);
+        this.stringConstructor = copier.copy(template.stringConstructor);
+        this.stringPrototype = copier.copy(template.stringPrototype);
+        this.regExpConstructor = copier.copy(template.regExpConstructor);
+        this.regExpPrototype = copier.copy(template.regExpPrototype);
+        this.collatorConstructor = copier.copy(template.collatorConstructor);
+        this.collatorPrototype = copier.copy(template.collatorPrototype);
+        this.numberFormatConstructor = copier.copy(template.numberFormatConstructor);
+        this.numberFormatPrototype = copier.copy(template.numberFormatPrototype);
+        this.pluralRulesConstructor = copier.copy(template.pluralRulesConstructor);
+        this.pluralRulesPrototype = copier.copy(template.pluralRulesPrototype);
+        this.listFormatConstructor = copier.copy(template.listFormatConstructor);
+        this.listFormatPrototype = copier.copy(template.listFormatPrototype);
+        this.dateTimeFormatConstructor = copier.copy(template.dateTimeFormatConstructor);
+        this.dateTimeFormatPrototype = copier.copy(template.dateTimeFormatPrototype);
+        this.relativeTimeFormatConstructor = copier.copy(template.relativeTimeFormatConstructor);
+        this.relativeTimeFormatPrototype = copier.copy(template.relativeTimeFormatPrototype);
+        this.segmenterConstructor = copier.copy(template.segmenterConstructor);
+        this.segmenterPrototype = copier.copy(template.segmenterPrototype);
+        this.displayNamesConstructor = copier.copy(template.displayNamesConstructor);
+        this.displayNamesPrototype = copier.copy(template.displayNamesPrototype);
+        this.localeConstructor = copier.copy(template.localeConstructor);
+        this.localePrototype = copier.copy(template.localePrototype);
+        this.dateConstructor = copier.copy(template.dateConstructor);
+        this.datePrototype = copier.copy(template.datePrototype);
+        this.errorConstructors = copier.copy(template.errorConstructors);
+        this.errorPrototypes = copier.copy(template.errorPrototypes);
+        this.callSiteConstructor = copier.copy(template.callSiteConstructor);
+        this.callSitePrototype = copier.copy(template.callSitePrototype);
+        this.symbolConstructor = copier.copy(template.symbolConstructor);
+        this.symbolPrototype = copier.copy(template.symbolPrototype);
+        this.mapConstructor = copier.copy(template.mapConstructor);
+        this.mapPrototype = copier.copy(template.mapPrototype);
+        this.setConstructor = copier.copy(template.setConstructor);
+        this.setPrototype = copier.copy(template.setPrototype);
+        this.weakRefConstructor = copier.copy(template.weakRefConstructor);
+        this.weakRefPrototype = copier.copy(template.weakRefPrototype);
+        this.weakMapConstructor = copier.copy(template.weakMapConstructor);
+        this.weakMapPrototype = copier.copy(template.weakMapPrototype);
+        this.weakSetConstructor = copier.copy(template.weakSetConstructor);
+        this.weakSetPrototype = copier.copy(template.weakSetPrototype);
+        this.mathObject = copier.copy(template.mathObject);
+        this.realmBuiltinObject = copier.copy(template.realmBuiltinObject);
+        this.evalFunctionObject = copier.copy(template.evalFunctionObject);
+        this.applyFunctionObject = copier.copy(template.applyFunctionObject);
+        this.callFunctionObject = copier.copy(template.callFunctionObject);
+        this.reflectApplyFunctionObject = copier.copy(template.reflectApplyFunctionObject);
+        this.reflectConstructFunctionObject = copier.copy(template.reflectConstructFunctionObject);
+        this.jsonParseFunctionObject = copier.copy(template.jsonParseFunctionObject);
+        this.arrayBufferConstructor = copier.copy(template.arrayBufferConstructor);
+        this.arrayBufferPrototype = copier.copy(template.arrayBufferPrototype);
+        this.sharedArrayBufferConstructor = copier.copy(template.sharedArrayBufferConstructor);
+        this.sharedArrayBufferPrototype = copier.copy(template.sharedArrayBufferPrototype);
+        this.typedArrayConstructors = copier.copy(template.typedArrayConstructors);
+        this.typedArrayPrototypes = copier.copy(template.typedArrayPrototypes);
+        this.dataViewConstructor = copier.copy(template.dataViewConstructor);
+        this.dataViewPrototype = copier.copy(template.dataViewPrototype);
+        this.jsAdapterConstructor = copier.copy(template.jsAdapterConstructor);
+        this.jsAdapterPrototype = copier.copy(template.jsAdapterPrototype);
+        this.javaImporterConstructor = copier.copy(template.javaImporterConstructor);
+        this.javaImporterPrototype = copier.copy(template.javaImporterPrototype);
+        this.proxyConstructor = copier.copy(template.proxyConstructor);
+        this.proxyPrototype = copier.copy(template.proxyPrototype);
+        this.finalizationRegistryConstructor = copier.copy(template.finalizationRegistryConstructor);
+        this.finalizationRegistryPrototype = copier.copy(template.finalizationRegistryPrototype);
+        this.iteratorPrototype = copier.copy(template.iteratorPrototype);
+        this.arrayIteratorPrototype = copier.copy(template.arrayIteratorPrototype);
+        this.setIteratorPrototype = copier.copy(template.setIteratorPrototype);
+        this.mapIteratorPrototype = copier.copy(template.mapIteratorPrototype);
+        this.segmentIteratorPrototype = copier.copy(template.segmentIteratorPrototype);
+        this.stringIteratorPrototype = copier.copy(template.stringIteratorPrototype);
+        this.regExpStringIteratorPrototype = copier.copy(template.regExpStringIteratorPrototype);
+        this.enumerateIteratorPrototype = copier.copy(template.enumerateIteratorPrototype);
+        this.forInIteratorPrototype = copier.copy(template.forInIteratorPrototype);
+        this.generatorFunctionConstructor = copier.copy(template.generatorFunctionConstructor);
+        this.generatorFunctionPrototype = copier.copy(template.generatorFunctionPrototype);
+        this.generatorObjectPrototype = copier.copy(template.generatorObjectPrototype);
+        this.asyncFunctionConstructor = copier.copy(template.asyncFunctionConstructor);
+        this.asyncFunctionPrototype = copier.copy(template.asyncFunctionPrototype);
+        this.asyncIteratorPrototype = copier.copy(template.asyncIteratorPrototype);
+        this.asyncFromSyncIteratorPrototype = copier.copy(template.asyncFromSyncIteratorPrototype);
+        this.asyncGeneratorObjectPrototype = copier.copy(template.asyncGeneratorObjectPrototype);
+        this.asyncGeneratorFunctionConstructor = copier.copy(template.asyncGeneratorFunctionConstructor);
+        this.asyncGeneratorFunctionPrototype = copier.copy(template.asyncGeneratorFunctionPrototype);
+        this.throwerFunction = copier.copy(template.throwerFunction);
+        this.throwerAccessor = copier.copy(template.throwerAccessor);
+        this.promiseConstructor = copier.copy(template.promiseConstructor);
+        this.promisePrototype = copier.copy(template.promisePrototype);
+        this.promiseAllFunctionObject = copier.copy(template.promiseAllFunctionObject);
+        this.javaPackageToPrimitiveFunction = copier.copy(template.javaPackageToPrimitiveFunction);
+        this.arrayProtoValuesIterator = copier.copy(template.arrayProtoValuesIterator);
+        this.typedArrayConstructor = copier.copy(template.typedArrayConstructor);
+        this.typedArrayPrototype = copier.copy(template.typedArrayPrototype);
+        this.globalScope = copier.copy(template.globalScope);
+        this.scriptEngineImportScope = copier.copy(template.scriptEngineImportScope);
+        if (template.templateRegistry != null) {
+            Map<Object, DynamicObject> registry = getTemplateRegistry();
+            for (Map.Entry<Object, DynamicObject> entry : template.templateRegistry.entrySet()) {
+                registry.put(entry.getKey(), copier.copy(entry.getValue()));
+            }
+        }
+        copier.finish();
+        // the shape of the copy differs if the template's RegExp.prototype had its prototype in the shape
+        this.initialRegExpPrototypeShape = template.regExpPrototype.getShape() == template.initialRegExpPrototypeShape ? regExpPrototype.getShape() : template.initialRegExpPrototypeShape;
+
+        this.outputStream = System.out;
+        this.errorStream = System.err;
+        this.outputWriter = new PrintWriterWrapper(outputStream, true);
+        this.errorWriter = new PrintWriterWrapper(errorStream, true);
+        this.consoleUtil = new JSConsoleUtil();
+        this.commonJSRequireCache = null;
+    }
+
+    /**
+     * Returns true if a lazily created intrinsic has not been created yet. Compiled code that has
+     * seen the intrinsic as a constant {@code null} is invalidated, so that it picks up the
+     * intrinsic once it has been created.
+     */
+    private static boolean isIntrinsicMissing(DynamicObject intrinsic) {
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, intrinsic == null)) {
+            if (CompilerDirectives.isPartialEvaluationConstant(intrinsic)) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @TruffleBoundary
+    private JSConstructor initializeTypedArrayConstructor() {
         JSConstructor taConst = JSArrayBufferView.createTypedArrayConstructor(this);
+        if (context.isOptionNashornCompatibilityMode()) {
+            // Nashorn has no join method on TypedArrays
+            JSObject.delete(taConst.getPrototype(), "join");
+        }
         typedArrayConstructor = taConst.getFunctionObject();
         typedArrayPrototype = taConst.getPrototype();
+        return taConst;
+    }
 
-        for (TypedArrayFactory factory : TypedArray.factories(context)) {
-            JSConstructor constructor = JSArrayBufferView.createConstructor(this, factory, taConst);
-            typedArrayConstructors[factory.getFactoryIndex()] = constructor.getFunctionObject();
-            typedArrayPrototypes[factory.getFactoryIndex()] = constructor.getPrototype();
-        }
+    @TruffleBoundary
+    private JSConstructor initializeArrayBufferViewConstructor(TypedArrayFactory factory) {
+        JSConstructor taConst = new JSConstructor(getTypedArrayConstructor(), getTypedArrayPrototype());
+        JSConstructor constructor = JSArrayBufferView.createConstructor(this, factory, taConst);
+        typedArrayConstructors[factory.getFactoryIndex()] = constructor.getFunctionObject();
+        typedArrayPrototypes[factory.getFactoryIndex()] = constructor.getPrototype();
+        return constructor;
     }
 
-    private void initializeErrorConstructors() {
-        for (JSErrorType type : JSErrorType.errorTypes()) {
-            JSConstructor errorConstructor = JSError.createErrorConstructor(this, type);
-            errorConstructors[type.ordinal()] = errorConstructor.getFunctionObject();
-            errorPrototypes[type.ordinal()] = errorConstructor.getPrototype();
-        }
+    @TruffleBoundary
+    private JSConstructor initializeErrorConstructor(JSErrorType type) {
+        JSConstructor errorConstructor = JSError.createErrorConstructor(this, type);
+        errorConstructors[type.ordinal()] = errorConstructor.getFunctionObject();
+        errorPrototypes[type.ordinal()] = errorConstructor.getPrototype();
+        return errorConstructor;
+    }
+
+    @TruffleBoundary
+    private JSConstructor initializeCallSiteConstructor() {
+        JSConstructor ctor = JSError.createCallSiteConstructor(this);
+        callSiteConstructor = ctor.getFunctionObject();
+        callSitePrototype = ctor.getPrototype();
+        return ctor;
+    }
+
+    @TruffleBoundary
+    private JSConstructor initializeArrayBufferConstructor() {
+        JSConstructor ctor = JSArrayBuffer.createConstructor(this);
+        arrayBufferConstructor = ctor.getFunctionObject();
+        arrayBufferPrototype = ctor.getPrototype();
+        return ctor;
+    }
+
+    @TruffleBoundary
+    private JSConstructor initializeSharedArrayBufferConstructor() {
+        JSConstructor ctor = JSSharedArrayBuffer.createConstructor(this);
+        sharedArrayBufferConstructor = ctor.getFunctionObject();
+        sharedArrayBufferPrototype = ctor.getPrototype();
+        return ctor;
+    }
+
+    @TruffleBoundary
+    private JSConstructor initializeDataViewConstructor() {
+        JSConstructor ctor = JSDataView.createConstructor(this);
+        dataViewConstructor = ctor.getFunctionObject();
+        dataViewPrototype = ctor.getPrototype();
+        return ctor;
+    }
+
+    @TruffleBoundary
+    private JSConstructor initializeWeakRefConstructor() {
+        JSConstructor ctor = JSWeakRef.createConstructor(this);
+        weakRefConstructor = ctor.getFunctionObject();
+        weakRefPrototype = ctor.getPrototype();
+        return ctor;
+    }
+
+    @TruffleBoundary
+    private JSConstructor initializeFinalizationRegistryConstructor() {
+        JSConstructor ctor = JSFinalizationRegistry.createConstructor(this);
+        finalizationRegistryConstructor = ctor.getFunctionObject();
+        finalizationRegistryPrototype = ctor.getPrototype();
+        return ctor;
+    }
+
+    @TruffleBoundary
+    private JSConstructor initializeCollatorConstructor() {
+        JSConstructor ctor = JSCollator.createConstructor(this);
+        collatorConstructor = ctor.getFunctionObject();
+        collatorPrototype = ctor.getPrototype();
+        return ctor;
+    }
+
+    @TruffleBoundary
+    private JSConstructor initializeNumberFormatConstructor() {
+        JSConstructor ctor = JSNumberFormat.createConstructor(this);
+        numberFormatConstructor = ctor.getFunctionObject();
+        numberFormatPrototype = ctor.getPrototype();
+        return ctor;
+    }
+
+    @TruffleBoundary
+    private JSConstructor initializeDateTimeFormatConstructor() {
+        JSConstructor ctor = JSDateTimeFormat.createConstructor(this);
+        dateTimeFormatConstructor = ctor.getFunctionObject();
+        dateTimeFormatPrototype = ctor.getPrototype();
+        return ctor;
+    }
+
+    @TruffleBoundary
+    private JSConstructor initializePluralRulesConstructor() {
+        JSConstructor ctor = JSPluralRules.createConstructor(this);
+        pluralRulesConstructor = ctor.getFunctionObject();
+        pluralRulesPrototype = ctor.getPrototype();
+        return ctor;
+    }
+
+    @TruffleBoundary
+    private JSConstructor initializeListFormatConstructor() {
+        JSConstructor ctor = JSListFormat.createConstructor(this);
+        listFormatConstructor = ctor.getFunctionObject();
+        listFormatPrototype = ctor.getPrototype();
+        return ctor;
+    }
+
+    @TruffleBoundary
+    private JSConstructor initializeRelativeTimeFormatConstructor() {
+        JSConstructor ctor = JSRelativeTimeFormat.createConstructor(this);
+        relativeTimeFormatConstructor = ctor.getFunctionObject();
+        relativeTimeFormatPrototype = ctor.getPrototype();
+        return ctor;
+    }
+
+    @TruffleBoundary
+    private JSConstructor initializeSegmenterConstructor() {
+        JSConstructor ctor = JSSegmenter.createConstructor(this);
+        segmenterConstructor = ctor.getFunctionObject();
+        segmenterPrototype = ctor.getPrototype();
+        return ctor;
+    }
+
+    @TruffleBoundary
+    private DynamicObject initializeSegmentIteratorPrototype() {
+        segmentIteratorPrototype = JSSegmenter.createSegmentIteratorPrototype(context, this);
+        return segmentIteratorPrototype;
+    }
+
+    @TruffleBoundary
+    private JSConstructor initializeDisplayNamesConstructor() {
+        JSConstructor ctor = JSDisplayNames.createConstructor(this);
+        displayNamesConstructor = ctor.getFunctionObject();
+        displayNamesPrototype = ctor.getPrototype();
+        return ctor;
+    }
+
+    @TruffleBoundary
+    private JSConstructor initializeLocaleConstructor() {
+        JSConstructor ctor = JSLocale.createConstructor(this);
+        localeConstructor = ctor.getFunctionObject();
+        localePrototype = ctor.getPrototype();
+        return ctor;
     }
 
     public final JSContext getContext() {
@@ -675,11 +912,19 @@ public class JSRealm {
     }
 
     public final DynamicObject getErrorConstructor(JSErrorType type) {
-        return errorConstructors[type.ordinal()];
+        DynamicObject ctor = errorConstructors[type.ordinal()];
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeErrorConstructor(type).getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getErrorPrototype(JSErrorType type) {
-        return errorPrototypes[type.ordinal()];
+        DynamicObject proto = errorPrototypes[type.ordinal()];
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeErrorConstructor(type).getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getGlobalObject() {
@@ -755,51 +1000,99 @@ public class JSRealm {
     }
 
     public final DynamicObject getCollatorConstructor() {
-        return collatorConstructor;
+        DynamicObject ctor = collatorConstructor;
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeCollatorConstructor().getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getCollatorPrototype() {
-        return collatorPrototype;
+        DynamicObject proto = collatorPrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeCollatorConstructor().getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getNumberFormatConstructor() {
-        return numberFormatConstructor;
+        DynamicObject ctor = numberFormatConstructor;
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeNumberFormatConstructor().getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getNumberFormatPrototype() {
-        return numberFormatPrototype;
+        DynamicObject proto = numberFormatPrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeNumberFormatConstructor().getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getPluralRulesConstructor() {
-        return pluralRulesConstructor;
+        DynamicObject ctor = pluralRulesConstructor;
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializePluralRulesConstructor().getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getPluralRulesPrototype() {
-        return pluralRulesPrototype;
+        DynamicObject proto = pluralRulesPrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializePluralRulesConstructor().getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getListFormatConstructor() {
-        return listFormatConstructor;
+        DynamicObject ctor = listFormatConstructor;
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeListFormatConstructor().getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getListFormatPrototype() {
-        return listFormatPrototype;
+        DynamicObject proto = listFormatPrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeListFormatConstructor().getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getRelativeTimeFormatConstructor() {
-        return relativeTimeFormatConstructor;
+        DynamicObject ctor = relativeTimeFormatConstructor;
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeRelativeTimeFormatConstructor().getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getRelativeTimeFormatPrototype() {
-        return relativeTimeFormatPrototype;
+        DynamicObject proto = relativeTimeFormatPrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeRelativeTimeFormatConstructor().getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getDateTimeFormatConstructor() {
-        return dateTimeFormatConstructor;
+        DynamicObject ctor = dateTimeFormatConstructor;
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeDateTimeFormatConstructor().getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getDateTimeFormatPrototype() {
-        return dateTimeFormatPrototype;
+        DynamicObject proto = dateTimeFormatPrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeDateTimeFormatConstructor().getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getDateConstructor() {
@@ -811,27 +1104,51 @@ public class JSRealm {
     }
 
     public final DynamicObject getSegmenterConstructor() {
-        return segmenterConstructor;
+        DynamicObject ctor = segmenterConstructor;
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeSegmenterConstructor().getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getSegmenterPrototype() {
-        return segmenterPrototype;
+        DynamicObject proto = segmenterPrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeSegmenterConstructor().getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getDisplayNamesConstructor() {
-        return displayNamesConstructor;
+        DynamicObject ctor = displayNamesConstructor;
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeDisplayNamesConstructor().getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getDisplayNamesPrototype() {
-        return displayNamesPrototype;
+        DynamicObject proto = displayNamesPrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeDisplayNamesConstructor().getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getLocaleConstructor() {
-        return localeConstructor;
+        DynamicObject ctor = localeConstructor;
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeLocaleConstructor().getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getLocalePrototype() {
-        return localePrototype;
+        DynamicObject proto = localePrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeLocaleConstructor().getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getSymbolConstructor() {
@@ -859,19 +1176,35 @@ public class JSRealm {
     }
 
     public final DynamicObject getWeakRefConstructor() {
-        return weakRefConstructor;
+        DynamicObject ctor = weakRefConstructor;
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeWeakRefConstructor().getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getWeakRefPrototype() {
-        return weakRefPrototype;
+        DynamicObject proto = weakRefPrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeWeakRefConstructor().getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getFinalizationRegistryConstructor() {
-        return finalizationRegistryConstructor;
+        DynamicObject ctor = finalizationRegistryConstructor;
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeFinalizationRegistryConstructor().getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getFinalizationRegistryPrototype() {
-        return finalizationRegistryPrototype;
+        DynamicObject proto = finalizationRegistryPrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeFinalizationRegistryConstructor().getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getWeakMapConstructor() {
@@ -895,45 +1228,85 @@ public class JSRealm {
     }
 
     public final DynamicObject getArrayBufferConstructor() {
-        return arrayBufferConstructor;
+        DynamicObject ctor = arrayBufferConstructor;
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeArrayBufferConstructor().getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getArrayBufferPrototype() {
-        return arrayBufferPrototype;
+        DynamicObject proto = arrayBufferPrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeArrayBufferConstructor().getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getSharedArrayBufferConstructor() {
         assert context.isOptionSharedArrayBuffer();
-        return sharedArrayBufferConstructor;
+        DynamicObject ctor = sharedArrayBufferConstructor;
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeSharedArrayBufferConstructor().getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getSharedArrayBufferPrototype() {
         assert context.isOptionSharedArrayBuffer();
-        return sharedArrayBufferPrototype;
+        DynamicObject proto = sharedArrayBufferPrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeSharedArrayBufferConstructor().getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getArrayBufferViewConstructor(TypedArrayFactory factory) {
-        return typedArrayConstructors[factory.getFactoryIndex()];
+        DynamicObject ctor = typedArrayConstructors[factory.getFactoryIndex()];
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeArrayBufferViewConstructor(factory).getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getArrayBufferViewPrototype(TypedArrayFactory factory) {
-        return typedArrayPrototypes[factory.getFactoryIndex()];
+        DynamicObject proto = typedArrayPrototypes[factory.getFactoryIndex()];
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeArrayBufferViewConstructor(factory).getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getDataViewConstructor() {
-        return dataViewConstructor;
+        DynamicObject ctor = dataViewConstructor;
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeDataViewConstructor().getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getDataViewPrototype() {
-        return dataViewPrototype;
+        DynamicObject proto = dataViewPrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeDataViewConstructor().getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getTypedArrayConstructor() {
-        return typedArrayConstructor;
+        DynamicObject ctor = typedArrayConstructor;
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeTypedArrayConstructor().getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getTypedArrayPrototype() {
-        return typedArrayPrototype;
+        DynamicObject proto = typedArrayPrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeTypedArrayConstructor().getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getRealmBuiltinObject() {
@@ -1099,7 +1472,11 @@ public class JSRealm {
     }
 
     public DynamicObject getSegmentIteratorPrototype() {
-        return segmentIteratorPrototype;
+        DynamicObject proto = segmentIteratorPrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeSegmentIteratorPrototype();
+        }
+        return proto;
     }
 
     /**
@@ -1159,15 +1536,15 @@ public class JSRealm {
 
         for (JSErrorType type : JSErrorType.errorTypes()) {
             if (type != JSErrorType.AggregateError || context.getEcmaScriptVersion() >= JSConfig.ECMAScript2021) {
-                putGlobalProperty(type.name(), getErrorConstructor(type));
+                putLazyGlobalProperty(type.name(), realm -> realm.getErrorConstructor(type));
             }
         }
 
-        putGlobalProperty(JSArrayBuffer.CLASS_NAME, getArrayBufferConstructor());
+        putLazyGlobalProperty(JSArrayBuffer.CLASS_NAME, JSRealm::getArrayBufferConstructor);
         for (TypedArrayFactory factory : TypedArray.factories(context)) {
-            putGlobalProperty(factory.getName(), getArrayBufferViewConstructor(factory));
+            putLazyGlobalProperty(factory.getName(), realm -> realm.getArrayBufferViewConstructor(factory));
         }
-        putGlobalProperty(JSDataView.CLASS_NAME, getDataViewConstructor());
+        putLazyGlobalProperty(JSDataView.CLASS_NAME, JSRealm::getDataViewConstructor);
 
         if (context.getContextOptions().isBigInt()) {
             putGlobalProperty(JSBigInt.CLASS_NAME, getBigIntConstructor());
@@ -1175,7 +1552,6 @@ public class JSRealm {
 
         if (context.isOptionNashornCompatibilityMode()) {
             initGlobalNashornExtensions();
-            removeNashornIncompatibleBuiltins();
         }
         if (context.getContextOptions().isScriptEngineGlobalScopeImport()) {
             for (String builtin : new String[]{"importScriptEngineGlobalBindings", "checkSyntaxForScriptEngine"}) {
@@ -1222,17 +1598,17 @@ public class JSRealm {
         }
 
         if (context.isOptionSharedArrayBuffer()) {
-            putGlobalProperty(SHARED_ARRAY_BUFFER_CLASS_NAME, getSharedArrayBufferConstructor());
+            putLazyGlobalProperty(SHARED_ARRAY_BUFFER_CLASS_NAME, JSRealm::getSharedArrayBufferConstructor);
         }
         if (context.isOptionAtomics()) {
-            putGlobalProperty(ATOMICS_CLASS_NAME, createAtomics());
+            putLazyGlobalProperty(ATOMICS_CLASS_NAME, JSRealm::createAtomics);
         }
         if (context.getEcmaScriptVersion() >= JSConfig.ECMAScript2019) {
             putGlobalProperty("globalThis", global);
         }
         if (context.getEcmaScriptVersion() >= JSConfig.ECMAScript2021) {
-            putGlobalProperty(JSWeakRef.CLASS_NAME, getWeakRefConstructor());
-            putGlobalProperty(JSFinalizationRegistry.CLASS_NAME, getFinalizationRegistryConstructor());
+            putLazyGlobalProperty(JSWeakRef.CLASS_NAME, JSRealm::getWeakRefConstructor);
+            putLazyGlobalProperty(JSFinalizationRegistry.CLASS_NAME, JSRealm::getFinalizationRegistryConstructor);
         }
         if (context.getContextOptions().isGraalBuiltin()) {
             putGraalObject();
@@ -1251,13 +1627,6 @@ public class JSRealm {
         putGlobalProperty("parseToJSON", parseToJSON);
     }
 
-    private void removeNashornIncompatibleBuiltins() {
-        assert getContext().isOptionNashornCompatibilityMode();
-
-        // Nashorn has no join method on TypedArrays
-        JSObject.delete(typedArrayPrototype, "join");
-    }
-
     private void addPrintGlobals() {
         if (context.getContextOptions().isPrint()) {
             putGlobalProperty("print", lookupFunction(GlobalBuiltins.GLOBAL_PRINT, "print"));
@@ -1366,7 +1735,11 @@ public class JSRealm {
 
     private void addIntlGlobal() {
         if (context.isOptionIntl402()) {
-            putGlobalProperty(JSIntl.CLASS_NAME, preinitIntlObject != null ? preinitIntlObject : createIntlObject());
+            if (preinitIntlObject != null) {
+                putGlobalProperty(JSIntl.CLASS_NAME, preinitIntlObject);
+            } else {
+                putLazyGlobalProperty(JSIntl.CLASS_NAME, JSRealm::createIntlObject);
+            }
         }
     }
 
@@ -1401,7 +1774,8 @@ public class JSRealm {
         JSObjectUtil.putDataProperty(context, graalObject, "versionGraalVM", GRAALVM_VERSION, flags);
         JSObjectUtil.putDataProperty(context, graalObject, "versionJS", GRAALVM_VERSION, flags);
         JSObjectUtil.putDataProperty(context, graalObject, "isGraalRuntime", JSFunction.create(this, isGraalRuntimeFunction(context)), flags);
-        putGlobalProperty("Graal", graalObject);
+        JSObjectUtil.putFunctionsFromContainer(this, graalObject, GraalBuiltins.BUILTINS);
+        putGlobalProperty(GRAAL_CLASS_NAME, graalObject);
     }
 
     private static JSFunctionData isGraalRuntimeFunction(JSContext context) {
@@ -1431,6 +1805,14 @@ public class JSRealm {
         JSObjectUtil.putDataProperty(getContext(), getGlobalObject(), key, value, attributes);
     }
 
+    /**
+     * Defines a global property whose value is only created on first access, see
+     * {@link LazyGlobalPropertyProxy}.
+     */
+    private void putLazyGlobalProperty(String key, Function<JSRealm, Object> valueSupplier) {
+        JSObjectUtil.defineProxyProperty(getGlobalObject(), key, new LazyGlobalPropertyProxy(this, key, valueSupplier), JSAttributes.getDefaultNotEnumerable());
+    }
+
     private void putProperty(DynamicObject receiver, Object key, Object value) {
         JSObjectUtil.putDataProperty(getContext(), receiver, key, value, JSAttributes.getDefaultNotEnumerable());
     }
@@ -1604,11 +1986,19 @@ public class JSRealm {
     }
 
     public final DynamicObject getCallSiteConstructor() {
-        return callSiteConstructor;
+        DynamicObject ctor = callSiteConstructor;
+        if (isIntrinsicMissing(ctor)) {
+            ctor = initializeCallSiteConstructor().getFunctionObject();
+        }
+        return ctor;
     }
 
     public final DynamicObject getCallSitePrototype() {
-        return callSitePrototype;
+        DynamicObject proto = callSitePrototype;
+        if (isIntrinsicMissing(proto)) {
+            proto = initializeCallSiteConstructor().getPrototype();
+        }
+        return proto;
     }
 
     public final DynamicObject getGlobalScope() {
@@ -1801,6 +2191,8 @@ public class JSRealm {
         // Patch the RegExp constructor's static result properties
         addStaticRegexResultProperties();
 
+        evaluateBootstrapSource();
+
         return true;
     }
 
@@ -1811,6 +2203,13 @@ public class JSRealm {
             return;
         }
 
+        if (copiedFromTemplate) {
+            // the optional globals and the bootstrap code are part of the template
+            addArgumentsFromEnv(getEnv());
+            initTimeOffsetAndRandom();
+            return;
+        }
+
         addOptionalGlobals();
 
         addArgumentsFromEnv(getEnv());
@@ -1818,6 +2217,26 @@ public class JSRealm {
         initTimeOffsetAndRandom();
 
         addStaticRegexResultProperties();
+
+        evaluateBootstrapSource();
+
+        if (CREATING_CHILD_REALM.get() != Boolean.TRUE) {
+            context.initializeRealmTemplate(this);
+        }
+    }
+
+    /**
+     * Evaluates the source code of the {@code realm-bootstrap} option, if any.
+     */
+    private void evaluateBootstrapSource() {
+        String bootstrap = context.getContextOptions().getRealmBootstrap();
+        if (!bootstrap.isEmpty()) {
+            Source source = Source.newBuilder(JavaScriptLanguage.ID, bootstrap, "<realm-bootstrap>").build();
+            context.getEvaluator().parseScript(context, source).run(this);
+            if (agent != null) {
+                agent.processAllPromises(false);
+            }
+        }
     }
 
     private void preinitializeObjects() {
@@ -2072,6 +2491,21 @@ public class JSRealm {
         return id;
     }
 
+    public TimeZoneOffsetCache getLocalTimeZoneOffsetCache() {
+        ZoneId id = getLocalTimeZoneId();
+        TimeZoneOffsetCache cache = localTimeZoneOffsetCache;
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, cache == null || cache.getZoneId() != id)) {
+            cache = createTimeZoneOffsetCache(id);
+            localTimeZoneOffsetCache = cache;
+        }
+        return cache;
+    }
+
+    @TruffleBoundary
+    private static TimeZoneOffsetCache createTimeZoneOffsetCache(ZoneId id) {
+        return new TimeZoneOffsetCache(id);
+    }
+
     @TruffleBoundary
     private ZoneId getTimeZoneFromEnv() {
         OptionValues options = getEnv().getOptions();
@@ -2166,6 +2600,50 @@ public class JSRealm {
         }
     }
 
+    /**
+     * Global property of a lazily created intrinsic (e.g. a constructor). The intrinsic is created
+     * when the property is read for the first time, and the property is then replaced by an
+     * ordinary data property with the same attributes, so that subsequent accesses see a regular
+     * shape. Assigning a value replaces the property without creating the intrinsic.
+     */
+    static final class LazyGlobalPropertyProxy implements PropertyProxy {
+        private final JSRealm realm;
+        private final String key;
+        private final Function<JSRealm, Object> valueSupplier;
+
+        LazyGlobalPropertyProxy(JSRealm realm, String key, Function<JSRealm, Object> valueSupplier) {
+            this.realm = realm;
+            this.key = key;
+            this.valueSupplier = valueSupplier;
+        }
+
+        LazyGlobalPropertyProxy copyFor(JSRealm newRealm) {
+            return new LazyGlobalPropertyProxy(newRealm, key, valueSupplier);
+        }
+
+        @TruffleBoundary
+        @Override
+        public Object get(DynamicObject store) {
+            Object value = valueSupplier.apply(realm);
+            replaceWithDataProperty(store, value);
+            return value;
+        }
+
+        @TruffleBoundary
+        @Override
+        public boolean set(DynamicObject store, Object value) {
+            replaceWithDataProperty(store, value);
+            return true;
+        }
+
+        private void replaceWithDataProperty(DynamicObject store, Object value) {
+            Property property = store.getShape().getProperty(key);
+            if (property != null && JSProperty.isProxy(property) && property.get(store, false) == this) {
+                JSObjectUtil.defineDataProperty(realm.getContext(), store, key, value, property.getFlags() & JSAttributes.ATTRIBUTES_MASK);
+            }
+        }
+    }
+
     public final Map<TruffleFile, DynamicObject> getCommonJSRequireCache() {
         assert context.getContextOptions().isCommonJSRequire();
         return commonJSRequireCache;
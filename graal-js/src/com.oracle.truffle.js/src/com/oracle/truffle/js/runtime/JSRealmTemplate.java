@@ -0,0 +1,506 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotTypeException;
+import com.oracle.truffle.api.frame.MaterializedFrame;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.js.runtime.array.ScriptArray;
+import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
+import com.oracle.truffle.js.runtime.objects.Accessor;
+import com.oracle.truffle.js.runtime.objects.JSLazyString;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
+import com.oracle.truffle.js.runtime.objects.JSPrototypeData;
+import com.oracle.truffle.js.runtime.objects.JSShape;
+import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.objects.PropertyProxy;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.JSHashMap;
+
+/**
+ * A fully initialized realm that is never entered. New realms are created by copying its object
+ * graph instead of running the built-in setup again (see {@link JSContextOptions#REALM_TEMPLATE}).
+ *
+ * Templates are only used with a shared engine, where built-in objects keep their prototype in an
+ * object field, so that the copies can share the shapes of the template. The template is captured
+ * from the first realm once it is initialized and has evaluated the
+ * {@link JSContextOptions#REALM_BOOTSTRAP bootstrap} source. If that realm holds values that
+ * cannot be copied (e.g., promises or foreign objects), realms are created the regular way.
+ */
+public final class JSRealmTemplate {
+
+    private static final int POLYGLOT_EVAL_ALLOWED = 1 << 0;
+    private static final int POLYGLOT_BINDINGS_ACCESS_ALLOWED = 1 << 1;
+    private static final int HOST_LOOKUP_ALLOWED = 1 << 2;
+
+    private final JSRealm realm;
+    private final CopyPlan plan;
+    /** The permissions of the environment that decided which globals the template has. */
+    private final int envFlags;
+
+    private JSRealmTemplate(JSRealm realm, CopyPlan plan, int envFlags) {
+        this.realm = realm;
+        this.plan = plan;
+        this.envFlags = envFlags;
+    }
+
+    /**
+     * Returns whether realms of this context can be created from a template. Options that make the
+     * global object depend on the environment, or that install values the copier cannot handle,
+     * are not supported.
+     */
+    static boolean isSupported(JSContext context, TruffleLanguage.Env env) {
+        JSContextOptions options = context.getContextOptions();
+        return options.isRealmTemplate() && context.isMultiContext() && !env.isPreInitialization() &&
+                        !context.isOptionNashornCompatibilityMode() && !context.getParserOptions().isScripting() &&
+                        !options.isCommonJSRequire() && !options.isScriptEngineGlobalScopeImport();
+    }
+
+    /**
+     * Copies an initialized realm into a new template.
+     *
+     * @return the template, or {@code null} if the realm cannot be copied
+     */
+    @TruffleBoundary
+    static JSRealmTemplate capture(JSRealm initializedRealm) {
+        Copier copier = new Copier(initializedRealm);
+        JSRealm templateRealm;
+        try {
+            templateRealm = new JSRealm(initializedRealm, null, copier);
+        } catch (UncopyableValueException e) {
+            return null;
+        }
+        return new JSRealmTemplate(templateRealm, new CopyPlan(templateRealm, copier.copiedObjects), envFlags(initializedRealm.getEnv()));
+    }
+
+    boolean isCompatible(TruffleLanguage.Env env) {
+        return envFlags(env) == envFlags;
+    }
+
+    @TruffleBoundary
+    JSRealm createRealm(TruffleLanguage.Env env) {
+        return new JSRealm(realm, env, new PlannedCopier(realm, plan));
+    }
+
+    private static int envFlags(TruffleLanguage.Env env) {
+        int flags = 0;
+        if (env.isPolyglotEvalAllowed()) {
+            flags |= POLYGLOT_EVAL_ALLOWED;
+        }
+        if (env.isPolyglotBindingsAccessAllowed()) {
+            flags |= POLYGLOT_BINDINGS_ACCESS_ALLOWED;
+        }
+        if (env.isHostLookupAllowed()) {
+            flags |= HOST_LOOKUP_ALLOWED;
+        }
+        return flags;
+    }
+
+    /**
+     * Copies the object graph of one realm into another. Objects are copied together with their
+     * shape, references to the source realm are replaced with the target realm, and immutable
+     * values (primitives, function data, array strategies) are shared.
+     */
+    static class Copier {
+        final JSRealm source;
+        JSRealm target;
+        private final Map<Object, Object> copies = new IdentityHashMap<>();
+        private final Deque<DynamicObject> pendingObjects = new ArrayDeque<>();
+        private final List<DynamicObject> prototypeInShapeCopies = new ArrayList<>();
+        /** The copied objects, in the order of their creation. */
+        final List<DynamicObject> copiedObjects = new ArrayList<>();
+
+        Copier(JSRealm source) {
+            this.source = source;
+        }
+
+        /**
+         * Called by the realm under construction before any of its values is copied.
+         */
+        void begin(JSRealm targetRealm) {
+            this.target = targetRealm;
+        }
+
+        /**
+         * Returns the copy of a value. The properties of copied objects are filled in by
+         * {@link #finish()}.
+         */
+        @SuppressWarnings("unchecked")
+        final <T> T copy(T value) {
+            return (T) copyValue(value);
+        }
+
+        final Object copyValue(Object value) {
+            if (isShared(value, source.getContext())) {
+                return value;
+            } else if (value == source) {
+                return target;
+            } else if (value instanceof JSLazyString) {
+                return value.toString();
+            } else if (JSObject.isJSObject(value)) {
+                return copyObject((DynamicObject) value);
+            }
+            Object copy = copies.get(value);
+            if (copy != null) {
+                return copy;
+            }
+            if (value instanceof Accessor) {
+                Accessor accessor = (Accessor) value;
+                copy = new Accessor(copy(accessor.getGetter()), copy(accessor.getSetter()));
+            } else if (value instanceof JSRealm.LazyGlobalPropertyProxy) {
+                copy = ((JSRealm.LazyGlobalPropertyProxy) value).copyFor(target);
+            } else if (value instanceof JSPrototypeData) {
+                // only caches shapes with the prototype of the source realm
+                copy = new JSPrototypeData();
+            } else if (value instanceof MaterializedFrame) {
+                return copyFrame((MaterializedFrame) value);
+            } else if (value instanceof JSHashMap) {
+                return copyHashMap((JSHashMap) value);
+            } else if (value instanceof Object[]) {
+                return copyArray((Object[]) value);
+            } else if (value instanceof int[]) {
+                copy = ((int[]) value).clone();
+            } else if (value instanceof double[]) {
+                copy = ((double[]) value).clone();
+            } else if (value instanceof long[]) {
+                copy = ((long[]) value).clone();
+            } else if (value instanceof byte[]) {
+                copy = ((byte[]) value).clone();
+            } else {
+                throw new UncopyableValueException(value);
+            }
+            copies.put(value, copy);
+            return copy;
+        }
+
+        DynamicObject copyObject(DynamicObject object) {
+            DynamicObject copy = (DynamicObject) copies.get(object);
+            if (copy == null) {
+                copy = object.copy(object.getShape());
+                copies.put(object, copy);
+                copiedObjects.add(copy);
+                pendingObjects.add(object);
+            }
+            return copy;
+        }
+
+        static boolean isShared(Object value, JSContext context) {
+            return value == null || value == Undefined.instance || value == Null.instance || value instanceof String || value instanceof Integer || value instanceof Double ||
+                            value instanceof Boolean || value instanceof Long || value instanceof SafeInteger || value instanceof BigInt || value instanceof Symbol ||
+                            value instanceof JSFunctionData || value instanceof ScriptArray || value == context || value == JSFrameUtil.NULL_MATERIALIZED_FRAME ||
+                            // stateless property proxies are shared (Nashorn's bound properties are unsupported)
+                            (value instanceof PropertyProxy && !(value instanceof JSRealm.LazyGlobalPropertyProxy)) ||
+                            // marker objects, e.g., the class prototype placeholder of functions
+                            value.getClass() == Object.class;
+        }
+
+        private MaterializedFrame copyFrame(MaterializedFrame frame) {
+            Object[] arguments = frame.getArguments().clone();
+            FrameDescriptor descriptor = frame.getFrameDescriptor();
+            MaterializedFrame copy = Truffle.getRuntime().createMaterializedFrame(arguments, descriptor);
+            copies.put(frame, copy);
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = copyValue(arguments[i]);
+            }
+            for (FrameSlot slot : descriptor.getSlots()) {
+                try {
+                    if (frame.isObject(slot)) {
+                        copy.setObject(slot, copyValue(frame.getObject(slot)));
+                    } else if (frame.isInt(slot)) {
+                        copy.setInt(slot, frame.getInt(slot));
+                    } else if (frame.isDouble(slot)) {
+                        copy.setDouble(slot, frame.getDouble(slot));
+                    } else if (frame.isLong(slot)) {
+                        copy.setLong(slot, frame.getLong(slot));
+                    } else if (frame.isBoolean(slot)) {
+                        copy.setBoolean(slot, frame.getBoolean(slot));
+                    } else if (frame.isByte(slot)) {
+                        copy.setByte(slot, frame.getByte(slot));
+                    } else if (frame.isFloat(slot)) {
+                        copy.setFloat(slot, frame.getFloat(slot));
+                    }
+                } catch (FrameSlotTypeException e) {
+                    throw Errors.shouldNotReachHere(e);
+                }
+            }
+            return copy;
+        }
+
+        private JSHashMap copyHashMap(JSHashMap map) {
+            JSHashMap copy = new JSHashMap();
+            copies.put(map, copy);
+            for (JSHashMap.Cursor cursor = map.getEntries(); cursor.advance();) {
+                copy.put(copyValue(cursor.getKey()), copyValue(cursor.getValue()));
+            }
+            return copy;
+        }
+
+        private Object[] copyArray(Object[] array) {
+            Object[] copy = array.clone();
+            copies.put(array, copy);
+            for (int i = 0; i < array.length; i++) {
+                copy[i] = copyValue(array[i]);
+            }
+            return copy;
+        }
+
+        /**
+         * Copies the properties of all objects copied so far (and of the objects they reference).
+         */
+        void finish() {
+            DynamicObject object;
+            while ((object = pendingObjects.poll()) != null) {
+                copyProperties(object, (DynamicObject) copies.get(object));
+            }
+            for (DynamicObject copy : prototypeInShapeCopies) {
+                reshapeWithCopiedPrototype(copy);
+            }
+        }
+
+        private void copyProperties(DynamicObject object, DynamicObject copy) {
+            Shape shape = object.getShape();
+            for (Property property : shape.getPropertyListInternal(true)) {
+                Object value = property.get(object, shape);
+                Object newValue = copyValue(value);
+                if (newValue == value) {
+                    continue;
+                }
+                if (!property.getLocation().isValue()) {
+                    property.setInternal(copy, newValue);
+                } else if (property == JSShape.getPrototypeProperty(shape)) {
+                    // the prototype is a constant of the shape, so the copy needs a shape of its own
+                    prototypeInShapeCopies.add(copy);
+                } else {
+                    throw new UncopyableValueException(value);
+                }
+            }
+        }
+
+        /**
+         * Moves a copied object with a prototype-in-shape to a shape with the copied prototype. The
+         * root shapes have the same layout, so the property locations can be reused.
+         */
+        final void reshapeWithCopiedPrototype(DynamicObject copy) {
+            Shape shape = copy.getShape();
+            Property prototypeProperty = JSShape.getPrototypeProperty(shape);
+            DynamicObject prototype = copyObject((DynamicObject) prototypeProperty.get(copy, shape));
+            Shape newShape = JSObjectUtil.getProtoChildShape(prototype, JSShape.getJSClass(shape), target.getContext());
+            for (Property property : shape.getPropertyListInternal(true)) {
+                if (property != prototypeProperty) {
+                    newShape = newShape.addProperty(property);
+                }
+            }
+            copy.setShapeAndGrow(shape, newShape);
+        }
+    }
+
+    /**
+     * The objects of a template realm and, for each of them, the properties that refer to other
+     * objects or to the realm itself. Computed once, so that copying the template neither has to
+     * inspect every property value nor to track the copies in an identity map.
+     */
+    static final class CopyPlan {
+        static final int TARGET_REALM = -1;
+        private static final Property[] EMPTY_PROPERTIES = new Property[0];
+        private static final int[] EMPTY_SOURCES = new int[0];
+
+        final DynamicObject[] objects;
+        /** Index of every template object in {@link #objects}; only read after construction. */
+        final Map<DynamicObject, Integer> indices;
+        final Property[][] properties;
+        /**
+         * For every property in {@link #properties}: the index of the referenced object,
+         * {@link #TARGET_REALM}, or an {@link #encodeOtherValue encoded} index into
+         * {@link #otherValues}.
+         */
+        final int[][] sources;
+        /** Referenced values that are neither objects nor the realm, e.g., accessor pairs. */
+        final Object[] otherValues;
+        /** Indices of the objects whose prototype is a constant of their shape. */
+        final int[] prototypeInShape;
+
+        CopyPlan(JSRealm templateRealm, List<DynamicObject> templateObjects) {
+            int count = templateObjects.size();
+            this.objects = templateObjects.toArray(new DynamicObject[count]);
+            this.indices = new IdentityHashMap<>(count);
+            for (int i = 0; i < count; i++) {
+                indices.put(objects[i], i);
+            }
+            this.properties = new Property[count][];
+            this.sources = new int[count][];
+            List<Object> others = new ArrayList<>();
+            int[] reshaped = new int[count];
+            int reshapedCount = 0;
+            List<Property> objectProperties = new ArrayList<>();
+            int[] objectSources = new int[16];
+            for (int i = 0; i < count; i++) {
+                DynamicObject object = objects[i];
+                Shape shape = object.getShape();
+                objectProperties.clear();
+                for (Property property : shape.getPropertyListInternal(true)) {
+                    Object value = property.get(object, shape);
+                    if (Copier.isShared(value, templateRealm.getContext())) {
+                        continue;
+                    }
+                    if (property.getLocation().isValue()) {
+                        assert property == JSShape.getPrototypeProperty(shape) && JSObject.isJSObject(value);
+                        reshaped[reshapedCount++] = i;
+                        continue;
+                    }
+                    int source;
+                    if (JSObject.isJSObject(value)) {
+                        source = indices.get(value);
+                    } else if (value == templateRealm) {
+                        source = TARGET_REALM;
+                    } else {
+                        source = encodeOtherValue(others.size());
+                        others.add(value);
+                    }
+                    if (objectProperties.size() == objectSources.length) {
+                        objectSources = Arrays.copyOf(objectSources, objectSources.length * 2);
+                    }
+                    objectSources[objectProperties.size()] = source;
+                    objectProperties.add(property);
+                }
+                if (objectProperties.isEmpty()) {
+                    properties[i] = EMPTY_PROPERTIES;
+                    sources[i] = EMPTY_SOURCES;
+                } else {
+                    properties[i] = objectProperties.toArray(new Property[objectProperties.size()]);
+                    sources[i] = Arrays.copyOf(objectSources, objectProperties.size());
+                }
+            }
+            this.otherValues = others.toArray();
+            this.prototypeInShape = Arrays.copyOf(reshaped, reshapedCount);
+        }
+
+        static int encodeOtherValue(int index) {
+            return -2 - index;
+        }
+
+        static int decodeOtherValue(int source) {
+            return -2 - source;
+        }
+    }
+
+    /**
+     * Copies a template realm according to its {@link CopyPlan}.
+     */
+    static final class PlannedCopier extends Copier {
+        private final CopyPlan plan;
+        private DynamicObject[] objectCopies;
+
+        PlannedCopier(JSRealm templateRealm, CopyPlan plan) {
+            super(templateRealm);
+            this.plan = plan;
+        }
+
+        @Override
+        void begin(JSRealm targetRealm) {
+            super.begin(targetRealm);
+            DynamicObject[] objects = plan.objects;
+            objectCopies = new DynamicObject[objects.length];
+            for (int i = 0; i < objects.length; i++) {
+                objectCopies[i] = objects[i].copy(objects[i].getShape());
+            }
+        }
+
+        @Override
+        DynamicObject copyObject(DynamicObject object) {
+            Integer index = plan.indices.get(object);
+            if (index == null) {
+                throw Errors.shouldNotReachHere();
+            }
+            return objectCopies[index];
+        }
+
+        @Override
+        void finish() {
+            for (int i = 0; i < objectCopies.length; i++) {
+                DynamicObject copy = objectCopies[i];
+                Property[] properties = plan.properties[i];
+                int[] sources = plan.sources[i];
+                for (int j = 0; j < properties.length; j++) {
+                    properties[j].setInternal(copy, resolve(sources[j]));
+                }
+            }
+            for (int index : plan.prototypeInShape) {
+                reshapeWithCopiedPrototype(objectCopies[index]);
+            }
+        }
+
+        private Object resolve(int source) {
+            if (source >= 0) {
+                return objectCopies[source];
+            } else if (source == CopyPlan.TARGET_REALM) {
+                return target;
+            } else {
+                return copyValue(plan.otherValues[CopyPlan.decodeOtherValue(source)]);
+            }
+        }
+    }
+
+    /**
+     * Thrown if the object graph of a realm contains a value that cannot be copied.
+     */
+    @SuppressWarnings("serial")
+    static final class UncopyableValueException extends RuntimeException {
+        UncopyableValueException(Object value) {
+            super(value.getClass().getName(), null, false, false);
+        }
+    }
+}
@@ -86,6 +86,7 @@ import com.oracle.truffle.js.runtime.objects.PropertyReference;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.truffleinterop.InteropFunction;
 import com.oracle.truffle.js.runtime.truffleinterop.JSInteropUtil;
+import com.oracle.truffle.js.runtime.util.DoubleParser;
 import com.oracle.truffle.js.runtime.util.JSHashMap;
 
 public final class JSRuntime {
@@ -539,22 +540,15 @@ public final class JSRuntime {
     }
 
     /**
-     * Like {@link Double#parseDouble(String)}, but does not allow trailing {@code d} or {@code f}.
+     * Parses a decimal number with optional sign, fraction and exponent, without surrounding
+     * whitespace.
      *
      * @return double value or {@link Double#NaN} if not parsable.
+     * @see DoubleParser
      */
     @TruffleBoundary
     public static double parseDoubleOrNaN(String input) {
-        // A valid JS number must end with either a digit or '.'.
-        // Double.parseDouble also accepts a trailing 'd', 'D', 'f', 'F'.
-        if (input.isEmpty() || input.charAt(input.length() - 1) > '9') {
-            return Double.NaN;
-        }
-        try {
-            return Double.parseDouble(input);
-        } catch (NumberFormatException e) {
-            return Double.NaN;
-        }
+        return DoubleParser.parse(input, 0, input.length());
     }
 
     /**
@@ -1370,6 +1364,18 @@ public final class JSRuntime {
         return DoubleConversion.toShortest(value);
     }
 
+    /**
+     * Appends the result of {@link #doubleToString(double)} for a finite value to the builder.
+     */
+    @TruffleBoundary
+    public static void formatDtoA(StringBuilder builder, double value) {
+        if (value == 0) {
+            builder.append('0');
+        } else {
+            DoubleConversion.toShortest(value, builder);
+        }
+    }
+
     @TruffleBoundary
     public static String formatDtoAPrecision(double value, int precision) {
         return DoubleConversion.toPrecision(value, precision);
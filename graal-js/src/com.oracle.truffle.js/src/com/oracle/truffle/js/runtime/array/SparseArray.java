@@ -48,10 +48,6 @@ import static com.oracle.truffle.js.runtime.builtins.JSAbstractArray.arraySetLen
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.Set;
-import java.util.TreeMap;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
@@ -60,7 +56,8 @@ import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 
 /**
- * Array that stores its elements in a HashMap-like structure, e.g. in a TreeMap.
+ * Array that stores its elements in an ordered map from index to value, see
+ * {@link SparseArrayStore}.
  */
 public final class SparseArray extends DynamicArray {
 
@@ -76,7 +73,7 @@ public final class SparseArray extends DynamicArray {
 
     public static SparseArray makeSparseArray(DynamicObject object, ScriptArray fromArray) {
         assert !(fromArray instanceof SparseArray);
-        TreeMap<Long, Object> arrayMap = createArrayMap();
+        SparseArrayStore arrayMap = createArrayMap();
         copyArrayToMap(object, fromArray, arrayMap);
         arraySetLength(object, fromArray.length(object));
         arraySetArray(object, arrayMap);
@@ -84,20 +81,20 @@ public final class SparseArray extends DynamicArray {
     }
 
     @TruffleBoundary
-    public static TreeMap<Long, Object> createArrayMap() {
-        return new TreeMap<>();
+    public static SparseArrayStore createArrayMap() {
+        return new SparseArrayStore();
     }
 
-    protected static void copyArrayToMap(DynamicObject object, ScriptArray fromArray, Map<Long, Object> toMap) {
+    @TruffleBoundary
+    protected static void copyArrayToMap(DynamicObject object, ScriptArray fromArray, SparseArrayStore toMap) {
         for (long index = fromArray.firstElementIndex(object); index <= fromArray.lastElementIndex(object); index = fromArray.nextElementIndex(object, index)) {
             assert fromArray.hasElement(object, index);
-            Boundaries.mapPut(toMap, index, fromArray.getElement(object, index));
+            toMap.put(index, fromArray.getElement(object, index));
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static TreeMap<Long, Object> arrayMap(DynamicObject object, boolean condition) {
-        return (TreeMap<Long, Object>) arrayGetArray(object, condition);
+    private static SparseArrayStore arrayMap(DynamicObject object, boolean condition) {
+        return (SparseArrayStore) arrayGetArray(object, condition);
     }
 
     @TruffleBoundary
@@ -143,42 +140,34 @@ public final class SparseArray extends DynamicArray {
     @Override
     public SparseArray setLengthImpl(DynamicObject object, long len, boolean condition, ProfileHolder profile) {
         arraySetLength(object, len);
-        arrayMap(object, condition).tailMap(len).clear();
+        arrayMap(object, condition).truncate(len);
         return this;
     }
 
     @TruffleBoundary
     @Override
     public long firstElementIndex(DynamicObject object, boolean condition) {
-        try {
-            return arrayMap(object, condition).firstKey();
-        } catch (NoSuchElementException ex) {
-            return 0;
-        }
+        long firstIndex = arrayMap(object, condition).firstIndex();
+        return firstIndex >= 0 ? firstIndex : 0;
     }
 
     @TruffleBoundary
     @Override
     public long lastElementIndex(DynamicObject object, boolean condition) {
-        try {
-            return arrayMap(object, condition).lastKey();
-        } catch (NoSuchElementException ex) {
-            return -1;
-        }
+        return arrayMap(object, condition).lastIndex();
     }
 
     @TruffleBoundary
     @Override
     public long nextElementIndex(DynamicObject object, long index, boolean condition) {
-        Long nextIndex = arrayMap(object, condition).higherKey(index);
-        return nextIndex != null ? nextIndex.longValue() : JSRuntime.MAX_SAFE_INTEGER_LONG;
+        long nextIndex = arrayMap(object, condition).nextIndex(index);
+        return nextIndex >= 0 ? nextIndex : JSRuntime.MAX_SAFE_INTEGER_LONG;
     }
 
     @TruffleBoundary
     @Override
     public long previousElementIndex(DynamicObject object, long index, boolean condition) {
-        Long nextIndex = arrayMap(object, condition).lowerKey(index);
-        return nextIndex != null ? nextIndex.longValue() : -1;
+        return arrayMap(object, condition).previousIndex(index);
     }
 
     @Override
@@ -262,9 +251,9 @@ public final class SparseArray extends DynamicArray {
     @TruffleBoundary
     @Override
     public List<Object> ownPropertyKeys(DynamicObject object) {
-        Set<Long> keySet = arrayMap(object, arrayCondition()).keySet();
-        List<Object> list = new ArrayList<>(keySet.size());
-        for (long index : keySet) {
+        long[] indices = arrayMap(object, arrayCondition()).indices();
+        List<Object> list = new ArrayList<>(indices.length);
+        for (long index : indices) {
             list.add(Boundaries.stringValueOf(index));
         }
         return list;
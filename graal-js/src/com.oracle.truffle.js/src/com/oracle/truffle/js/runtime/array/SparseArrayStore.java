@@ -0,0 +1,421 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.array;
+
+import java.util.Arrays;
+
+/**
+ * Ordered element store of {@link SparseArray}, mapping array indices to non-null values without
+ * boxing the indices.
+ *
+ * Indices are grouped into pages of 64 consecutive indices. A page consists of an occupancy bitmap
+ * and a compact value array holding only the present elements, in index order. Pages are kept
+ * sorted by page key in chunks of up to {@value #MAX_CHUNK_PAGES} pages, and the chunks are
+ * sorted as well, i.e., the store is a B+-tree of height two. Lookups are two binary searches and
+ * a bit count; iteration in index order walks the chunks, pages, and bitmaps.
+ */
+public final class SparseArrayStore {
+
+    private static final int PAGE_BITS = 6;
+    private static final long PAGE_MASK = (1L << PAGE_BITS) - 1;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int MAX_CHUNK_PAGES = 128;
+    private static final int INITIAL_PAGE_CAPACITY = 2;
+    private static final int INITIAL_CHUNK_CAPACITY = 4;
+
+    private Chunk[] chunks;
+    private int chunkCount;
+    private int size;
+
+    public SparseArrayStore() {
+        this.chunks = new Chunk[1];
+    }
+
+    private static final class Chunk {
+        /** Sorted keys ({@code index >>> PAGE_BITS}) of the pages in this chunk. */
+        long[] pageKeys;
+        /** Occupancy bitmaps of the pages; never 0 for a page that is in use. */
+        long[] bitmaps;
+        /** Values of the present elements of each page, in index order. */
+        Object[][] values;
+        int pageCount;
+
+        Chunk(int capacity) {
+            this.pageKeys = new long[capacity];
+            this.bitmaps = new long[capacity];
+            this.values = new Object[capacity][];
+        }
+
+        int findPage(long pageKey) {
+            return Arrays.binarySearch(pageKeys, 0, pageCount, pageKey);
+        }
+
+        void insertPage(int page, long pageKey) {
+            assert pageCount < MAX_CHUNK_PAGES;
+            if (pageCount == pageKeys.length) {
+                int capacity = Math.min(MAX_CHUNK_PAGES, pageCount << 1);
+                pageKeys = Arrays.copyOf(pageKeys, capacity);
+                bitmaps = Arrays.copyOf(bitmaps, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            int tail = pageCount - page;
+            System.arraycopy(pageKeys, page, pageKeys, page + 1, tail);
+            System.arraycopy(bitmaps, page, bitmaps, page + 1, tail);
+            System.arraycopy(values, page, values, page + 1, tail);
+            pageKeys[page] = pageKey;
+            bitmaps[page] = 0;
+            values[page] = new Object[INITIAL_PAGE_CAPACITY];
+            pageCount++;
+        }
+
+        void removePage(int page) {
+            int tail = pageCount - page - 1;
+            System.arraycopy(pageKeys, page + 1, pageKeys, page, tail);
+            System.arraycopy(bitmaps, page + 1, bitmaps, page, tail);
+            System.arraycopy(values, page + 1, values, page, tail);
+            pageCount--;
+            values[pageCount] = null;
+        }
+
+        long firstIndex(int page) {
+            return (pageKeys[page] << PAGE_BITS) + Long.numberOfTrailingZeros(bitmaps[page]);
+        }
+
+        long lastIndex(int page) {
+            return (pageKeys[page] << PAGE_BITS) + (63 - Long.numberOfLeadingZeros(bitmaps[page]));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the index of the chunk that may contain the given page key, i.e., the last chunk
+     * whose first page key is not greater than it, or 0.
+     */
+    private int findChunk(long pageKey) {
+        int low = 1;
+        int high = chunkCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (chunks[mid].pageKeys[0] <= pageKey) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low - 1;
+    }
+
+    private static int slotPosition(long bitmap, long bit) {
+        return Long.bitCount(bitmap & (bit - 1));
+    }
+
+    public Object get(long index) {
+        assert index >= 0;
+        if (chunkCount == 0) {
+            return null;
+        }
+        long pageKey = index >>> PAGE_BITS;
+        Chunk chunk = chunks[findChunk(pageKey)];
+        int page = chunk.findPage(pageKey);
+        if (page < 0) {
+            return null;
+        }
+        long bitmap = chunk.bitmaps[page];
+        long bit = 1L << (index & PAGE_MASK);
+        if ((bitmap & bit) == 0) {
+            return null;
+        }
+        return chunk.values[page][slotPosition(bitmap, bit)];
+    }
+
+    public boolean containsKey(long index) {
+        return get(index) != null;
+    }
+
+    public void put(long index, Object value) {
+        assert index >= 0 && value != null;
+        long pageKey = index >>> PAGE_BITS;
+        if (chunkCount == 0) {
+            chunks[0] = new Chunk(INITIAL_CHUNK_CAPACITY);
+            chunkCount = 1;
+        }
+        int chunkIndex = findChunk(pageKey);
+        Chunk chunk = chunks[chunkIndex];
+        int page = chunk.findPage(pageKey);
+        if (page < 0) {
+            page = -(page + 1);
+            if (chunk.pageCount == MAX_CHUNK_PAGES) {
+                Chunk upper = splitChunk(chunkIndex);
+                if (page > chunk.pageCount) {
+                    page -= chunk.pageCount;
+                    chunk = upper;
+                }
+            }
+            chunk.insertPage(page, pageKey);
+        }
+        long bitmap = chunk.bitmaps[page];
+        long bit = 1L << (index & PAGE_MASK);
+        Object[] values = chunk.values[page];
+        int pos = slotPosition(bitmap, bit);
+        if ((bitmap & bit) != 0) {
+            values[pos] = value;
+            return;
+        }
+        int count = Long.bitCount(bitmap);
+        if (count == values.length) {
+            values = Arrays.copyOf(values, Math.min(PAGE_SIZE, count << 1));
+            chunk.values[page] = values;
+        }
+        System.arraycopy(values, pos, values, pos + 1, count - pos);
+        values[pos] = value;
+        chunk.bitmaps[page] = bitmap | bit;
+        size++;
+    }
+
+    /**
+     * Moves the upper half of the pages of a full chunk into a new chunk following it.
+     */
+    private Chunk splitChunk(int chunkIndex) {
+        Chunk chunk = chunks[chunkIndex];
+        int half = MAX_CHUNK_PAGES >> 1;
+        Chunk upper = new Chunk(half);
+        System.arraycopy(chunk.pageKeys, half, upper.pageKeys, 0, half);
+        System.arraycopy(chunk.bitmaps, half, upper.bitmaps, 0, half);
+        System.arraycopy(chunk.values, half, upper.values, 0, half);
+        Arrays.fill(chunk.values, half, MAX_CHUNK_PAGES, null);
+        chunk.pageCount = half;
+        upper.pageCount = half;
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount << 1);
+        }
+        System.arraycopy(chunks, chunkIndex + 1, chunks, chunkIndex + 2, chunkCount - chunkIndex - 1);
+        chunks[chunkIndex + 1] = upper;
+        chunkCount++;
+        return upper;
+    }
+
+    private void removeChunk(int chunkIndex) {
+        System.arraycopy(chunks, chunkIndex + 1, chunks, chunkIndex, chunkCount - chunkIndex - 1);
+        chunkCount--;
+        chunks[chunkCount] = null;
+    }
+
+    public boolean remove(long index) {
+        assert index >= 0;
+        if (chunkCount == 0) {
+            return false;
+        }
+        long pageKey = index >>> PAGE_BITS;
+        int chunkIndex = findChunk(pageKey);
+        Chunk chunk = chunks[chunkIndex];
+        int page = chunk.findPage(pageKey);
+        if (page < 0) {
+            return false;
+        }
+        long bitmap = chunk.bitmaps[page];
+        long bit = 1L << (index & PAGE_MASK);
+        if ((bitmap & bit) == 0) {
+            return false;
+        }
+        size--;
+        if (bitmap == bit) {
+            chunk.removePage(page);
+            if (chunk.pageCount == 0) {
+                removeChunk(chunkIndex);
+            }
+            return true;
+        }
+        Object[] values = chunk.values[page];
+        int pos = slotPosition(bitmap, bit);
+        int count = Long.bitCount(bitmap);
+        System.arraycopy(values, pos + 1, values, pos, count - pos - 1);
+        values[count - 1] = null;
+        chunk.bitmaps[page] = bitmap & ~bit;
+        return true;
+    }
+
+    /**
+     * Removes all elements with an index greater than or equal to {@code length}.
+     */
+    public void truncate(long length) {
+        assert length >= 0;
+        if (chunkCount == 0) {
+            return;
+        }
+        long pageKey = length >>> PAGE_BITS;
+        int chunkIndex = findChunk(pageKey);
+        Chunk chunk = chunks[chunkIndex];
+        int page = chunk.findPage(pageKey);
+        int firstRemovedPage;
+        if (page >= 0) {
+            long bitmap = chunk.bitmaps[page];
+            long keptBitmap = bitmap & ((1L << (length & PAGE_MASK)) - 1);
+            int keptCount = Long.bitCount(keptBitmap);
+            size -= Long.bitCount(bitmap) - keptCount;
+            Arrays.fill(chunk.values[page], keptCount, chunk.values[page].length, null);
+            chunk.bitmaps[page] = keptBitmap;
+            firstRemovedPage = keptBitmap == 0 ? page : page + 1;
+        } else {
+            firstRemovedPage = -(page + 1);
+        }
+        for (int p = firstRemovedPage; p < chunk.pageCount; p++) {
+            size -= Long.bitCount(chunk.bitmaps[p]);
+            chunk.values[p] = null;
+        }
+        chunk.pageCount = firstRemovedPage;
+        int firstRemovedChunk = chunk.pageCount == 0 ? chunkIndex : chunkIndex + 1;
+        for (int c = chunkIndex + 1; c < chunkCount; c++) {
+            Chunk removed = chunks[c];
+            for (int p = 0; p < removed.pageCount; p++) {
+                size -= Long.bitCount(removed.bitmaps[p]);
+            }
+        }
+        Arrays.fill(chunks, firstRemovedChunk, chunkCount, null);
+        chunkCount = firstRemovedChunk;
+        assert size >= 0;
+    }
+
+    /**
+     * Returns the lowest index present, or -1 if the store is empty.
+     */
+    public long firstIndex() {
+        if (chunkCount == 0) {
+            return -1;
+        }
+        return chunks[0].firstIndex(0);
+    }
+
+    /**
+     * Returns the highest index present, or -1 if the store is empty.
+     */
+    public long lastIndex() {
+        if (chunkCount == 0) {
+            return -1;
+        }
+        Chunk chunk = chunks[chunkCount - 1];
+        return chunk.lastIndex(chunk.pageCount - 1);
+    }
+
+    /**
+     * Returns the lowest index present that is greater than {@code index}, or -1 if there is none.
+     */
+    public long nextIndex(long index) {
+        if (index < 0) {
+            return firstIndex();
+        }
+        if (chunkCount == 0) {
+            return -1;
+        }
+        long pageKey = index >>> PAGE_BITS;
+        int chunkIndex = findChunk(pageKey);
+        Chunk chunk = chunks[chunkIndex];
+        int page = chunk.findPage(pageKey);
+        int nextPage;
+        if (page >= 0) {
+            int slot = (int) (index & PAGE_MASK);
+            long higher = slot == PAGE_SIZE - 1 ? 0 : chunk.bitmaps[page] & (-1L << (slot + 1));
+            if (higher != 0) {
+                return (pageKey << PAGE_BITS) + Long.numberOfTrailingZeros(higher);
+            }
+            nextPage = page + 1;
+        } else {
+            nextPage = -(page + 1);
+        }
+        if (nextPage < chunk.pageCount) {
+            return chunk.firstIndex(nextPage);
+        } else if (chunkIndex + 1 < chunkCount) {
+            return chunks[chunkIndex + 1].firstIndex(0);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the highest index present that is less than {@code index}, or -1 if there is none.
+     */
+    public long previousIndex(long index) {
+        if (index <= 0 || chunkCount == 0) {
+            return -1;
+        }
+        long pageKey = index >>> PAGE_BITS;
+        int chunkIndex = findChunk(pageKey);
+        Chunk chunk = chunks[chunkIndex];
+        int page = chunk.findPage(pageKey);
+        int previousPage;
+        if (page >= 0) {
+            long lower = chunk.bitmaps[page] & ((1L << (index & PAGE_MASK)) - 1);
+            if (lower != 0) {
+                return (pageKey << PAGE_BITS) + (63 - Long.numberOfLeadingZeros(lower));
+            }
+            previousPage = page - 1;
+        } else {
+            previousPage = -(page + 1) - 1;
+        }
+        if (previousPage >= 0) {
+            return chunk.lastIndex(previousPage);
+        } else if (chunkIndex > 0) {
+            Chunk previous = chunks[chunkIndex - 1];
+            return previous.lastIndex(previous.pageCount - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns all present indices in ascending order.
+     */
+    public long[] indices() {
+        long[] result = new long[size];
+        int i = 0;
+        for (int c = 0; c < chunkCount; c++) {
+            Chunk chunk = chunks[c];
+            for (int p = 0; p < chunk.pageCount; p++) {
+                long base = chunk.pageKeys[p] << PAGE_BITS;
+                for (long bitmap = chunk.bitmaps[p]; bitmap != 0; bitmap &= bitmap - 1) {
+                    result[i++] = base + Long.numberOfTrailingZeros(bitmap);
+                }
+            }
+        }
+        assert i == size;
+        return result;
+    }
+}
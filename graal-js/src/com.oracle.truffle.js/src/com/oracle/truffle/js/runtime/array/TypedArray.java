@@ -48,6 +48,7 @@ import static com.oracle.truffle.js.runtime.builtins.JSArrayBufferView.typedArra
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.BigInt;
@@ -56,6 +57,7 @@ import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBuffer;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.PrimitiveArraySort;
 
 public abstract class TypedArray extends ScriptArray {
 
@@ -302,6 +304,28 @@ public abstract class TypedArray extends ScriptArray {
         public abstract int getIntImpl(T buffer, int offset, int index);
 
         public abstract void setIntImpl(T buffer, int offset, int index, int value);
+
+        /**
+         * Sorts the elements in ascending numeric order without boxing them.
+         */
+        public final void sort(DynamicObject object) {
+            boolean condition = arrayCondition();
+            T buffer = getBufferFromTypedArrayT(object, condition);
+            int offset = getOffset(object, condition);
+            int length = lengthInt(object, condition);
+            int[] values = new int[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = getIntImpl(buffer, offset, i);
+            }
+            sortValues(values);
+            for (int i = 0; i < length; i++) {
+                setIntImpl(buffer, offset, i, values[i]);
+            }
+        }
+
+        protected void sortValues(int[] values) {
+            PrimitiveArraySort.sortIntsNumeric(values, 0, values.length);
+        }
     }
 
     static final int INT8_BYTES_PER_ELEMENT = 1;
@@ -708,6 +732,11 @@ public abstract class TypedArray extends ScriptArray {
             assert hasElement(object, index, condition);
             return toUint32(getInt(object, (int) index, condition));
         }
+
+        @Override
+        protected void sortValues(int[] values) {
+            PrimitiveArraySort.sortIntsUnsigned(values, 0, values.length);
+        }
     }
 
     public static final class Uint32Array extends AbstractUint32Array<byte[]> {
@@ -976,6 +1005,38 @@ public abstract class TypedArray extends ScriptArray {
         public abstract double getDoubleImpl(T buffer, int offset, int index);
 
         public abstract void setDoubleImpl(T buffer, int offset, int index, double value);
+
+        /**
+         * Sorts the elements without boxing them.
+         *
+         * @param stable if true, sort like the comparator {@code (a, b) => a - b}, keeping equal
+         *            elements in order; otherwise use the default TypedArray order, where -0
+         *            precedes +0 and NaN comes last.
+         * @return false if the array was left unchanged because {@code stable} is true and it
+         *         contains NaN, see {@link PrimitiveArraySort#containsNaN(double[], int, int)}
+         */
+        public final boolean sort(DynamicObject object, boolean stable) {
+            boolean condition = arrayCondition();
+            T buffer = getBufferFromTypedArrayT(object, condition);
+            int offset = getOffset(object, condition);
+            int length = lengthInt(object, condition);
+            double[] values = new double[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = getDoubleImpl(buffer, offset, i);
+            }
+            if (stable) {
+                if (PrimitiveArraySort.containsNaN(values, 0, length)) {
+                    return false;
+                }
+                PrimitiveArraySort.sortDoublesNumeric(values, 0, length);
+            } else {
+                Arrays.sort(values);
+            }
+            for (int i = 0; i < length; i++) {
+                setDoubleImpl(buffer, offset, i, values[i]);
+            }
+            return true;
+        }
     }
 
     static final int FLOAT32_BYTES_PER_ELEMENT = 4;
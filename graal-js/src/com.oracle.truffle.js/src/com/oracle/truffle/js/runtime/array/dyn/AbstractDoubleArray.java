@@ -49,6 +49,7 @@ import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.array.ScriptArray;
+import com.oracle.truffle.js.runtime.util.PrimitiveArraySort;
 
 public abstract class AbstractDoubleArray extends AbstractWritableArray {
 
@@ -175,6 +176,35 @@ public abstract class AbstractDoubleArray extends AbstractWritableArray {
         System.arraycopy(array, src, array, dst, len);
     }
 
+    /**
+     * Sorts the elements of a dense array directly in the backing {@code double[]}.
+     *
+     * @param numeric whether to sort numerically or by string representation (default comparator)
+     * @see #isDenseFromZero(DynamicObject)
+     */
+    public final void sortDenseInPlace(DynamicObject object, boolean numeric) {
+        assert isDenseFromZero(object);
+        double[] array = getArray(object);
+        int fromIndex = getArrayOffset(object);
+        int toIndex = fromIndex + getUsedLength(object);
+        if (numeric) {
+            PrimitiveArraySort.sortDoublesNumeric(array, fromIndex, toIndex);
+        } else {
+            PrimitiveArraySort.sortDoublesAsStrings(array, fromIndex, toIndex);
+        }
+    }
+
+    /**
+     * Returns true if a dense array contains NaN.
+     *
+     * @see PrimitiveArraySort#containsNaN(double[], int, int)
+     */
+    public final boolean containsNaN(DynamicObject object) {
+        assert isDenseFromZero(object);
+        int fromIndex = getArrayOffset(object);
+        return PrimitiveArraySort.containsNaN(getArray(object), fromIndex, fromIndex + getUsedLength(object));
+    }
+
     @Override
     public final Object allocateArray(int length) {
         return new double[length];
@@ -49,6 +49,7 @@ import static com.oracle.truffle.js.runtime.builtins.JSAbstractArray.arraySetArr
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.array.ScriptArray;
+import com.oracle.truffle.js.runtime.util.PrimitiveArraySort;
 
 public abstract class AbstractIntArray extends AbstractWritableArray {
 
@@ -197,6 +198,24 @@ public abstract class AbstractIntArray extends AbstractWritableArray {
         System.arraycopy(array, src, array, dst, len);
     }
 
+    /**
+     * Sorts the elements of a dense array directly in the backing {@code int[]}.
+     *
+     * @param numeric whether to sort numerically or by string representation (default comparator)
+     * @see #isDenseFromZero(DynamicObject)
+     */
+    public final void sortDenseInPlace(DynamicObject object, boolean numeric) {
+        assert isDenseFromZero(object);
+        int[] array = getArray(object);
+        int fromIndex = getArrayOffset(object);
+        int toIndex = fromIndex + getUsedLength(object);
+        if (numeric) {
+            PrimitiveArraySort.sortIntsNumeric(array, fromIndex, toIndex);
+        } else {
+            PrimitiveArraySort.sortIntsAsStrings(array, fromIndex, toIndex);
+        }
+    }
+
     @Override
     public final Object allocateArray(int length) {
         return new int[length];
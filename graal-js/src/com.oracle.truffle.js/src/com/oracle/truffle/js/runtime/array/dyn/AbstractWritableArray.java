@@ -849,6 +849,15 @@ public abstract class AbstractWritableArray extends DynamicArray {
      */
     protected abstract void moveRangePrepared(DynamicObject object, int src, int dst, int len);
 
+    /**
+     * Returns true if this array has no holes and its elements occupy exactly the index range
+     * [0, length), i.e., they are stored contiguously in the backing array starting at the array
+     * offset.
+     */
+    public final boolean isDenseFromZero(DynamicObject object) {
+        return !isHolesType() && firstElementIndex(object) == 0 && lastElementIndex(object) + 1 == length(object);
+    }
+
     protected interface SetSupportedProfileAccess extends ProfileAccess {
         default boolean ensureCapacityGrow(ProfileHolder profile, boolean condition) {
             return profile.profile(this, 0, condition);
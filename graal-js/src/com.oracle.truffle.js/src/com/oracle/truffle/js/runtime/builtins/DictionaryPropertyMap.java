@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.builtins;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.js.runtime.objects.Accessor;
+import com.oracle.truffle.js.runtime.objects.JSAttributes;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
+
+/**
+ * Property storage of {@link JSDictionaryObject}.
+ *
+ * Deterministic-order hash table like {@link com.oracle.truffle.js.runtime.util.JSHashMap}: keys,
+ * values and property flags are stored in insertion order in parallel arrays and chained into hash
+ * buckets by entry index. The value of an accessor property is its {@link Accessor}; data
+ * properties store their value directly, so no per-property objects are allocated. Removing an
+ * entry leaves a hole that is squeezed out the next time the table is rehashed.
+ */
+final class DictionaryPropertyMap {
+
+    private static final int INITIAL_CAPACITY = 8;
+    static final int NONE = -1;
+
+    /** Keys in insertion order; {@code null} marks a removed entry. */
+    private Object[] keys;
+    private Object[] values;
+    /** {@link JSAttributes} and {@link JSProperty#ACCESSOR} flags of each entry. */
+    private byte[] flags;
+    /** Index of the next entry in the same bucket, or {@link #NONE}. */
+    private int[] chain;
+    /** Index of the most recently inserted entry of each bucket, or {@link #NONE}. */
+    private int[] buckets;
+    /** Number of used entry slots, including removed entries. */
+    private int usedCount;
+    private int size;
+
+    DictionaryPropertyMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+        this.flags = new byte[capacity];
+        this.chain = new int[capacity];
+        this.buckets = new int[capacity >> 1];
+        Arrays.fill(buckets, NONE);
+        this.usedCount = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private int bucketOf(int hash) {
+        return hash & (buckets.length - 1);
+    }
+
+    /**
+     * Returns the index of the entry with the given key, or {@link #NONE} if there is none.
+     */
+    int find(Object key) {
+        Object[] k = keys;
+        for (int index = buckets[bucketOf(hash(key))]; index != NONE; index = chain[index]) {
+            Object entryKey = k[index];
+            if (entryKey != null && (entryKey == key || key.equals(entryKey))) {
+                return index;
+            }
+        }
+        return NONE;
+    }
+
+    boolean containsKey(Object key) {
+        return find(key) != NONE;
+    }
+
+    /**
+     * Adds a new property, or replaces value and flags of an existing one.
+     *
+     * @param value the property value, or an {@link Accessor} if {@code propertyFlags} include
+     *            {@link JSProperty#ACCESSOR}.
+     */
+    void put(Object key, Object value, int propertyFlags) {
+        assert key != null && value != null;
+        assert (propertyFlags & ~(JSAttributes.ATTRIBUTES_MASK | JSProperty.ACCESSOR)) == 0;
+        assert ((propertyFlags & JSProperty.ACCESSOR) != 0) == (value instanceof Accessor);
+        int index = find(key);
+        if (index != NONE) {
+            values[index] = value;
+            flags[index] = (byte) propertyFlags;
+            return;
+        }
+        if (usedCount == keys.length) {
+            // grow, unless removing the holes frees enough space
+            rehash(size >= (keys.length >> 1) ? keys.length << 1 : keys.length);
+        }
+        index = usedCount++;
+        keys[index] = key;
+        values[index] = value;
+        flags[index] = (byte) propertyFlags;
+        int bucket = bucketOf(hash(key));
+        chain[index] = buckets[bucket];
+        buckets[bucket] = index;
+        size++;
+    }
+
+    Object getKey(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Returns the value of a data property, or the {@link Accessor} of an accessor property.
+     */
+    Object getValue(int index) {
+        assert keys[index] != null;
+        return values[index];
+    }
+
+    void setValue(int index, Object value) {
+        assert keys[index] != null && !isAccessor(index) && value != null;
+        values[index] = value;
+    }
+
+    /**
+     * Returns the {@link JSAttributes} of the entry, excluding {@link JSProperty#ACCESSOR}.
+     */
+    int getAttributes(int index) {
+        return flags[index] & JSAttributes.ATTRIBUTES_MASK;
+    }
+
+    boolean isAccessor(int index) {
+        return (flags[index] & JSProperty.ACCESSOR) != 0;
+    }
+
+    void remove(int index) {
+        assert keys[index] != null;
+        // the hole stays linked into its bucket chain until the next rehash
+        keys[index] = null;
+        values[index] = null;
+        size--;
+        if (size < (keys.length >> 2) && keys.length > INITIAL_CAPACITY) {
+            rehash(keys.length >> 1);
+        }
+    }
+
+    /**
+     * Returns the index of the first live entry after {@code index}, or {@link #NONE}. Pass
+     * {@link #NONE} to start at the first entry. Entries are visited in insertion order; the map
+     * must not be modified during iteration.
+     */
+    int next(int index) {
+        for (int i = index + 1; i < usedCount; i++) {
+            if (keys[i] != null) {
+                return i;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Moves all live entries into new arrays of the given capacity, removing holes.
+     */
+    private void rehash(int newCapacity) {
+        assert newCapacity >= size && newCapacity >= INITIAL_CAPACITY;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        byte[] oldFlags = flags;
+        int oldUsedCount = usedCount;
+        allocate(newCapacity);
+        int newIndex = 0;
+        for (int oldIndex = 0; oldIndex < oldUsedCount; oldIndex++) {
+            Object key = oldKeys[oldIndex];
+            if (key == null) {
+                continue;
+            }
+            keys[newIndex] = key;
+            values[newIndex] = oldValues[oldIndex];
+            flags[newIndex] = oldFlags[oldIndex];
+            int bucket = bucketOf(hash(key));
+            chain[newIndex] = buckets[bucket];
+            buckets[bucket] = newIndex;
+            newIndex++;
+        }
+        assert newIndex == size;
+        usedCount = newIndex;
+    }
+}
@@ -40,26 +40,31 @@
  */
 package com.oracle.truffle.js.runtime.builtins;
 
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 
+import com.oracle.truffle.api.object.DynamicObject;
+
 /**
- * A record specified for FinalizationRegistry entries.
+ * A record specified for FinalizationRegistry entries (a cell). The record is a weak reference to
+ * the target that is enqueued in the reference queue of the agent once the target is collected.
  *
  */
-public class FinalizationRecord {
-    private WeakReference<Object> weakRefTarget;
-    private Object heldValue;
-    private WeakReference<Object> unregisterToken;
+public final class FinalizationRecord extends WeakReference<Object> {
+    private final DynamicObject finalizationRegistry;
+    private final Object heldValue;
+    private final WeakReference<Object> unregisterToken;
 
-    public FinalizationRecord(WeakReference<Object> weakRefTarget, Object heldValue, Object unregisterToken) {
-        assert weakRefTarget != null && weakRefTarget.get() != null;
-        this.weakRefTarget = weakRefTarget;
+    public FinalizationRecord(DynamicObject finalizationRegistry, Object target, Object heldValue, Object unregisterToken, ReferenceQueue<Object> queue) {
+        super(target, queue);
+        assert target != null;
+        this.finalizationRegistry = finalizationRegistry;
         this.heldValue = heldValue;
         this.unregisterToken = new WeakReference<>(unregisterToken);
     }
 
-    public WeakReference<Object> getWeakRefTarget() {
-        return weakRefTarget;
+    public DynamicObject getFinalizationRegistry() {
+        return finalizationRegistry;
     }
 
     public Object getHeldValue() {
@@ -270,8 +270,12 @@ public final class JSCollator extends JSBuiltinObject implements JSConstructorFa
 
     @TruffleBoundary
     public static int compare(DynamicObject collatorObj, String one, String two) {
-        Collator collator = getCollatorProperty(collatorObj);
-        return collator.compare(normalize(one), normalize(two));
+        return compare(getInternalState(collatorObj), one, two);
+    }
+
+    @TruffleBoundary
+    public static int compare(InternalState state, String one, String two) {
+        return state.collator.compare(normalize(one), normalize(two));
     }
 
     private static String normalize(String s) {
@@ -321,6 +325,14 @@ public final class JSCollator extends JSBuiltinObject implements JSConstructorFa
         private boolean numeric = false;
         private String caseFirst = IntlUtil.FALSE;
 
+        /**
+         * Makes the collator immutable, so that it can be used by several threads at once.
+         */
+        @TruffleBoundary
+        public void freeze() {
+            collator.freeze();
+        }
+
         DynamicObject toResolvedOptionsObject(JSContext context) {
             DynamicObject result = JSUserObject.create(context);
             JSObjectUtil.defineDataProperty(result, IntlUtil.LOCALE, locale, JSAttributes.getDefault());
@@ -665,6 +665,19 @@ public final class JSDateTimeFormat extends JSBuiltinObject implements JSConstru
         return dateFormat.format(timeClip(context, n));
     }
 
+    /**
+     * Formats using a state that may be shared by several threads, see
+     * {@link com.oracle.truffle.js.runtime.util.IntlCache}.
+     */
+    @TruffleBoundary
+    public static String formatShared(JSContext context, InternalState state, Object n) {
+        double x = timeClip(context, n);
+        DateFormat dateFormat = state.dateFormat;
+        synchronized (dateFormat) {
+            return dateFormat.format(x);
+        }
+    }
+
     private static double timeClip(JSContext context, Object n) {
         double x;
         if (n == Undefined.instance) {
@@ -43,9 +43,6 @@ package com.oracle.truffle.js.runtime.builtins;
 import java.util.Collections;
 import java.util.List;
 
-import org.graalvm.collections.EconomicMap;
-import org.graalvm.collections.MapCursor;
-
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
@@ -60,6 +57,7 @@ import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.Symbol;
 import com.oracle.truffle.js.runtime.objects.Accessor;
+import com.oracle.truffle.js.runtime.objects.JSAttributes;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.js.runtime.objects.JSProperty;
@@ -71,7 +69,8 @@ import com.oracle.truffle.js.runtime.util.DefinePropertyUtil;
 
 /**
  * This is a variant of {@link JSUserObject} that stores its contents as a HashMap of properties
- * (excepts hidden properties, incl. prototype).
+ * (excepts hidden properties, incl. prototype). Values and attributes are kept inline in a
+ * {@link DictionaryPropertyMap}; property descriptors are only created on demand.
  */
 public final class JSDictionaryObject extends JSBuiltinObject {
 
@@ -84,7 +83,7 @@ public final class JSDictionaryObject extends JSBuiltinObject {
 
     static {
         Shape.Allocator allocator = JSShape.makeAllocator(JSObject.LAYOUT);
-        HASHMAP_PROPERTY = JSObjectUtil.makeHiddenProperty(HASHMAP_PROPERTY_NAME, allocator.locationForType(EconomicMap.class));
+        HASHMAP_PROPERTY = JSObjectUtil.makeHiddenProperty(HASHMAP_PROPERTY_NAME, allocator.locationForType(DictionaryPropertyMap.class));
     }
 
     private JSDictionaryObject() {
@@ -114,25 +113,26 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     @TruffleBoundary
     @Override
     public Object getOwnHelper(DynamicObject store, Object thisObj, Object key) {
-        PropertyDescriptor desc = getHashMap(store).get(key);
-        if (desc != null) {
-            return getValue(desc, thisObj);
+        DictionaryPropertyMap hashMap = getHashMap(store);
+        int index = hashMap.find(key);
+        if (index != DictionaryPropertyMap.NONE) {
+            return getValue(hashMap, index, thisObj);
         }
 
         return super.getOwnHelper(store, thisObj, key);
     }
 
-    public static Object getValue(PropertyDescriptor property, Object receiver) {
-        if (property.isAccessorDescriptor()) {
-            DynamicObject getter = (DynamicObject) property.getGet();
+    private static Object getValue(DictionaryPropertyMap hashMap, int index, Object receiver) {
+        Object value = hashMap.getValue(index);
+        if (hashMap.isAccessor(index)) {
+            DynamicObject getter = ((Accessor) value).getGetter();
             if (getter != Undefined.instance) {
                 return JSRuntime.call(getter, receiver, JSArguments.EMPTY_ARGUMENTS_ARRAY);
             } else {
                 return Undefined.instance;
             }
         } else {
-            assert property.isDataDescriptor();
-            return property.getValue();
+            return value;
         }
     }
 
@@ -141,7 +141,9 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     public List<Object> getOwnPropertyKeys(DynamicObject thisObj, boolean strings, boolean symbols) {
         assert isJSDictionaryObject(thisObj);
         List<Object> keys = ordinaryOwnPropertyKeysSlow(thisObj, strings, symbols);
-        for (Object key : getHashMap(thisObj).getKeys()) {
+        DictionaryPropertyMap hashMap = getHashMap(thisObj);
+        for (int index = hashMap.next(DictionaryPropertyMap.NONE); index != DictionaryPropertyMap.NONE; index = hashMap.next(index)) {
+            Object key = hashMap.getKey(index);
             if ((!symbols && key instanceof Symbol) || (!strings && key instanceof String)) {
                 continue;
             }
@@ -154,16 +156,16 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     @TruffleBoundary
     @Override
     public boolean delete(DynamicObject thisObj, Object key, boolean isStrict) {
-        EconomicMap<Object, PropertyDescriptor> hashMap = getHashMap(thisObj);
-        PropertyDescriptor desc = hashMap.get(key);
-        if (desc != null) {
-            if (!desc.getConfigurable()) {
+        DictionaryPropertyMap hashMap = getHashMap(thisObj);
+        int index = hashMap.find(key);
+        if (index != DictionaryPropertyMap.NONE) {
+            if (!JSAttributes.isConfigurable(hashMap.getAttributes(index))) {
                 if (isStrict) {
                     throw Errors.createTypeErrorNotConfigurableProperty(key);
                 }
                 return false;
             }
-            hashMap.removeKey(key);
+            hashMap.remove(index);
             return true;
         }
         return super.delete(thisObj, key, isStrict);
@@ -200,9 +202,10 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         if (receiver != thisObj) {
             return ordinarySetWithReceiver(thisObj, key, value, receiver, isStrict);
         }
-        PropertyDescriptor property = getHashMap(thisObj).get(key);
-        if (property != null) {
-            return setValue(key, property, thisObj, receiver, value, isStrict);
+        DictionaryPropertyMap hashMap = getHashMap(thisObj);
+        int index = hashMap.find(key);
+        if (index != DictionaryPropertyMap.NONE) {
+            return setValue(key, hashMap, index, thisObj, receiver, value, isStrict);
         }
         Property entry = DefinePropertyUtil.getPropertyByKey(thisObj, key);
         if (entry != null) {
@@ -211,9 +214,9 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         return setPropertySlow(thisObj, key, value, receiver, isStrict, false);
     }
 
-    private static boolean setValue(Object key, PropertyDescriptor property, DynamicObject store, Object thisObj, Object value, boolean isStrict) {
-        if (property.isAccessorDescriptor()) {
-            DynamicObject setter = (DynamicObject) property.getSet();
+    private static boolean setValue(Object key, DictionaryPropertyMap hashMap, int index, DynamicObject store, Object thisObj, Object value, boolean isStrict) {
+        if (hashMap.isAccessor(index)) {
+            DynamicObject setter = ((Accessor) hashMap.getValue(index)).getSetter();
             if (setter != Undefined.instance) {
                 JSRuntime.call(setter, thisObj, new Object[]{value});
                 return true;
@@ -223,9 +226,8 @@ public final class JSDictionaryObject extends JSBuiltinObject {
                 return false;
             }
         } else {
-            assert property.isDataDescriptor();
-            if (property.getWritable()) {
-                property.setValue(value);
+            if (JSAttributes.isWritable(hashMap.getAttributes(index))) {
+                hashMap.setValue(index, value);
                 return true;
             } else {
                 if (isStrict) {
@@ -240,9 +242,17 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     @Override
     public PropertyDescriptor getOwnProperty(DynamicObject thisObj, Object key) {
         assert JSRuntime.isPropertyKey(key);
-        PropertyDescriptor prop = getHashMap(thisObj).get(key);
-        if (prop != null) {
-            return prop;
+        DictionaryPropertyMap hashMap = getHashMap(thisObj);
+        int index = hashMap.find(key);
+        if (index != DictionaryPropertyMap.NONE) {
+            Object value = hashMap.getValue(index);
+            int attributes = hashMap.getAttributes(index);
+            if (hashMap.isAccessor(index)) {
+                Accessor accessor = (Accessor) value;
+                return PropertyDescriptor.createAccessor(accessor.getGetter(), accessor.getSetter(), attributes);
+            } else {
+                return PropertyDescriptor.createData(value, attributes);
+            }
         }
         return super.getOwnProperty(thisObj, key);
     }
@@ -251,7 +261,13 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     @Override
     public boolean defineOwnProperty(DynamicObject thisObj, Object key, PropertyDescriptor desc, boolean doThrow) {
         if (!hasOwnProperty(thisObj, key) && JSObject.isExtensible(thisObj)) {
-            getHashMap(thisObj).put(key, desc);
+            if (desc.isAccessorDescriptor()) {
+                Accessor accessor = new Accessor(toAccessorFunction(desc.getGet()), toAccessorFunction(desc.getSet()));
+                getHashMap(thisObj).put(key, accessor, desc.getFlags() | JSProperty.ACCESSOR);
+            } else {
+                Object value = desc.hasValue() ? desc.getValue() : Undefined.instance;
+                getHashMap(thisObj).put(key, value, desc.getFlags());
+            }
             return true;
         }
 
@@ -261,11 +277,14 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         return super.defineOwnProperty(thisObj, key, desc, doThrow);
     }
 
-    @SuppressWarnings("unchecked")
-    static EconomicMap<Object, PropertyDescriptor> getHashMap(DynamicObject obj) {
+    private static DynamicObject toAccessorFunction(Object function) {
+        return function == null ? Undefined.instance : (DynamicObject) function;
+    }
+
+    static DictionaryPropertyMap getHashMap(DynamicObject obj) {
         assert JSDictionaryObject.isJSDictionaryObject(obj);
         Property hashMapProperty = obj.getShape().getProperty(HASHMAP_PROPERTY_NAME);
-        return (EconomicMap<Object, PropertyDescriptor>) hashMapProperty.get(obj, false);
+        return (DictionaryPropertyMap) hashMapProperty.get(obj, false);
     }
 
     public static void makeDictionaryObject(DynamicObject obj, String reason) {
@@ -284,7 +303,7 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         JSContext context = JSObject.getJSContext(obj);
         Shape hashedShape = makeEmptyShapeForNewType(context, currentShape, JSDictionaryObject.INSTANCE);
 
-        EconomicMap<Object, PropertyDescriptor> hashMap = newHashMap();
+        DictionaryPropertyMap hashMap = newHashMap();
         List<Property> properties = currentShape.getPropertyListInternal(true);
         for (Property p : properties) {
             Object key = p.getKey();
@@ -296,7 +315,7 @@ public final class JSDictionaryObject extends JSBuiltinObject {
             } else {
                 // normal properties
                 Object value = p.get(obj, false);
-                hashMap.put(key, toPropertyDescriptor(p, value));
+                hashMap.put(key, value, p.getFlags() & (JSAttributes.ATTRIBUTES_MASK | JSProperty.ACCESSOR));
 
                 // invalidate property assumptions (for final properties)
                 JSShape.invalidatePropertyAssumption(currentShape, key);
@@ -328,26 +347,13 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         }
     }
 
-    private static PropertyDescriptor toPropertyDescriptor(Property p, Object value) {
-        PropertyDescriptor desc;
-        if (JSProperty.isAccessor(p)) {
-            desc = PropertyDescriptor.createAccessor(((Accessor) value).getGetter(), ((Accessor) value).getSetter());
-            desc.setConfigurable(JSProperty.isConfigurable(p));
-            desc.setEnumerable(JSProperty.isEnumerable(p));
-        } else {
-            assert JSProperty.isData(p);
-            desc = PropertyDescriptor.createData(value, JSProperty.isEnumerable(p), JSProperty.isWritable(p), JSProperty.isConfigurable(p));
-        }
-        return desc;
-    }
-
     private static void makeOrdinaryObject(DynamicObject obj, String reason) {
         CompilerAsserts.neverPartOfCompilation();
         if (JSConfig.TraceDictionaryObject) {
             System.out.printf("transitioning from dictionary object to ordinary object: %s\n", reason);
         }
 
-        EconomicMap<Object, PropertyDescriptor> hashMap = getHashMap(obj);
+        DictionaryPropertyMap hashMap = getHashMap(obj);
         Shape oldShape = obj.getShape();
         JSContext context = JSObject.getJSContext(obj);
         Shape newShape = makeEmptyShapeForNewType(context, oldShape, JSUserObject.INSTANCE);
@@ -363,14 +369,13 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         }
         obj.setShapeAndGrow(oldShape, newShape);
 
-        MapCursor<Object, PropertyDescriptor> cursor = hashMap.getEntries();
-        while (cursor.advance()) {
-            Object key = cursor.getKey();
-            PropertyDescriptor desc = cursor.getValue();
-            if (desc.isDataDescriptor()) {
-                JSObjectUtil.defineDataProperty(obj, key, desc.getValue(), desc.getFlags());
+        for (int index = hashMap.next(DictionaryPropertyMap.NONE); index != DictionaryPropertyMap.NONE; index = hashMap.next(index)) {
+            Object key = hashMap.getKey(index);
+            Object value = hashMap.getValue(index);
+            if (hashMap.isAccessor(index)) {
+                JSObjectUtil.defineAccessorProperty(obj, key, (Accessor) value, hashMap.getAttributes(index));
             } else {
-                JSObjectUtil.defineAccessorProperty(obj, key, new Accessor((DynamicObject) desc.getGet(), (DynamicObject) desc.getSet()), desc.getFlags());
+                JSObjectUtil.defineDataProperty(obj, key, value, hashMap.getAttributes(index));
             }
         }
 
@@ -390,8 +395,8 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         return JSObject.create(context, context.getDictionaryObjectFactory(), newHashMap());
     }
 
-    private static EconomicMap<Object, PropertyDescriptor> newHashMap() {
-        return EconomicMap.create();
+    private static DictionaryPropertyMap newHashMap() {
+        return new DictionaryPropertyMap();
     }
 
     @Override
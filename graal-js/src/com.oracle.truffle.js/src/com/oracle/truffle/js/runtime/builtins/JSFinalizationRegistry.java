@@ -40,12 +40,12 @@
  */
 package com.oracle.truffle.js.runtime.builtins;
 
-import java.lang.ref.ReferenceQueue;
-import java.lang.ref.WeakReference;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.Iterator;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.interop.TruffleObject;
@@ -55,6 +55,7 @@ import com.oracle.truffle.api.object.LocationModifier;
 import com.oracle.truffle.api.object.Property;
 import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.js.builtins.FinalizationRegistryPrototypeBuiltins;
+import com.oracle.truffle.js.runtime.JSAgent;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRealm;
 import com.oracle.truffle.js.runtime.JSRuntime;
@@ -76,43 +77,49 @@ public final class JSFinalizationRegistry extends JSBuiltinObject implements JSC
     private static final Property CLEANUP_CALLBACK_PROPERTY;
     private static final HiddenKey CELLS_ID = new HiddenKey("cells");
     private static final Property CELLS_PROPERTY;
-    private static final HiddenKey REFERENCE_QUEUE_ID = new HiddenKey("reference_queue");
-    private static final Property REFERENCE_QUEUE_PROPERTY;
+    private static final HiddenKey PENDING_CELLS_ID = new HiddenKey("pending_cells");
+    private static final Property PENDING_CELLS_PROPERTY;
 
     public static final HiddenKey FINALIZATION_REGISTRY_ID = new HiddenKey("FinalizationRegistry");
 
     static {
         Shape.Allocator allocator = JSShape.makeAllocator(JSObject.LAYOUT);
         CLEANUP_CALLBACK_PROPERTY = JSObjectUtil.makeHiddenProperty(CLEANUP_CALLBACK_ID, allocator.locationForType(DynamicObject.class, EnumSet.of(LocationModifier.Final, LocationModifier.NonNull)));
-        CELLS_PROPERTY = JSObjectUtil.makeHiddenProperty(CELLS_ID, allocator.locationForType(List.class, EnumSet.of(LocationModifier.Final, LocationModifier.NonNull)));
-        REFERENCE_QUEUE_PROPERTY = JSObjectUtil.makeHiddenProperty(REFERENCE_QUEUE_ID, allocator.locationForType(ReferenceQueue.class, EnumSet.of(LocationModifier.NonNull)));
+        CELLS_PROPERTY = JSObjectUtil.makeHiddenProperty(CELLS_ID, allocator.locationForType(Set.class, EnumSet.of(LocationModifier.Final, LocationModifier.NonNull)));
+        PENDING_CELLS_PROPERTY = JSObjectUtil.makeHiddenProperty(PENDING_CELLS_ID, allocator.locationForType(Deque.class, EnumSet.of(LocationModifier.Final, LocationModifier.NonNull)));
     }
 
     private JSFinalizationRegistry() {
     }
 
     public static DynamicObject create(JSContext context, TruffleObject cleanupCallback) {
-        DynamicObject obj = JSObject.create(context, context.getFinalizationRegistryFactory(), cleanupCallback, new ArrayList<>(), new ReferenceQueue<>());
+        DynamicObject obj = JSObject.create(context, context.getFinalizationRegistryFactory(), cleanupCallback, new LinkedHashSet<>(), new ArrayDeque<>());
         assert isJSFinalizationRegistry(obj);
         context.registerFinalizationRegistry(obj);
         return obj;
     }
 
+    /**
+     * Returns the cells whose target has not been found to be collected yet.
+     */
     @SuppressWarnings("unchecked")
-    private static List<FinalizationRecord> getCells(DynamicObject obj) {
+    private static Set<FinalizationRecord> getCells(DynamicObject obj) {
         assert isJSFinalizationRegistry(obj);
-        return (List<FinalizationRecord>) CELLS_PROPERTY.get(obj, isJSFinalizationRegistry(obj));
+        return (Set<FinalizationRecord>) CELLS_PROPERTY.get(obj, isJSFinalizationRegistry(obj));
     }
 
-    public static DynamicObject getCleanupCallback(DynamicObject obj) {
+    /**
+     * Returns the cells whose target has been collected and whose cleanup callback is pending.
+     */
+    @SuppressWarnings("unchecked")
+    private static Deque<FinalizationRecord> getPendingCells(DynamicObject obj) {
         assert isJSFinalizationRegistry(obj);
-        return (DynamicObject) CLEANUP_CALLBACK_PROPERTY.get(obj, isJSFinalizationRegistry(obj));
+        return (Deque<FinalizationRecord>) PENDING_CELLS_PROPERTY.get(obj, isJSFinalizationRegistry(obj));
     }
 
-    @SuppressWarnings("unchecked")
-    public static ReferenceQueue<Object> getReferenceQueue(DynamicObject obj) {
+    public static DynamicObject getCleanupCallback(DynamicObject obj) {
         assert isJSFinalizationRegistry(obj);
-        return (ReferenceQueue<Object>) REFERENCE_QUEUE_PROPERTY.get(obj, isJSFinalizationRegistry(obj));
+        return (DynamicObject) CLEANUP_CALLBACK_PROPERTY.get(obj, isJSFinalizationRegistry(obj));
     }
 
     @Override
@@ -130,7 +137,7 @@ public final class JSFinalizationRegistry extends JSBuiltinObject implements JSC
         Shape initialShape = JSObjectUtil.getProtoChildShape(prototype, JSFinalizationRegistry.INSTANCE, context);
         initialShape = initialShape.addProperty(CLEANUP_CALLBACK_PROPERTY);
         initialShape = initialShape.addProperty(CELLS_PROPERTY);
-        initialShape = initialShape.addProperty(REFERENCE_QUEUE_PROPERTY);
+        initialShape = initialShape.addProperty(PENDING_CELLS_PROPERTY);
         return initialShape;
     }
 
@@ -167,68 +174,94 @@ public final class JSFinalizationRegistry extends JSBuiltinObject implements JSC
         return realm.getFinalizationRegistryPrototype();
     }
 
+    private static JSAgent getAgent(DynamicObject finalizationRegistry) {
+        return JSObject.getJSContext(finalizationRegistry).getJSAgent();
+    }
+
     @TruffleBoundary
     public static void appendToCells(DynamicObject finalizationRegistry, Object target, Object holdings, Object unregisterToken) {
-        List<FinalizationRecord> cells = getCells(finalizationRegistry);
-        ReferenceQueue<Object> queue = getReferenceQueue(finalizationRegistry);
-        WeakReference<Object> weakTarget = new WeakReference<>(target, queue);
-        cells.add(new FinalizationRecord(weakTarget, holdings, unregisterToken));
+        Set<FinalizationRecord> cells = getCells(finalizationRegistry);
+        cells.add(new FinalizationRecord(finalizationRegistry, target, holdings, unregisterToken, getAgent(finalizationRegistry).getFinalizationQueue()));
     }
 
     @TruffleBoundary
     public static boolean removeFromCells(DynamicObject finalizationRegistry, Object unregisterToken) {
-        List<FinalizationRecord> cells = getCells(finalizationRegistry);
         boolean removed = false;
-        for (Iterator<FinalizationRecord> iterator = cells.iterator(); iterator.hasNext();) {
+        for (Iterator<FinalizationRecord> iterator = getCells(finalizationRegistry).iterator(); iterator.hasNext();) {
+            FinalizationRecord record = iterator.next();
+            if (JSRuntime.isSameValue(record.getUnregisterToken().get(), unregisterToken)) {
+                iterator.remove();
+                removed = true;
+            }
+        }
+        for (Iterator<FinalizationRecord> iterator = getPendingCells(finalizationRegistry).iterator(); iterator.hasNext();) {
             FinalizationRecord record = iterator.next();
             if (JSRuntime.isSameValue(record.getUnregisterToken().get(), unregisterToken)) {
                 iterator.remove();
+                getAgent(finalizationRegistry).finalizationCleanupJobRemoved();
                 removed = true;
             }
         }
         return removed;
     }
 
+    /**
+     * Called by the agent for a cell whose target has been collected.
+     */
+    public static void cellCleared(FinalizationRecord record) {
+        DynamicObject finalizationRegistry = record.getFinalizationRegistry();
+        // the cell might have been unregistered in the meantime
+        if (getCells(finalizationRegistry).remove(record)) {
+            addPendingCell(finalizationRegistry, record);
+        }
+    }
+
+    /**
+     * Moves all cells whose target has been collected to the pending cells, without waiting for
+     * them to be enqueued.
+     */
+    public static void collectClearedCells(DynamicObject finalizationRegistry) {
+        for (Iterator<FinalizationRecord> iterator = getCells(finalizationRegistry).iterator(); iterator.hasNext();) {
+            FinalizationRecord record = iterator.next();
+            if (record.get() == null) {
+                iterator.remove();
+                addPendingCell(finalizationRegistry, record);
+            }
+        }
+    }
+
+    private static void addPendingCell(DynamicObject finalizationRegistry, FinalizationRecord record) {
+        Deque<FinalizationRecord> pendingCells = getPendingCells(finalizationRegistry);
+        boolean first = pendingCells.isEmpty();
+        pendingCells.add(record);
+        getAgent(finalizationRegistry).finalizationCleanupJobAdded(finalizationRegistry, first);
+    }
+
     public static void cleanupFinalizationRegistry(DynamicObject finalizationRegistry, Object callbackArg) {
         Object callback = callbackArg == Undefined.instance ? JSFinalizationRegistry.getCleanupCallback(finalizationRegistry) : callbackArg;
+        getAgent(finalizationRegistry).pollFinalizationQueue();
         FinalizationRecord cell;
-        while ((cell = removeCellEmptyTarget(finalizationRegistry)) != null) {
-            assert (cell.getWeakRefTarget().get() == null);
+        while ((cell = removePendingCell(finalizationRegistry)) != null) {
+            assert (cell.get() == null);
             JSRuntime.call(callback, Undefined.instance, new Object[]{cell.getHeldValue()});
         }
     }
 
     @TruffleBoundary
-    public static FinalizationRecord removeCellEmptyTarget(DynamicObject finalizationRegistry) {
+    public static FinalizationRecord removePendingCell(DynamicObject finalizationRegistry) {
         assert JSFinalizationRegistry.isJSFinalizationRegistry(finalizationRegistry);
-        List<FinalizationRecord> cells = getCells(finalizationRegistry);
-        for (int i = 0; i < cells.size(); i++) {
-            FinalizationRecord record = cells.get(i);
-            if (record.getWeakRefTarget().get() == null) {
-                cells.remove(i);
-                return record;
-            }
+        FinalizationRecord record = getPendingCells(finalizationRegistry).poll();
+        if (record != null) {
+            getAgent(finalizationRegistry).finalizationCleanupJobRemoved();
         }
-        return null;
+        return record;
     }
 
     /**
      * 4.1.3 Execution and 4.1.4.1 HostCleanupFinalizationRegistry.
      */
     public static void hostCleanupFinalizationRegistry(DynamicObject finalizationRegistry) {
-        // if something can be polled, clean up the FinalizationRegistry
-        ReferenceQueue<Object> queue = getReferenceQueue(finalizationRegistry);
-        boolean queueNotEmpty = (queue.poll() != null);
-        // Cleared WeakReferences may not appear in ReferenceQueue immediatelly
-        // but V8 tests expect the invocation of the callbacks as soon as possible
-        // => do not wait for enqueuing in TestV8 mode.
-        boolean performCleanup = queueNotEmpty || JSObject.getJSContext(finalizationRegistry).getContextOptions().isTestV8Mode();
-        if (performCleanup) {
-            // empty the ReferenceQueue
-            Object o;
-            do {
-                o = queue.poll();
-            } while (o != null);
+        if (!getPendingCells(finalizationRegistry).isEmpty()) {
             cleanupFinalizationRegistry(finalizationRegistry, Undefined.instance);
         }
     }
@@ -91,6 +91,8 @@ public final class JSFunctionData {
     private static final int NEEDS_NEW_TARGET = 1 << 9;
     /** Is this a bound function. */
     private static final int IS_BOUND = 1 << 10;
+    /** Is this a function of the form {@code (a, b) => a - b}, see {@link #isNumericCompare()}. */
+    private static final int IS_NUMERIC_COMPARE = 1 << 11;
 
     /** Innermost call target used for lazy creation of the actual call targets. */
     private volatile CallTarget rootTarget;
@@ -123,9 +125,17 @@ public final class JSFunctionData {
     public static JSFunctionData create(JSContext context, CallTarget callTarget, CallTarget constructTarget, CallTarget constructNewTarget, int length, String name, boolean isConstructor,
                     boolean isDerived, boolean isStrict, boolean isBuiltin, boolean needsParentFrame, boolean isGenerator, boolean isAsync, boolean isClassConstructor,
                     boolean strictFunctionProperties, boolean needsNewTarget, boolean isBound) {
+        return create(context, callTarget, constructTarget, constructNewTarget, length, name, isConstructor, isDerived, isStrict, isBuiltin, needsParentFrame, isGenerator, isAsync,
+                        isClassConstructor, strictFunctionProperties, needsNewTarget, isBound, false);
+    }
+
+    public static JSFunctionData create(JSContext context, CallTarget callTarget, CallTarget constructTarget, CallTarget constructNewTarget, int length, String name, boolean isConstructor,
+                    boolean isDerived, boolean isStrict, boolean isBuiltin, boolean needsParentFrame, boolean isGenerator, boolean isAsync, boolean isClassConstructor,
+                    boolean strictFunctionProperties, boolean needsNewTarget, boolean isBound, boolean isNumericCompare) {
         int flags = (isConstructor ? IS_CONSTRUCTOR : 0) | (isDerived ? IS_DERIVED : 0) | (isStrict ? IS_STRICT : 0) | (isBuiltin ? IS_BUILTIN : 0) |
                         (needsParentFrame ? NEEDS_PARENT_FRAME : 0) | (isGenerator ? IS_GENERATOR : 0) | (isAsync ? IS_ASYNC : 0) | (isClassConstructor ? IS_CLASS_CONSTRUCTOR : 0) |
-                        (strictFunctionProperties ? STRICT_FUNCTION_PROPERTIES : 0) | (needsNewTarget ? NEEDS_NEW_TARGET : 0) | (isBound ? IS_BOUND : 0);
+                        (strictFunctionProperties ? STRICT_FUNCTION_PROPERTIES : 0) | (needsNewTarget ? NEEDS_NEW_TARGET : 0) | (isBound ? IS_BOUND : 0) |
+                        (isNumericCompare ? IS_NUMERIC_COMPARE : 0);
         return create(context, callTarget, constructTarget, constructNewTarget, length, name, flags);
     }
 
@@ -256,6 +266,14 @@ public final class JSFunctionData {
         return (flags & IS_BOUND) != 0;
     }
 
+    /**
+     * Returns true if the body of this function is a single return of the difference of its two
+     * parameters, like {@code (a, b) => a - b}, as determined by the parser.
+     */
+    public boolean isNumericCompare() {
+        return (flags & IS_NUMERIC_COMPARE) != 0;
+    }
+
     public int getFlags() {
         return flags;
     }
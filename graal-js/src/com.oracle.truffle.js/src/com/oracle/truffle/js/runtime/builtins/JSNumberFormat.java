@@ -400,7 +400,11 @@ public final class JSNumberFormat extends JSBuiltinObject implements JSConstruct
 
     @TruffleBoundary
     public static String format(DynamicObject numberFormatObj, Object n) {
-        InternalState state = getInternalState(numberFormatObj);
+        return format(getInternalState(numberFormatObj), n);
+    }
+
+    @TruffleBoundary
+    public static String format(InternalState state, Object n) {
         Number x = toInternalNumberRepresentation(JSRuntime.toNumeric(n));
         return formattedValue(state, x).toString();
     }
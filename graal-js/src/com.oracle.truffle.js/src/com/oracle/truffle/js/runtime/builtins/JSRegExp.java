@@ -64,6 +64,7 @@ import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.truffleinterop.JSInteropUtil;
+import com.oracle.truffle.js.runtime.util.CompiledRegexCache;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 import com.oracle.truffle.js.runtime.util.TRegexUtil.InteropReadStringMemberNode;
 import com.oracle.truffle.js.runtime.util.TRegexUtil.TRegexMaterializeResultNode;
@@ -349,7 +350,14 @@ public final class JSRegExp extends JSBuiltinObject implements JSConstructorFact
     }
 
     private static Object compileEarly(JSRealm realm, String pattern, String flags) {
-        return TRegexUtil.CompileRegexNode.getUncached().execute(JSContext.createTRegexEngine(realm.getEnv(), realm.getContext().getContextOptions()), pattern, flags);
+        // the context's regex engine cannot be used while the realm is being initialized
+        CompiledRegexCache cache = realm.getContext().getRegexCache();
+        Object compiledRegex = cache.get(pattern, flags);
+        if (compiledRegex == null) {
+            compiledRegex = TRegexUtil.CompileRegexNode.getUncached().execute(JSContext.createTRegexEngine(realm.getEnv(), realm.getContext().getContextOptions()), pattern, flags);
+            cache.put(pattern, flags, compiledRegex);
+        }
+        return compiledRegex;
     }
 
     @Override
@@ -40,7 +40,6 @@
  */
 package com.oracle.truffle.js.runtime.objects;
 
-import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.interop.InteropLibrary;
@@ -52,7 +51,17 @@ import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.util.DebugCounter;
 
+/**
+ * A rope of string parts that is flattened into a single string on first access.
+ *
+ * Concatenation creates a single node in constant time. Trees that become deeper than
+ * {@link #MAX_DEPTH}, e.g. by repeated appends or prepends, are rebalanced using the Fibonacci
+ * balancing scheme of Boehm et al., "Ropes: an Alternative to Strings", which keeps subtrees that
+ * are already balanced, so that the cost of rebalancing is proportional to the number of nodes
+ * added since the last rebalancing.
+ */
 @ExportLibrary(InteropLibrary.class)
 public final class JSLazyString implements CharSequence, TruffleObject, JSLazyStringFlattened, JSLazyStringRaw {
     @TruffleBoundary
@@ -72,7 +81,7 @@ public final class JSLazyString implements CharSequence, TruffleObject, JSLazySt
             if (resultLength < JSConfig.MinLazyStringLength) {
                 return left.toString().concat(right.toString());
             }
-            return new JSLazyString(left, right, resultLength);
+            return concat(left, right, resultLength);
         } else {
             return left.toString().concat(right.toString());
         }
@@ -84,7 +93,7 @@ public final class JSLazyString implements CharSequence, TruffleObject, JSLazySt
     @TruffleBoundary(allowInlining = true)
     public static JSLazyString createChecked(CharSequence left, CharSequence right, int length) {
         assert assertChecked(left, right, length);
-        return new JSLazyString(left, right, length);
+        return concat(left, right, length);
     }
 
     @TruffleBoundary
@@ -145,7 +154,8 @@ public final class JSLazyString implements CharSequence, TruffleObject, JSLazySt
         if (left.length() == 0) {
             return String.valueOf(right); // bailout
         }
-        return new JSLazyString(left, new JSLazyIntWrapper(right));
+        JSLazyIntWrapper wrapper = new JSLazyIntWrapper(right);
+        return concat(left, wrapper, left.length() + wrapper.length());
     }
 
     /**
@@ -159,22 +169,160 @@ public final class JSLazyString implements CharSequence, TruffleObject, JSLazySt
         if (right.length() == 0) {
             return String.valueOf(left); // bailout
         }
-        return new JSLazyString(new JSLazyIntWrapper(left), right);
+        JSLazyIntWrapper wrapper = new JSLazyIntWrapper(left);
+        return concat(wrapper, right, wrapper.length() + right.length());
     }
 
+    /**
+     * Depth above which a tree is rebalanced.
+     */
+    static final int MAX_DEPTH = 128;
+
+    /**
+     * Maximum length of the flat strings into which adjacent short leaves are merged when a tree
+     * is rebalanced.
+     */
+    private static final int MERGED_LEAF_LENGTH = 256;
+
+    /**
+     * Minimum length of a balanced tree of depth {@code i} (Fibonacci numbers starting at 1, 2),
+     * capped at {@link Integer#MAX_VALUE}.
+     */
+    private static final int[] MIN_BALANCED_LENGTH = createMinBalancedLength();
+
+    private static final DebugCounter flattenCount = DebugCounter.create("Lazy strings flattened");
+    private static final DebugCounter flattenCharsCopied = DebugCounter.create("Lazy string chars copied by flattening");
+    private static final DebugCounter rebalanceCount = DebugCounter.create("Lazy strings rebalanced");
+
     private CharSequence left;
     private CharSequence right;
     private final int length;
+    private final int depth;
 
     private JSLazyString(CharSequence left, CharSequence right, int length) {
         assert left.length() > 0 && right.length() > 0 && length == left.length() + right.length();
         this.left = left;
         this.right = right;
         this.length = length;
+        this.depth = Math.max(effectiveDepth(left), effectiveDepth(right)) + 1;
+    }
+
+    private JSLazyString(String flat) {
+        this.left = flat;
+        this.right = null;
+        this.length = flat.length();
+        this.depth = 0;
+    }
+
+    private static int[] createMinBalancedLength() {
+        int[] minLength = new int[46];
+        minLength[0] = 1;
+        minLength[1] = 2;
+        for (int i = 2; i < minLength.length; i++) {
+            minLength[i] = (int) Math.min((long) minLength[i - 1] + minLength[i - 2], Integer.MAX_VALUE);
+        }
+        assert minLength[minLength.length - 1] == Integer.MAX_VALUE;
+        return minLength;
+    }
+
+    private static int effectiveDepth(CharSequence str) {
+        return str instanceof JSLazyString ? ((JSLazyString) str).getDepth() : 0;
+    }
+
+    /**
+     * Depth of the tree, i.e. the maximum number of lazy string nodes on a path to a leaf, or 0 if
+     * the string has already been flattened.
+     */
+    public int getDepth() {
+        return isFlat() ? 0 : depth;
     }
 
-    private JSLazyString(CharSequence left, CharSequence right) {
-        this(left, right, left.length() + right.length());
+    private static JSLazyString concat(CharSequence left, CharSequence right, int length) {
+        JSLazyString result = new JSLazyString(left, right, length);
+        if (result.depth > MAX_DEPTH) {
+            return rebalance(result);
+        }
+        return result;
+    }
+
+    /**
+     * Rebuilds the tree from its leaves and balanced subtrees, such that the result is balanced,
+     * i.e., a tree of depth {@code n} has at least {@code MIN_BALANCED_LENGTH[n]} characters.
+     * Adjacent short leaves are merged into flat strings of up to {@link #MERGED_LEAF_LENGTH}
+     * characters, so that trees built from many tiny parts are rebalanced less often.
+     */
+    @TruffleBoundary
+    private static JSLazyString rebalance(JSLazyString root) {
+        rebalanceCount.inc();
+        CharSequence[] forest = new CharSequence[MIN_BALANCED_LENGTH.length - 1];
+        CharSequence[] stack = new CharSequence[root.depth + 1];
+        StringBuilder mergedLeaf = new StringBuilder(MERGED_LEAF_LENGTH);
+        int sp = 0;
+        stack[sp++] = root;
+        while (sp > 0) {
+            CharSequence str = stack[--sp];
+            if (str instanceof JSLazyString) {
+                JSLazyString lazyString = (JSLazyString) str;
+                if (lazyString.isFlat()) {
+                    str = lazyString.left;
+                } else if (!isBalanced(lazyString)) {
+                    stack[sp++] = lazyString.right;
+                    stack[sp++] = lazyString.left;
+                    continue;
+                }
+            }
+            boolean mergeable = !(str instanceof JSLazyString) && str.length() < MERGED_LEAF_LENGTH;
+            if (mergedLeaf.length() > 0 && (!mergeable || mergedLeaf.length() + str.length() > MERGED_LEAF_LENGTH)) {
+                addToForest(forest, mergedLeaf.toString());
+                mergedLeaf.setLength(0);
+            }
+            if (mergeable) {
+                mergedLeaf.append(str);
+            } else {
+                addToForest(forest, str);
+            }
+        }
+        if (mergedLeaf.length() > 0) {
+            addToForest(forest, mergedLeaf.toString());
+        }
+        CharSequence result = null;
+        for (CharSequence tree : forest) {
+            if (tree != null) {
+                result = result == null ? tree : new JSLazyString(tree, result, tree.length() + result.length());
+            }
+        }
+        return result instanceof JSLazyString ? (JSLazyString) result : new JSLazyString((String) result);
+    }
+
+    private static boolean isBalanced(JSLazyString tree) {
+        return tree.depth < MIN_BALANCED_LENGTH.length && tree.length >= MIN_BALANCED_LENGTH[tree.depth];
+    }
+
+    /**
+     * Adds the next leaf to the forest of balanced trees, where {@code forest[i]} (if present) has
+     * a length in {@code [MIN_BALANCED_LENGTH[i], MIN_BALANCED_LENGTH[i + 1])} and trees with a
+     * higher index hold characters further to the left.
+     */
+    private static void addToForest(CharSequence[] forest, CharSequence leaf) {
+        CharSequence tooShort = null;
+        int i = 0;
+        for (; leaf.length() >= MIN_BALANCED_LENGTH[i + 1]; i++) {
+            if (forest[i] != null) {
+                tooShort = tooShort == null ? forest[i] : new JSLazyString(forest[i], tooShort, forest[i].length() + tooShort.length());
+                forest[i] = null;
+            }
+        }
+        CharSequence insertee = tooShort == null ? leaf : new JSLazyString(tooShort, leaf, tooShort.length() + leaf.length());
+        for (;; i++) {
+            if (forest[i] != null) {
+                insertee = new JSLazyString(forest[i], insertee, forest[i].length() + insertee.length());
+                forest[i] = null;
+            }
+            if (i == forest.length - 1 || insertee.length() < MIN_BALANCED_LENGTH[i + 1]) {
+                forest[i] = insertee;
+                return;
+            }
+        }
     }
 
     @Override
@@ -201,64 +349,41 @@ public final class JSLazyString implements CharSequence, TruffleObject, JSLazySt
         return right == null;
     }
 
+    /**
+     * Copies all leaves into a single array in one left-to-right pass, using an explicit stack
+     * bounded by the depth of the tree.
+     */
     @TruffleBoundary
     private void flatten() {
         char[] dst = new char[length];
-        flatten(this, 0, length, dst, 0);
-        left = new String(dst);
-        right = null;
-    }
-
-    private static void flatten(CharSequence src, int srcBegin, int srcEnd, char[] dst, int dstBegin) {
-        CompilerAsserts.neverPartOfCompilation();
-        CharSequence str = src;
-        int from = srcBegin;
-        int to = srcEnd;
-        int dstFrom = dstBegin;
-        for (;;) {
-            assert 0 <= from && from <= to && to <= str.length();
+        CharSequence[] stack = new CharSequence[depth + 1];
+        int sp = 0;
+        int pos = 0;
+        stack[sp++] = right;
+        stack[sp++] = left;
+        while (sp > 0) {
+            CharSequence str = stack[--sp];
             if (str instanceof JSLazyString) {
                 JSLazyString lazyString = (JSLazyString) str;
-                CharSequence left = lazyString.left;
-                CharSequence right = lazyString.right;
-                int mid = left.length();
-
-                if (to - mid >= mid - from) {
-                    // right is longer, recurse left
-                    if (from < mid) {
-                        if (left instanceof String) {
-                            ((String) left).getChars(from, mid, dst, dstFrom);
-                        } else {
-                            flatten(left, from, mid, dst, dstFrom);
-                        }
-                        dstFrom += mid - from;
-                        from = 0;
-                    } else {
-                        from -= mid;
-                    }
-                    to -= mid;
-                    str = right;
-                } else {
-                    // left is longer, recurse right
-                    if (to > mid) {
-                        if (right instanceof String) {
-                            ((String) right).getChars(0, to - mid, dst, dstFrom + mid - from);
-                        } else {
-                            flatten(right, 0, to - mid, dst, dstFrom + mid - from);
-                        }
-                        to = mid;
-                    }
-                    str = left;
+                if (!lazyString.isFlat()) {
+                    stack[sp++] = lazyString.right;
+                    stack[sp++] = lazyString.left;
+                    continue;
                 }
-            } else if (str instanceof String) {
-                ((String) str).getChars(from, to, dst, dstFrom);
-                return;
-            } else {
+                str = lazyString.left;
+            } else if (!(str instanceof String)) {
                 assert JSRuntime.isString(str) || str instanceof JSLazyIntWrapper;
-                str.toString().getChars(from, to, dst, dstFrom);
-                return;
+                str = str.toString();
             }
+            String leaf = (String) str;
+            leaf.getChars(0, leaf.length(), dst, pos);
+            pos += leaf.length();
         }
+        assert pos == length;
+        flattenCount.inc();
+        flattenCharsCopied.add(length);
+        left = new String(dst);
+        right = null;
     }
 
     @Override
@@ -55,6 +55,7 @@ import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.builtins.JSClass;
+import com.oracle.truffle.js.runtime.util.ForInIterator;
 import com.oracle.truffle.js.runtime.util.UnmodifiableArrayList;
 
 /**
@@ -196,6 +197,16 @@ public final class JSShape {
         return JSShapeData.getEnumerablePropertyNames(shape);
     }
 
+    public static UnmodifiableArrayList<Property> getEnumerableProperties(Shape shape) {
+        assert JSConfig.FastOwnKeys;
+        return JSShapeData.getEnumerableProperties(shape);
+    }
+
+    public static ForInIterator.EnumCache getForInEnumCache(Shape shape, Shape[] prototypeShapes) {
+        assert JSConfig.FastOwnKeys;
+        return JSShapeData.getForInEnumCache(shape, prototypeShapes);
+    }
+
     public static UnmodifiableArrayList<Property> getPropertiesIfHasEnumerablePropertyNames(Shape shape) {
         assert JSConfig.FastOwnKeys;
         return JSShapeData.getPropertiesIfHasEnumerablePropertyNames(shape);
@@ -52,6 +52,7 @@ import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.util.DebugCounter;
+import com.oracle.truffle.js.runtime.util.ForInIterator;
 import com.oracle.truffle.js.runtime.util.UnmodifiableArrayList;
 
 /**
@@ -65,6 +66,8 @@ public final class JSShapeData {
 
     private Property[] propertyArray;
     private String[] enumerablePropertyNames;
+    private Property[] enumerableProperties;
+    private ForInIterator.EnumCache forInEnumCache;
 
     private JSShapeData() {
     }
@@ -168,10 +171,64 @@ public final class JSShapeData {
         return asUnmodifiableList(shape.getPropertyCount() == 0 ? EMPTY_PROPERTY_ARRAY : getPropertiesArrayIfHasEnumerablePropertyNames(shape));
     }
 
+    /**
+     * Returns the for-in enum cache of the shape for the given prototype shapes, replacing a cache
+     * for other prototype shapes.
+     */
+    @TruffleBoundary
+    static ForInIterator.EnumCache getForInEnumCache(Shape shape, Shape[] prototypeShapes) {
+        JSShapeData shapeData = getShapeData(shape);
+        ForInIterator.EnumCache enumCache = shapeData.forInEnumCache;
+        if (enumCache == null || !enumCache.hasPrototypeShapes(prototypeShapes)) {
+            enumCacheAllocCount.inc();
+            enumCache = new ForInIterator.EnumCache(shape, asUnmodifiableList(getEnumerablePropertiesArray(shapeData, shape)), prototypeShapes);
+            shapeData.forInEnumCache = enumCache;
+        }
+        return enumCache;
+    }
+
+    @TruffleBoundary
+    private static Property[] getEnumerablePropertiesArray(Shape shape) {
+        assert shape.getPropertyCount() != 0;
+        return getEnumerablePropertiesArray(getShapeData(shape), shape);
+    }
+
+    private static Property[] getEnumerablePropertiesArray(JSShapeData shapeData, Shape shape) {
+        Property[] enumerablePropertyArray = shapeData.enumerableProperties;
+        if (enumerablePropertyArray == null) {
+            enumerablePropertyArray = createEnumerablePropertiesArray(shapeData, shape);
+            shapeData.enumerableProperties = enumerablePropertyArray;
+        }
+        return enumerablePropertyArray;
+    }
+
+    /**
+     * Returns the enumerable string-keyed properties of the shape, in the order of
+     * {@link #getEnumerablePropertyNames}.
+     */
+    static UnmodifiableArrayList<Property> getEnumerableProperties(Shape shape) {
+        return asUnmodifiableList(shape.getPropertyCount() == 0 ? EMPTY_PROPERTY_ARRAY : getEnumerablePropertiesArray(shape));
+    }
+
+    private static Property[] createEnumerablePropertiesArray(JSShapeData shapeData, Shape shape) {
+        if (shape.getPropertyCount() == 0 || getEnumerablePropertyNamesArray(shapeData, shape).length == 0) {
+            return EMPTY_PROPERTY_ARRAY;
+        }
+        CompilerAsserts.neverPartOfCompilation();
+        List<Property> enumerableProperties = new ArrayList<>();
+        for (Property property : getPropertiesArray(shapeData, shape)) {
+            if (JSProperty.isEnumerable(property) && property.getKey() instanceof String) {
+                enumerableProperties.add(property);
+            }
+        }
+        return enumerableProperties.toArray(EMPTY_PROPERTY_ARRAY);
+    }
+
     private static <T> UnmodifiableArrayList<T> asUnmodifiableList(T[] array) {
         return new UnmodifiableArrayList<>(array);
     }
 
     private static final DebugCounter enumerablePropertyListAllocCount = DebugCounter.create("Enumerable property lists allocated");
     private static final DebugCounter propertyListAllocCount = DebugCounter.create("Property lists allocated");
+    private static final DebugCounter enumCacheAllocCount = DebugCounter.create("For-in enum caches allocated");
 }
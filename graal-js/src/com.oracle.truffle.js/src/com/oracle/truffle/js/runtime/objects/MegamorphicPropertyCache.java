@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.objects;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.Symbol;
+import com.oracle.truffle.js.runtime.builtins.JSAbstractArray;
+import com.oracle.truffle.js.runtime.builtins.JSClass;
+import com.oracle.truffle.js.runtime.builtins.JSObjectPrototype;
+import com.oracle.truffle.js.runtime.builtins.JSPrimitiveObject;
+import com.oracle.truffle.js.runtime.builtins.JSString;
+import com.oracle.truffle.js.runtime.java.JavaImporter;
+import com.oracle.truffle.js.runtime.java.JavaPackage;
+import com.oracle.truffle.js.runtime.util.DebugCounter;
+
+/**
+ * Context-wide cache of property lookups by receiver shape and key, consulted by property access
+ * nodes that have gone megamorphic.
+ *
+ * An entry records where the key was found: in the receiver, in one of its prototypes, or nowhere.
+ * Entries are only created if the prototypes up to the holder are stored in the shapes, so that
+ * the receiver shape determines the prototype objects. Since adding, removing or reconfiguring a
+ * property changes the shape of an object, an entry is validated by comparing the shapes of these
+ * prototypes. The cache is a two-way set-associative table of fixed size: each bucket holds the
+ * two most recently created entries mapped to it.
+ */
+public final class MegamorphicPropertyCache {
+    private static final int MAX_PROTOTYPE_DEPTH = 8;
+
+    private final JSContext context;
+    private final Entry[] entries;
+
+    public MegamorphicPropertyCache(JSContext context, int size) {
+        assert Integer.bitCount(size) == 1 : size;
+        this.context = context;
+        this.entries = new Entry[size];
+    }
+
+    /**
+     * Returns a valid entry for the property key and the shape of the object, or {@code null} if
+     * the lookup cannot be cached.
+     */
+    @TruffleBoundary
+    public Entry lookup(DynamicObject obj, Object key) {
+        if (!(key instanceof String || key instanceof Symbol)) {
+            return null;
+        }
+        Shape shape = obj.getShape();
+        int index = hash(shape, key) & (entries.length - 2);
+        Entry entry = entries[index];
+        if (entry != null && entry.matches(shape, key)) {
+            hitCount.inc();
+            return entry;
+        }
+        Entry secondEntry = entries[index + 1];
+        if (secondEntry != null && secondEntry.matches(shape, key)) {
+            hitCount.inc();
+            return secondEntry;
+        }
+        missCount.inc();
+        Entry newEntry = createEntry(obj, shape, key);
+        if (newEntry != null) {
+            // the most recently created entry of the bucket comes first
+            entries[index + 1] = entry;
+            entries[index] = newEntry;
+        }
+        return newEntry;
+    }
+
+    private static int hash(Shape shape, Object key) {
+        int h = System.identityHashCode(shape) * 31 + key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private Entry createEntry(DynamicObject obj, Shape shape, Object key) {
+        if (!isCacheable(JSShape.getJSClass(shape)) || !shape.isValid() || JSRuntime.isArrayIndex(JSRuntime.propertyKeyToArrayIndex(key))) {
+            return null;
+        }
+        List<DynamicObject> prototypes = new ArrayList<>();
+        DynamicObject current = obj;
+        Shape currentShape = shape;
+        Property property;
+        while ((property = currentShape.getProperty(key)) == null) {
+            if (!JSShape.isPrototypeInShape(currentShape)) {
+                return null;
+            }
+            DynamicObject proto = JSObject.getPrototype(current);
+            if (proto == Null.instance) {
+                break;
+            }
+            if (prototypes.size() == MAX_PROTOTYPE_DEPTH || !isCacheable(JSObject.getJSClass(proto))) {
+                return null;
+            }
+            prototypes.add(proto);
+            current = proto;
+            currentShape = proto.getShape();
+        }
+        fillCount.inc();
+        DynamicObject[] prototypeArray = prototypes.toArray(new DynamicObject[prototypes.size()]);
+        Shape[] prototypeShapes = new Shape[prototypeArray.length];
+        for (int i = 0; i < prototypeArray.length; i++) {
+            prototypeShapes[i] = prototypeArray[i].getShape();
+        }
+        return new Entry(shape, key, property, prototypeArray, prototypeShapes);
+    }
+
+    /**
+     * Whether objects of this class look up non-index keys in their shape only.
+     */
+    private boolean isCacheable(JSClass jsclass) {
+        if (jsclass instanceof JSAbstractArray || jsclass == JSObjectPrototype.INSTANCE || jsclass == JSString.INSTANCE) {
+            return true;
+        } else if (!jsclass.usesOrdinaryGetOwnProperty() || jsclass == JavaPackage.INSTANCE || jsclass == JavaImporter.instance()) {
+            return false;
+        } else {
+            // primitive wrappers may expose Java methods in Nashorn compatibility mode
+            return !(jsclass instanceof JSPrimitiveObject && context.isOptionNashornCompatibilityMode());
+        }
+    }
+
+    public static final class Entry {
+        final Shape shape;
+        final Object key;
+        /** The property, or {@code null} if the key is not present in the prototype chain. */
+        final Property property;
+        /** The prototypes up to the holder of the property (or the end of the chain). */
+        final DynamicObject[] prototypes;
+        final Shape[] prototypeShapes;
+
+        Entry(Shape shape, Object key, Property property, DynamicObject[] prototypes, Shape[] prototypeShapes) {
+            this.shape = shape;
+            this.key = key;
+            this.property = property;
+            this.prototypes = prototypes;
+            this.prototypeShapes = prototypeShapes;
+        }
+
+        boolean matches(Shape objectShape, Object propertyKey) {
+            return shape == objectShape && key.equals(propertyKey) && prototypesUnchanged();
+        }
+
+        boolean prototypesUnchanged() {
+            for (int i = 0; i < prototypes.length; i++) {
+                if (prototypes[i].getShape() != prototypeShapes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public boolean isPresent() {
+            return property != null;
+        }
+
+        public boolean isOwnProperty() {
+            return property != null && prototypes.length == 0;
+        }
+
+        private DynamicObject getHolder(DynamicObject obj) {
+            assert property != null;
+            return prototypes.length == 0 ? obj : prototypes[prototypes.length - 1];
+        }
+
+        /**
+         * Returns the value of the property, or {@code null} if it is not present.
+         */
+        @TruffleBoundary
+        public Object getValue(DynamicObject obj, Object receiver) {
+            assert obj.getShape() == shape;
+            if (property == null) {
+                return null;
+            }
+            return JSProperty.getValue(property, getHolder(obj), receiver, false);
+        }
+
+        /**
+         * Sets the value of an own data property or calls the setter of an accessor property.
+         * Returns {@code false} if the assignment has to be performed the generic way (e.g.
+         * because it creates a new property).
+         */
+        @TruffleBoundary
+        public boolean setValue(DynamicObject obj, Object value, Object receiver, boolean isStrict) {
+            assert obj.getShape() == shape;
+            if (property == null) {
+                return false;
+            } else if (JSProperty.isAccessor(property)) {
+                JSProperty.setValue(property, getHolder(obj), receiver, value, isStrict);
+                return true;
+            } else if (prototypes.length == 0 && receiver == obj) {
+                JSProperty.setValue(property, obj, obj, value, isStrict);
+                return true;
+            } else {
+                return false;
+            }
+        }
+    }
+
+    private static final DebugCounter hitCount = DebugCounter.create("Megamorphic property cache hits");
+    private static final DebugCounter missCount = DebugCounter.create("Megamorphic property cache misses");
+    private static final DebugCounter fillCount = DebugCounter.create("Megamorphic property cache entries created");
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.objects;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.js.runtime.JSArguments;
+import com.oracle.truffle.js.runtime.JSRealm;
+
+/**
+ * ECMA 25.6.2.1 PromiseReactionJob as a plain record, executed by a shared call target, so that
+ * no function object has to be allocated per job.
+ */
+public final class PromiseReactionJob {
+    private final JSRealm realm;
+    private final CallTarget callTarget;
+    private final PromiseReactionRecord reaction;
+    private final Object argument;
+
+    private PromiseReactionJob(JSRealm realm, CallTarget callTarget, PromiseReactionRecord reaction, Object argument) {
+        this.realm = realm;
+        this.callTarget = callTarget;
+        this.reaction = reaction;
+        this.argument = argument;
+    }
+
+    public JSRealm getRealm() {
+        return realm;
+    }
+
+    public PromiseReactionRecord getReaction() {
+        return reaction;
+    }
+
+    public Object getArgument() {
+        return argument;
+    }
+
+    /**
+     * Runs the job. The context of the realm must be entered.
+     */
+    public Object run() {
+        return callTarget.call(JSArguments.createOneArg(Undefined.instance, Undefined.instance, this));
+    }
+
+    public static PromiseReactionJob create(JSRealm realm, CallTarget callTarget, PromiseReactionRecord reaction, Object argument) {
+        return new PromiseReactionJob(realm, callTarget, reaction, argument);
+    }
+}
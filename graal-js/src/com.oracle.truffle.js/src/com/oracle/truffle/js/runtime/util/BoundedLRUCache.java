@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Bounded LRU cache with hit, miss, and eviction counters. Base of the caches that are shared by
+ * all realms of a {@link com.oracle.truffle.js.runtime.JSContext} and may be used by several
+ * threads at once. A maximum size of 0 disables the cache.
+ */
+public class BoundedLRUCache<K, V> {
+
+    private final int maxSize;
+    private final LinkedHashMap<K, V> cache;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public BoundedLRUCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 3553016479315004416L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > BoundedLRUCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public final boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Returns the cached value for the key, or {@code null}, and counts a hit or a miss.
+     */
+    @TruffleBoundary
+    public final synchronized V get(K key) {
+        V result = cache.get(key);
+        if (result == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    public final synchronized void put(K key, V value) {
+        if (isEnabled()) {
+            cache.put(key, value);
+        }
+    }
+
+    public final synchronized long getHits() {
+        return hits;
+    }
+
+    public final synchronized long getMisses() {
+        return misses;
+    }
+
+    public final synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public final synchronized int size() {
+        return cache.size();
+    }
+
+    public final int getMaxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.nio.ByteBuffer;
+
+import com.oracle.truffle.js.runtime.Errors;
+
+/**
+ * Lock-free atomic accesses to the 32-bit and 64-bit words of direct byte buffers, in native byte
+ * order. Accesses are only supported where {@link #isSupported} returns {@code true}; callers have
+ * to fall back to locking otherwise. This version does not support any accesses; the JDK-specific
+ * versions are implemented using {@code Unsafe} and {@code VarHandle}, respectively.
+ */
+public final class ByteBufferAtomics {
+    private ByteBufferAtomics() {
+    }
+
+    /**
+     * Returns whether the naturally aligned word of {@code size} (4 or 8) bytes at
+     * {@code byteIndex} can be accessed atomically. The result is the same for all words of a
+     * buffer that lie within its bounds.
+     */
+    @SuppressWarnings("unused")
+    public static boolean isSupported(ByteBuffer buffer, int byteIndex, int size) {
+        return false;
+    }
+
+    @SuppressWarnings("unused")
+    public static int getIntVolatile(ByteBuffer buffer, int byteIndex) {
+        throw Errors.shouldNotReachHere();
+    }
+
+    @SuppressWarnings("unused")
+    public static void setIntVolatile(ByteBuffer buffer, int byteIndex, int value) {
+        throw Errors.shouldNotReachHere();
+    }
+
+    @SuppressWarnings("unused")
+    public static int compareAndExchangeInt(ByteBuffer buffer, int byteIndex, int expected, int value) {
+        throw Errors.shouldNotReachHere();
+    }
+
+    @SuppressWarnings("unused")
+    public static long getLongVolatile(ByteBuffer buffer, int byteIndex) {
+        throw Errors.shouldNotReachHere();
+    }
+
+    @SuppressWarnings("unused")
+    public static void setLongVolatile(ByteBuffer buffer, int byteIndex, long value) {
+        throw Errors.shouldNotReachHere();
+    }
+
+    @SuppressWarnings("unused")
+    public static long compareAndExchangeLong(ByteBuffer buffer, int byteIndex, long expected, long value) {
+        throw Errors.shouldNotReachHere();
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.math.BigInteger;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.js.runtime.JSRuntime;
+
+/**
+ * Decimal string to double conversion that works on a range of a {@link CharSequence} without
+ * creating a substring.
+ *
+ * The digits are accumulated into a 64-bit significand and a decimal exponent. Values whose
+ * significand and power of ten are both exactly representable as doubles are computed with a
+ * single floating-point operation (Clinger's fast path). Otherwise, the Eisel-Lemire algorithm
+ * computes the correctly rounded result from a 128-bit approximation of the power of ten. In the
+ * rare cases where that approximation is not precise enough to decide the rounding (and for
+ * subnormal results), the conversion falls back to {@link Double#parseDouble(String)}.
+ */
+public final class DoubleParser {
+
+    /** Maximum number of significant digits that always fit into an unsigned 64-bit integer. */
+    private static final int MAX_DIGITS = 19;
+    /**
+     * Exponent values beyond this bound exceed the number of digits of any string, so they cannot
+     * be compensated by the position of the decimal point and the result is zero or infinite.
+     */
+    private static final long MAX_EXPONENT = Integer.MAX_VALUE;
+    /** Largest power of ten that is exactly representable as a double. */
+    private static final int MAX_EXACT_POWER_OF_TEN = 22;
+    private static final long MAX_EXACT_SIGNIFICAND = 1L << 53;
+
+    private static final double[] EXACT_POWERS_OF_TEN = {
+                    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                    1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private static final long FAILED = -1;
+
+    private DoubleParser() {
+    }
+
+    /**
+     * Parses the characters from {@code start} (inclusive) to {@code end} (exclusive) as a
+     * StrDecimalLiteral without {@code Infinity}, i.e. an optionally signed decimal number with
+     * optional fraction and exponent. Whitespace is not skipped.
+     *
+     * @return the correctly rounded value or {@link Double#NaN} if the range is not a valid decimal
+     *         literal.
+     */
+    @TruffleBoundary
+    public static double parse(CharSequence s, int start, int end) {
+        int pos = start;
+        if (pos >= end) {
+            return Double.NaN;
+        }
+        boolean negative = false;
+        char c = s.charAt(pos);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            pos++;
+        }
+
+        long significand = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean truncated = false;
+        boolean hasDigits = false;
+        while (pos < end && JSRuntime.isAsciiDigit(c = s.charAt(pos))) {
+            hasDigits = true;
+            if (digits < MAX_DIGITS) {
+                significand = significand * 10 + (c - '0');
+                if (significand != 0) {
+                    digits++;
+                }
+            } else {
+                exponent++;
+                truncated |= c != '0';
+            }
+            pos++;
+        }
+        if (pos < end && s.charAt(pos) == '.') {
+            pos++;
+            while (pos < end && JSRuntime.isAsciiDigit(c = s.charAt(pos))) {
+                hasDigits = true;
+                if (digits < MAX_DIGITS) {
+                    significand = significand * 10 + (c - '0');
+                    exponent--;
+                    if (significand != 0) {
+                        digits++;
+                    }
+                } else {
+                    truncated |= c != '0';
+                }
+                pos++;
+            }
+        }
+        if (!hasDigits) {
+            return Double.NaN;
+        }
+        if (pos < end && ((c = s.charAt(pos)) == 'e' || c == 'E')) {
+            pos++;
+            boolean negativeExponent = false;
+            if (pos < end && ((c = s.charAt(pos)) == '-' || c == '+')) {
+                negativeExponent = c == '-';
+                pos++;
+            }
+            if (pos >= end || !JSRuntime.isAsciiDigit(s.charAt(pos))) {
+                return Double.NaN;
+            }
+            long exponentValue = 0;
+            while (pos < end && JSRuntime.isAsciiDigit(c = s.charAt(pos))) {
+                if (exponentValue < MAX_EXPONENT) {
+                    exponentValue = exponentValue * 10 + (c - '0');
+                }
+                pos++;
+            }
+            long totalExponent = exponent + (negativeExponent ? -exponentValue : exponentValue);
+            exponent = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, totalExponent));
+        }
+        if (pos != end) {
+            return Double.NaN;
+        }
+
+        double result = toDouble(significand, exponent, truncated);
+        if (Double.isNaN(result)) {
+            return Double.parseDouble(s.subSequence(start, end).toString());
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * Computes {@code significand * 10^exponent}, where the significand is an unsigned 64-bit
+     * integer and may have been truncated.
+     *
+     * @return the correctly rounded value or {@link Double#NaN} if it cannot be determined.
+     */
+    private static double toDouble(long significand, int exponent, boolean truncated) {
+        if (significand == 0) {
+            return 0;
+        }
+        if (!truncated && significand >= 0 && significand <= MAX_EXACT_SIGNIFICAND && exponent >= -MAX_EXACT_POWER_OF_TEN && exponent <= MAX_EXACT_POWER_OF_TEN) {
+            if (exponent < 0) {
+                return significand / EXACT_POWERS_OF_TEN[-exponent];
+            } else {
+                return significand * EXACT_POWERS_OF_TEN[exponent];
+            }
+        }
+        if (exponent < PowersOfTen.MIN_EXPONENT) {
+            // significand < 10^19, so the value is less than half of the smallest subnormal
+            return 0;
+        } else if (exponent > PowersOfTen.MAX_EXPONENT) {
+            return Double.POSITIVE_INFINITY;
+        }
+        long bits = eiselLemire(significand, exponent);
+        if (truncated && bits != FAILED && bits != eiselLemire(significand + 1, exponent)) {
+            // the omitted digits affect the rounding
+            return Double.NaN;
+        }
+        return bits == FAILED ? Double.NaN : Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * Eisel-Lemire algorithm, see Daniel Lemire, "Number Parsing at a Gigabyte per Second".
+     *
+     * @return the bits of the correctly rounded normal double value or {@link #FAILED}.
+     */
+    private static long eiselLemire(long significand, int exponent) {
+        int leadingZeros = Long.numberOfLeadingZeros(significand);
+        long w = significand << leadingZeros;
+        long binaryExponent = ((217706L * exponent) >> 16) + 64 + 1023 - leadingZeros;
+
+        int index = (exponent - PowersOfTen.MIN_EXPONENT) * 2;
+        long powerHigh = PowersOfTen.TABLE[index];
+        long powerLow = PowersOfTen.TABLE[index + 1];
+        long productHigh = unsignedMultiplyHigh(w, powerHigh);
+        long productLow = w * powerHigh;
+        if ((productHigh & 0x1FF) == 0x1FF && Long.compareUnsigned(productLow + w, w) < 0) {
+            // the lower bits are all ones, so include the second half of the power
+            long lowHigh = unsignedMultiplyHigh(w, powerLow);
+            long lowLow = w * powerLow;
+            long mergedLow = productLow + lowHigh;
+            long mergedHigh = Long.compareUnsigned(mergedLow, productLow) < 0 ? productHigh + 1 : productHigh;
+            if ((mergedHigh & 0x1FF) == 0x1FF && mergedLow == -1 && Long.compareUnsigned(lowLow + w, w) < 0) {
+                return FAILED;
+            }
+            productHigh = mergedHigh;
+            productLow = mergedLow;
+        }
+
+        int upperBit = (int) (productHigh >>> 63);
+        long mantissa = productHigh >>> (upperBit + 9);
+        binaryExponent -= 1 ^ upperBit;
+        if (productLow == 0 && (productHigh & 0x1FF) == 0 && (mantissa & 3) == 1) {
+            // exactly halfway between two doubles
+            return FAILED;
+        }
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if ((mantissa >>> 53) != 0) {
+            mantissa >>>= 1;
+            binaryExponent++;
+        }
+        if (binaryExponent <= 0 || binaryExponent >= 0x7FF) {
+            // subnormal or infinite
+            return FAILED;
+        }
+        return (binaryExponent << 52) | (mantissa & ((1L << 52) - 1));
+    }
+
+    private static long unsignedMultiplyHigh(long x, long y) {
+        long x0 = x & 0xFFFF_FFFFL;
+        long x1 = x >>> 32;
+        long y0 = y & 0xFFFF_FFFFL;
+        long y1 = y >>> 32;
+        long p01 = x0 * y1;
+        long middle = x1 * y0 + ((x0 * y0) >>> 32) + (p01 & 0xFFFF_FFFFL);
+        return x1 * y1 + (middle >>> 32) + (p01 >>> 32);
+    }
+
+    /**
+     * 128-bit approximations of the powers of ten, normalized so that the most significant bit is
+     * set and rounded down. Initialized on first use, since most inputs take the fast path.
+     */
+    private static final class PowersOfTen {
+        static final int MIN_EXPONENT = -342;
+        static final int MAX_EXPONENT = 308;
+        /** High and low 64 bits of each power, in ascending order of the exponent. */
+        static final long[] TABLE = createTable();
+
+        private static long[] createTable() {
+            long[] table = new long[(MAX_EXPONENT - MIN_EXPONENT + 1) * 2];
+            BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+            for (int exponent = MIN_EXPONENT; exponent <= MAX_EXPONENT; exponent++) {
+                BigInteger power;
+                if (exponent >= 0) {
+                    power = BigInteger.TEN.pow(exponent);
+                    int bitLength = power.bitLength();
+                    power = bitLength > 128 ? power.shiftRight(bitLength - 128) : power.shiftLeft(128 - bitLength);
+                } else {
+                    BigInteger divisor = BigInteger.TEN.pow(-exponent);
+                    power = BigInteger.ONE.shiftLeft(divisor.bitLength() + 127).divide(divisor);
+                }
+                assert power.bitLength() == 128;
+                int index = (exponent - MIN_EXPONENT) * 2;
+                table[index] = power.shiftRight(64).longValue();
+                table[index + 1] = power.and(mask).longValue();
+            }
+            return table;
+        }
+    }
+}
@@ -40,16 +40,25 @@
  */
 package com.oracle.truffle.js.runtime.util;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.graalvm.collections.EconomicSet;
 
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Property;
 import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.js.runtime.Boundaries;
+import com.oracle.truffle.js.runtime.JSConfig;
+import com.oracle.truffle.js.runtime.builtins.JSClass;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSShape;
+import com.oracle.truffle.js.runtime.objects.Null;
 
 public class ForInIterator {
     public DynamicObject object;
@@ -64,15 +73,32 @@ public class ForInIterator {
     public boolean fastOwnKeys;
     public int protoDepth;
     public final boolean iterateValues;
+    /** Enum cache the own keys were taken from, if the prototypes had no enumerable properties. */
+    public EnumCache enumCache;
 
     public ForInIterator(DynamicObject obj, boolean iterateValues) {
         this.object = obj;
         this.iterateValues = iterateValues;
-        this.visitedShapes = new Shape[4];
+    }
+
+    /**
+     * Creates an iterator that visits the keys of an {@link EnumCache}.
+     */
+    public ForInIterator(DynamicObject obj, boolean iterateValues, EnumCache enumCache) {
+        this.object = obj;
+        this.iterateValues = iterateValues;
+        this.enumCache = enumCache;
+        this.objectShape = enumCache.shape;
+        this.remainingKeys = enumCache.properties;
+        this.remainingKeysSize = enumCache.properties.size();
+        this.fastOwnKeys = true;
+        this.objectWasVisited = true;
     }
 
     public void addVisitedShape(Shape shape, BranchProfile growBranch) {
-        if (visitedShapesSize >= visitedShapes.length) {
+        if (visitedShapes == null) {
+            visitedShapes = new Shape[4];
+        } else if (visitedShapesSize >= visitedShapes.length) {
             growBranch.enter();
             visitedShapes = Arrays.copyOf(visitedShapes, visitedShapes.length * 2);
         }
@@ -101,4 +127,93 @@ public class ForInIterator {
         }
         return false;
     }
+
+    /**
+     * The enumerable own properties of objects with a certain shape, in for-in order, together with
+     * the shapes of the prototypes the keys are valid for. A for-in loop over an object that
+     * matches the cache visits exactly these keys, since none of the prototypes has enumerable
+     * properties. Caches are kept in the shape data (see {@link JSShape#getForInEnumCache}).
+     */
+    public static final class EnumCache {
+        private static final int MAX_PROTOTYPE_DEPTH = 8;
+
+        final Shape shape;
+        final UnmodifiableArrayList<Property> properties;
+        @CompilationFinal(dimensions = 1) final Shape[] prototypeShapes;
+
+        public EnumCache(Shape shape, UnmodifiableArrayList<Property> properties, Shape[] prototypeShapes) {
+            this.shape = shape;
+            this.properties = properties;
+            this.prototypeShapes = prototypeShapes;
+        }
+
+        public boolean hasPrototypeShapes(Shape[] shapes) {
+            return Arrays.equals(prototypeShapes, shapes);
+        }
+
+        /**
+         * Checks that the object has the cached shape and that its prototypes still have the cached
+         * shapes and no elements.
+         */
+        @ExplodeLoop
+        public boolean isValidFor(DynamicObject obj) {
+            if (obj.getShape() != shape) {
+                return false;
+            }
+            JSClass jsclass = JSShape.getJSClass(shape);
+            if (!jsclass.hasOnlyShapeProperties(obj)) {
+                return false;
+            }
+            DynamicObject proto = jsclass.getPrototypeOf(obj);
+            for (Shape prototypeShape : prototypeShapes) {
+                if (proto == Null.instance || proto.getShape() != prototypeShape) {
+                    return false;
+                }
+                JSClass protoClass = JSShape.getJSClass(prototypeShape);
+                if (!protoClass.hasOnlyShapeProperties(proto)) {
+                    return false;
+                }
+                proto = protoClass.getPrototypeOf(proto);
+            }
+            return proto == Null.instance;
+        }
+
+        /**
+         * Like {@link #isValidFor}, for a cache that is not a compilation constant.
+         */
+        @TruffleBoundary
+        public boolean isStillValidFor(DynamicObject obj) {
+            return isValidFor(obj);
+        }
+
+        private static boolean hasOnlyShapeProperties(DynamicObject obj) {
+            return JSObject.getJSClass(obj).hasOnlyShapeProperties(obj);
+        }
+
+        /**
+         * Returns the enum cache for the object, or {@code null} if the object or one of its
+         * prototypes may have properties that are not in its shape, or if a prototype has
+         * enumerable properties.
+         */
+        @TruffleBoundary
+        public static EnumCache lookup(DynamicObject obj) {
+            if (!JSConfig.FastOwnKeys) {
+                return null;
+            }
+            JSClass jsclass = JSObject.getJSClass(obj);
+            if (!jsclass.hasOnlyShapeProperties(obj)) {
+                return null;
+            }
+            List<Shape> shapes = new ArrayList<>();
+            DynamicObject proto = JSObject.getPrototype(obj);
+            while (proto != Null.instance) {
+                if (shapes.size() == MAX_PROTOTYPE_DEPTH || !hasOnlyShapeProperties(proto) || !JSShape.getEnumerablePropertyNames(proto.getShape()).isEmpty()) {
+                    return null;
+                }
+                shapes.add(proto.getShape());
+                proto = JSObject.getPrototype(proto);
+            }
+            return JSShape.getForInEnumCache(obj.getShape(), shapes.toArray(new Shape[shapes.size()]));
+        }
+    }
 }
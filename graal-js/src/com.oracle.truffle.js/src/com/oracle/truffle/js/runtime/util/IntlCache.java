@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Bounded LRU cache of initialized Intl formatter and collator states, shared by all realms of a
+ * {@link com.oracle.truffle.js.runtime.JSContext}. Used by {@code toLocaleString} and
+ * {@code localeCompare}, which would otherwise set up a new ICU formatter on every call.
+ *
+ * Only calls without options and with an undefined or string {@code locales} argument are cached,
+ * since reading an options object or a locale list is observable. The cached states may be used by
+ * several threads at once: number formatters are immutable, collators are frozen, and date formats
+ * have to be used while holding their monitor.
+ */
+public final class IntlCache extends BoundedLRUCache<IntlCache.Key, Object> {
+
+    public static final String NUMBER_FORMAT = "NumberFormat";
+    public static final String COLLATOR = "Collator";
+    public static final String DATE_TIME_FORMAT = "DateTimeFormat";
+
+    public IntlCache(int maxSize) {
+        super(maxSize);
+    }
+
+    /**
+     * Returns the cached state for the given arguments, or creates (and caches, if possible) a new
+     * one using {@code factory}.
+     *
+     * @param kind the type of the state, e.g. {@link #NUMBER_FORMAT}, optionally followed by
+     *            anything else the state depends on
+     */
+    @TruffleBoundary
+    @SuppressWarnings("unchecked")
+    public <T> T getOrCreate(String kind, Object locales, Object options, Supplier<T> factory) {
+        Key key = isEnabled() ? createKey(kind, locales, options) : null;
+        if (key == null) {
+            return factory.get();
+        }
+        T state = (T) get(key);
+        if (state == null) {
+            // created without holding the cache lock, creating a new formatter is expensive
+            state = factory.get();
+            put(key, state);
+        }
+        return state;
+    }
+
+    private static Key createKey(String kind, Object locales, Object options) {
+        if (options != Undefined.instance) {
+            return null;
+        }
+        if (locales == Undefined.instance) {
+            return new Key(kind, null);
+        } else if (JSRuntime.isString(locales)) {
+            return new Key(kind, locales.toString());
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Identifies a cached state by its type and the (not yet canonicalized) locale it was
+     * requested for.
+     */
+    static final class Key {
+        private final String kind;
+        private final String locale;
+
+        Key(String kind, String locale) {
+            this.kind = kind;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return kind.equals(other.kind) && Objects.equals(locale, other.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * kind.hashCode() + Objects.hashCode(locale);
+        }
+    }
+}
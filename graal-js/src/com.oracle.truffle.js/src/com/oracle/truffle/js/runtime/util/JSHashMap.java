@@ -40,12 +40,21 @@
  */
 package com.oracle.truffle.js.runtime.util;
 
-import java.util.HashMap;
+import java.util.Arrays;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 /**
  * ES6-compliant hash map implementation.
+ *
+ * Deterministic-order hash table in the style of V8's OrderedHashTable: entries are stored in
+ * insertion order in parallel key/value arrays and chained into hash buckets by entry index, so no
+ * per-entry objects are allocated. Removing an entry leaves a hole that is squeezed out the next
+ * time the table is rehashed (when growing, shrinking, or compacting).
+ *
+ * Cursors remain valid across rehashing and clearing: each rehash that moves entries, and each
+ * clear, starts a new {@link Generation}. The obsolete generation records which entry indices were
+ * removed, which allows a cursor to translate its position into the current table.
  */
 public final class JSHashMap {
     public interface Cursor {
@@ -72,21 +81,58 @@ public final class JSHashMap {
         Cursor copy();
     }
 
-    private final HashMap<Object, Node> map;
-    private final Node head;
-    private Node tail;
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int NONE = -1;
+
+    /** Keys in insertion order; {@code null} marks a removed entry. */
+    private Object[] keys;
+    private Object[] values;
+    /** Index of the next entry in the same bucket, or {@link #NONE}. */
+    private int[] chain;
+    /** Index of the most recently inserted entry of each bucket, or {@link #NONE}. */
+    private int[] buckets;
+    /** Number of used entry slots, including removed entries. */
+    private int usedCount;
+    private int size;
+    private Generation generation;
 
     @TruffleBoundary(allowInlining = true)
     public JSHashMap() {
-        this.map = new HashMap<>();
-        Node dummy = new Node(null, null, null, null);
-        this.head = dummy;
-        this.tail = dummy;
+        this.generation = new Generation();
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+        this.chain = new int[capacity];
+        this.buckets = new int[capacity >> 1];
+        Arrays.fill(buckets, NONE);
+        this.usedCount = 0;
     }
 
-    @TruffleBoundary(allowInlining = true)
     public int size() {
-        return map.size();
+        return size;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private int bucketOf(int hash) {
+        return hash & (buckets.length - 1);
+    }
+
+    private int find(Object key, int hash) {
+        Object[] k = keys;
+        for (int index = buckets[bucketOf(hash)]; index != NONE; index = chain[index]) {
+            Object entryKey = k[index];
+            if (entryKey != null && (entryKey == key || key.equals(entryKey))) {
+                return index;
+            }
+        }
+        return NONE;
     }
 
     /**
@@ -94,172 +140,213 @@ public final class JSHashMap {
      */
     @TruffleBoundary
     public void put(Object key, Object value) {
-        Node newNode = new Node(key, value, null, null);
-        Node oldNode = map.putIfAbsent(key, newNode);
-        if (oldNode == null) {
-            newNode.setPrev(tail);
-            tail.setNext(newNode);
-            tail = newNode;
-        } else {
-            oldNode.setValue(value);
+        assert key != null && value != null;
+        int hash = hash(key);
+        int index = find(key, hash);
+        if (index != NONE) {
+            values[index] = value;
+            return;
+        }
+        if (usedCount == keys.length) {
+            // grow, unless removing the holes frees enough space
+            rehash(size >= (keys.length >> 1) ? keys.length << 1 : keys.length);
         }
+        index = usedCount++;
+        keys[index] = key;
+        values[index] = value;
+        int bucket = bucketOf(hash);
+        chain[index] = buckets[bucket];
+        buckets[bucket] = index;
+        size++;
     }
 
     @TruffleBoundary
     public Object get(Object key) {
-        Node node = map.get(key);
-        return node == null ? null : node.getValue();
+        int index = find(key, hash(key));
+        return index == NONE ? null : values[index];
     }
 
     @TruffleBoundary
     public boolean has(Object key) {
-        return map.containsKey(key);
+        return find(key, hash(key)) != NONE;
     }
 
     @TruffleBoundary
     public boolean remove(Object key) {
-        Node node = map.remove(key);
-        if (node == null) {
+        int index = find(key, hash(key));
+        if (index == NONE) {
             return false;
-        } else {
-            unlink(node);
-            return true;
         }
+        // the hole stays linked into its bucket chain until the next rehash
+        keys[index] = null;
+        values[index] = null;
+        size--;
+        if (size < (keys.length >> 2) && keys.length > INITIAL_CAPACITY) {
+            rehash(keys.length >> 1);
+        }
+        return true;
     }
 
-    private void unlink(Node node) {
-        Node next = node.getNext();
-        Node prev = node.getPrev();
-        prev.setNext(next);
-        if (next != null) {
-            next.setPrev(prev);
-        } else {
-            tail = prev;
+    /**
+     * Moves all live entries into new arrays of the given capacity, removing holes.
+     */
+    private void rehash(int newCapacity) {
+        assert newCapacity >= size && newCapacity >= INITIAL_CAPACITY;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int oldUsedCount = usedCount;
+        int[] removedIndices = oldUsedCount == size ? null : new int[oldUsedCount - size];
+        allocate(newCapacity);
+        int removedCount = 0;
+        int newIndex = 0;
+        for (int oldIndex = 0; oldIndex < oldUsedCount; oldIndex++) {
+            Object key = oldKeys[oldIndex];
+            if (key == null) {
+                removedIndices[removedCount++] = oldIndex;
+                continue;
+            }
+            keys[newIndex] = key;
+            values[newIndex] = oldValues[oldIndex];
+            int bucket = bucketOf(hash(key));
+            chain[newIndex] = buckets[bucket];
+            buckets[bucket] = newIndex;
+            newIndex++;
+        }
+        assert newIndex == size && (removedIndices == null ? removedCount == 0 : removedCount == removedIndices.length);
+        usedCount = newIndex;
+        if (removedIndices != null) {
+            // entries have moved, let cursors know
+            generation = generation.compacted(removedIndices);
         }
-        node.setEmpty();
     }
 
     @TruffleBoundary
     public void clear() {
-        map.clear();
-        for (Node current = head.getNext(); current != null; current = current.getNext()) {
-            current.setEmpty();
-        }
-        head.setNext(null);
-        tail = head;
+        allocate(INITIAL_CAPACITY);
+        size = 0;
+        generation = generation.cleared();
     }
 
     @TruffleBoundary
     @Override
     public String toString() {
-        return map.toString();
+        StringBuilder sb = new StringBuilder("{");
+        boolean first = true;
+        for (int i = 0; i < usedCount; i++) {
+            if (keys[i] != null) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                first = false;
+                sb.append(keys[i]).append('=').append(values[i]);
+            }
+        }
+        return sb.append('}').toString();
     }
 
     public Cursor getEntries() {
-        return new CursorImpl(head);
+        return new CursorImpl(this, generation, NONE);
     }
 
-    private static final class CursorImpl implements Cursor {
-        private Node current;
+    /**
+     * Identifies a particular arrangement of the entry arrays. Once obsolete, it points to its
+     * successor and knows how to translate entry indices into it.
+     */
+    private static final class Generation {
+        /** The generation that replaced this one, or {@code null} if this one is current. */
+        private Generation next;
+        /** Sorted indices of the removed entries that were squeezed out by the rehash. */
+        private int[] removedIndices;
+        private boolean cleared;
+
+        Generation compacted(int[] removed) {
+            assert next == null;
+            this.removedIndices = removed;
+            this.next = new Generation();
+            return next;
+        }
+
+        Generation cleared() {
+            assert next == null;
+            this.cleared = true;
+            this.next = new Generation();
+            return next;
+        }
 
-        CursorImpl(Node head) {
-            this.current = head;
+        /**
+         * Translates the cursor position {@code index} into the next generation.
+         */
+        @TruffleBoundary
+        int translate(int index) {
+            if (cleared) {
+                return NONE;
+            }
+            int pos = Arrays.binarySearch(removedIndices, index);
+            int removedUpToIndex = pos >= 0 ? pos + 1 : -(pos + 1);
+            return index - removedUpToIndex;
+        }
+    }
+
+    private static final class CursorImpl implements Cursor {
+        private final JSHashMap map;
+        /** The generation {@link #index} refers to, or {@code null} if the cursor is exhausted. */
+        private Generation generation;
+        private int index;
+
+        CursorImpl(JSHashMap map, Generation generation, int index) {
+            this.map = map;
+            this.generation = generation;
+            this.index = index;
         }
 
         @Override
         public boolean advance() {
-            if (current == null) {
+            Generation gen = generation;
+            if (gen == null) {
                 return false;
-            } else {
-                // if current is no longer in the map, back up to a previous node still in the map
-                while (current.isEmpty() && current.getPrev() != null) {
-                    current = current.getPrev();
+            }
+            int i = index;
+            while (gen.next != null) {
+                i = gen.translate(i);
+                gen = gen.next;
+            }
+            Object[] keys = map.keys;
+            int usedCount = map.usedCount;
+            for (i++; i < usedCount; i++) {
+                if (keys[i] != null) {
+                    this.index = i;
+                    this.generation = gen;
+                    return true;
                 }
-                Node next = current.getNext();
-                assert next == null || next.getKey() != null;
-                current = next;
-                return next != null;
             }
+            this.generation = null;
+            return false;
         }
 
         @Override
         public Object getKey() {
-            Object key = current.getKey();
+            assert generation == map.generation;
+            Object key = map.keys[index];
             assert key != null;
             return key;
         }
 
         @Override
         public Object getValue() {
-            Object value = current.getValue();
+            assert generation == map.generation;
+            Object value = map.values[index];
             assert value != null;
             return value;
         }
 
         @Override
         public String toString() {
-            return "Cursor [current=" + current + "]";
+            return "Cursor [index=" + index + "]";
         }
 
         @Override
         public Cursor copy() {
-            return new CursorImpl(current);
-        }
-    }
-
-    private static final class Node {
-        private Object key;
-        private Object value;
-        private Node prev;
-        private Node next;
-
-        Node(Object key, Object value, Node prev, Node next) {
-            this.key = key;
-            this.value = value;
-            this.prev = prev;
-            this.next = next;
-        }
-
-        Object getKey() {
-            return key;
-        }
-
-        Object getValue() {
-            return value;
-        }
-
-        void setValue(Object value) {
-            this.value = value;
-        }
-
-        Node getPrev() {
-            return prev;
-        }
-
-        void setPrev(Node prev) {
-            this.prev = prev;
-        }
-
-        Node getNext() {
-            return next;
-        }
-
-        void setNext(Node next) {
-            this.next = next;
-        }
-
-        void setEmpty() {
-            this.key = null;
-            this.value = null;
-        }
-
-        boolean isEmpty() {
-            return this.key == null;
-        }
-
-        @Override
-        public String toString() {
-            return "Node [key=" + key + ", value=" + value + "]";
+            return new CursorImpl(map, generation, index);
         }
     }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.Objects;
+
+import com.oracle.truffle.js.nodes.ScriptNode;
+
+/**
+ * Bounded LRU cache of parsed eval and Function constructor sources, shared by all realms of a
+ * {@link com.oracle.truffle.js.runtime.JSContext}.
+ */
+public final class ParseCache extends BoundedLRUCache<ParseCache.Key, ScriptNode> {
+
+    public ParseCache(int maxSize) {
+        super(maxSize);
+    }
+
+    public static Key evalKey(String code, String sourceName, boolean strict, boolean internal, Object scope) {
+        return new Key(Key.EVAL | (strict ? Key.STRICT : 0) | (internal ? Key.INTERNAL : 0), null, code, sourceName, scope);
+    }
+
+    public static Key functionKey(String paramList, String body, String sourceName, boolean generatorFunction, boolean asyncFunction) {
+        return new Key((generatorFunction ? Key.GENERATOR : 0) | (asyncFunction ? Key.ASYNC : 0), paramList, body, sourceName, null);
+    }
+
+    /**
+     * Identifies a parsed source by its code, name, and the parser flags it was parsed with. Direct
+     * eval code additionally depends on the scope of the calling code, which is compared by
+     * identity.
+     */
+    public static final class Key {
+        static final int EVAL = 1 << 0;
+        static final int STRICT = 1 << 1;
+        static final int INTERNAL = 1 << 2;
+        static final int GENERATOR = 1 << 3;
+        static final int ASYNC = 1 << 4;
+
+        private final int flags;
+        private final String paramList;
+        private final String code;
+        private final String sourceName;
+        private final Object scope;
+
+        Key(int flags, String paramList, String code, String sourceName, Object scope) {
+            this.flags = flags;
+            this.paramList = paramList;
+            this.code = code;
+            this.sourceName = sourceName;
+            this.scope = scope;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return flags == other.flags && scope == other.scope && code.equals(other.code) && Objects.equals(paramList, other.paramList) && sourceName.equals(other.sourceName);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = flags;
+            hash = 31 * hash + System.identityHashCode(scope);
+            hash = 31 * hash + Objects.hashCode(paramList);
+            hash = 31 * hash + code.hashCode();
+            hash = 31 * hash + sourceName.hashCode();
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.js.runtime.JSRuntime;
+
+/**
+ * Sorting of primitive {@code int[]} and {@code double[]} array ranges using the comparison
+ * semantics of {@code Array.prototype.sort}, without boxing the elements.
+ *
+ * All sorts are stable, as required by ES2019.
+ */
+public final class PrimitiveArraySort {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private static final long[] POWERS_OF_TEN = {
+                    1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L, 10000000000L
+    };
+
+    private PrimitiveArraySort() {
+    }
+
+    /**
+     * Sorts the given range numerically, i.e., like the comparator {@code (a, b) => a - b}.
+     */
+    public static void sortIntsNumeric(int[] array, int fromIndex, int toIndex) {
+        // equal ints are indistinguishable, so stability does not matter here
+        Arrays.sort(array, fromIndex, toIndex);
+    }
+
+    /**
+     * Sorts the given range as unsigned 32-bit integers.
+     */
+    public static void sortIntsUnsigned(int[] array, int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            array[i] ^= Integer.MIN_VALUE;
+        }
+        Arrays.sort(array, fromIndex, toIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            array[i] ^= Integer.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Sorts the given range using the default comparator of {@code Array.prototype.sort}, i.e., by
+     * comparing the decimal string representations of the elements.
+     */
+    public static void sortIntsAsStrings(int[] array, int fromIndex, int toIndex) {
+        int length = toIndex - fromIndex;
+        if (length < 2) {
+            return;
+        }
+        int[] buffer = new int[(length >>> 1) + 1];
+        mergeSortIntsAsStrings(array, fromIndex, toIndex, buffer);
+    }
+
+    private static void mergeSortIntsAsStrings(int[] array, int from, int to, int[] buffer) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int value = array[i];
+                int j = i - 1;
+                while (j >= from && compareIntsAsStrings(array[j], value) > 0) {
+                    array[j + 1] = array[j];
+                    j--;
+                }
+                array[j + 1] = value;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSortIntsAsStrings(array, from, mid, buffer);
+        mergeSortIntsAsStrings(array, mid, to, buffer);
+        if (compareIntsAsStrings(array[mid - 1], array[mid]) <= 0) {
+            return;
+        }
+        int leftLength = mid - from;
+        System.arraycopy(array, from, buffer, 0, leftLength);
+        int i = 0;
+        int j = mid;
+        int k = from;
+        while (i < leftLength && j < to) {
+            if (compareIntsAsStrings(array[j], buffer[i]) < 0) {
+                array[k++] = array[j++];
+            } else {
+                array[k++] = buffer[i++];
+            }
+        }
+        System.arraycopy(buffer, i, array, k, leftLength - i);
+    }
+
+    /**
+     * Compares two ints like {@code String.compareTo} would compare their decimal string
+     * representations, but without creating the strings.
+     */
+    public static int compareIntsAsStrings(int a, int b) {
+        if (a == b) {
+            return 0;
+        }
+        if (a < 0) {
+            if (b >= 0) {
+                // '-' sorts before all digits
+                return -1;
+            }
+            return compareDigits(-(long) a, -(long) b);
+        } else if (b < 0) {
+            return 1;
+        }
+        return compareDigits(a, b);
+    }
+
+    private static int compareDigits(long a, long b) {
+        int digitsA = digitCount(a);
+        int digitsB = digitCount(b);
+        if (digitsA == digitsB) {
+            return Long.compare(a, b);
+        } else if (digitsA < digitsB) {
+            // a is a prefix of b or differs from it in the first digitsA digits
+            return a * POWERS_OF_TEN[digitsB - digitsA] <= b ? -1 : 1;
+        } else {
+            return b * POWERS_OF_TEN[digitsA - digitsB] <= a ? 1 : -1;
+        }
+    }
+
+    private static int digitCount(long value) {
+        assert value >= 0;
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Returns true if the given range contains NaN. The comparator {@code (a, b) => a - b} does not
+     * define a consistent order for such arrays, so the result of sorting them depends on the
+     * sort algorithm and they have to be sorted like any other array.
+     */
+    public static boolean containsNaN(double[] array, int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            if (Double.isNaN(array[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sorts the given range like the comparator {@code (a, b) => a - b}. Elements that compare
+     * equal (such as {@code -0} and {@code +0}) keep their relative order.
+     */
+    public static void sortDoublesNumeric(double[] array, int fromIndex, int toIndex) {
+        int length = toIndex - fromIndex;
+        if (length < 2) {
+            return;
+        }
+        double[] buffer = new double[(length >>> 1) + 1];
+        mergeSortDoublesNumeric(array, fromIndex, toIndex, buffer);
+    }
+
+    private static void mergeSortDoublesNumeric(double[] array, int from, int to, double[] buffer) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                double value = array[i];
+                int j = i - 1;
+                while (j >= from && compareDoublesNumeric(array[j], value) > 0) {
+                    array[j + 1] = array[j];
+                    j--;
+                }
+                array[j + 1] = value;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSortDoublesNumeric(array, from, mid, buffer);
+        mergeSortDoublesNumeric(array, mid, to, buffer);
+        if (compareDoublesNumeric(array[mid - 1], array[mid]) <= 0) {
+            return;
+        }
+        int leftLength = mid - from;
+        System.arraycopy(array, from, buffer, 0, leftLength);
+        int i = 0;
+        int j = mid;
+        int k = from;
+        while (i < leftLength && j < to) {
+            if (compareDoublesNumeric(array[j], buffer[i]) < 0) {
+                array[k++] = array[j++];
+            } else {
+                array[k++] = buffer[i++];
+            }
+        }
+        System.arraycopy(buffer, i, array, k, leftLength - i);
+    }
+
+    /**
+     * Same result as calling {@code (a, b) => a - b} and normalizing the result the way
+     * {@code SortCompare} does (NaN is treated as +0).
+     */
+    private static int compareDoublesNumeric(double a, double b) {
+        double d = a - b;
+        return d < 0 ? -1 : (d > 0 ? 1 : 0);
+    }
+
+    /**
+     * Sorts the given range using the default comparator of {@code Array.prototype.sort}. The
+     * string representation of every element is computed only once instead of once per
+     * comparison.
+     */
+    public static void sortDoublesAsStrings(double[] array, int fromIndex, int toIndex) {
+        int length = toIndex - fromIndex;
+        if (length < 2) {
+            return;
+        }
+        String[] keys = new String[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = JSRuntime.doubleToString(array[fromIndex + i]);
+        }
+        double[] values = Arrays.copyOfRange(array, fromIndex, toIndex);
+        int bufferLength = (length >>> 1) + 1;
+        mergeSortKeyed(keys, values, 0, length, new String[bufferLength], new double[bufferLength]);
+        System.arraycopy(values, 0, array, fromIndex, length);
+    }
+
+    private static void mergeSortKeyed(String[] keys, double[] values, int from, int to, String[] keyBuffer, double[] valueBuffer) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                String key = keys[i];
+                double value = values[i];
+                int j = i - 1;
+                while (j >= from && keys[j].compareTo(key) > 0) {
+                    keys[j + 1] = keys[j];
+                    values[j + 1] = values[j];
+                    j--;
+                }
+                keys[j + 1] = key;
+                values[j + 1] = value;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSortKeyed(keys, values, from, mid, keyBuffer, valueBuffer);
+        mergeSortKeyed(keys, values, mid, to, keyBuffer, valueBuffer);
+        if (keys[mid - 1].compareTo(keys[mid]) <= 0) {
+            return;
+        }
+        int leftLength = mid - from;
+        System.arraycopy(keys, from, keyBuffer, 0, leftLength);
+        System.arraycopy(values, from, valueBuffer, 0, leftLength);
+        int i = 0;
+        int j = mid;
+        int k = from;
+        while (i < leftLength && j < to) {
+            if (keys[j].compareTo(keyBuffer[i]) < 0) {
+                keys[k] = keys[j];
+                values[k++] = values[j++];
+            } else {
+                keys[k] = keyBuffer[i];
+                values[k++] = valueBuffer[i++];
+            }
+        }
+        System.arraycopy(keyBuffer, i, keys, k, leftLength - i);
+        System.arraycopy(valueBuffer, i, values, k, leftLength - i);
+    }
+}
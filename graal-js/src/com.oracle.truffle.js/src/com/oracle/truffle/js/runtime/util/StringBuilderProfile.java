@@ -44,6 +44,7 @@ import com.oracle.truffle.api.nodes.NodeCloneable;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.js.runtime.Boundaries;
 import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSRuntime;
 
 /**
  * A wrapper around StringBuilder methods that takes care of profiling and checking that the string
@@ -111,6 +112,17 @@ public final class StringBuilderProfile extends NodeCloneable {
         Boundaries.builderAppend(builder, longValue);
     }
 
+    /**
+     * Appends a finite double value like {@link JSRuntime#doubleToString(double)}.
+     */
+    public void append(StringBuilder builder, double doubleValue) {
+        JSRuntime.formatDtoA(builder, doubleValue);
+        if (builder.length() > stringLengthLimit) {
+            errorBranch.enter();
+            throw Errors.createRangeErrorInvalidStringLength();
+        }
+    }
+
     public void append(StringBuilder builder, String charSequence, int start, int end) {
         assert start <= end;
         if (builder.length() + (end - start) > stringLengthLimit) {
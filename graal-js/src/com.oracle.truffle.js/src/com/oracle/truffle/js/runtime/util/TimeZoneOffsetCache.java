@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Cache of the offsets of a time zone, similar to V8's DateCache. Offsets are cached as intervals
+ * between two transitions of the zone rules, so that the offset of a time in (or close to) a
+ * recently used interval is found by a range check.
+ *
+ * Every interval also covers the range of local times that map to it. At a transition from offset
+ * {@code a} to {@code b} at time {@code t}, local times before {@code t + max(a, b)} use offset
+ * {@code a}. That is, local times in a gap or in an overlap resolve to the offset before the
+ * transition, like {@link ZoneRules#getOffset(java.time.LocalDateTime)}.
+ */
+public final class TimeZoneOffsetCache {
+
+    private static final int CACHE_SIZE = 8;
+
+    private final ZoneId zoneId;
+    private final ZoneRules rules;
+    private final Interval[] intervals = new Interval[CACHE_SIZE];
+    private int nextReplaced;
+    private Interval last;
+
+    public TimeZoneOffsetCache(ZoneId zoneId) {
+        this.zoneId = zoneId;
+        this.rules = zoneId.getRules();
+    }
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    /**
+     * Returns the offset in milliseconds of the time zone at the given UTC time.
+     */
+    public long getOffsetFromUTC(long utcTime) {
+        Interval interval = last;
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.FASTPATH_PROBABILITY, interval != null && interval.contains(utcTime))) {
+            return interval.offset;
+        }
+        return lookup(utcTime, true);
+    }
+
+    /**
+     * Returns the offset in milliseconds of the time zone at the given local time, i.e. the value
+     * that has to be subtracted to get the corresponding UTC time.
+     */
+    public long getOffsetFromLocal(long localTime) {
+        Interval interval = last;
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.FASTPATH_PROBABILITY, interval != null && interval.containsLocal(localTime))) {
+            return interval.offset;
+        }
+        return lookup(localTime, false);
+    }
+
+    @TruffleBoundary
+    private long lookup(long time, boolean isUTC) {
+        for (Interval interval : intervals) {
+            if (interval != null && (isUTC ? interval.contains(time) : interval.containsLocal(time))) {
+                last = interval;
+                return interval.offset;
+            }
+        }
+        Interval interval;
+        if (isUTC) {
+            interval = createInterval(time);
+        } else {
+            // the offset of a nearby instant is either right or off by one transition
+            interval = createInterval(time - rules.getOffset(Instant.ofEpochMilli(time)).getTotalSeconds() * 1000L);
+            while (time < interval.localStart) {
+                interval = createInterval(interval.start - 1);
+            }
+            while (time >= interval.localEnd) {
+                interval = createInterval(interval.end);
+            }
+        }
+        assert isUTC ? interval.contains(time) : interval.containsLocal(time);
+        intervals[nextReplaced] = interval;
+        nextReplaced = (nextReplaced + 1) % CACHE_SIZE;
+        last = interval;
+        return interval.offset;
+    }
+
+    private Interval createInterval(long utcTime) {
+        Instant instant = Instant.ofEpochMilli(utcTime);
+        int offset = rules.getOffset(instant).getTotalSeconds();
+        long start = Long.MIN_VALUE;
+        long localStart = Long.MIN_VALUE;
+        // transitions are at whole seconds, so an instant at a transition may have milliseconds
+        ZoneOffsetTransition previous = rules.previousTransition(instant.plusMillis(1));
+        if (previous != null) {
+            start = previous.toEpochSecond() * 1000L;
+            localStart = start + Math.max(previous.getOffsetBefore().getTotalSeconds(), offset) * 1000L;
+        }
+        long end = Long.MAX_VALUE;
+        long localEnd = Long.MAX_VALUE;
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        if (next != null) {
+            end = next.toEpochSecond() * 1000L;
+            localEnd = end + Math.max(offset, next.getOffsetAfter().getTotalSeconds()) * 1000L;
+        }
+        return new Interval(start, end, localStart, localEnd, offset * 1000L);
+    }
+
+    /**
+     * A range of UTC times {@code [start, end)} and local times {@code [localStart, localEnd)} with
+     * the same offset.
+     */
+    private static final class Interval {
+        final long start;
+        final long end;
+        final long localStart;
+        final long localEnd;
+        final long offset;
+
+        Interval(long start, long end, long localStart, long localEnd, long offset) {
+            this.start = start;
+            this.end = end;
+            this.localStart = localStart;
+            this.localEnd = localEnd;
+            this.offset = offset;
+        }
+
+        boolean contains(long utcTime) {
+            return start <= utcTime && utcTime < end;
+        }
+
+        boolean containsLocal(long localTime) {
+            return localStart <= localTime && localTime < localEnd;
+        }
+    }
+}